@@ -18,6 +18,7 @@ public class ReportSettings
     private final Newline newline;
     private final ColorScheme colorScheme;
     private final DetailsSectionDisplay detailsSectionDisplay;
+    private final int itemsPerPage;
 
     private ReportSettings(final Builder builder)
     {
@@ -27,6 +28,7 @@ public class ReportSettings
         this.newline = builder.newline;
         this.colorScheme = Objects.requireNonNull(builder.colorScheme, "colorScheme");
         this.detailsSectionDisplay = Objects.requireNonNull(builder.detailsSectionDisplay, "detailsSectionDisplay");
+        this.itemsPerPage = builder.itemsPerPage;
     }
 
     /**
@@ -89,6 +91,17 @@ public class ReportSettings
         return detailsSectionDisplay;
     }
 
+    /**
+     * Get the maximum number of specification items on a single page of
+     * reports that consist of multiple pages.
+     * 
+     * @return maximum number of items per page or {@code 0} if unlimited
+     */
+    public int getItemsPerPage()
+    {
+        return this.itemsPerPage;
+    }
+
     /**
      * Create default report settings
      * 
@@ -120,6 +133,7 @@ public class ReportSettings
         private boolean showOrigin = false;
         private ReportVerbosity verbosity = ReportVerbosity.FAILURE_DETAILS;
         private ColorScheme colorScheme = ColorScheme.BLACK_AND_WHITE;
+        private int itemsPerPage = 0;
 
         private Builder()
         {
@@ -218,5 +232,26 @@ public class ReportSettings
             this.detailsSectionDisplay = Objects.requireNonNull(detailsSectionDisplay, "detailsSectionDisplay");
             return this;
         }
+
+        /**
+         * Set the maximum number of specification items on a single page of
+         * reports that consist of multiple pages. Default: {@code 0}
+         * (unlimited).
+         *
+         * @param itemsPerPage
+         *            maximum number of items per page or {@code 0} for no
+         *            limit
+         * @return {@code this} for fluent programming
+         */
+        public Builder itemsPerPage(final int itemsPerPage)
+        {
+            if (itemsPerPage < 0)
+            {
+                throw new IllegalArgumentException(
+                        "Items per page must not be negative, but was " + itemsPerPage + ".");
+            }
+            this.itemsPerPage = itemsPerPage;
+            return this;
+        }
     }
 }
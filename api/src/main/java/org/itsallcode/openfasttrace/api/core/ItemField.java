@@ -0,0 +1,46 @@
+package org.itsallcode.openfasttrace.api.core;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fields of a specification item that are not needed for linking and tracing.
+ * <p>
+ * Reporters and exporters declare which of these fields they read, so that
+ * importers can skip the others. ID, status, location, forwarding and all
+ * fields describing coverage are always imported.
+ * </p>
+ */
+public enum ItemField
+{
+    /** Title of the item */
+    TITLE,
+    /** Description of the item */
+    DESCRIPTION,
+    /** Rationale of the item */
+    RATIONALE,
+    /** Comment of the item */
+    COMMENT,
+    /** Tags of the item */
+    TAGS;
+
+    /**
+     * Get a new set containing all fields.
+     *
+     * @return all fields
+     */
+    public static Set<ItemField> all()
+    {
+        return EnumSet.allOf(ItemField.class);
+    }
+
+    /**
+     * Get a new empty set of fields.
+     *
+     * @return no fields
+     */
+    public static Set<ItemField> none()
+    {
+        return EnumSet.noneOf(ItemField.class);
+    }
+}
@@ -0,0 +1,104 @@
+package org.itsallcode.openfasttrace.api.core;
+
+/**
+ * Text element of a specification item, e.g. its description, rationale or
+ * comment.
+ * <p>
+ * The text is either kept in memory or in an {@link ItemTextStore}. Stored
+ * text is only decoded when requested, so that items whose text is never read
+ * do not occupy heap space for it. Two texts are equal if they have the same
+ * content, no matter where they are kept.
+ * </p>
+ */
+public final class ItemText
+{
+    private static final ItemText EMPTY = new ItemText("", null, 0, 0);
+
+    private final String text;
+    private final ItemTextStore store;
+    private final long offset;
+    private final int length;
+
+    private ItemText(final String text, final ItemTextStore store, final long offset,
+            final int length)
+    {
+        this.text = text;
+        this.store = store;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Create a text kept in memory.
+     *
+     * @param text
+     *            the text
+     * @return the item text
+     */
+    public static ItemText of(final String text)
+    {
+        return text.isEmpty() ? EMPTY : new ItemText(text, null, 0, 0);
+    }
+
+    /**
+     * Create a text kept in an {@link ItemTextStore}.
+     *
+     * @param store
+     *            store containing the text
+     * @param offset
+     *            offset of the encoded text in the store
+     * @param length
+     *            length of the encoded text in bytes
+     * @return the item text
+     */
+    static ItemText stored(final ItemTextStore store, final long offset, final int length)
+    {
+        return (length == 0) ? EMPTY : new ItemText(null, store, offset, length);
+    }
+
+    /**
+     * Get the text, decoding it if it is kept in a store.
+     *
+     * @return the text
+     */
+    public String getText()
+    {
+        return (this.text != null) ? this.text : this.store.read(this.offset, this.length);
+    }
+
+    /**
+     * Check if the text is empty without decoding it.
+     *
+     * @return {@code true} if the text is empty
+     */
+    public boolean isEmpty()
+    {
+        return (this.text != null) ? this.text.isEmpty() : (this.length == 0);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return getText().hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj)
+    {
+        if (this == obj)
+        {
+            return true;
+        }
+        if (!(obj instanceof ItemText))
+        {
+            return false;
+        }
+        return getText().equals(((ItemText) obj).getText());
+    }
+
+    @Override
+    public String toString()
+    {
+        return getText();
+    }
+}
@@ -0,0 +1,179 @@
+package org.itsallcode.openfasttrace.api.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Append-only store for the text of specification items backed by a
+ * memory-mapped temporary file.
+ * <p>
+ * Storing a text writes its UTF-8 encoding to the file and returns an
+ * {@link ItemText} that only remembers offset and length. The text is decoded
+ * when it is read, so that large amounts of item text occupy pages managed by
+ * the operating system instead of the heap.
+ * </p>
+ * <p>
+ * The file is mapped in segments of fixed size. Texts may span segments.
+ * Storing texts is synchronized, reading is possible from any thread. Closing
+ * the store deletes the file. Texts stored before remain readable, because the
+ * mapped segments stay valid until they are garbage collected.
+ * </p>
+ */
+public final class ItemTextStore implements Closeable
+{
+    private static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final int segmentSize;
+    private final List<MappedByteBuffer> segments = new CopyOnWriteArrayList<>();
+    private long size = 0;
+
+    private ItemTextStore(final FileChannel channel, final int segmentSize)
+    {
+        this.channel = channel;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Create a store backed by a new temporary file.
+     *
+     * @return the new store
+     * @throws UncheckedIOException
+     *             if the temporary file can't be created
+     */
+    public static ItemTextStore createTemporary()
+    {
+        return createTemporary(DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Create a store backed by a new temporary file mapped in segments of the
+     * given size.
+     * <p>
+     * This method is package-private for testing.
+     * </p>
+     *
+     * @param segmentSize
+     *            size of the mapped segments in bytes
+     * @return the new store
+     */
+    static ItemTextStore createTemporary(final int segmentSize)
+    {
+        try
+        {
+            final Path file = Files.createTempFile("oft-item-text", ".tmp");
+            return new ItemTextStore(FileChannel.open(file, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE), segmentSize);
+        }
+        catch (final IOException exception)
+        {
+            throw new UncheckedIOException(
+                    "Failed to create item text store: " + exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Store a text.
+     *
+     * @param text
+     *            the text to be stored
+     * @return an item text referring to the stored text
+     * @throws UncheckedIOException
+     *             if the file can't be extended
+     */
+    public synchronized ItemText store(final String text)
+    {
+        if (text.isEmpty())
+        {
+            return ItemText.of(text);
+        }
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        final long offset = this.size;
+        int written = 0;
+        while (written < bytes.length)
+        {
+            final long position = offset + written;
+            final int segmentIndex = (int) (position / this.segmentSize);
+            if (segmentIndex == this.segments.size())
+            {
+                this.segments.add(mapSegment(segmentIndex));
+            }
+            final int segmentOffset = (int) (position % this.segmentSize);
+            final int count = Math.min(bytes.length - written, this.segmentSize - segmentOffset);
+            this.segments.get(segmentIndex).put(segmentOffset, bytes, written, count);
+            written += count;
+        }
+        this.size += bytes.length;
+        return ItemText.stored(this, offset, bytes.length);
+    }
+
+    private MappedByteBuffer mapSegment(final int segmentIndex)
+    {
+        try
+        {
+            return this.channel.map(FileChannel.MapMode.READ_WRITE,
+                    (long) segmentIndex * this.segmentSize, this.segmentSize);
+        }
+        catch (final IOException exception)
+        {
+            throw new UncheckedIOException(
+                    "Failed to extend item text store: " + exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Read and decode a stored text.
+     *
+     * @param offset
+     *            offset of the encoded text
+     * @param length
+     *            length of the encoded text in bytes
+     * @return the decoded text
+     */
+    String read(final long offset, final int length)
+    {
+        final byte[] bytes = new byte[length];
+        int read = 0;
+        while (read < length)
+        {
+            final long position = offset + read;
+            final int segmentOffset = (int) (position % this.segmentSize);
+            final int count = Math.min(length - read, this.segmentSize - segmentOffset);
+            this.segments.get((int) (position / this.segmentSize)).get(segmentOffset, bytes, read,
+                    count);
+            read += count;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the number of bytes stored so far.
+     *
+     * @return number of stored bytes
+     */
+    public synchronized long getSize()
+    {
+        return this.size;
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            this.channel.close();
+        }
+        catch (final IOException exception)
+        {
+            throw new UncheckedIOException(
+                    "Failed to close item text store: " + exception.getMessage(), exception);
+        }
+    }
+}
@@ -157,6 +157,55 @@ public class LinkedSpecificationItem
         }
     }
 
+    /**
+     * Remove a link to another item with a status.
+     * <p>
+     * This is the inverse of
+     * {@link #addLinkToItemWithStatus(LinkedSpecificationItem, LinkStatus)}
+     * except that IDs added to the covered IDs of the other item are kept.
+     * Removing a link that does not exist has no effect.
+     * </p>
+     *
+     * @param item
+     *            the item to which the link points
+     * @param status
+     *            the link status
+     */
+    public void removeLinkToItemWithStatus(final LinkedSpecificationItem item,
+            final LinkStatus status)
+    {
+        final List<LinkedSpecificationItem> linksWithStatus = this.links.get(status);
+        if ((linksWithStatus != null) && linksWithStatus.remove(item))
+        {
+            if (linksWithStatus.isEmpty())
+            {
+                this.links.remove(status);
+            }
+            if ((status == LinkStatus.COVERED_SHALLOW) || (status == LinkStatus.COVERED_UNWANTED))
+            {
+                recalculateCoveredArtifactTypes();
+            }
+        }
+    }
+
+    private void recalculateCoveredArtifactTypes()
+    {
+        this.coveredArtifactTypes.clear();
+        this.coveredArtifactTypesFromApprovedItems.clear();
+        this.overCoveredArtifactTypes.clear();
+        for (final LinkedSpecificationItem coveringItem : getLinksByStatus(
+                LinkStatus.COVERED_SHALLOW))
+        {
+            cacheApprovedCoveredArtifactType(coveringItem);
+            this.coveredArtifactTypes.add(coveringItem.getArtifactType());
+        }
+        for (final LinkedSpecificationItem overcoveringItem : getLinksByStatus(
+                LinkStatus.COVERED_UNWANTED))
+        {
+            cacheOverCoveredArtifactType(overcoveringItem);
+        }
+    }
+
     private void addMyItemIdToCoveringItem(final LinkedSpecificationItem coveringItem)
     {
         if (coveringItem.getItem().getCoveredIds() != null
@@ -71,4 +71,42 @@ public enum Newline
     {
         return ANY_NEWLINE_PATTERN;
     }
+
+    /**
+     * Replace every kind of newline in the given text with this newline.
+     * <p>
+     * The result is the same as replacing all matches of
+     * {@link #anyNewlinePattern()}, but the text is scanned only once and
+     * returned unchanged if it already uses this newline only.
+     * </p>
+     * 
+     * @param text
+     *            the text to normalize
+     * @return the text with unified newlines
+     */
+    public String normalize(final String text)
+    {
+        StringBuilder builder = null;
+        int copied = 0;
+        for (int i = 0; i < text.length(); ++i)
+        {
+            final char character = text.charAt(i);
+            if ((character == '\r') || (character == '\n'))
+            {
+                final int end = ((character == '\r') && (i + 1 < text.length())
+                        && (text.charAt(i + 1) == '\n')) ? (i + 2) : (i + 1);
+                if (!this.representation.contentEquals(text.subSequence(i, end)))
+                {
+                    if (builder == null)
+                    {
+                        builder = new StringBuilder(text.length() + 16);
+                    }
+                    builder.append(text, copied, i).append(this.representation);
+                    copied = end;
+                }
+                i = end - 1;
+            }
+        }
+        return (builder == null) ? text : builder.append(text, copied, text.length()).toString();
+    }
 }
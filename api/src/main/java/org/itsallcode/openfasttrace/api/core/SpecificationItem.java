@@ -11,9 +11,9 @@ public class SpecificationItem
 {
     private final SpecificationItemId id;
     private final String title;
-    private final String description;
-    private final String rationale;
-    private final String comment;
+    private final ItemText description;
+    private final ItemText rationale;
+    private final ItemText comment;
     private final Location location;
     private final ItemStatus status;
     private final List<SpecificationItemId> coveredIds;
@@ -101,7 +101,7 @@ public class SpecificationItem
      */
     public String getDescription()
     {
-        return this.description;
+        return (this.description == null) ? null : this.description.getText();
     }
 
     /**
@@ -111,7 +111,7 @@ public class SpecificationItem
      */
     public String getRationale()
     {
-        return this.rationale;
+        return (this.rationale == null) ? null : this.rationale.getText();
     }
 
     /**
@@ -120,6 +120,37 @@ public class SpecificationItem
      * @return comment
      */
     public String getComment()
+    {
+        return (this.comment == null) ? null : this.comment.getText();
+    }
+
+    /**
+     * Get the description without decoding text kept in an
+     * {@link ItemTextStore}
+     *
+     * @return description
+     */
+    public ItemText getDescriptionText()
+    {
+        return this.description;
+    }
+
+    /**
+     * Get the rationale without decoding text kept in an {@link ItemTextStore}
+     *
+     * @return rationale
+     */
+    public ItemText getRationaleText()
+    {
+        return this.rationale;
+    }
+
+    /**
+     * Get the comment without decoding text kept in an {@link ItemTextStore}
+     *
+     * @return comment
+     */
+    public ItemText getCommentText()
     {
         return this.comment;
     }
@@ -394,9 +425,9 @@ public class SpecificationItem
     {
         private SpecificationItemId id;
         private String title;
-        private String description;
-        private String rationale;
-        private String comment;
+        private ItemText description;
+        private ItemText rationale;
+        private ItemText comment;
         private ItemStatus status;
         private Location location;
         private final List<SpecificationItemId> coveredIds;
@@ -412,9 +443,9 @@ public class SpecificationItem
         {
             this.id = null;
             this.title = "";
-            this.description = "";
-            this.rationale = "";
-            this.comment = "";
+            this.description = ItemText.of("");
+            this.rationale = ItemText.of("");
+            this.comment = ItemText.of("");
             this.location = null;
             this.status = ItemStatus.APPROVED;
             this.coveredIds = new ArrayList<>();
@@ -476,6 +507,19 @@ public class SpecificationItem
          * @return this builder instance
          */
         public Builder description(final String description)
+        {
+            this.description = (description == null) ? null : ItemText.of(description);
+            return this;
+        }
+
+        /**
+         * Set the description kept in memory or in an {@link ItemTextStore}
+         *
+         * @param description
+         *            the description
+         * @return this builder instance
+         */
+        public Builder description(final ItemText description)
         {
             this.description = description;
             return this;
@@ -489,6 +533,19 @@ public class SpecificationItem
          * @return this builder instance
          */
         public Builder rationale(final String rationale)
+        {
+            this.rationale = (rationale == null) ? null : ItemText.of(rationale);
+            return this;
+        }
+
+        /**
+         * Set the rationale kept in memory or in an {@link ItemTextStore}
+         *
+         * @param rationale
+         *            the rationale
+         * @return this builder instance
+         */
+        public Builder rationale(final ItemText rationale)
         {
             this.rationale = rationale;
             return this;
@@ -502,6 +559,19 @@ public class SpecificationItem
          * @return this builder instance
          */
         public Builder comment(final String comment)
+        {
+            this.comment = (comment == null) ? null : ItemText.of(comment);
+            return this;
+        }
+
+        /**
+         * Set the comment kept in memory or in an {@link ItemTextStore}
+         *
+         * @param comment
+         *            the comment
+         * @return this builder instance
+         */
+        public Builder comment(final ItemText comment)
         {
             this.comment = comment;
             return this;
@@ -1,21 +1,44 @@
 package org.itsallcode.openfasttrace.api.core;
 
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * The result of tracing requirements.
+ * <p>
+ * If the defect items are not given when building the trace, they are
+ * determined lazily on first access. {@link #hasNoDefects()} then stops at the
+ * first defect item, so that checking the overall result does not need to
+ * evaluate the deep coverage of all items.
+ * </p>
+ * <p>
+ * The trace also offers sorted and grouped views of the items. Each view is
+ * computed once on first access and shared by all callers, so that reporters
+ * neither sort the items again nor modify the list returned by
+ * {@link #getItems()}. The views are unmodifiable.
+ * </p>
  */
 public class Trace
 {
+    private static final Comparator<LinkedSpecificationItem> BY_ID = Comparator
+            .comparing(LinkedSpecificationItem::getId);
+
     private final List<LinkedSpecificationItem> items;
-    private final List<LinkedSpecificationItem> defectItems;
+    // All following fields are computed lazily. Concurrent callers may
+    // compute them more than once, but always with the same result.
+    private volatile List<LinkedSpecificationItem> defectItems;
+    private volatile Boolean noDefects;
+    private volatile List<LinkedSpecificationItem> itemsSortedById;
+    private volatile List<LinkedSpecificationItem> defectItemsSortedById;
+    private volatile List<LinkedSpecificationItem> itemsSortedByTypeAndTitle;
+    private volatile Map<String, List<LinkedSpecificationItem>> itemsByArtifactType;
 
     private Trace(final List<LinkedSpecificationItem> items,
             final List<LinkedSpecificationItem> uncleanItems)
     {
         this.items = items;
-        this.defectItems = uncleanItems;
+        this.defectItems = (uncleanItems == null) ? null
+                : Collections.unmodifiableList(uncleanItems);
     }
 
     /**
@@ -26,21 +49,48 @@ public class Trace
      */
     public boolean hasNoDefects()
     {
-        return this.defectItems.isEmpty();
+        final List<LinkedSpecificationItem> knownDefectItems = this.defectItems;
+        if (knownDefectItems != null)
+        {
+            return knownDefectItems.isEmpty();
+        }
+        Boolean result = this.noDefects;
+        if (result == null)
+        {
+            result = this.items.stream().noneMatch(LinkedSpecificationItem::isDefect);
+            this.noDefects = result;
+            if (result)
+            {
+                this.defectItems = Collections.emptyList();
+            }
+        }
+        return result;
     }
 
     /**
      * Get all defect items.
      * 
-     * @return all defect items found during tracing.
+     * @return unmodifiable list of all defect items found during tracing.
      */
     public List<LinkedSpecificationItem> getDefectItems()
     {
-        return this.defectItems;
+        List<LinkedSpecificationItem> result = this.defectItems;
+        if (result == null)
+        {
+            result = this.items.stream() //
+                    .filter(LinkedSpecificationItem::isDefect) //
+                    .toList();
+            this.defectItems = result;
+        }
+        return result;
     }
 
     /**
      * Get all items.
+     * <p>
+     * The list is shared by all users of the trace and must not be modified.
+     * Use the sorted views instead of sorting it.
+     * </p>
      * 
      * @return all items found during tracing.
      */
@@ -49,6 +99,112 @@ public class Trace
         return this.items;
     }
 
+    /**
+     * Get all items sorted by their ID.
+     * 
+     * @return unmodifiable list of all items sorted by ID.
+     */
+    public List<LinkedSpecificationItem> getItemsSortedById()
+    {
+        List<LinkedSpecificationItem> result = this.itemsSortedById;
+        if (result == null)
+        {
+            result = sort(getItems(), BY_ID);
+            this.itemsSortedById = result;
+        }
+        return result;
+    }
+
+    /**
+     * Get all defect items sorted by their ID.
+     * 
+     * @return unmodifiable list of the defect items sorted by ID.
+     */
+    public List<LinkedSpecificationItem> getDefectItemsSortedById()
+    {
+        List<LinkedSpecificationItem> result = this.defectItemsSortedById;
+        if (result == null)
+        {
+            result = sort(getDefectItems(), BY_ID);
+            this.defectItemsSortedById = result;
+        }
+        return result;
+    }
+
+    /**
+     * Get all items sorted by artifact type and then by title. Items without
+     * title are sorted by the fallback described in
+     * {@link LinkedSpecificationItem#getTitleWithFallback()}. Items that are
+     * equal in both keys keep the order of {@link #getItems()}.
+     * 
+     * @return unmodifiable list of all items sorted by artifact type and title.
+     */
+    public List<LinkedSpecificationItem> getItemsSortedByTypeAndTitle()
+    {
+        List<LinkedSpecificationItem> result = this.itemsSortedByTypeAndTitle;
+        if (result == null)
+        {
+            result = sortByTypeAndTitle(getItems());
+            this.itemsSortedByTypeAndTitle = result;
+        }
+        return result;
+    }
+
+    /**
+     * Get all items grouped by artifact type. Both the artifact types and the
+     * items of each artifact type are in the order of {@link #getItems()}.
+     * 
+     * @return unmodifiable map from the artifact type to unmodifiable lists of
+     *         the items of that type.
+     */
+    public Map<String, List<LinkedSpecificationItem>> getItemsByArtifactType()
+    {
+        Map<String, List<LinkedSpecificationItem>> result = this.itemsByArtifactType;
+        if (result == null)
+        {
+            result = groupByArtifactType(getItems());
+            this.itemsByArtifactType = result;
+        }
+        return result;
+    }
+
+    private static List<LinkedSpecificationItem> sort(final List<LinkedSpecificationItem> items,
+            final Comparator<LinkedSpecificationItem> comparator)
+    {
+        final LinkedSpecificationItem[] sorted = items.toArray(new LinkedSpecificationItem[0]);
+        Arrays.parallelSort(sorted, comparator);
+        return Collections.unmodifiableList(Arrays.asList(sorted));
+    }
+
+    // The title with fallback is determined once per item instead of once per
+    // comparison.
+    private static List<LinkedSpecificationItem> sortByTypeAndTitle(
+            final List<LinkedSpecificationItem> items)
+    {
+        final TypeAndTitleKey[] keys = items.parallelStream() //
+                .map(TypeAndTitleKey::new) //
+                .toArray(TypeAndTitleKey[]::new);
+        Arrays.parallelSort(keys);
+        final List<LinkedSpecificationItem> sorted = new ArrayList<>(keys.length);
+        for (final TypeAndTitleKey key : keys)
+        {
+            sorted.add(key.item);
+        }
+        return Collections.unmodifiableList(sorted);
+    }
+
+    private static Map<String, List<LinkedSpecificationItem>> groupByArtifactType(
+            final List<LinkedSpecificationItem> items)
+    {
+        final Map<String, List<LinkedSpecificationItem>> groups = new LinkedHashMap<>();
+        for (final LinkedSpecificationItem item : items)
+        {
+            groups.computeIfAbsent(item.getArtifactType(), key -> new ArrayList<>()).add(item);
+        }
+        groups.replaceAll((artifactType, group) -> Collections.unmodifiableList(group));
+        return Collections.unmodifiableMap(groups);
+    }
+
     /**
      * Get IDs of the defect items.
      * 
@@ -56,7 +212,7 @@ public class Trace
      */
     public List<SpecificationItemId> getDefectIds()
     {
-        return this.defectItems.stream()
+        return getDefectItems().stream()
                 .map(LinkedSpecificationItem::getId)
                 .collect(Collectors.toList());
     }
@@ -68,7 +224,7 @@ public class Trace
      */
     public int countDefects()
     {
-        return this.defectItems.size();
+        return getDefectItems().size();
     }
 
     /**
@@ -118,7 +274,8 @@ public class Trace
         }
 
         /**
-         * Set the defect items.
+         * Set the defect items. If not set, the trace determines the defect
+         * items lazily.
          * 
          * @param defectItems
          *            the defect items.
@@ -140,4 +297,25 @@ public class Trace
             return new Trace(this.items, this.defectItems);
         }
     }
-}
\ No newline at end of file
+
+    private static final class TypeAndTitleKey implements Comparable<TypeAndTitleKey>
+    {
+        private final LinkedSpecificationItem item;
+        private final String artifactType;
+        private final String title;
+
+        private TypeAndTitleKey(final LinkedSpecificationItem item)
+        {
+            this.item = item;
+            this.artifactType = item.getArtifactType();
+            this.title = item.getTitleWithFallback();
+        }
+
+        @Override
+        public int compareTo(final TypeAndTitleKey other)
+        {
+            final int compared = this.artifactType.compareTo(other.artifactType);
+            return (compared != 0) ? compared : this.title.compareTo(other.title);
+        }
+    }
+}
@@ -1,19 +1,41 @@
 package org.itsallcode.openfasttrace.api.exporter;
 
-import org.itsallcode.openfasttrace.api.core.serviceloader.Initializable;
-
 /**
- * Context for {@link ExporterFactory}. Currently only used to satisfy
- * {@link Initializable} interface.
+ * Common context shared by all {@link ExporterFactory}s. This allows exporters
+ * to access common settings, e.g. the {@link ShardSettings}.
  */
-// Class is empty by intention
-@SuppressWarnings("squid:S2094")
 public class ExporterContext
 {
+    private final ShardSettings shardSettings;
+
+    /**
+     * Creates a new {@link ExporterContext} instance for exports without
+     * shards.
+     */
+    public ExporterContext()
+    {
+        this(ShardSettings.none());
+    }
+
+    /**
+     * Creates a new {@link ExporterContext} instance with the given
+     * {@link ShardSettings}.
+     *
+     * @param shardSettings
+     *            settings for splitting the export into shards
+     */
+    public ExporterContext(final ShardSettings shardSettings)
+    {
+        this.shardSettings = shardSettings;
+    }
+
     /**
-     * Creates a new {@link ExporterContext} instance.
+     * Get the settings for splitting the export into shards.
+     *
+     * @return shard settings
      */
-    public ExporterContext() {
-        // Empty by intention
+    public ShardSettings getShardSettings()
+    {
+        return this.shardSettings;
     }
 }
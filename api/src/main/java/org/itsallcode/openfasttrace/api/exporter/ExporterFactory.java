@@ -3,9 +3,11 @@ import java.io.*;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Set;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
 
+import org.itsallcode.openfasttrace.api.core.ItemField;
 import org.itsallcode.openfasttrace.api.core.Newline;
 import org.itsallcode.openfasttrace.api.core.SpecificationItem;
 import org.itsallcode.openfasttrace.api.core.serviceloader.Initializable;
@@ -50,6 +52,21 @@ public abstract class ExporterFactory implements Initializable<ExporterContext>
         return this.context;
     }
 
+    /**
+     * Get the optional item fields that the exporters created by this factory
+     * write.
+     * <p>
+     * Importers may skip all other optional fields. The default
+     * implementation requires all fields.
+     * </p>
+     * 
+     * @return the required item fields.
+     */
+    public Set<ItemField> getRequiredItemFields()
+    {
+        return ItemField.all();
+    }
+
     /**
      * Returns {@code true} if this {@link ExporterFactory} supports
      * exporting the given output format.
@@ -0,0 +1,156 @@
+package org.itsallcode.openfasttrace.api.exporter;
+
+/**
+ * Settings for splitting an export into several files (shards) that are
+ * written in parallel.
+ * <p>
+ * A sharded export writes its files into the output directory instead of a
+ * single output file. Shards can either contain all items of one artifact
+ * type or a fixed number of items each. Optionally a manifest listing all
+ * shards is written next to them.
+ * </p>
+ */
+public final class ShardSettings
+{
+    private static final ShardSettings NONE = builder().build();
+
+    private final boolean byArtifactType;
+    private final int itemsPerShard;
+    private final boolean manifest;
+
+    private ShardSettings(final Builder builder)
+    {
+        this.byArtifactType = builder.byArtifactType;
+        this.itemsPerShard = builder.itemsPerShard;
+        this.manifest = builder.manifest;
+    }
+
+    /**
+     * Check if the export is split into shards at all.
+     *
+     * @return {@code true} if the export is sharded
+     */
+    public boolean isSharded()
+    {
+        return this.byArtifactType || this.itemsPerShard > 0;
+    }
+
+    /**
+     * Check if each shard contains the items of one artifact type.
+     *
+     * @return {@code true} if the export is sharded by artifact type
+     */
+    public boolean isByArtifactType()
+    {
+        return this.byArtifactType;
+    }
+
+    /**
+     * Get the maximum number of items in each shard.
+     *
+     * @return number of items per shard or {@code 0} if shards are not limited
+     *         by item count
+     */
+    public int getItemsPerShard()
+    {
+        return this.itemsPerShard;
+    }
+
+    /**
+     * Check if a manifest listing the shards is written.
+     *
+     * @return {@code true} if a manifest is written
+     */
+    public boolean hasManifest()
+    {
+        return this.manifest;
+    }
+
+    /**
+     * Get settings for an export without shards.
+     *
+     * @return settings without sharding
+     */
+    public static ShardSettings none()
+    {
+        return NONE;
+    }
+
+    /**
+     * Create a builder for {@link ShardSettings}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link ShardSettings}.
+     */
+    public static final class Builder
+    {
+        private boolean byArtifactType = false;
+        private int itemsPerShard = 0;
+        private boolean manifest = false;
+
+        private Builder()
+        {
+        }
+
+        /**
+         * Write one shard per artifact type.
+         *
+         * @return {@code this} for fluent programming
+         */
+        public Builder byArtifactType()
+        {
+            this.byArtifactType = true;
+            this.itemsPerShard = 0;
+            return this;
+        }
+
+        /**
+         * Write shards containing at most the given number of items.
+         *
+         * @param itemsPerShard
+         *            maximum number of items per shard, must be positive
+         * @return {@code this} for fluent programming
+         */
+        public Builder byItemCount(final int itemsPerShard)
+        {
+            if (itemsPerShard <= 0)
+            {
+                throw new IllegalArgumentException(
+                        "Items per shard must be positive but was " + itemsPerShard);
+            }
+            this.itemsPerShard = itemsPerShard;
+            this.byArtifactType = false;
+            return this;
+        }
+
+        /**
+         * Write a manifest listing the shards.
+         *
+         * @param manifest
+         *            {@code true} to write a manifest
+         * @return {@code this} for fluent programming
+         */
+        public Builder manifest(final boolean manifest)
+        {
+            this.manifest = manifest;
+            return this;
+        }
+
+        /**
+         * Create new {@link ShardSettings}.
+         *
+         * @return new instance
+         */
+        public ShardSettings build()
+        {
+            return new ShardSettings(this);
+        }
+    }
+}
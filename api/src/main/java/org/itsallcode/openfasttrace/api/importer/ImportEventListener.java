@@ -132,4 +132,17 @@ public interface ImportEventListener
      *            coverage
      */
     void setForwards(boolean forwards);
+
+    /**
+     * Check if the listener needs the given optional item field. Importers
+     * may skip reading fields that are not required.
+     * 
+     * @param field
+     *            the optional item field
+     * @return {@code true} if the field is required
+     */
+    default boolean isFieldRequired(final ItemField field)
+    {
+        return true;
+    }
 }
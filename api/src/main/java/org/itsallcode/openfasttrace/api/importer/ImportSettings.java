@@ -1,10 +1,11 @@
 package org.itsallcode.openfasttrace.api.importer;
 
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 import org.itsallcode.openfasttrace.api.FilterSettings;
+import org.itsallcode.openfasttrace.api.core.ItemField;
+import org.itsallcode.openfasttrace.api.core.ItemTextStore;
 import org.itsallcode.openfasttrace.api.importer.tag.config.PathConfig;
 
 /**
@@ -15,12 +16,16 @@ public class ImportSettings
     private final List<Path> inputs;
     private final FilterSettings filter;
     private final List<PathConfig> pathConfigs;
+    private final ItemTextStore textStore;
+    private final Set<ItemField> requiredFields;
 
     private ImportSettings(final Builder builder)
     {
         this.inputs = builder.inputs;
         this.filter = builder.filter;
         this.pathConfigs = builder.pathConfigs;
+        this.textStore = builder.textStore;
+        this.requiredFields = builder.requiredFields;
     }
 
     /**
@@ -54,6 +59,29 @@ public class ImportSettings
         return this.pathConfigs;
     }
 
+    /**
+     * Get the store keeping descriptions, rationales and comments of the
+     * imported items outside the heap.
+     * 
+     * @return the item text store or an empty {@link Optional} if item text is
+     *         kept in memory
+     */
+    public Optional<ItemTextStore> getTextStore()
+    {
+        return Optional.ofNullable(this.textStore);
+    }
+
+    /**
+     * Get the optional item fields that need to be imported. Importers may
+     * skip all other optional fields.
+     * 
+     * @return required item fields
+     */
+    public Set<ItemField> getRequiredFields()
+    {
+        return this.requiredFields;
+    }
+
     /**
      * Create a the default import settings
      * 
@@ -82,6 +110,8 @@ public class ImportSettings
         private final List<Path> inputs = new ArrayList<>();
         private FilterSettings filter = FilterSettings.createAllowingEverything();
         private List<PathConfig> pathConfigs = new ArrayList<>();
+        private ItemTextStore textStore = null;
+        private Set<ItemField> requiredFields = ItemField.all();
 
         private Builder()
         {
@@ -142,6 +172,35 @@ public class ImportSettings
             return this;
         }
 
+        /**
+         * Keep descriptions, rationales and comments of the imported items in
+         * the given store instead of the heap
+         * 
+         * @param textStore
+         *            store for the item text
+         * @return <code>this</code> for fluent programming
+         */
+        public Builder textStore(final ItemTextStore textStore)
+        {
+            this.textStore = textStore;
+            return this;
+        }
+
+        /**
+         * Set the optional item fields that need to be imported, e.g. because
+         * a report reads them. Defaults to all fields.
+         * 
+         * @param requiredFields
+         *            required item fields
+         * @return <code>this</code> for fluent programming
+         */
+        public Builder requiredFields(final Set<ItemField> requiredFields)
+        {
+            this.requiredFields = requiredFields.isEmpty() ? ItemField.none()
+                    : EnumSet.copyOf(requiredFields);
+            return this;
+        }
+
         /**
          * Create a new instance of {@link ImportSettings}
          * 
@@ -13,6 +13,9 @@ import org.itsallcode.openfasttrace.api.core.*;
 public class SpecificationListBuilder implements ImportEventListener
 {
     private final FilterSettings filterSettings;
+    private final ItemTextStore textStore;
+    private final Set<ItemField> requiredFields;
+    private final StringPool stringPool;
     private final List<SpecificationItem> items = new LinkedList<>();
     private SpecificationItem.Builder itemBuilder = null;
     private SpecificationItemId id = null;
@@ -21,9 +24,20 @@ public class SpecificationListBuilder implements ImportEventListener
     private StringBuilder comment = new StringBuilder();
     private Location location;
 
-    private SpecificationListBuilder(final FilterSettings filterSettings)
+    private SpecificationListBuilder(final FilterSettings filterSettings,
+            final ItemTextStore textStore, final Set<ItemField> requiredFields,
+            final StringPool stringPool)
     {
         this.filterSettings = filterSettings;
+        this.textStore = textStore;
+        this.stringPool = stringPool;
+        this.requiredFields = requiredFields.isEmpty() ? ItemField.none()
+                : EnumSet.copyOf(requiredFields);
+        if (filterSettings.isTagCriteriaSet())
+        {
+            // Tags are needed for filtering.
+            this.requiredFields.add(ItemField.TAGS);
+        }
     }
 
     /**
@@ -33,7 +47,8 @@ public class SpecificationListBuilder implements ImportEventListener
      */
     public static SpecificationListBuilder create()
     {
-        return new SpecificationListBuilder(FilterSettings.builder().build());
+        return new SpecificationListBuilder(FilterSettings.builder().build(), null,
+                ItemField.all(), new StringPool());
     }
 
     /**
@@ -46,7 +61,60 @@ public class SpecificationListBuilder implements ImportEventListener
      */
     public static SpecificationListBuilder createWithFilter(final FilterSettings filterSettings)
     {
-        return new SpecificationListBuilder(filterSettings);
+        return new SpecificationListBuilder(filterSettings, null, ItemField.all(),
+                new StringPool());
+    }
+
+    /**
+     * Creates a new {@link SpecificationListBuilder} with the given
+     * {@link FilterSettings} that keeps descriptions, rationales and comments
+     * of the items in the given {@link ItemTextStore}.
+     * 
+     * @param filterSettings
+     *            the filter settings for the new builder.
+     * @param textStore
+     *            the store for the item text.
+     * @return a new {@link SpecificationListBuilder}.
+     */
+    public static SpecificationListBuilder createWithTextStore(
+            final FilterSettings filterSettings, final ItemTextStore textStore)
+    {
+        return new SpecificationListBuilder(filterSettings, textStore, ItemField.all(),
+                new StringPool());
+    }
+
+    /**
+     * Creates a new {@link SpecificationListBuilder} using the filters, the
+     * item text store and the required item fields of the given
+     * {@link ImportSettings}. Optional item fields that are not required are
+     * ignored.
+     * 
+     * @param settings
+     *            the import settings.
+     * @return a new {@link SpecificationListBuilder}.
+     */
+    public static SpecificationListBuilder create(final ImportSettings settings)
+    {
+        return create(settings, new StringPool());
+    }
+
+    /**
+     * Creates a new {@link SpecificationListBuilder} like
+     * {@link #create(ImportSettings)} that replaces paths, tags and artifact
+     * types with their instances from the given {@link StringPool}.
+     * Builders sharing a pool also share these strings.
+     * 
+     * @param settings
+     *            the import settings.
+     * @param stringPool
+     *            the pool for repeated strings.
+     * @return a new {@link SpecificationListBuilder}.
+     */
+    public static SpecificationListBuilder create(final ImportSettings settings,
+            final StringPool stringPool)
+    {
+        return new SpecificationListBuilder(settings.getFilters(),
+                settings.getTextStore().orElse(null), settings.getRequiredFields(), stringPool);
     }
 
     @Override
@@ -68,7 +136,23 @@ public class SpecificationListBuilder implements ImportEventListener
     @Override
     public void setId(final SpecificationItemId id)
     {
-        this.id = id;
+        this.id = internArtifactType(id);
+    }
+
+    // Parsed IDs each carry their own copy of the artifact type, while only a
+    // handful of distinct artifact types exist.
+    private SpecificationItemId internArtifactType(final SpecificationItemId id)
+    {
+        if (id == null)
+        {
+            return null;
+        }
+        final String artifactType = this.stringPool.intern(id.getArtifactType());
+        if (artifactType == id.getArtifactType())
+        {
+            return id;
+        }
+        return SpecificationItemId.createId(artifactType, id.getName(), id.getRevision());
     }
 
     @Override
@@ -83,26 +167,35 @@ public class SpecificationListBuilder implements ImportEventListener
         // [impl->dsn~filtering-by-artifact-types-during-import~1]
         if (isAcceptedArtifactType(id.getArtifactType()))
         {
-            this.itemBuilder.addCoveredId(id);
+            this.itemBuilder.addCoveredId(internArtifactType(id));
         }
     }
 
     @Override
     public void appendDescription(final String fragment)
     {
-        this.description.append(fragment);
+        if (isFieldRequired(ItemField.DESCRIPTION))
+        {
+            this.description.append(fragment);
+        }
     }
 
     @Override
     public void appendRationale(final String fragment)
     {
-        this.rationale.append(fragment);
+        if (isFieldRequired(ItemField.RATIONALE))
+        {
+            this.rationale.append(fragment);
+        }
     }
 
     @Override
     public void appendComment(final String fragment)
     {
-        this.comment.append(fragment);
+        if (isFieldRequired(ItemField.COMMENT))
+        {
+            this.comment.append(fragment);
+        }
     }
 
     @Override
@@ -111,7 +204,7 @@ public class SpecificationListBuilder implements ImportEventListener
         // [impl->dsn~filtering-by-artifact-types-during-import~1]
         if (isAcceptedArtifactType(id.getArtifactType()))
         {
-            this.itemBuilder.addDependOnId(id);
+            this.itemBuilder.addDependOnId(internArtifactType(id));
         }
     }
 
@@ -121,14 +214,17 @@ public class SpecificationListBuilder implements ImportEventListener
         // [impl->dsn~filtering-by-artifact-types-during-import~1]
         if (isAcceptedArtifactType(artifactType))
         {
-            this.itemBuilder.addNeedsArtifactType(artifactType);
+            this.itemBuilder.addNeedsArtifactType(this.stringPool.intern(artifactType));
         }
     }
 
     @Override
     public void addTag(final String tag)
     {
-        this.itemBuilder.addTag(tag);
+        if (isFieldRequired(ItemField.TAGS))
+        {
+            this.itemBuilder.addTag(this.stringPool.intern(tag));
+        }
     }
 
     /**
@@ -155,19 +251,40 @@ public class SpecificationListBuilder implements ImportEventListener
     @Override
     public void setTitle(final String title)
     {
-        this.itemBuilder.title(title);
+        if (isFieldRequired(ItemField.TITLE))
+        {
+            this.itemBuilder.title(title);
+        }
     }
 
     @Override
     public void setLocation(final String path, final int line)
     {
-        this.setLocation(Location.create(path, line));
+        this.setLocation(Location.create(this.stringPool.intern(path), line));
     }
 
     @Override
     public void setLocation(final Location location)
     {
-        this.location = location;
+        this.location = internPath(location);
+    }
+
+    private Location internPath(final Location location)
+    {
+        if (location == null)
+        {
+            return null;
+        }
+        final String path = this.stringPool.intern(location.getPath());
+        if (path == location.getPath())
+        {
+            return location;
+        }
+        return Location.builder() //
+                .path(path) //
+                .line(location.getLine()) //
+                .column(location.getColumn()) //
+                .build();
     }
 
     @Override
@@ -190,13 +307,20 @@ public class SpecificationListBuilder implements ImportEventListener
     {
         return this.itemBuilder //
                 .id(this.id) //
-                .description(this.description.toString().trim()) //
-                .rationale(this.rationale.toString().trim()) //
-                .comment(this.comment.toString().trim()) //
+                .description(createText(this.description)) //
+                .rationale(createText(this.rationale)) //
+                .comment(createText(this.comment)) //
                 .location(this.location) //
                 .build();
     }
 
+    private ItemText createText(final StringBuilder text)
+    {
+        final String trimmedText = text.toString().trim();
+        return (this.textStore == null) ? ItemText.of(trimmedText)
+                : this.textStore.store(trimmedText);
+    }
+
     private boolean isAccepted(final SpecificationItem item)
     {
         return isAcceptedArtifactType(item.getArtifactType())
@@ -223,6 +347,12 @@ public class SpecificationListBuilder implements ImportEventListener
         this.items.add(item);
     }
 
+    @Override
+    public boolean isFieldRequired(final ItemField field)
+    {
+        return this.requiredFields.contains(field);
+    }
+
     @Override
     public void setForwards(final boolean forwards)
     {
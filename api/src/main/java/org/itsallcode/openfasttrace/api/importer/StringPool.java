@@ -0,0 +1,55 @@
+package org.itsallcode.openfasttrace.api.importer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool of strings that occur many times during an import, e.g. paths, tags and
+ * artifact types.
+ * <p>
+ * Importers create a new string for every occurrence. Replacing them with the
+ * pooled instance lets all imported items share a single copy of each value.
+ * Unlike {@link String#intern()}, the pool is released together with the
+ * import it belongs to. It is safe to use from concurrent imports.
+ * </p>
+ */
+public final class StringPool
+{
+    private final Map<String, String> strings = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new, empty pool.
+     */
+    public StringPool()
+    {
+        // empty by intention
+    }
+
+    /**
+     * Get the pooled instance of a string.
+     *
+     * @param value
+     *            the string, may be {@code null}
+     * @return a string equal to the given one that is shared by all callers,
+     *         or {@code null} if the given string is {@code null}
+     */
+    public String intern(final String value)
+    {
+        if (value == null)
+        {
+            return null;
+        }
+        final String pooled = this.strings.putIfAbsent(value, value);
+        return (pooled == null) ? value : pooled;
+    }
+
+    /**
+     * Get the number of distinct strings in the pool.
+     *
+     * @return number of pooled strings
+     */
+    public int size()
+    {
+        return this.strings.size();
+    }
+}
@@ -1,6 +1,9 @@
 package org.itsallcode.openfasttrace.api.report;
 
+import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * Interface for coverage reports.
@@ -15,4 +18,28 @@ public interface Reportable
      *            output stream to which the stream is rendered
      */
     void renderToStream(final OutputStream outputStream);
+
+    /**
+     * Render the report to a path.
+     * <p>
+     * By default the report is rendered to a file at the given path. Reports
+     * consisting of more than one file override this method and use the path
+     * as output directory.
+     * </p>
+     *
+     * @param outputPath
+     *            path to which the report is rendered
+     */
+    default void renderToPath(final Path outputPath)
+    {
+        try (OutputStream outputStream = Files.newOutputStream(outputPath))
+        {
+            renderToStream(outputStream);
+        }
+        catch (final IOException exception)
+        {
+            throw new ReportException("Error generating stream to output path " + outputPath,
+                    exception);
+        }
+    }
 }
@@ -1,7 +1,9 @@
 package org.itsallcode.openfasttrace.api.report;
 
 import java.util.Objects;
+import java.util.Set;
 
+import org.itsallcode.openfasttrace.api.core.ItemField;
 import org.itsallcode.openfasttrace.api.core.Trace;
 import org.itsallcode.openfasttrace.api.core.serviceloader.Initializable;
 
@@ -40,6 +42,21 @@ public abstract class ReporterFactory implements Initializable<ReporterContext>
      */
     public abstract Reportable createImporter(final Trace trace);
 
+    /**
+     * Get the optional item fields that the {@link Reportable}s created by
+     * this factory read with the settings of the context.
+     * <p>
+     * Importers may skip all other optional fields. The default
+     * implementation requires all fields.
+     * </p>
+     * 
+     * @return the required item fields.
+     */
+    public Set<ItemField> getRequiredItemFields()
+    {
+        return ItemField.all();
+    }
+
     @Override
     public void init(final ReporterContext context)
     {
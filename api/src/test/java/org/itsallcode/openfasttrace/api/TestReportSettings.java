@@ -112,4 +112,22 @@ class TestReportSettings
                         .getDetailsSectionDisplay(),
                 equalTo(DetailsSectionDisplay.EXPAND));
     }
+
+    @Test
+    void testItemsPerPageUnlimitedByDefault()
+    {
+        assertThat(this.builder.build().getItemsPerPage(), equalTo(0));
+    }
+
+    @Test
+    void testBuildWithItemsPerPage()
+    {
+        assertThat(this.builder.itemsPerPage(500).build().getItemsPerPage(), equalTo(500));
+    }
+
+    @Test
+    void testBuildWithNegativeItemsPerPageThrowsException()
+    {
+        assertThrows(IllegalArgumentException.class, () -> this.builder.itemsPerPage(-1));
+    }
 }
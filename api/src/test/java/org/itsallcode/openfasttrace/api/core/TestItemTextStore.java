@@ -0,0 +1,88 @@
+package org.itsallcode.openfasttrace.api.core;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TestItemTextStore
+{
+    @Test
+    void testStoredTextIsReadBack()
+    {
+        try (ItemTextStore store = ItemTextStore.createTemporary())
+        {
+            final ItemText first = store.store("first text");
+            final ItemText second = store.store("zweiter Text mit Ümlauten\nund Zeilen");
+            assertThat(first.getText(), equalTo("first text"));
+            assertThat(second.getText(), equalTo("zweiter Text mit Ümlauten\nund Zeilen"));
+        }
+    }
+
+    @Test
+    void testEmptyTextIsNotStored()
+    {
+        try (ItemTextStore store = ItemTextStore.createTemporary())
+        {
+            final ItemText text = store.store("");
+            assertThat(text.isEmpty(), equalTo(true));
+            assertThat(text.getText(), equalTo(""));
+            assertThat(store.getSize(), equalTo(0L));
+        }
+    }
+
+    @Test
+    void testTextsSpanningSegments()
+    {
+        try (ItemTextStore store = ItemTextStore.createTemporary(8))
+        {
+            final List<ItemText> texts = new ArrayList<>();
+            for (int i = 0; i < 20; ++i)
+            {
+                texts.add(store.store("text number " + i + " äöü"));
+            }
+            for (int i = 0; i < 20; ++i)
+            {
+                assertThat(texts.get(i).getText(), equalTo("text number " + i + " äöü"));
+            }
+        }
+    }
+
+    @Test
+    void testItemKeepsStoredTextForCopies()
+    {
+        try (ItemTextStore store = ItemTextStore.createTemporary())
+        {
+            final ItemText description = store.store("description");
+            final SpecificationItem item = SpecificationItem.builder().id("req", "a", 1)
+                    .description(description).build();
+            final SpecificationItem copy = SpecificationItem.builder().id(item.getId())
+                    .description(item.getDescriptionText()).build();
+            assertThat(copy.getDescriptionText(), sameInstance(description));
+        }
+    }
+
+    @Test
+    void testStoredTextEqualsTextInMemory()
+    {
+        try (ItemTextStore store = ItemTextStore.createTemporary())
+        {
+            final ItemText stored = store.store("the text");
+            assertThat(stored, equalTo(ItemText.of("the text")));
+            assertThat(stored.hashCode(), equalTo(ItemText.of("the text").hashCode()));
+        }
+    }
+
+    @Test
+    void testTextRemainsReadableAfterClosing()
+    {
+        final ItemTextStore store = ItemTextStore.createTemporary();
+        final ItemText text = store.store("still there");
+        store.close();
+        assertThat(text.getText(), equalTo("still there"));
+    }
+}
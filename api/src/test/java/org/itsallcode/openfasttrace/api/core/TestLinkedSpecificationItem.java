@@ -82,6 +82,27 @@ class TestLinkedSpecificationItem
         assertItemHasOvercoveredArtifactTypes(this.linkedItem, REQ);
     }
 
+    @Test
+    void testRemoveLinkWithStatus()
+    {
+        this.linkedItem.addLinkToItemWithStatus(this.coveredLinkedItem, LinkStatus.COVERS);
+        this.linkedItem.removeLinkToItemWithStatus(this.coveredLinkedItem, LinkStatus.COVERS);
+        assertAll(() -> assertThat(this.linkedItem.getLinksByStatus(LinkStatus.COVERS), empty()),
+                () -> assertThat(this.linkedItem.hasLinks(), equalTo(false)));
+    }
+
+    @Test
+    void testRemoveLinkUpdatesCoveredArtifactTypes()
+    {
+        when(this.coveredItemMock.getArtifactType()).thenReturn(UMAN);
+        when(this.otherItemMock.getArtifactType()).thenReturn(REQ);
+        this.linkedItem.addLinkToItemWithStatus(this.coveredLinkedItem, LinkStatus.COVERED_SHALLOW);
+        this.linkedItem.addLinkToItemWithStatus(this.otherLinkedItem, LinkStatus.COVERED_SHALLOW);
+        this.linkedItem.removeLinkToItemWithStatus(this.coveredLinkedItem,
+                LinkStatus.COVERED_SHALLOW);
+        assertItemHasCoveredArtifactTypes(this.linkedItem, REQ);
+    }
+
     @Test
     void testIsCoveredShallow_Ok()
     {
@@ -9,6 +9,8 @@ class TestSpecificationItem
     @Test
     void equalsContract()
     {
-        EqualsVerifier.forClass(SpecificationItem.class).verify();
+        EqualsVerifier.forClass(SpecificationItem.class) //
+                .withPrefabValues(ItemText.class, ItemText.of("red"), ItemText.of("blue")) //
+                .verify();
     }
 }
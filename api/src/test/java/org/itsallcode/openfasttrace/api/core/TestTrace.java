@@ -0,0 +1,122 @@
+package org.itsallcode.openfasttrace.api.core;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TestTrace
+{
+    private LinkedSpecificationItem featB;
+    private LinkedSpecificationItem reqZ;
+    private LinkedSpecificationItem reqA;
+    private LinkedSpecificationItem featA;
+    private LinkedSpecificationItem reqWithoutTitle;
+    private List<LinkedSpecificationItem> items;
+    private Trace trace;
+
+    @BeforeEach
+    void beforeEach()
+    {
+        this.featB = createItem("feat~b~1", "B");
+        this.reqZ = createItem("req~z~1", "A");
+        this.reqA = createItem("req~a~2", "Z");
+        this.featA = createItem("feat~a~1", "C");
+        this.reqWithoutTitle = createItem("req~m~1", null);
+        this.items = new ArrayList<>(
+                List.of(this.featB, this.reqZ, this.reqA, this.featA, this.reqWithoutTitle));
+        this.trace = Trace.builder().items(this.items).defectItems(List.of(this.reqZ, this.featA))
+                .build();
+    }
+
+    private static LinkedSpecificationItem createItem(final String id, final String title)
+    {
+        return new LinkedSpecificationItem(SpecificationItem.builder()
+                .id(SpecificationItemId.parseId(id)).title(title).build());
+    }
+
+    @Test
+    void testGetItemsSortedById()
+    {
+        assertThat(this.trace.getItemsSortedById(),
+                contains(this.featA, this.featB, this.reqA, this.reqWithoutTitle, this.reqZ));
+    }
+
+    @Test
+    void testGetDefectItemsSortedById()
+    {
+        assertThat(this.trace.getDefectItemsSortedById(), contains(this.featA, this.reqZ));
+    }
+
+    @Test
+    void testGetItemsSortedByTypeAndTitleUsesFallbackTitle()
+    {
+        assertThat(this.trace.getItemsSortedByTypeAndTitle(),
+                contains(this.featB, this.featA, this.reqZ, this.reqA, this.reqWithoutTitle));
+    }
+
+    @Test
+    void testGetItemsSortedByTypeAndTitleKeepsOrderOfEqualItems()
+    {
+        final LinkedSpecificationItem first = createItem("req~first~1", "Same");
+        final LinkedSpecificationItem second = createItem("req~second~1", "Same");
+        final Trace traceWithEqualTitles = Trace.builder().items(List.of(second, first)).build();
+        assertThat(traceWithEqualTitles.getItemsSortedByTypeAndTitle(), contains(second, first));
+    }
+
+    @Test
+    void testGetItemsByArtifactTypeKeepsOrderOfItems()
+    {
+        assertAll(
+                () -> assertThat(this.trace.getItemsByArtifactType().keySet(),
+                        contains("feat", "req")),
+                () -> assertThat(this.trace.getItemsByArtifactType().get("feat"),
+                        contains(this.featB, this.featA)),
+                () -> assertThat(this.trace.getItemsByArtifactType().get("req"),
+                        contains(this.reqZ, this.reqA, this.reqWithoutTitle)));
+    }
+
+    @Test
+    void testViewsAreComputedOnceAndLeaveItemsUnchanged()
+    {
+        final List<LinkedSpecificationItem> originalOrder = new ArrayList<>(this.items);
+        assertAll(
+                () -> assertThat(this.trace.getItemsSortedById(),
+                        sameInstance(this.trace.getItemsSortedById())),
+                () -> assertThat(this.trace.getItemsSortedByTypeAndTitle(),
+                        sameInstance(this.trace.getItemsSortedByTypeAndTitle())),
+                () -> assertThat(this.trace.getItemsByArtifactType(),
+                        sameInstance(this.trace.getItemsByArtifactType())),
+                () -> assertThat(this.trace.getItems(), equalTo(originalOrder)));
+    }
+
+    @Test
+    void testViewsAreUnmodifiable()
+    {
+        final List<LinkedSpecificationItem> sorted = this.trace.getItemsSortedById();
+        assertThrows(UnsupportedOperationException.class, () -> sorted.remove(0));
+    }
+
+    @Test
+    void testGivenDefectItemsAreUnmodifiable()
+    {
+        final List<LinkedSpecificationItem> defectItems = new ArrayList<>(List.of(this.reqZ));
+        final List<LinkedSpecificationItem> result = Trace.builder().items(this.items)
+                .defectItems(defectItems).build().getDefectItems();
+        assertThrows(UnsupportedOperationException.class, () -> result.remove(0));
+    }
+
+    @Test
+    void testLazilyDeterminedDefectItemsAreUnmodifiable()
+    {
+        final List<LinkedSpecificationItem> result = Trace.builder().items(this.items).build()
+                .getDefectItems();
+        assertThrows(UnsupportedOperationException.class, () -> result.add(this.reqZ));
+    }
+}
@@ -0,0 +1,57 @@
+package org.itsallcode.openfasttrace.api.exporter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class TestShardSettings
+{
+    @Test
+    void testNoneIsNotSharded()
+    {
+        final ShardSettings settings = ShardSettings.none();
+        assertAll(() -> assertThat(settings.isSharded(), equalTo(false)),
+                () -> assertThat(settings.hasManifest(), equalTo(false)));
+    }
+
+    @Test
+    void testByArtifactType()
+    {
+        final ShardSettings settings = ShardSettings.builder().byArtifactType().manifest(true)
+                .build();
+        assertAll(() -> assertThat(settings.isSharded(), equalTo(true)),
+                () -> assertThat(settings.isByArtifactType(), equalTo(true)),
+                () -> assertThat(settings.getItemsPerShard(), equalTo(0)),
+                () -> assertThat(settings.hasManifest(), equalTo(true)));
+    }
+
+    @Test
+    void testByItemCount()
+    {
+        final ShardSettings settings = ShardSettings.builder().byItemCount(42).build();
+        assertAll(() -> assertThat(settings.isSharded(), equalTo(true)),
+                () -> assertThat(settings.isByArtifactType(), equalTo(false)),
+                () -> assertThat(settings.getItemsPerShard(), equalTo(42)));
+    }
+
+    @Test
+    void testByItemCountRejectsNonPositiveCount()
+    {
+        final ShardSettings.Builder builder = ShardSettings.builder();
+        assertThrows(IllegalArgumentException.class, () -> builder.byItemCount(0));
+    }
+
+    @Test
+    void testContextProvidesShardSettings()
+    {
+        final ShardSettings settings = ShardSettings.builder().byArtifactType().build();
+        assertAll(
+                () -> assertThat(new ExporterContext(settings).getShardSettings(),
+                        equalTo(settings)),
+                () -> assertThat(new ExporterContext().getShardSettings().isSharded(),
+                        equalTo(false)));
+    }
+}
@@ -3,6 +3,7 @@ package org.itsallcode.openfasttrace.api.importer;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertAll;
 
 import java.util.*;
@@ -39,6 +40,105 @@ class TestSpecificationListBuilder
         return builder;
     }
 
+    @Test
+    void testBuildItemWithTextStore()
+    {
+        try (ItemTextStore store = ItemTextStore.createTemporary())
+        {
+            final SpecificationListBuilder builder = SpecificationListBuilder
+                    .createWithTextStore(FilterSettings.createAllowingEverything(), store);
+            builder.beginSpecificationItem();
+            builder.setId(ID);
+            builder.appendDescription(" " + DESCRIPTION + "\n");
+            builder.appendRationale("rationale");
+            final List<SpecificationItem> items = builder.build();
+            assertAll(() -> assertThat(items.get(0).getDescription(), equalTo(DESCRIPTION)),
+                    () -> assertThat(items.get(0).getRationale(), equalTo("rationale")),
+                    () -> assertThat(items.get(0).getComment(), equalTo("")),
+                    () -> assertThat(store.getSize(), equalTo(20L)));
+        }
+    }
+
+    @Test
+    void testSkipFieldsThatAreNotRequired()
+    {
+        final SpecificationListBuilder builder = SpecificationListBuilder
+                .create(ImportSettings.builder().requiredFields(EnumSet.of(ItemField.TITLE))
+                        .build());
+        builder.beginSpecificationItem();
+        builder.setId(ID);
+        builder.setTitle(TITLE);
+        builder.appendDescription(DESCRIPTION);
+        builder.appendRationale("rationale");
+        builder.appendComment("comment");
+        builder.addTag("tag");
+        assertThat(builder.isFieldRequired(ItemField.DESCRIPTION), equalTo(false));
+        final SpecificationItem item = builder.build().get(0);
+        assertAll(() -> assertThat(item.getTitle(), equalTo(TITLE)),
+                () -> assertThat(item.getDescription(), equalTo("")),
+                () -> assertThat(item.getRationale(), equalTo("")),
+                () -> assertThat(item.getComment(), equalTo("")),
+                () -> assertThat(item.getTags(), equalTo(List.of())));
+    }
+
+    @Test
+    void testTagsAreRequiredForFilteringByTags()
+    {
+        final ImportSettings settings = ImportSettings.builder() //
+                .filter(FilterSettings.builder().tags(Set.of("client")).build()) //
+                .requiredFields(ItemField.none()) //
+                .build();
+        final SpecificationListBuilder builder = SpecificationListBuilder.create(settings);
+        addItemWithTags(builder, "in-A", "client");
+        addItemWithTags(builder, "out-B", "server");
+        final List<SpecificationItem> items = builder.build();
+        assertAll(() -> assertThat(builder.isFieldRequired(ItemField.TAGS), equalTo(true)),
+                () -> assertThat(items.size(), equalTo(1)),
+                () -> assertThat(items.get(0).getTags(), equalTo(List.of("client"))));
+    }
+
+    @Test
+    void testBuildersSharingPoolShareStrings()
+    {
+        final StringPool pool = new StringPool();
+        final List<SpecificationItem> items = new ArrayList<>();
+        for (int i = 1; i <= 2; ++i)
+        {
+            final SpecificationListBuilder builder = SpecificationListBuilder
+                    .create(ImportSettings.createDefault(), pool);
+            builder.beginSpecificationItem();
+            builder.setId(SpecificationItemId.parseId("dsn~item" + i + "~1"));
+            builder.addCoveredId(SpecificationItemId.parseId("feat~feature" + i + "~1"));
+            builder.addDependsOnId(SpecificationItemId.parseId("dsn~other" + i + "~1"));
+            builder.setLocation(new String("/a/b.md"), i);
+            builder.addTag(new String("tag"));
+            builder.addNeededArtifactType(new String("impl"));
+            builder.endSpecificationItem();
+            items.addAll(builder.build());
+        }
+        final SpecificationItem first = items.get(0);
+        final SpecificationItem second = items.get(1);
+        assertAll(
+                () -> assertThat(second.getLocation().getPath(),
+                        sameInstance(first.getLocation().getPath())),
+                () -> assertThat(second.getTags().get(0), sameInstance(first.getTags().get(0))),
+                () -> assertThat(second.getNeedsArtifactTypes().get(0),
+                        sameInstance(first.getNeedsArtifactTypes().get(0))),
+                () -> assertThat(second.getArtifactType(), sameInstance(first.getArtifactType())),
+                () -> assertThat(second.getCoveredIds().get(0).getArtifactType(),
+                        sameInstance(first.getCoveredIds().get(0).getArtifactType())),
+                () -> assertThat(second.getDependOnIds().get(0).getArtifactType(),
+                        sameInstance(first.getArtifactType())));
+    }
+
+    @Test
+    void testLocationWithPooledPathKeepsLineAndColumn()
+    {
+        final SpecificationListBuilder builder = createBasicListBuilder();
+        builder.setLocation(Location.create("path", 3, 7));
+        assertThat(builder.build().get(0).getLocation(), equalTo(Location.create("path", 3, 7)));
+    }
+
     @Test
     void testBuildWithStatus()
     {
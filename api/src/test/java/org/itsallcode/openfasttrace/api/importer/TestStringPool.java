@@ -0,0 +1,36 @@
+package org.itsallcode.openfasttrace.api.importer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import org.junit.jupiter.api.Test;
+
+class TestStringPool
+{
+    @Test
+    void testEqualStringsArePooled()
+    {
+        final StringPool pool = new StringPool();
+        final String first = pool.intern(new String("tag"));
+        final String second = pool.intern(new String("tag"));
+        assertThat(second, sameInstance(first));
+        assertThat(pool.size(), equalTo(1));
+    }
+
+    @Test
+    void testDifferentStringsAreKeptApart()
+    {
+        final StringPool pool = new StringPool();
+        assertThat(pool.intern("a"), equalTo("a"));
+        assertThat(pool.intern("b"), equalTo("b"));
+        assertThat(pool.size(), equalTo(2));
+    }
+
+    @Test
+    void testNullIsNotPooled()
+    {
+        final StringPool pool = new StringPool();
+        assertThat(pool.intern(null), nullValue());
+        assertThat(pool.size(), equalTo(0));
+    }
+}
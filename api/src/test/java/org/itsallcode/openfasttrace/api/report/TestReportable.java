@@ -0,0 +1,42 @@
+package org.itsallcode.openfasttrace.api.report;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestReportable
+{
+    private static final Reportable REPORT = outputStream -> {
+        try
+        {
+            outputStream.write("report".getBytes(StandardCharsets.UTF_8));
+        }
+        catch (final IOException exception)
+        {
+            throw new ReportException("Error writing report", exception);
+        }
+    };
+
+    @Test
+    void testRenderToPathWritesFile(@TempDir final Path tempDir) throws IOException
+    {
+        final Path outputPath = tempDir.resolve("report.txt");
+        REPORT.renderToPath(outputPath);
+        assertThat(Files.readString(outputPath), equalTo("report"));
+    }
+
+    @Test
+    void testRenderToMissingDirectoryThrowsException(@TempDir final Path tempDir)
+    {
+        final Path outputPath = tempDir.resolve("missing").resolve("report.txt");
+        assertThrows(ReportException.class, () -> REPORT.renderToPath(outputPath));
+    }
+}
@@ -1,6 +1,7 @@
 package org.itsallcode.openfasttrace.core;
 
 import org.itsallcode.openfasttrace.api.core.Newline;
+import org.itsallcode.openfasttrace.api.exporter.ShardSettings;
 import org.itsallcode.openfasttrace.core.exporter.ExporterConstants;
 
 /**
@@ -11,11 +12,13 @@ public class ExportSettings
 {
     private final String outputFormat;
     private final Newline newline;
+    private final ShardSettings shardSettings;
 
     private ExportSettings(final Builder builder)
     {
         this.outputFormat = builder.outputFormat;
         this.newline = builder.newline;
+        this.shardSettings = builder.shardSettings;
     }
 
     /**
@@ -38,6 +41,16 @@ public class ExportSettings
         return this.newline;
     }
 
+    /**
+     * Get the settings for splitting the export into several files
+     * 
+     * @return shard settings
+     */
+    public ShardSettings getShardSettings()
+    {
+        return this.shardSettings;
+    }
+
     /**
      * Create default exporter settings
      * 
@@ -65,6 +78,7 @@ public class ExportSettings
     {
         private String outputFormat = ExporterConstants.DEFAULT_OUTPUT_FORMAT;
         private Newline newline = Newline.UNIX;
+        private ShardSettings shardSettings = ShardSettings.none();
 
         private Builder()
         {
@@ -96,6 +110,19 @@ public class ExportSettings
             return this;
         }
 
+        /**
+         * Set how the export is split into several files written in parallel
+         * 
+         * @param shardSettings
+         *            shard settings
+         * @return <code>this</code> for fluent programming
+         */
+        public Builder shardSettings(final ShardSettings shardSettings)
+        {
+            this.shardSettings = shardSettings;
+            return this;
+        }
+
         /**
          * Create a new instance of {@link ExportSettings}
          * 
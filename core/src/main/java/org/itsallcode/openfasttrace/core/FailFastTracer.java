@@ -0,0 +1,145 @@
+package org.itsallcode.openfasttrace.core;
+
+import java.util.*;
+import java.util.logging.Logger;
+
+import org.itsallcode.openfasttrace.api.core.*;
+import org.itsallcode.openfasttrace.api.importer.ImportSettings;
+import org.itsallcode.openfasttrace.api.importer.input.InputFile;
+import org.itsallcode.openfasttrace.core.importer.ImporterServiceImpl;
+
+/**
+ * Imports, links and traces items, but stops as soon as the first defect is
+ * proven.
+ * <p>
+ * A duplicate ID is detected while importing. A bad link (e.g. an orphaned,
+ * outdated or unwanted coverage) is detected right after linking the covering
+ * item, because all items are known at that point. Missing coverage can only
+ * be detected after all items are linked; the returned {@link Trace} then
+ * stops evaluating at the first uncovered item.
+ * </p>
+ * <p>
+ * If a defect was found early, the returned trace only contains the items
+ * processed so far and the defect item. So this is only useful where the
+ * overall result matters, not the details.
+ * </p>
+ */
+class FailFastTracer
+{
+    private static final Logger LOG = Logger.getLogger(FailFastTracer.class.getName());
+
+    private final ImporterServiceImpl importerService;
+    private final ImportSettings settings;
+
+    FailFastTracer(final ImporterServiceImpl importerService, final ImportSettings settings)
+    {
+        this.importerService = importerService;
+        this.settings = settings;
+    }
+
+    /**
+     * Import, link and trace the items until the first defect is found.
+     *
+     * @return the trace.
+     */
+    Trace trace()
+    {
+        final List<SpecificationItem> items = new ArrayList<>();
+        final Set<SpecificationItemId> ids = new HashSet<>();
+        for (final InputFile file : this.importerService
+                .listInputFiles(this.settings.getInputs()))
+        {
+            for (final SpecificationItem item : this.importerService.importFile(file))
+            {
+                items.add(item);
+                if (!ids.add(item.getId()))
+                {
+                    LOG.fine(() -> "Stopping import at duplicate item '" + item.getId()
+                            + "' in '" + file + "'.");
+                    return createTraceWithDuplicate(items);
+                }
+            }
+        }
+        return link(items);
+    }
+
+    private static Trace createTraceWithDuplicate(final List<SpecificationItem> items)
+    {
+        final List<LinkedSpecificationItem> linkedItems = wrapItems(items);
+        // Creating the index adds the duplicate links.
+        LinkedItemIndex.createFromWrappedItems(linkedItems);
+        final LinkedSpecificationItem duplicate = linkedItems.get(linkedItems.size() - 1);
+        return createTraceWithDefect(linkedItems, duplicate);
+    }
+
+    private static List<LinkedSpecificationItem> wrapItems(final List<SpecificationItem> items)
+    {
+        final List<LinkedSpecificationItem> linkedItems = new ArrayList<>(items.size());
+        for (final SpecificationItem item : items)
+        {
+            linkedItems.add(new LinkedSpecificationItem(item));
+        }
+        return linkedItems;
+    }
+
+    private static Trace createTraceWithDefect(final List<LinkedSpecificationItem> linkedItems,
+            final LinkedSpecificationItem defectItem)
+    {
+        return Trace.builder().items(linkedItems).defectItems(List.of(defectItem)).build();
+    }
+
+    private static Trace link(final List<SpecificationItem> items)
+    {
+        final List<LinkedSpecificationItem> linkedItems = wrapItems(items);
+        final LinkedItemIndex index = LinkedItemIndex.createFromWrappedItems(linkedItems);
+        final Linker linker = new Linker(linkedItems, index, new HashMap<>());
+        for (final LinkedSpecificationItem item : linkedItems)
+        {
+            linker.linkItem(item);
+            final Optional<LinkedSpecificationItem> defectItem = findBadlyLinkedItem(item, index);
+            if (defectItem.isPresent())
+            {
+                LOG.fine(() -> "Stopping linking at bad link of item '"
+                        + defectItem.get().getId() + "'.");
+                return createTraceWithDefect(linkedItems, defectItem.get());
+            }
+        }
+        return new Tracer().trace(linkedItems);
+    }
+
+    /**
+     * Find an item that has a bad link after linking the given item. Only the
+     * item itself and the items it covers can have got new links.
+     */
+    private static Optional<LinkedSpecificationItem> findBadlyLinkedItem(
+            final LinkedSpecificationItem item, final LinkedItemIndex index)
+    {
+        if (hasBadLinks(item))
+        {
+            return Optional.of(item);
+        }
+        for (final Map.Entry<LinkStatus, List<LinkedSpecificationItem>> entry : item.getLinks()
+                .entrySet())
+        {
+            if (entry.getKey().isOutgoing())
+            {
+                for (final LinkedSpecificationItem coveredItem : entry.getValue())
+                {
+                    // Placeholders for orphaned IDs are not part of the trace.
+                    if ((index.getById(coveredItem.getId()) == coveredItem)
+                            && hasBadLinks(coveredItem))
+                    {
+                        return Optional.of(coveredItem);
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean hasBadLinks(final LinkedSpecificationItem item)
+    {
+        return (item.getStatus() != ItemStatus.REJECTED)
+                && item.getLinks().keySet().stream().anyMatch(LinkStatus::isBad);
+    }
+}
@@ -0,0 +1,164 @@
+package org.itsallcode.openfasttrace.core;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import org.itsallcode.openfasttrace.api.core.*;
+
+/**
+ * Links and traces only the part of the specification item graph that is
+ * affected by changes to a set of files.
+ * <p>
+ * The affected items are the items located in the changed files, all items
+ * they cover directly or indirectly and all items covering those directly or
+ * indirectly. Items with the same artifact type and name are always affected
+ * together, because duplicates and version-less matches depend on each
+ * other. Those items get the same links and defect status as in a trace of
+ * all items. Items that are covered by affected items but not affected
+ * themselves are linked as well so that the outgoing links resolve, but they
+ * are not part of the resulting trace.
+ * </p>
+ */
+public class ImpactTracer
+{
+    private final List<SpecificationItem> items;
+    private final Map<SpecificationItemId, List<SpecificationItem>> itemsByName = new HashMap<>();
+    private final Map<SpecificationItemId, List<SpecificationItem>> coveringItemsByCoveredName = new HashMap<>();
+
+    /**
+     * Create a new {@link ImpactTracer} for all items of a project.
+     *
+     * @param items
+     *            all specification items.
+     */
+    public ImpactTracer(final List<SpecificationItem> items)
+    {
+        this.items = items;
+        for (final SpecificationItem item : items)
+        {
+            this.itemsByName.computeIfAbsent(nameOf(item.getId()), key -> new ArrayList<>())
+                    .add(item);
+            for (final SpecificationItemId coveredId : item.getCoveredIds())
+            {
+                this.coveringItemsByCoveredName
+                        .computeIfAbsent(nameOf(coveredId), key -> new ArrayList<>()).add(item);
+            }
+        }
+    }
+
+    private static SpecificationItemId nameOf(final SpecificationItemId id)
+    {
+        return id.toRevisionWildcard();
+    }
+
+    /**
+     * Link and trace the items affected by changes to the given files.
+     *
+     * @param changedPaths
+     *            paths of the changed files.
+     * @return the trace containing only the affected items.
+     */
+    public Trace trace(final Collection<Path> changedPaths)
+    {
+        final Set<SpecificationItem> affectedItems = findAffectedItems(changedPaths);
+        final Set<SpecificationItem> itemsToLink = createIdentitySet();
+        itemsToLink.addAll(affectedItems);
+        for (final SpecificationItem item : affectedItems)
+        {
+            for (final SpecificationItemId coveredId : item.getCoveredIds())
+            {
+                itemsToLink.addAll(getItemsWithName(coveredId));
+            }
+        }
+        final List<LinkedSpecificationItem> linkedItems = new Linker(
+                keepOriginalOrder(itemsToLink)).link();
+        final List<LinkedSpecificationItem> affectedLinkedItems = linkedItems.stream()
+                .filter(item -> affectedItems.contains(item.getItem()))
+                .collect(Collectors.toList());
+        return new Tracer().trace(affectedLinkedItems);
+    }
+
+    private Set<SpecificationItem> findAffectedItems(final Collection<Path> changedPaths)
+    {
+        final Set<Path> normalizedPaths = changedPaths.stream() //
+                .map(ImpactTracer::normalize) //
+                .collect(Collectors.toSet());
+        final List<SpecificationItem> changedItems = this.items.stream()
+                .filter(item -> isLocatedIn(item, normalizedPaths))
+                .collect(Collectors.toList());
+        final Set<SpecificationItem> upstreamItems = collectClosure(changedItems,
+                this::getCoveredItems);
+        return collectClosure(upstreamItems, this::getCoveringItems);
+    }
+
+    private static Path normalize(final Path path)
+    {
+        return path.toAbsolutePath().normalize();
+    }
+
+    private static boolean isLocatedIn(final SpecificationItem item, final Set<Path> paths)
+    {
+        final Location location = item.getLocation();
+        return (location != null) && (location.getPath() != null)
+                && paths.contains(normalize(Paths.get(location.getPath())));
+    }
+
+    private static Set<SpecificationItem> collectClosure(final Collection<SpecificationItem> start,
+            final NeighborFunction neighbors)
+    {
+        final Set<SpecificationItem> closure = createIdentitySet();
+        final Deque<SpecificationItem> pending = new ArrayDeque<>(start);
+        while (!pending.isEmpty())
+        {
+            final SpecificationItem item = pending.pop();
+            if (closure.add(item))
+            {
+                pending.addAll(neighbors.getNeighbors(item));
+            }
+        }
+        return closure;
+    }
+
+    @FunctionalInterface
+    private interface NeighborFunction
+    {
+        Collection<SpecificationItem> getNeighbors(SpecificationItem item);
+    }
+
+    private List<SpecificationItem> getCoveredItems(final SpecificationItem item)
+    {
+        final List<SpecificationItem> neighbors = new ArrayList<>(getItemsWithName(item.getId()));
+        for (final SpecificationItemId coveredId : item.getCoveredIds())
+        {
+            neighbors.addAll(getItemsWithName(coveredId));
+        }
+        return neighbors;
+    }
+
+    private List<SpecificationItem> getCoveringItems(final SpecificationItem item)
+    {
+        final List<SpecificationItem> neighbors = new ArrayList<>(getItemsWithName(item.getId()));
+        neighbors.addAll(this.coveringItemsByCoveredName.getOrDefault(nameOf(item.getId()),
+                Collections.emptyList()));
+        return neighbors;
+    }
+
+    private List<SpecificationItem> getItemsWithName(final SpecificationItemId id)
+    {
+        return this.itemsByName.getOrDefault(nameOf(id), Collections.emptyList());
+    }
+
+    private List<SpecificationItem> keepOriginalOrder(final Set<SpecificationItem> selectedItems)
+    {
+        return this.items.stream() //
+                .filter(selectedItems::contains) //
+                .collect(Collectors.toList());
+    }
+
+    private static Set<SpecificationItem> createIdentitySet()
+    {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
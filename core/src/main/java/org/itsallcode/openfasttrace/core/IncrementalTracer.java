@@ -0,0 +1,205 @@
+package org.itsallcode.openfasttrace.core;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.logging.Logger;
+
+import org.itsallcode.openfasttrace.api.FilterSettings;
+import org.itsallcode.openfasttrace.api.core.SpecificationItem;
+import org.itsallcode.openfasttrace.api.core.Trace;
+import org.itsallcode.openfasttrace.api.importer.ImportSettings;
+import org.itsallcode.openfasttrace.api.importer.ImporterException;
+import org.itsallcode.openfasttrace.api.importer.input.InputFile;
+import org.itsallcode.openfasttrace.core.TraceSessionStore.FileFingerprint;
+import org.itsallcode.openfasttrace.core.importer.ImporterServiceImpl;
+
+/**
+ * Imports, links and traces items using the state persisted by a previous run.
+ * <p>
+ * Only input files that were added, changed or deleted since the last run are
+ * imported again. The {@link TraceSession} restored from the state then
+ * re-links the affected items. A file counts as unchanged if its size and
+ * modification time are the same as in the last run. Files modified shortly
+ * before the last state was saved are always imported again, because a
+ * second modification within the resolution of the file system timestamp
+ * would go unnoticed otherwise.
+ * </p>
+ */
+class IncrementalTracer
+{
+    private static final Logger LOG = Logger.getLogger(IncrementalTracer.class.getName());
+    private static final long TIMESTAMP_TOLERANCE_MILLIS = 2000;
+
+    private final ImporterServiceImpl importerService;
+    private final ImportSettings settings;
+    private final Path statePath;
+
+    IncrementalTracer(final ImporterServiceImpl importerService, final ImportSettings settings,
+            final Path statePath)
+    {
+        this.importerService = importerService;
+        this.settings = settings;
+        this.statePath = statePath;
+    }
+
+    /**
+     * Import, link and trace the items and update the state.
+     *
+     * @return the trace.
+     */
+    Trace trace()
+    {
+        final List<InputFile> files = this.importerService
+                .listInputFiles(this.settings.getInputs());
+        final Map<String, InputFile> filesByPath = new LinkedHashMap<>();
+        for (final InputFile file : files)
+        {
+            if (filesByPath.put(file.getPath(), file) != null)
+            {
+                LOG.warning(() -> "Input file '" + file.getPath()
+                        + "' is listed more than once. Tracing without state.");
+                return traceWithoutState(files);
+            }
+        }
+        final Map<String, FileFingerprint> fingerprints = createFingerprints(filesByPath);
+        final String settingsKey = createSettingsKey();
+        final TraceSession session = loadState(settingsKey)
+                .map(state -> update(state, filesByPath, fingerprints))
+                .orElseGet(() -> new TraceSession(importAll(filesByPath)));
+        saveState(settingsKey, fingerprints, session);
+        return session.getTrace();
+    }
+
+    private Trace traceWithoutState(final List<InputFile> files)
+    {
+        final List<SpecificationItem> items = new ArrayList<>();
+        for (final InputFile file : files)
+        {
+            items.addAll(this.importerService.importFile(file));
+        }
+        return new Tracer().trace(new Linker(items).link());
+    }
+
+    private Map<String, List<SpecificationItem>> importAll(
+            final Map<String, InputFile> filesByPath)
+    {
+        final Map<String, List<SpecificationItem>> itemsByPath = new LinkedHashMap<>();
+        for (final Map.Entry<String, InputFile> entry : filesByPath.entrySet())
+        {
+            itemsByPath.put(entry.getKey(), this.importerService.importFile(entry.getValue()));
+        }
+        return itemsByPath;
+    }
+
+    private static Map<String, FileFingerprint> createFingerprints(
+            final Map<String, InputFile> filesByPath)
+    {
+        final Map<String, FileFingerprint> fingerprints = new LinkedHashMap<>();
+        for (final InputFile file : filesByPath.values())
+        {
+            fingerprints.put(file.getPath(), createFingerprint(file));
+        }
+        return fingerprints;
+    }
+
+    private static FileFingerprint createFingerprint(final InputFile file)
+    {
+        try
+        {
+            final BasicFileAttributes attributes = Files.readAttributes(file.toPath(),
+                    BasicFileAttributes.class);
+            return new FileFingerprint(file.getPath(), attributes.size(),
+                    attributes.lastModifiedTime().toMillis());
+        }
+        catch (final IOException exception)
+        {
+            throw new ImporterException("Error reading attributes of file " + file, exception);
+        }
+    }
+
+    private String createSettingsKey()
+    {
+        final FilterSettings filter = this.settings.getFilters();
+        return "inputs=" + this.settings.getInputs() //
+                + ";artifactTypes=" + new TreeSet<>(filter.getArtifactTypes()) //
+                + ";tags=" + new TreeSet<>(filter.getTags()) //
+                + ";withoutTags=" + filter.withoutTags() //
+                + ";pathConfigs=" + this.settings.getPathConfigs() //
+                + ";requiredFields=" + this.settings.getRequiredFields();
+    }
+
+    private Optional<TraceSessionStore.State> loadState(final String settingsKey)
+    {
+        try
+        {
+            final Optional<TraceSessionStore.State> state = TraceSessionStore.load(
+                    this.statePath, settingsKey, this.settings.getTextStore().orElse(null));
+            if (state.isEmpty())
+            {
+                LOG.fine(() -> "No usable trace state found in '" + this.statePath
+                        + "'. Tracing all input files.");
+            }
+            return state;
+        }
+        catch (final IOException | RuntimeException exception)
+        {
+            LOG.warning(() -> "Unable to read trace state from '" + this.statePath + "': "
+                    + exception.getMessage() + ". Tracing all input files.");
+            return Optional.empty();
+        }
+    }
+
+    private TraceSession update(final TraceSessionStore.State state,
+            final Map<String, InputFile> filesByPath,
+            final Map<String, FileFingerprint> fingerprints)
+    {
+        final TraceSession session = state.getSession();
+        session.setSourceOrder(new ArrayList<>(filesByPath.keySet()));
+        int changedFileCount = 0;
+        for (final String path : state.getFingerprints().keySet())
+        {
+            if (!filesByPath.containsKey(path))
+            {
+                session.removeItemsFromSource(path);
+                ++changedFileCount;
+            }
+        }
+        for (final InputFile file : filesByPath.values())
+        {
+            final FileFingerprint previous = state.getFingerprints().get(file.getPath());
+            if (!isUnchanged(previous, fingerprints.get(file.getPath()), state.getSavedAt()))
+            {
+                session.replaceItemsFromSource(file.getPath(),
+                        this.importerService.importFile(file));
+                ++changedFileCount;
+            }
+        }
+        final int count = changedFileCount;
+        LOG.fine(() -> "Imported " + count + " changed of " + filesByPath.size()
+                + " input files.");
+        return session;
+    }
+
+    private static boolean isUnchanged(final FileFingerprint previous,
+            final FileFingerprint current, final long savedAt)
+    {
+        return current.hasSameContentAs(previous)
+                && (current.getLastModified() < (savedAt - TIMESTAMP_TOLERANCE_MILLIS));
+    }
+
+    private void saveState(final String settingsKey,
+            final Map<String, FileFingerprint> fingerprints, final TraceSession session)
+    {
+        try
+        {
+            TraceSessionStore.save(this.statePath, settingsKey, fingerprints.values(), session);
+        }
+        catch (final IOException exception)
+        {
+            LOG.warning(() -> "Unable to write trace state to '" + this.statePath + "': "
+                    + exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package org.itsallcode.openfasttrace.core;
+
+import static org.itsallcode.openfasttrace.core.ItemDataStreams.writeString;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.*;
+import java.util.*;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.itsallcode.openfasttrace.api.FilterSettings;
+import org.itsallcode.openfasttrace.api.ReportSettings;
+import org.itsallcode.openfasttrace.api.exporter.ExporterContext;
+import org.itsallcode.openfasttrace.api.exporter.ExporterFactory;
+import org.itsallcode.openfasttrace.api.importer.*;
+import org.itsallcode.openfasttrace.api.importer.input.InputFile;
+import org.itsallcode.openfasttrace.api.report.ReporterContext;
+import org.itsallcode.openfasttrace.api.report.ReporterFactory;
+import org.itsallcode.openfasttrace.core.importer.ImporterServiceImpl;
+import org.itsallcode.openfasttrace.core.serviceloader.InitializingServiceLoader;
+import org.itsallcode.openfasttrace.core.serviceloader.Loader;
+
+/**
+ * Creates a fingerprint of everything the result of a trace depends on apart
+ * from the output settings: the input files, the import settings and the
+ * installed plugins.
+ * <p>
+ * Input files count as unchanged if their paths, sizes and modification times
+ * are the same. Plugins are identified by their class names and the size and
+ * modification time of the JAR files they were loaded from. If an input file
+ * was modified shortly before the fingerprint is created, there is no
+ * fingerprint, because a second modification within the resolution of the
+ * file system timestamp would go unnoticed otherwise.
+ * </p>
+ */
+class InputFingerprint
+{
+    private static final Logger LOG = Logger.getLogger(InputFingerprint.class.getName());
+    private static final long TIMESTAMP_TOLERANCE_MILLIS = 2000;
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final ImporterServiceImpl importerService;
+    private final ImportSettings settings;
+
+    InputFingerprint(final ImporterServiceImpl importerService, final ImportSettings settings)
+    {
+        this.importerService = importerService;
+        this.settings = settings;
+    }
+
+    /**
+     * Create the fingerprint.
+     *
+     * @return the fingerprint as hexadecimal string or an empty
+     *         {@link Optional} if an input file was modified too recently
+     */
+    Optional<String> create()
+    {
+        final MessageDigest digest = createDigest();
+        try (DataOutputStream output = new DataOutputStream(
+                new DigestOutputStream(OutputStream.nullOutputStream(), digest)))
+        {
+            writeString(output, createSettingsKey());
+            if (!writeInputFiles(output))
+            {
+                return Optional.empty();
+            }
+            writeCodeSource(output, InputFingerprint.class);
+            writePlugins(output);
+        }
+        catch (final IOException exception)
+        {
+            throw new ImporterException("Failed to create fingerprint of input files: "
+                    + exception.getMessage(), exception);
+        }
+        return Optional.of(HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private static MessageDigest createDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        }
+        catch (final NoSuchAlgorithmException exception)
+        {
+            throw new IllegalStateException("Digest algorithm " + DIGEST_ALGORITHM
+                    + " not available", exception);
+        }
+    }
+
+    private String createSettingsKey()
+    {
+        final FilterSettings filter = this.settings.getFilters();
+        return "workingDirectory=" + Paths.get("").toAbsolutePath() //
+                + ";inputs=" + this.settings.getInputs() //
+                + ";artifactTypes=" + new TreeSet<>(filter.getArtifactTypes()) //
+                + ";tags=" + new TreeSet<>(filter.getTags()) //
+                + ";withoutTags=" + filter.withoutTags() //
+                + ";pathConfigs=" + this.settings.getPathConfigs();
+    }
+
+    private boolean writeInputFiles(final DataOutputStream output) throws IOException
+    {
+        final List<InputFile> files = new ArrayList<>(
+                this.importerService.listInputFiles(this.settings.getInputs()));
+        files.sort(Comparator.comparing(InputFile::getPath));
+        final long newestAllowedModification = System.currentTimeMillis()
+                - TIMESTAMP_TOLERANCE_MILLIS;
+        output.writeInt(files.size());
+        for (final InputFile file : files)
+        {
+            final BasicFileAttributes attributes = Files.readAttributes(file.toPath(),
+                    BasicFileAttributes.class);
+            final long lastModified = attributes.lastModifiedTime().toMillis();
+            if (lastModified >= newestAllowedModification)
+            {
+                LOG.fine(() -> "Input file '" + file.getPath()
+                        + "' was modified too recently for a fingerprint.");
+                return false;
+            }
+            writeString(output, file.getPath());
+            output.writeLong(attributes.size());
+            output.writeLong(lastModified);
+        }
+        return true;
+    }
+
+    private void writePlugins(final DataOutputStream output) throws IOException
+    {
+        try (Loader<ImporterFactory> importers = InitializingServiceLoader
+                .load(ImporterFactory.class, new ImporterContext(this.settings));
+                Loader<ExporterFactory> exporters = InitializingServiceLoader
+                        .load(ExporterFactory.class, new ExporterContext());
+                Loader<ReporterFactory> reporters = InitializingServiceLoader
+                        .load(ReporterFactory.class,
+                                new ReporterContext(ReportSettings.createDefault())))
+        {
+            writeServices(output, importers.load());
+            writeServices(output, exporters.load());
+            writeServices(output, reporters.load());
+        }
+    }
+
+    private static void writeServices(final DataOutputStream output, final Stream<?> services)
+            throws IOException
+    {
+        final List<Class<?>> classes = services.<Class<?>> map(Object::getClass)
+                .sorted(Comparator.comparing(Class::getName))
+                .toList();
+        output.writeInt(classes.size());
+        for (final Class<?> serviceClass : classes)
+        {
+            writeString(output, serviceClass.getName());
+            writeCodeSource(output, serviceClass);
+        }
+    }
+
+    private static void writeCodeSource(final DataOutputStream output, final Class<?> type)
+            throws IOException
+    {
+        final CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        final URL location = codeSource == null ? null : codeSource.getLocation();
+        writeString(output, location == null ? null : location.toString());
+        final Optional<Path> file = toRegularFile(location);
+        output.writeBoolean(file.isPresent());
+        if (file.isPresent())
+        {
+            final BasicFileAttributes attributes = Files.readAttributes(file.get(),
+                    BasicFileAttributes.class);
+            output.writeLong(attributes.size());
+            output.writeLong(attributes.lastModifiedTime().toMillis());
+        }
+    }
+
+    private static Optional<Path> toRegularFile(final URL location)
+    {
+        if (location == null || !"file".equals(location.getProtocol()))
+        {
+            return Optional.empty();
+        }
+        try
+        {
+            final Path path = Paths.get(location.toURI());
+            return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+        }
+        catch (final URISyntaxException | IllegalArgumentException exception)
+        {
+            return Optional.empty();
+        }
+    }
+}
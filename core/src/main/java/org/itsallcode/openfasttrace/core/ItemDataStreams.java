@@ -0,0 +1,182 @@
+package org.itsallcode.openfasttrace.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import org.itsallcode.openfasttrace.api.core.*;
+
+/**
+ * Reads and writes the parts of specification items shared by the binary
+ * files OFT keeps between runs.
+ * <p>
+ * Strings are stored as UTF-8 bytes prefixed with their length, {@code null}
+ * with a length of {@value #NULL_LENGTH}. Lists are prefixed with their size.
+ * Links refer to the linked items by their index in a list of all items.
+ * </p>
+ */
+final class ItemDataStreams
+{
+    static final int NULL_LENGTH = -1;
+    private static final LinkStatus[] LINK_STATUSES = LinkStatus.values();
+
+    private ItemDataStreams()
+    {
+        // not instantiable
+    }
+
+    static void writeLocation(final DataOutputStream output, final Location location)
+            throws IOException
+    {
+        output.writeBoolean(location != null);
+        if (location != null)
+        {
+            writeString(output, location.getPath());
+            output.writeInt(location.getLine());
+            output.writeInt(location.getColumn());
+        }
+    }
+
+    static void writeLinks(final DataOutputStream output,
+            final LinkedSpecificationItem item,
+            final Map<LinkedSpecificationItem, Integer> itemIndices) throws IOException
+    {
+        final Map<LinkStatus, List<LinkedSpecificationItem>> links = item.getLinks();
+        output.writeInt(links.size());
+        for (final Map.Entry<LinkStatus, List<LinkedSpecificationItem>> entry : links.entrySet())
+        {
+            output.writeByte(entry.getKey().ordinal());
+            output.writeInt(entry.getValue().size());
+            for (final LinkedSpecificationItem other : entry.getValue())
+            {
+                output.writeInt(itemIndices.get(other));
+            }
+        }
+    }
+
+    static void writeIds(final DataOutputStream output, final List<SpecificationItemId> ids)
+            throws IOException
+    {
+        output.writeInt(ids.size());
+        for (final SpecificationItemId id : ids)
+        {
+            writeId(output, id);
+        }
+    }
+
+    static void writeId(final DataOutputStream output, final SpecificationItemId id)
+            throws IOException
+    {
+        writeString(output, id.getArtifactType());
+        writeString(output, id.getName());
+        output.writeInt(id.getRevision());
+    }
+
+    static void writeStrings(final DataOutputStream output, final List<String> values)
+            throws IOException
+    {
+        output.writeInt(values.size());
+        for (final String value : values)
+        {
+            writeString(output, value);
+        }
+    }
+
+    static void writeString(final DataOutputStream output, final String value)
+            throws IOException
+    {
+        if (value == null)
+        {
+            output.writeInt(NULL_LENGTH);
+        }
+        else
+        {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    static Location readLocation(final DataInputStream input) throws IOException
+    {
+        if (!input.readBoolean())
+        {
+            return null;
+        }
+        return Location.builder() //
+                .path(readString(input)) //
+                .line(input.readInt()) //
+                .column(input.readInt()) //
+                .build();
+    }
+
+    static void readLinks(final DataInputStream input, final LinkedSpecificationItem item,
+            final List<LinkedSpecificationItem> allItems) throws IOException
+    {
+        final int statusCount = input.readInt();
+        for (int i = 0; i < statusCount; ++i)
+        {
+            final LinkStatus status = LINK_STATUSES[input.readByte()];
+            final int linkCount = input.readInt();
+            for (int j = 0; j < linkCount; ++j)
+            {
+                item.addLinkToItemWithStatus(allItems.get(input.readInt()), status);
+            }
+        }
+    }
+
+    static List<SpecificationItemId> readIds(final DataInputStream input) throws IOException
+    {
+        final int count = input.readInt();
+        final List<SpecificationItemId> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i)
+        {
+            ids.add(readId(input));
+        }
+        return ids;
+    }
+
+    static SpecificationItemId readId(final DataInputStream input) throws IOException
+    {
+        return SpecificationItemId.createId(readString(input), readString(input),
+                input.readInt());
+    }
+
+    static List<String> readStrings(final DataInputStream input) throws IOException
+    {
+        final int count = input.readInt();
+        final List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i)
+        {
+            values.add(readString(input));
+        }
+        return values;
+    }
+
+    static String readString(final DataInputStream input) throws IOException
+    {
+        final int length = input.readInt();
+        if (length == NULL_LENGTH)
+        {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Texts are moved to the store right away, so that they only stay on the
+    // heap while they are read.
+    static ItemText readText(final DataInputStream input, final ItemTextStore textStore)
+            throws IOException
+    {
+        final String text = readString(input);
+        if (text == null)
+        {
+            return null;
+        }
+        return (textStore == null) ? ItemText.of(text) : textStore.store(text);
+    }
+}
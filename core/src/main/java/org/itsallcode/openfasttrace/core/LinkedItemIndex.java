@@ -8,22 +8,61 @@ import org.itsallcode.openfasttrace.api.core.*;
 /**
  * An idex for {@link LinkedSpecificationItem} that allows retrieving items by
  * {@link SpecificationItemId}, optionally ignoring the revision.
+ * <p>
+ * The index consists of two open-addressing hash tables with linear probing.
+ * One is keyed by a 64-bit hash of artifact type, name and revision, the other
+ * by a 64-bit hash of artifact type and name. The latter groups all revisions
+ * of an item in one slot. Both tables are sized when the index is created, so
+ * lookups neither allocate objects nor rehash.
+ * </p>
+ * <p>
+ * A {@link TraceSession} updates the index in place by removing and inserting
+ * single items. The tables grow when needed and removal shifts the following
+ * entries back instead of leaving tombstones.
+ * </p>
  */
 public class LinkedItemIndex
 {
-    private final Map<SpecificationItemId, LinkedSpecificationItem> idIndex;
-    private final Map<SpecificationItemIdWithoutVersion, List<LinkedSpecificationItem>> idIndexIgnoringVersion;
+    private static final int MINIMUM_CAPACITY = 16;
+    private static final long REVISION_MULTIPLIER = 0x9E3779B97F4A7C15L;
 
-    private LinkedItemIndex(final Map<SpecificationItemId, LinkedSpecificationItem> idIndex,
-            final Map<SpecificationItemIdWithoutVersion, List<LinkedSpecificationItem>> idIndexIgnoringVersion)
+    private final boolean linkDuplicates;
+    private long[] idHashes;
+    private LinkedSpecificationItem[] idSlots;
+    private long[] nameHashes;
+    private SpecificationItemId[] nameKeys;
+    private List<List<LinkedSpecificationItem>> nameGroups;
+    private int size;
+    private int nameCount;
+
+    private LinkedItemIndex(final int expectedItemCount, final boolean linkDuplicates)
+    {
+        this.linkDuplicates = linkDuplicates;
+        allocateTables(calculateCapacity(expectedItemCount));
+    }
+
+    private void allocateTables(final int capacity)
+    {
+        this.idHashes = new long[capacity];
+        this.idSlots = new LinkedSpecificationItem[capacity];
+        this.nameHashes = new long[capacity];
+        this.nameKeys = new SpecificationItemId[capacity];
+        this.nameGroups = new ArrayList<>(Collections.nCopies(capacity, null));
+        this.size = 0;
+        this.nameCount = 0;
+    }
+
+    private static int calculateCapacity(final int expectedItemCount)
     {
-        this.idIndex = idIndex;
-        this.idIndexIgnoringVersion = idIndexIgnoringVersion;
+        // Keep the load factor at or below 0.5 to keep the probe sequences
+        // short.
+        final int minimumCapacity = Math.max(MINIMUM_CAPACITY, expectedItemCount * 2);
+        return Integer.highestOneBit(minimumCapacity - 1) << 1;
     }
 
     /**
      * Create a new index containing the given items.
-     * 
+     *
      * @param items
      *            the items to add to the new index.
      * @return a new index.
@@ -40,7 +79,7 @@ public class LinkedItemIndex
 
     /**
      * Create a new index containing the given wrapped items.
-     * 
+     *
      * @param wrappedItems
      *            the items to add to the new index.
      * @return a new index.
@@ -48,148 +87,408 @@ public class LinkedItemIndex
     public static LinkedItemIndex createFromWrappedItems(
             final List<LinkedSpecificationItem> wrappedItems)
     {
-        return new LinkedItemIndex( //
-                createIdIndex(wrappedItems), //
-                createIdIndexIgnoringVersion(wrappedItems));
-
+        return createFromWrappedItems(wrappedItems, true);
     }
 
-    private static Map<SpecificationItemIdWithoutVersion, List<LinkedSpecificationItem>> createIdIndexIgnoringVersion(
+    /**
+     * Create a new index containing the given wrapped items without adding
+     * {@link LinkStatus#DUPLICATE} links between items with the same ID.
+     * <p>
+     * Use this when the items already carry their duplicate links, e.g. when
+     * rebuilding the index for a {@link TraceSession}.
+     * </p>
+     *
+     * @param wrappedItems
+     *            the items to add to the new index.
+     * @return a new index.
+     */
+    static LinkedItemIndex createFromWrappedItemsIgnoringDuplicates(
             final List<LinkedSpecificationItem> wrappedItems)
     {
-        return wrappedItems.stream()
-                .collect(Collectors.groupingBy(SpecificationItemIdWithoutVersion::new));
+        return createFromWrappedItems(wrappedItems, false);
     }
 
-    private static Map<SpecificationItemId, LinkedSpecificationItem> createIdIndex(
-            final List<LinkedSpecificationItem> wrappedItems)
+    private static LinkedItemIndex createFromWrappedItems(
+            final List<LinkedSpecificationItem> wrappedItems, final boolean linkDuplicates)
+    {
+        final LinkedItemIndex index = new LinkedItemIndex(wrappedItems.size(), linkDuplicates);
+        for (final LinkedSpecificationItem item : wrappedItems)
+        {
+            index.add(item);
+        }
+        return index;
+    }
+
+    private void add(final LinkedSpecificationItem item)
+    {
+        final SpecificationItemId id = item.getId();
+        final long nameHash = hashIgnoringRevision(id);
+        addToIdTable(item, id, hashWithRevision(nameHash, id.getRevision()));
+        addToNameTable(item, id, nameHash);
+    }
+
+    private void addToIdTable(final LinkedSpecificationItem item, final SpecificationItemId id,
+            final long hash)
     {
-        return wrappedItems.stream().collect(Collectors.toMap(LinkedSpecificationItem::getId, //
-                item -> item, //
-                LinkedItemIndex::handleDuplicates));
+        final int slot = findIdSlot(id, hash);
+        if (this.idSlots[slot] == null)
+        {
+            this.idHashes[slot] = hash;
+            this.idSlots[slot] = item;
+            ++this.size;
+        }
+        else if (this.linkDuplicates)
+        {
+            handleDuplicates(this.idSlots[slot], item);
+        }
     }
 
     // [impl->dsn~tracing.tracing.duplicate-items~1]
-    private static LinkedSpecificationItem handleDuplicates(final LinkedSpecificationItem item1,
+    private static void handleDuplicates(final LinkedSpecificationItem item1,
             final LinkedSpecificationItem item2)
     {
         item1.addLinkToItemWithStatus(item2, LinkStatus.DUPLICATE);
         item2.addLinkToItemWithStatus(item1, LinkStatus.DUPLICATE);
-        return item1;
     }
 
-    /**
-     * Get the total number of items in this index.
-     * 
-     * @return the total number of items in this index.
-     */
-    public int size()
+    private void addToNameTable(final LinkedSpecificationItem item, final SpecificationItemId id,
+            final long hash)
     {
-        return this.idIndex.size();
+        getOrCreateNameGroup(id, hash).add(item);
     }
 
-    /**
-     * Get an item by id.
-     * 
-     * @param id
-     *            the item id.
-     * @return the item with the given id or {@code null} if no item exists.
-     */
-    public LinkedSpecificationItem getById(final SpecificationItemId id)
+    private List<LinkedSpecificationItem> getOrCreateNameGroup(final SpecificationItemId id,
+            final long hash)
     {
-        return this.idIndex.get(id);
+        final int slot = findNameSlot(id, hash);
+        if (this.nameKeys[slot] == null)
+        {
+            this.nameHashes[slot] = hash;
+            this.nameKeys[slot] = id;
+            this.nameGroups.set(slot, new ArrayList<>(1));
+            ++this.nameCount;
+        }
+        return this.nameGroups.get(slot);
     }
 
     /**
-     * Get number of IDs ignoring the version.
-     * 
-     * @return the number of IDs ignoring the version.
+     * Insert an item at its position in the given source order.
+     * <p>
+     * The item becomes the one returned by {@link #getById(SpecificationItemId)}
+     * if it precedes all other items with the same ID. Unlike creating an
+     * index, this does not add {@link LinkStatus#DUPLICATE} links.
+     * </p>
+     *
+     * @param item
+     *            the item to insert.
+     * @param sourceOrder
+     *            the order of all items in the index.
      */
-    public int sizeIgnoringVersion()
+    void insert(final LinkedSpecificationItem item,
+            final Comparator<LinkedSpecificationItem> sourceOrder)
     {
-        return this.idIndexIgnoringVersion.size();
+        ensureCapacityForOneMore();
+        final SpecificationItemId id = item.getId();
+        final long nameHash = hashIgnoringRevision(id);
+        final List<LinkedSpecificationItem> group = getOrCreateNameGroup(id, nameHash);
+        int position = group.size();
+        while (position > 0 && sourceOrder.compare(group.get(position - 1), item) > 0)
+        {
+            --position;
+        }
+        group.add(position, item);
+        final long idHash = hashWithRevision(nameHash, id.getRevision());
+        final int slot = findIdSlot(id, idHash);
+        if (this.idSlots[slot] == null)
+        {
+            this.idHashes[slot] = idHash;
+            this.idSlots[slot] = item;
+            ++this.size;
+        }
+        else if (sourceOrder.compare(item, this.idSlots[slot]) < 0)
+        {
+            this.idSlots[slot] = item;
+        }
     }
 
-    /**
-     * Get all items for the given ID, ignoring the version.
-     * 
-     * @param id
-     *            the item id.
-     * @return the item with the given id or {@code null} if no item exists.
-     */
-    public List<LinkedSpecificationItem> getByIdIgnoringVersion(final SpecificationItemId id)
+    private void ensureCapacityForOneMore()
     {
-        final List<LinkedSpecificationItem> items = this.idIndexIgnoringVersion
-                .get(new SpecificationItemIdWithoutVersion(id));
-        return items == null ? Collections.emptyList() : items;
+        final int capacity = this.idSlots.length;
+        if ((Math.max(this.size, this.nameCount) + 1) * 2 <= capacity)
+        {
+            return;
+        }
+        final LinkedSpecificationItem[] oldIdSlots = this.idSlots;
+        final long[] oldIdHashes = this.idHashes;
+        final SpecificationItemId[] oldNameKeys = this.nameKeys;
+        final long[] oldNameHashes = this.nameHashes;
+        final List<List<LinkedSpecificationItem>> oldNameGroups = this.nameGroups;
+        allocateTables(capacity * 2);
+        for (int i = 0; i < capacity; ++i)
+        {
+            if (oldIdSlots[i] != null)
+            {
+                final int slot = findIdSlot(oldIdSlots[i].getId(), oldIdHashes[i]);
+                this.idHashes[slot] = oldIdHashes[i];
+                this.idSlots[slot] = oldIdSlots[i];
+                ++this.size;
+            }
+            if (oldNameKeys[i] != null)
+            {
+                final int slot = findNameSlot(oldNameKeys[i], oldNameHashes[i]);
+                this.nameHashes[slot] = oldNameHashes[i];
+                this.nameKeys[slot] = oldNameKeys[i];
+                this.nameGroups.set(slot, oldNameGroups.get(i));
+                ++this.nameCount;
+            }
+        }
     }
 
-    static final class SpecificationItemIdWithoutVersion
+    /**
+     * Remove an item.
+     * <p>
+     * If the item was the one returned by
+     * {@link #getById(SpecificationItemId)}, the next item with the same ID
+     * takes its place.
+     * </p>
+     *
+     * @param item
+     *            the item to remove.
+     */
+    void remove(final LinkedSpecificationItem item)
     {
-        private final String name;
-        private final String artifcatType;
-
-        public SpecificationItemIdWithoutVersion(final SpecificationItemId id)
+        final SpecificationItemId id = item.getId();
+        final long nameHash = hashIgnoringRevision(id);
+        final int nameSlot = findNameSlot(id, nameHash);
+        final List<LinkedSpecificationItem> group = this.nameGroups.get(nameSlot);
+        if (group == null || !removeInstance(group, item))
         {
-            this.name = id.getName();
-            this.artifcatType = id.getArtifactType();
+            return;
         }
-
-        public SpecificationItemIdWithoutVersion(final LinkedSpecificationItem linkedItem)
+        final int idSlot = findIdSlot(id, hashWithRevision(nameHash, id.getRevision()));
+        if (this.idSlots[idSlot] == item)
         {
-            this(linkedItem.getId());
+            final LinkedSpecificationItem next = findFirstWithRevision(group, id.getRevision());
+            if (next == null)
+            {
+                removeIdSlot(idSlot);
+            }
+            else
+            {
+                this.idSlots[idSlot] = next;
+            }
         }
-
-        @Override
-        public int hashCode()
+        if (group.isEmpty())
         {
-            final int prime = 31;
-            int result = 1;
-            result = prime * result
-                    + ((this.artifcatType == null) ? 0 : this.artifcatType.hashCode());
-            result = prime * result + ((this.name == null) ? 0 : this.name.hashCode());
-            return result;
+            removeNameSlot(nameSlot);
         }
+    }
 
-        @Override
-        public boolean equals(final Object obj)
+    private static boolean removeInstance(final List<LinkedSpecificationItem> items,
+            final LinkedSpecificationItem item)
+    {
+        for (int i = 0; i < items.size(); ++i)
         {
-            if (this == obj)
+            if (items.get(i) == item)
             {
+                items.remove(i);
                 return true;
             }
-            if (obj == null)
-            {
-                return false;
-            }
-            if (getClass() != obj.getClass())
+        }
+        return false;
+    }
+
+    private static LinkedSpecificationItem findFirstWithRevision(
+            final List<LinkedSpecificationItem> items, final int revision)
+    {
+        for (final LinkedSpecificationItem item : items)
+        {
+            if (item.getId().getRevision() == revision)
             {
-                return false;
+                return item;
             }
-            final SpecificationItemIdWithoutVersion other = (SpecificationItemIdWithoutVersion) obj;
-            if (this.artifcatType == null)
+        }
+        return null;
+    }
+
+    // Backward shift deletion: move later entries of the probe sequence into
+    // the hole unless their home slot lies between the hole and themselves.
+    private void removeIdSlot(final int removedSlot)
+    {
+        final int mask = this.idSlots.length - 1;
+        int hole = removedSlot;
+        int slot = (hole + 1) & mask;
+        while (this.idSlots[slot] != null)
+        {
+            final int home = (int) this.idHashes[slot] & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask))
             {
-                if (other.artifcatType != null)
-                {
-                    return false;
-                }
+                this.idHashes[hole] = this.idHashes[slot];
+                this.idSlots[hole] = this.idSlots[slot];
+                hole = slot;
             }
-            else if (!this.artifcatType.equals(other.artifcatType))
+            slot = (slot + 1) & mask;
+        }
+        this.idHashes[hole] = 0;
+        this.idSlots[hole] = null;
+        --this.size;
+    }
+
+    private void removeNameSlot(final int removedSlot)
+    {
+        final int mask = this.nameKeys.length - 1;
+        int hole = removedSlot;
+        int slot = (hole + 1) & mask;
+        while (this.nameKeys[slot] != null)
+        {
+            final int home = (int) this.nameHashes[slot] & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask))
             {
-                return false;
+                this.nameHashes[hole] = this.nameHashes[slot];
+                this.nameKeys[hole] = this.nameKeys[slot];
+                this.nameGroups.set(hole, this.nameGroups.get(slot));
+                hole = slot;
             }
-            if (this.name == null)
+            slot = (slot + 1) & mask;
+        }
+        this.nameHashes[hole] = 0;
+        this.nameKeys[hole] = null;
+        this.nameGroups.set(hole, null);
+        --this.nameCount;
+    }
+
+    /**
+     * Find the slot in the ID table that either contains the item with the
+     * given ID or is the free slot where that item belongs.
+     */
+    private int findIdSlot(final SpecificationItemId id, final long hash)
+    {
+        final int mask = this.idSlots.length - 1;
+        int slot = (int) hash & mask;
+        LinkedSpecificationItem candidate;
+        while ((candidate = this.idSlots[slot]) != null)
+        {
+            if (this.idHashes[slot] == hash && isSameId(candidate.getId(), id))
             {
-                if (other.name != null)
-                {
-                    return false;
-                }
+                return slot;
             }
-            else if (!this.name.equals(other.name))
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static boolean isSameId(final SpecificationItemId first,
+            final SpecificationItemId second)
+    {
+        return first.getRevision() == second.getRevision()
+                && isSameIdIgnoringRevision(first, second);
+    }
+
+    /**
+     * Find the slot in the name table that either contains the group of items
+     * with the given artifact type and name or is the free slot where that
+     * group belongs.
+     */
+    private int findNameSlot(final SpecificationItemId id, final long hash)
+    {
+        final int mask = this.nameKeys.length - 1;
+        int slot = (int) hash & mask;
+        SpecificationItemId candidate;
+        while ((candidate = this.nameKeys[slot]) != null)
+        {
+            if (this.nameHashes[slot] == hash && isSameIdIgnoringRevision(candidate, id))
             {
-                return false;
+                return slot;
             }
-            return true;
+            slot = (slot + 1) & mask;
         }
+        return slot;
+    }
+
+    private static boolean isSameIdIgnoringRevision(final SpecificationItemId first,
+            final SpecificationItemId second)
+    {
+        return Objects.equals(first.getArtifactType(), second.getArtifactType())
+                && Objects.equals(first.getName(), second.getName());
+    }
+
+    /**
+     * Calculate the 64-bit hash of artifact type and name of an ID.
+     * <p>
+     * This reuses the hash codes cached by {@link String}, so it does not scan
+     * the characters again after the first call.
+     * </p>
+     */
+    static long hashIgnoringRevision(final SpecificationItemId id)
+    {
+        final long typeHash = Objects.hashCode(id.getArtifactType());
+        final long nameHash = Objects.hashCode(id.getName());
+        return mix((typeHash << 32) ^ (nameHash & 0xFFFFFFFFL));
+    }
+
+    static long hashWithRevision(final long hashIgnoringRevision, final int revision)
+    {
+        return mix(hashIgnoringRevision + (revision * REVISION_MULTIPLIER));
+    }
+
+    // Finalization step of MurmurHash3, spreads the bits over the whole
+    // range so that masking the lower bits yields a good slot distribution.
+    private static long mix(final long hash)
+    {
+        long mixed = hash;
+        mixed ^= mixed >>> 33;
+        mixed *= 0xFF51AFD7ED558CCDL;
+        mixed ^= mixed >>> 33;
+        mixed *= 0xC4CEB9FE1A85EC53L;
+        mixed ^= mixed >>> 33;
+        return mixed;
+    }
+
+    /**
+     * Get the total number of items in this index.
+     *
+     * @return the total number of items in this index.
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Get an item by id.
+     *
+     * @param id
+     *            the item id.
+     * @return the item with the given id or {@code null} if no item exists.
+     */
+    public LinkedSpecificationItem getById(final SpecificationItemId id)
+    {
+        final int slot = findIdSlot(id,
+                hashWithRevision(hashIgnoringRevision(id), id.getRevision()));
+        return this.idSlots[slot];
+    }
+
+    /**
+     * Get number of IDs ignoring the version.
+     *
+     * @return the number of IDs ignoring the version.
+     */
+    public int sizeIgnoringVersion()
+    {
+        return this.nameCount;
+    }
+
+    /**
+     * Get all items for the given ID, ignoring the version.
+     *
+     * @param id
+     *            the item id.
+     * @return the item with the given id or {@code null} if no item exists.
+     */
+    public List<LinkedSpecificationItem> getByIdIgnoringVersion(final SpecificationItemId id)
+    {
+        final int slot = findNameSlot(id, hashIgnoringRevision(id));
+        return this.nameKeys[slot] == null ? Collections.emptyList()
+                : this.nameGroups.get(slot);
     }
 }
@@ -1,7 +1,6 @@
 package org.itsallcode.openfasttrace.core;
 
 import java.util.HashMap;
-
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -31,6 +30,26 @@ public class Linker
         this.staleIndex = new HashMap<>();
     }
 
+    /**
+     * Create a {@link Linker} for already wrapped items that are looked up in
+     * an existing index.
+     *
+     * @param linkedItems
+     *            the wrapped items to be linked.
+     * @param index
+     *            index used to resolve the covered IDs.
+     * @param staleIndex
+     *            placeholders for IDs that do not exist, shared between
+     *            linking runs.
+     */
+    Linker(final List<LinkedSpecificationItem> linkedItems, final LinkedItemIndex index,
+            final Map<SpecificationItemId, LinkedSpecificationItem> staleIndex)
+    {
+        this.linkedItems = linkedItems;
+        this.index = index;
+        this.staleIndex = staleIndex;
+    }
+
     private List<LinkedSpecificationItem> wrapItems(final List<SpecificationItem> items)
     {
         return items.stream() //
@@ -54,7 +73,14 @@ public class Linker
         return this.linkedItems;
     }
 
-    private void linkItem(final LinkedSpecificationItem item)
+    /**
+     * Add the outgoing coverage links of a single item and the corresponding
+     * incoming links of the covered items.
+     *
+     * @param item
+     *            the item to be linked.
+     */
+    void linkItem(final LinkedSpecificationItem item)
     {
         for (final SpecificationItemId id : item.getCoveredIds())
         {
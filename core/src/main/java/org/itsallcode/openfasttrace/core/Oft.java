@@ -2,6 +2,8 @@ package org.itsallcode.openfasttrace.core;
 
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import org.itsallcode.openfasttrace.api.ReportSettings;
 import org.itsallcode.openfasttrace.api.core.*;
@@ -47,6 +49,148 @@ public interface Oft
      */
     Trace trace(List<LinkedSpecificationItem> linkedItems);
 
+    /**
+     * Link and trace specification items in a session that can be updated
+     * incrementally when the items of a source change.
+     * 
+     * @param items
+     *            the initial specification items
+     * @return trace session
+     */
+    TraceSession createTraceSession(List<SpecificationItem> items);
+
+    /**
+     * Import, link and trace specification items, reusing the state saved by
+     * a previous call with the same import settings.
+     * <p>
+     * Only input files that were added, changed or deleted since the state was
+     * saved are imported again and only the affected items are linked again.
+     * The resulting trace is the same as the one of a run without state. The
+     * state file is created or updated afterwards.
+     * </p>
+     * 
+     * @param settings
+     *            import settings
+     * @param statePath
+     *            path of the file holding the trace state
+     * @return trace result
+     */
+    Trace traceIncrementally(ImportSettings settings, Path statePath);
+
+    /**
+     * Link and trace only the specification items affected by changes to the
+     * given files.
+     * <p>
+     * The affected items are the items located in the changed files together
+     * with everything they cover and everything covering those, directly or
+     * indirectly. The resulting trace contains only the affected items with
+     * the same links and defects as in a trace of all items.
+     * </p>
+     * 
+     * @param items
+     *            all specification items
+     * @param changedPaths
+     *            paths of the changed files
+     * @return trace result for the affected items
+     */
+    Trace traceImpact(List<SpecificationItem> items, List<Path> changedPaths);
+
+    /**
+     * Import, link and trace specification items, but stop as soon as the
+     * first defect is proven.
+     * <p>
+     * Use this if only the overall result matters. If the trace has defects,
+     * it only contains the items processed until the first defect was found.
+     * </p>
+     * 
+     * @param settings
+     *            import settings
+     * @return trace result
+     */
+    Trace traceFailFast(ImportSettings settings);
+
+    /**
+     * Save a snapshot of a trace, so that reports can be created from it later
+     * without importing, linking and tracing the items again.
+     * <p>
+     * The snapshot also contains the deep coverage and defect state of each
+     * item.
+     * </p>
+     * 
+     * @param trace
+     *            the trace to be saved
+     * @param path
+     *            path of the snapshot file
+     */
+    void saveSnapshot(Trace trace, Path path);
+
+    /**
+     * Load a trace from a snapshot saved by
+     * {@link #saveSnapshot(Trace, Path)}.
+     * 
+     * @param path
+     *            path of the snapshot file
+     * @return the trace as it was saved
+     */
+    Trace loadSnapshot(Path path);
+
+    /**
+     * Load a trace from a snapshot saved by
+     * {@link #saveSnapshot(Trace, Path)} and keep the text of the items in a
+     * store instead of the heap.
+     * 
+     * @param path
+     *            path of the snapshot file
+     * @param textStore
+     *            store for the description, rationale and comment of the items
+     * @return the trace as it was saved
+     */
+    Trace loadSnapshot(Path path, ItemTextStore textStore);
+
+    /**
+     * Create a fingerprint of the input files, the import settings and the
+     * installed plugins.
+     * <p>
+     * The fingerprint changes whenever an input file is added, removed or
+     * modified, so that it can be used for recognizing runs with the same
+     * input. Input files are not read for this.
+     * </p>
+     * 
+     * @param settings
+     *            import settings
+     * @return the fingerprint or an empty {@link Optional} if an input file
+     *         was modified too recently to tell a later modification apart
+     */
+    Optional<String> createInputFingerprint(ImportSettings settings);
+
+    /**
+     * Get the optional item fields that a report with the given settings
+     * reads.
+     * <p>
+     * Passing these fields to {@link ImportSettings.Builder#requiredFields(Set)}
+     * lets the importers skip all other optional fields.
+     * </p>
+     * 
+     * @param settings
+     *            report settings
+     * @return the required item fields
+     */
+    Set<ItemField> getRequiredItemFields(ReportSettings settings);
+
+    /**
+     * Get the optional item fields that an export with the given settings
+     * writes.
+     * <p>
+     * Passing these fields to {@link ImportSettings.Builder#requiredFields(Set)}
+     * lets the importers skip all other optional fields.
+     * </p>
+     * 
+     * @param settings
+     *            export settings
+     * @return the required item fields
+     */
+    Set<ItemField> getRequiredItemFields(ExportSettings settings);
+
     /**
      * Export items with default settings
      * 
@@ -70,6 +214,24 @@ public interface Oft
     void exportToPath(final List<SpecificationItem> items, final Path path,
             ExportSettings settings);
 
+    /**
+     * Import specification items and export them without collecting all
+     * items in memory first.
+     * <p>
+     * The items of each input file are handed over to the exporter while the
+     * following files are still being imported. The result is the same as
+     * exporting the result of {@link #importItems(ImportSettings)}.
+     * </p>
+     * 
+     * @param importSettings
+     *            import settings
+     * @param path
+     *            output path for export
+     * @param exportSettings
+     *            export settings
+     */
+    void convert(ImportSettings importSettings, Path path, ExportSettings exportSettings);
+
     /**
      * Generate a report with default settings
      * 
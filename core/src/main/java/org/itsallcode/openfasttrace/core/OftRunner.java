@@ -1,13 +1,20 @@
 package org.itsallcode.openfasttrace.core;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import org.itsallcode.openfasttrace.api.ReportSettings;
+import org.itsallcode.openfasttrace.api.core.ItemField;
+import org.itsallcode.openfasttrace.api.core.ItemTextStore;
 import org.itsallcode.openfasttrace.api.core.LinkedSpecificationItem;
 import org.itsallcode.openfasttrace.api.core.SpecificationItem;
 import org.itsallcode.openfasttrace.api.core.Trace;
+import org.itsallcode.openfasttrace.api.exporter.ExporterException;
 import org.itsallcode.openfasttrace.api.importer.ImportSettings;
+import org.itsallcode.openfasttrace.api.importer.ImporterException;
 
 /**
  * Provides convenient methods for importing, tracing and reporting.
@@ -54,6 +61,94 @@ public class OftRunner implements Oft
         return serviceFactory.createTracer().trace(linkedItems);
     }
 
+    @Override
+    public TraceSession createTraceSession(final List<SpecificationItem> items)
+    {
+        return serviceFactory.createTraceSession(items);
+    }
+
+    @Override
+    public Trace traceIncrementally(final ImportSettings settings, final Path statePath)
+    {
+        return serviceFactory.createIncrementalTracer(settings, statePath).trace();
+    }
+
+    @Override
+    public Trace traceImpact(final List<SpecificationItem> items, final List<Path> changedPaths)
+    {
+        return serviceFactory.createImpactTracer(items).trace(changedPaths);
+    }
+
+    @Override
+    public Trace traceFailFast(final ImportSettings settings)
+    {
+        return serviceFactory.createFailFastTracer(settings).trace();
+    }
+
+    @Override
+    public void saveSnapshot(final Trace trace, final Path path)
+    {
+        try
+        {
+            TraceSnapshot.save(path, trace);
+        }
+        catch (final IOException exception)
+        {
+            throw new ExporterException("Failed to write trace snapshot '" + path + "': "
+                    + exception.getMessage(), exception);
+        }
+    }
+
+    @Override
+    public Trace loadSnapshot(final Path path)
+    {
+        return readSnapshot(path, null);
+    }
+
+    @Override
+    public Trace loadSnapshot(final Path path, final ItemTextStore textStore)
+    {
+        return readSnapshot(path, textStore);
+    }
+
+    private static Trace readSnapshot(final Path path, final ItemTextStore textStore)
+    {
+        try
+        {
+            return TraceSnapshot.load(path, textStore);
+        }
+        catch (final IOException exception)
+        {
+            throw new ImporterException("Failed to read trace snapshot '" + path + "': "
+                    + exception.getMessage(), exception);
+        }
+        catch (final IndexOutOfBoundsException | IllegalArgumentException
+                | NegativeArraySizeException exception)
+        {
+            throw new ImporterException("Trace snapshot '" + path + "' is corrupt", exception);
+        }
+    }
+
+    @Override
+    public Optional<String> createInputFingerprint(final ImportSettings settings)
+    {
+        return serviceFactory.createInputFingerprint(settings).create();
+    }
+
+    @Override
+    public Set<ItemField> getRequiredItemFields(final ReportSettings settings)
+    {
+        return serviceFactory.createReportService(settings)
+                .getRequiredItemFields(settings.getOutputFormat());
+    }
+
+    @Override
+    public Set<ItemField> getRequiredItemFields(final ExportSettings settings)
+    {
+        return serviceFactory.createExporterService(settings)
+                .getRequiredItemFields(settings.getOutputFormat());
+    }
+
     @Override
     public void exportToPath(final List<SpecificationItem> items, final Path path)
     {
@@ -64,7 +159,16 @@ public class OftRunner implements Oft
     public void exportToPath(final List<SpecificationItem> items, final Path path,
             final ExportSettings settings)
     {
-        serviceFactory.createExporterService().exportToPath(items.stream(), path, settings);
+        serviceFactory.createExporterService(settings).exportToPath(items.stream(), path,
+                settings);
+    }
+
+    @Override
+    public void convert(final ImportSettings importSettings, final Path path,
+            final ExportSettings exportSettings)
+    {
+        serviceFactory.createStreamingConverter(importSettings, exportSettings)
+                .convert(importSettings, path, exportSettings);
     }
 
     @Override
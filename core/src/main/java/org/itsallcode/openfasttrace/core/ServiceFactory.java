@@ -1,5 +1,6 @@
 package org.itsallcode.openfasttrace.core;
 
+import java.nio.file.Path;
 import java.util.List;
 
 import org.itsallcode.openfasttrace.api.ReportSettings;
@@ -16,9 +17,10 @@ import org.itsallcode.openfasttrace.core.report.ReporterFactoryLoader;
 
 class ServiceFactory
 {
-    ExporterService createExporterService()
+    ExporterService createExporterService(final ExportSettings settings)
     {
-        return new ExporterService(new ExporterFactoryLoader(new ExporterContext()));
+        return new ExporterService(
+                new ExporterFactoryLoader(new ExporterContext(settings.getShardSettings())));
     }
 
     ImporterService createImporterService(final ImportSettings settings)
@@ -34,6 +36,47 @@ class ServiceFactory
         return new Linker(items);
     }
 
+    TraceSession createTraceSession(final List<SpecificationItem> items)
+    {
+        return new TraceSession(items);
+    }
+
+    IncrementalTracer createIncrementalTracer(final ImportSettings settings, final Path statePath)
+    {
+        return new IncrementalTracer(createImporterServiceImpl(settings), settings, statePath);
+    }
+
+    FailFastTracer createFailFastTracer(final ImportSettings settings)
+    {
+        return new FailFastTracer(createImporterServiceImpl(settings), settings);
+    }
+
+    InputFingerprint createInputFingerprint(final ImportSettings settings)
+    {
+        return new InputFingerprint(createImporterServiceImpl(settings), settings);
+    }
+
+    StreamingConverter createStreamingConverter(final ImportSettings importSettings,
+            final ExportSettings exportSettings)
+    {
+        return new StreamingConverter(createImporterServiceImpl(importSettings),
+                createExporterService(exportSettings));
+    }
+
+    private static ImporterServiceImpl createImporterServiceImpl(final ImportSettings settings)
+    {
+        final ImporterContext context = new ImporterContext(settings);
+        final ImporterServiceImpl service = new ImporterServiceImpl(
+                new ImporterFactoryLoader(context), settings);
+        context.setImporterService(service);
+        return service;
+    }
+
+    ImpactTracer createImpactTracer(final List<SpecificationItem> items)
+    {
+        return new ImpactTracer(items);
+    }
+
     Tracer createTracer()
     {
         return new Tracer();
@@ -0,0 +1,46 @@
+package org.itsallcode.openfasttrace.core;
+
+import org.itsallcode.openfasttrace.api.core.DeepCoverageStatus;
+import org.itsallcode.openfasttrace.api.core.LinkedSpecificationItem;
+import org.itsallcode.openfasttrace.api.core.SpecificationItem;
+
+/**
+ * A {@link LinkedSpecificationItem} loaded from a trace snapshot.
+ * <p>
+ * Deep coverage and defect state were evaluated when the snapshot was saved.
+ * They are returned as stored instead of following the links again.
+ * </p>
+ */
+final class SnapshotLinkedItem extends LinkedSpecificationItem
+{
+    private final DeepCoverageStatus deepCoverageStatus;
+    private final DeepCoverageStatus deepCoverageStatusOnlyApprovedItems;
+    private final boolean defect;
+
+    SnapshotLinkedItem(final SpecificationItem item, final DeepCoverageStatus deepCoverageStatus,
+            final DeepCoverageStatus deepCoverageStatusOnlyApprovedItems, final boolean defect)
+    {
+        super(item);
+        this.deepCoverageStatus = deepCoverageStatus;
+        this.deepCoverageStatusOnlyApprovedItems = deepCoverageStatusOnlyApprovedItems;
+        this.defect = defect;
+    }
+
+    @Override
+    public DeepCoverageStatus getDeepCoverageStatus()
+    {
+        return this.deepCoverageStatus;
+    }
+
+    @Override
+    public DeepCoverageStatus getDeepCoverageStatusOnlyAcceptApprovedItems()
+    {
+        return this.deepCoverageStatusOnlyApprovedItems;
+    }
+
+    @Override
+    public boolean isDefect()
+    {
+        return this.defect;
+    }
+}
@@ -0,0 +1,249 @@
+package org.itsallcode.openfasttrace.core;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.itsallcode.openfasttrace.api.core.SpecificationItem;
+import org.itsallcode.openfasttrace.api.exporter.ExporterException;
+import org.itsallcode.openfasttrace.api.importer.ImportSettings;
+import org.itsallcode.openfasttrace.api.importer.ImporterException;
+import org.itsallcode.openfasttrace.api.importer.input.InputFile;
+import org.itsallcode.openfasttrace.core.exporter.ExporterService;
+import org.itsallcode.openfasttrace.core.importer.ImporterServiceImpl;
+
+/**
+ * Converts specification items from the input files to an export without
+ * collecting all items first.
+ * <p>
+ * A separate thread imports the input files one after the other and hands
+ * the items of each file over to the exporter through a bounded queue. If the
+ * exporter is slower than the import, the import waits, so the number of items
+ * in memory at the same time is limited by the queue capacity.
+ * </p>
+ * <p>
+ * An export to a file is written to a temporary file next to it first, which
+ * replaces the file only after all items were exported. So a failing import
+ * keeps an existing output file instead of leaving a truncated one.
+ * </p>
+ */
+class StreamingConverter
+{
+    private static final Logger LOG = Logger.getLogger(StreamingConverter.class.getName());
+    private static final int DEFAULT_QUEUE_CAPACITY = 16;
+    private static final List<SpecificationItem> END_OF_ITEMS = new ArrayList<>(0);
+
+    private final ImporterServiceImpl importerService;
+    private final ExporterService exporterService;
+    private final int queueCapacity;
+
+    StreamingConverter(final ImporterServiceImpl importerService,
+            final ExporterService exporterService)
+    {
+        this(importerService, exporterService, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    StreamingConverter(final ImporterServiceImpl importerService,
+            final ExporterService exporterService, final int queueCapacity)
+    {
+        this.importerService = importerService;
+        this.exporterService = exporterService;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Import the items from the given inputs and export them.
+     *
+     * @param importSettings
+     *            import settings
+     * @param outputPath
+     *            path to which the export is written
+     * @param exportSettings
+     *            export settings
+     */
+    void convert(final ImportSettings importSettings, final Path outputPath,
+            final ExportSettings exportSettings)
+    {
+        if (outputPath == null || exportSettings.getShardSettings().isSharded())
+        {
+            export(importSettings, outputPath, exportSettings);
+        }
+        else
+        {
+            exportViaTemporaryFile(importSettings, outputPath.toAbsolutePath(),
+                    exportSettings);
+        }
+    }
+
+    // The temporary file is created by the exporter, so that it gets the same
+    // permissions as a file written directly.
+    private void exportViaTemporaryFile(final ImportSettings importSettings,
+            final Path outputPath, final ExportSettings exportSettings)
+    {
+        final Path tempFile = outputPath.resolveSibling(
+                outputPath.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try
+        {
+            export(importSettings, tempFile, exportSettings);
+            Files.move(tempFile, outputPath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (final IOException exception)
+        {
+            throw new ExporterException("Error writing export to '" + outputPath + "'",
+                    exception);
+        }
+        finally
+        {
+            deleteTemporaryFile(tempFile);
+        }
+    }
+
+    private static void deleteTemporaryFile(final Path tempFile)
+    {
+        try
+        {
+            Files.deleteIfExists(tempFile);
+        }
+        catch (final IOException exception)
+        {
+            LOG.warning(() -> "Unable to delete temporary export file '" + tempFile + "': "
+                    + exception);
+        }
+    }
+
+    private void export(final ImportSettings importSettings, final Path outputPath,
+            final ExportSettings exportSettings)
+    {
+        final BlockingQueue<List<SpecificationItem>> queue = new ArrayBlockingQueue<>(
+                this.queueCapacity);
+        final Producer producer = new Producer(importSettings.getInputs(), queue);
+        final Thread thread = new Thread(producer, "oft-convert-import");
+        thread.setDaemon(true);
+        thread.start();
+        try
+        {
+            this.exporterService.exportToPath(streamItems(queue, producer), outputPath,
+                    exportSettings);
+        }
+        finally
+        {
+            thread.interrupt();
+        }
+    }
+
+    private static Stream<SpecificationItem> streamItems(
+            final BlockingQueue<List<SpecificationItem>> queue, final Producer producer)
+    {
+        final Spliterator<List<SpecificationItem>> batches = new Spliterators.AbstractSpliterator<>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL)
+        {
+            private boolean finished = false;
+
+            @Override
+            public boolean tryAdvance(final Consumer<? super List<SpecificationItem>> action)
+            {
+                if (this.finished)
+                {
+                    return false;
+                }
+                final List<SpecificationItem> batch = take(queue);
+                if (batch == END_OF_ITEMS)
+                {
+                    this.finished = true;
+                    producer.rethrowFailure();
+                    return false;
+                }
+                action.accept(batch);
+                return true;
+            }
+        };
+        return StreamSupport.stream(batches, false).flatMap(List::stream);
+    }
+
+    private static List<SpecificationItem> take(final BlockingQueue<List<SpecificationItem>> queue)
+    {
+        try
+        {
+            return queue.take();
+        }
+        catch (final InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            throw new ImporterException("Interrupted while waiting for imported items",
+                    exception);
+        }
+    }
+
+    private final class Producer implements Runnable
+    {
+        private final List<Path> inputs;
+        private final BlockingQueue<List<SpecificationItem>> queue;
+        private volatile Throwable failure;
+
+        private Producer(final List<Path> inputs,
+                final BlockingQueue<List<SpecificationItem>> queue)
+        {
+            this.inputs = inputs;
+            this.queue = queue;
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                for (final InputFile file : StreamingConverter.this.importerService
+                        .listInputFiles(this.inputs))
+                {
+                    final List<SpecificationItem> items = StreamingConverter.this.importerService
+                            .importFile(file);
+                    if (!items.isEmpty())
+                    {
+                        this.queue.put(items);
+                    }
+                }
+            }
+            catch (final InterruptedException exception)
+            {
+                LOG.fine(() -> "Import stopped because the export ended.");
+                return;
+            }
+            catch (final RuntimeException | Error exception)
+            {
+                this.failure = exception;
+            }
+            finishQueue();
+        }
+
+        private void finishQueue()
+        {
+            try
+            {
+                this.queue.put(END_OF_ITEMS);
+            }
+            catch (final InterruptedException exception)
+            {
+                LOG.fine(() -> "Import stopped because the export ended.");
+            }
+        }
+
+        private void rethrowFailure()
+        {
+            if (this.failure instanceof RuntimeException)
+            {
+                throw (RuntimeException) this.failure;
+            }
+            if (this.failure instanceof Error)
+            {
+                throw (Error) this.failure;
+            }
+        }
+    }
+}
@@ -0,0 +1,652 @@
+package org.itsallcode.openfasttrace.core;
+
+import java.util.*;
+
+import org.itsallcode.openfasttrace.api.core.*;
+
+/**
+ * A linked and traced set of specification items that can be updated
+ * incrementally.
+ * <p>
+ * Items are grouped by the source they were imported from (usually the path
+ * of the input file). When the items of a source change, only the links
+ * touching those items are recomputed: their outgoing coverage, the incoming
+ * coverage from other items, duplicate and ambiguity status and the
+ * version-less {@link LinkStatus#OUTDATED} / {@link LinkStatus#PREDATED}
+ * matches. The defect status is only re-evaluated for the items whose deep
+ * coverage can depend on the changed items, i.e. the upstream closure of the
+ * changed links.
+ * </p>
+ * <p>
+ * The resulting {@link Trace} is the same as the one produced by
+ * {@link Oft#link(List)} and {@link Oft#trace(List)} for all items in source
+ * order, including the order of the links.
+ * </p>
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ */
+public class TraceSession
+{
+    private final Map<String, List<LinkedSpecificationItem>> itemsBySource = new HashMap<>();
+    private final Map<String, Integer> sourceOrdinals = new HashMap<>();
+    private final Map<LinkedSpecificationItem, Long> positions = new IdentityHashMap<>();
+    private final Map<LinkedSpecificationItem, List<SpecificationItemId>> originalCoveredIds = new IdentityHashMap<>();
+    private final Map<SpecificationItemId, List<LinkedSpecificationItem>> coveringItemsByCoveredName = new HashMap<>();
+    private final Map<SpecificationItemId, LinkedSpecificationItem> staleIndex = new HashMap<>();
+    private final Set<LinkedSpecificationItem> defectItems = Collections
+            .newSetFromMap(new IdentityHashMap<>());
+    private LinkedItemIndex index;
+    private int nextSourceOrdinal = 0;
+
+    /**
+     * Create a new session, link and trace the given items.
+     *
+     * @param items
+     *            the initial specification items.
+     */
+    public TraceSession(final List<SpecificationItem> items)
+    {
+        this(groupBySource(items));
+    }
+
+    /**
+     * Create a new session, link and trace the given items.
+     *
+     * @param itemsBySource
+     *            the initial specification items grouped by their source. The
+     *            iteration order of the map defines the source order.
+     */
+    public TraceSession(final Map<String, List<SpecificationItem>> itemsBySource)
+    {
+        for (final Map.Entry<String, List<SpecificationItem>> entry : itemsBySource.entrySet())
+        {
+            registerSource(entry.getKey(), wrapAndRegister(entry.getValue()));
+        }
+        final List<LinkedSpecificationItem> allItems = getLinkedItems();
+        this.index = LinkedItemIndex.createFromWrappedItems(allItems);
+        new Linker(allItems, this.index, this.staleIndex).link();
+        for (final LinkedSpecificationItem item : allItems)
+        {
+            updateDefectStatus(item);
+        }
+    }
+
+    /**
+     * Restore a session from items that were already linked and traced.
+     *
+     * @param linkedItemsBySource
+     *            linked items grouped by source in source order
+     * @param originalCoveredIds
+     *            the covered IDs of each item as imported, i.e. before linking
+     *            added the IDs of version-less matches
+     * @param staleItems
+     *            placeholders for covered IDs that do not exist
+     * @param defectItems
+     *            the items that are defect
+     */
+    TraceSession(final Map<String, List<LinkedSpecificationItem>> linkedItemsBySource,
+            final Map<LinkedSpecificationItem, List<SpecificationItemId>> originalCoveredIds,
+            final Collection<LinkedSpecificationItem> staleItems,
+            final Collection<LinkedSpecificationItem> defectItems)
+    {
+        for (final Map.Entry<String, List<LinkedSpecificationItem>> entry : linkedItemsBySource
+                .entrySet())
+        {
+            for (final LinkedSpecificationItem item : entry.getValue())
+            {
+                register(item, originalCoveredIds.get(item));
+            }
+            registerSource(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        for (final LinkedSpecificationItem staleItem : staleItems)
+        {
+            this.staleIndex.put(staleItem.getId(), staleItem);
+        }
+        this.defectItems.addAll(defectItems);
+        this.index = LinkedItemIndex.createFromWrappedItemsIgnoringDuplicates(getLinkedItems());
+    }
+
+    private static Map<String, List<SpecificationItem>> groupBySource(
+            final List<SpecificationItem> items)
+    {
+        final Map<String, List<SpecificationItem>> grouped = new LinkedHashMap<>();
+        for (final SpecificationItem item : items)
+        {
+            grouped.computeIfAbsent(getSource(item), key -> new ArrayList<>()).add(item);
+        }
+        return grouped;
+    }
+
+    private static String getSource(final SpecificationItem item)
+    {
+        final Location location = item.getLocation();
+        return (location == null) ? null : location.getPath();
+    }
+
+    /**
+     * Replace all items that came from a source with new items.
+     *
+     * @param source
+     *            the source of the items, usually the path of the input file.
+     * @param items
+     *            the items now contained in the source.
+     */
+    public void replaceItemsFromSource(final String source, final List<SpecificationItem> items)
+    {
+        update(source, getItemsFromSource(source), items);
+    }
+
+    /**
+     * Remove all items that came from a source.
+     *
+     * @param source
+     *            the source of the items, usually the path of the input file.
+     */
+    public void removeItemsFromSource(final String source)
+    {
+        update(source, getItemsFromSource(source), Collections.emptyList());
+    }
+
+    /**
+     * Add items. The items are appended to the source derived from their
+     * location.
+     *
+     * @param items
+     *            the items to be added.
+     */
+    public void addItems(final List<SpecificationItem> items)
+    {
+        for (final Map.Entry<String, List<SpecificationItem>> entry : groupBySource(items)
+                .entrySet())
+        {
+            update(entry.getKey(), Collections.emptyList(), entry.getValue());
+        }
+    }
+
+    /**
+     * Define the order of the sources.
+     * <p>
+     * Sources that are added later are placed at their position in this list.
+     * Existing sources that are not in the list are moved after the listed
+     * sources. If the relative order of the existing sources changes, all
+     * items are linked again.
+     * </p>
+     *
+     * @param sources
+     *            the sources in the order in which a full import would
+     *            produce their items.
+     */
+    public void setSourceOrder(final List<String> sources)
+    {
+        final List<String> existingSources = getSourcesInOrder();
+        final Map<String, Integer> newOrdinals = new HashMap<>();
+        for (final String source : sources)
+        {
+            newOrdinals.putIfAbsent(source, newOrdinals.size());
+        }
+        for (final String source : existingSources)
+        {
+            newOrdinals.putIfAbsent(source, newOrdinals.size());
+        }
+        final boolean orderChanged = !isInAscendingOrder(existingSources, newOrdinals);
+        this.sourceOrdinals.clear();
+        this.sourceOrdinals.putAll(newOrdinals);
+        this.nextSourceOrdinal = newOrdinals.size();
+        for (final String source : existingSources)
+        {
+            registerSource(source, this.itemsBySource.get(source));
+        }
+        if (orderChanged)
+        {
+            final Set<SpecificationItemId> allNames = new HashSet<>();
+            for (final LinkedSpecificationItem item : this.positions.keySet())
+            {
+                allNames.add(item.getId().toRevisionWildcard());
+            }
+            // All positions changed, so the name groups of the index must be
+            // sorted again.
+            this.index = LinkedItemIndex.createFromWrappedItemsIgnoringDuplicates(getLinkedItems());
+            relinkNames(allNames, Collections.emptyList(), createIdentitySet());
+        }
+    }
+
+    private static boolean isInAscendingOrder(final List<String> sources,
+            final Map<String, Integer> ordinals)
+    {
+        for (int i = 1; i < sources.size(); ++i)
+        {
+            if (ordinals.get(sources.get(i - 1)) > ordinals.get(sources.get(i)))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    List<LinkedSpecificationItem> getItemsFromSource(final String source)
+    {
+        return this.itemsBySource.getOrDefault(source, Collections.emptyList());
+    }
+
+    /**
+     * Get the sources that currently contain items in source order.
+     *
+     * @return the sources.
+     */
+    public List<String> getSourcesInOrder()
+    {
+        final List<String> sources = new ArrayList<>(this.itemsBySource.keySet());
+        sources.sort(Comparator.comparing(this.sourceOrdinals::get));
+        return sources;
+    }
+
+    /**
+     * Get all linked items in source order.
+     *
+     * @return all linked items.
+     */
+    public List<LinkedSpecificationItem> getLinkedItems()
+    {
+        final List<LinkedSpecificationItem> allItems = new ArrayList<>(this.positions.size());
+        for (final String source : getSourcesInOrder())
+        {
+            allItems.addAll(this.itemsBySource.get(source));
+        }
+        return allItems;
+    }
+
+    List<SpecificationItemId> getOriginalCoveredIds(final LinkedSpecificationItem item)
+    {
+        return this.originalCoveredIds.get(item);
+    }
+
+    Collection<LinkedSpecificationItem> getStaleItems()
+    {
+        return this.staleIndex.values();
+    }
+
+    boolean isDefect(final LinkedSpecificationItem item)
+    {
+        return this.defectItems.contains(item);
+    }
+
+    /**
+     * Get the trace for the current state of the session.
+     *
+     * @return the trace.
+     */
+    public Trace getTrace()
+    {
+        final List<LinkedSpecificationItem> allItems = getLinkedItems();
+        final List<LinkedSpecificationItem> defects = new ArrayList<>(this.defectItems.size());
+        for (final LinkedSpecificationItem item : allItems)
+        {
+            if (this.defectItems.contains(item))
+            {
+                defects.add(item);
+            }
+        }
+        return Trace.builder().items(allItems).defectItems(defects).build();
+    }
+
+    private void update(final String source, final List<LinkedSpecificationItem> removedItems,
+            final List<SpecificationItem> addedItems)
+    {
+        final Set<LinkedSpecificationItem> touchedItems = createIdentitySet();
+        final Set<SpecificationItemId> changedNames = new HashSet<>();
+        final List<LinkedSpecificationItem> remainingItems = new ArrayList<>(
+                getItemsFromSource(source));
+        for (final LinkedSpecificationItem removedItem : List.copyOf(removedItems))
+        {
+            changedNames.add(removedItem.getId().toRevisionWildcard());
+            detach(removedItem, touchedItems);
+            this.index.remove(removedItem);
+            unregister(removedItem);
+            remainingItems.remove(removedItem);
+        }
+        final List<LinkedSpecificationItem> newItems = wrapAndRegister(addedItems);
+        for (final LinkedSpecificationItem newItem : newItems)
+        {
+            changedNames.add(newItem.getId().toRevisionWildcard());
+        }
+        remainingItems.addAll(newItems);
+        registerSource(source, remainingItems);
+        final Comparator<LinkedSpecificationItem> sourceOrder = Comparator
+                .comparing(this.positions::get);
+        for (final LinkedSpecificationItem newItem : newItems)
+        {
+            this.index.insert(newItem, sourceOrder);
+        }
+        touchedItems.removeAll(removedItems);
+        relinkNames(changedNames, newItems, touchedItems);
+    }
+
+    private void relinkNames(final Set<SpecificationItemId> changedNames,
+            final List<LinkedSpecificationItem> newItems,
+            final Set<LinkedSpecificationItem> touchedItems)
+    {
+        final List<LinkedSpecificationItem> itemsToRelink = findItemsToRelink(changedNames,
+                newItems, touchedItems);
+        relinkDuplicates(changedNames, touchedItems);
+        relink(itemsToRelink, touchedItems);
+        touchedItems.addAll(newItems);
+        for (final LinkedSpecificationItem item : touchedItems)
+        {
+            restoreCanonicalIncomingLinkOrder(item);
+        }
+        updateDefectStatusOfUpstreamClosure(touchedItems);
+    }
+
+    private static Set<LinkedSpecificationItem> createIdentitySet()
+    {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    private List<LinkedSpecificationItem> wrapAndRegister(final List<SpecificationItem> items)
+    {
+        final List<LinkedSpecificationItem> wrappedItems = new ArrayList<>(items.size());
+        for (final SpecificationItem item : items)
+        {
+            final LinkedSpecificationItem linkedItem = new LinkedSpecificationItem(item);
+            register(linkedItem, List.copyOf(item.getCoveredIds()));
+            wrappedItems.add(linkedItem);
+        }
+        return wrappedItems;
+    }
+
+    private void register(final LinkedSpecificationItem item,
+            final List<SpecificationItemId> coveredIds)
+    {
+        this.originalCoveredIds.put(item, coveredIds);
+        for (final SpecificationItemId coveredId : coveredIds)
+        {
+            this.coveringItemsByCoveredName
+                    .computeIfAbsent(coveredId.toRevisionWildcard(), key -> new ArrayList<>())
+                    .add(item);
+        }
+    }
+
+    private void unregister(final LinkedSpecificationItem item)
+    {
+        restoreOriginalCoveredIds(item);
+        for (final SpecificationItemId coveredId : this.originalCoveredIds.remove(item))
+        {
+            final SpecificationItemId coveredName = coveredId.toRevisionWildcard();
+            final List<LinkedSpecificationItem> coveringItems = this.coveringItemsByCoveredName
+                    .get(coveredName);
+            coveringItems.remove(item);
+            if (coveringItems.isEmpty())
+            {
+                this.coveringItemsByCoveredName.remove(coveredName);
+            }
+        }
+        this.positions.remove(item);
+        this.defectItems.remove(item);
+    }
+
+    private void registerSource(final String source, final List<LinkedSpecificationItem> items)
+    {
+        if (items.isEmpty())
+        {
+            this.itemsBySource.remove(source);
+            this.sourceOrdinals.remove(source);
+            return;
+        }
+        final long sourceOrdinal = this.sourceOrdinals.computeIfAbsent(source,
+                key -> this.nextSourceOrdinal++);
+        this.itemsBySource.put(source, items);
+        for (int i = 0; i < items.size(); ++i)
+        {
+            this.positions.put(items.get(i), (sourceOrdinal << 32) | i);
+        }
+    }
+
+    // Linking adds the IDs of version-less matches to the covered IDs of the
+    // covering item. Those must be removed before linking the item again.
+    private void restoreOriginalCoveredIds(final LinkedSpecificationItem item)
+    {
+        final List<SpecificationItemId> coveredIds = item.getItem().getCoveredIds();
+        coveredIds.clear();
+        coveredIds.addAll(this.originalCoveredIds.get(item));
+    }
+
+    private static void detach(final LinkedSpecificationItem item,
+            final Set<LinkedSpecificationItem> touchedItems)
+    {
+        for (final Map.Entry<LinkStatus, List<LinkedSpecificationItem>> entry : copyLinks(item))
+        {
+            for (final LinkedSpecificationItem other : entry.getValue())
+            {
+                removeLink(item, other, entry.getKey());
+                touchedItems.add(other);
+            }
+        }
+    }
+
+    private static List<Map.Entry<LinkStatus, List<LinkedSpecificationItem>>> copyLinks(
+            final LinkedSpecificationItem item)
+    {
+        final List<Map.Entry<LinkStatus, List<LinkedSpecificationItem>>> copy = new ArrayList<>();
+        for (final Map.Entry<LinkStatus, List<LinkedSpecificationItem>> entry : item.getLinks()
+                .entrySet())
+        {
+            copy.add(Map.entry(entry.getKey(), List.copyOf(entry.getValue())));
+        }
+        return copy;
+    }
+
+    private static void removeLink(final LinkedSpecificationItem item,
+            final LinkedSpecificationItem other, final LinkStatus status)
+    {
+        item.removeLinkToItemWithStatus(other, status);
+        final LinkStatus reverseStatus = getReverseStatus(status);
+        if (reverseStatus != null)
+        {
+            other.removeLinkToItemWithStatus(item, reverseStatus);
+        }
+    }
+
+    private static LinkStatus getReverseStatus(final LinkStatus status)
+    {
+        switch (status)
+        {
+        case COVERS:
+            return LinkStatus.COVERED_SHALLOW;
+        case UNWANTED:
+            return LinkStatus.COVERED_UNWANTED;
+        case OUTDATED:
+            return LinkStatus.COVERED_OUTDATED;
+        case PREDATED:
+            return LinkStatus.COVERED_PREDATED;
+        case COVERED_SHALLOW:
+            return LinkStatus.COVERS;
+        case COVERED_UNWANTED:
+            return LinkStatus.UNWANTED;
+        case COVERED_OUTDATED:
+            return LinkStatus.OUTDATED;
+        case COVERED_PREDATED:
+            return LinkStatus.PREDATED;
+        case DUPLICATE:
+            return LinkStatus.DUPLICATE;
+        default:
+            // Ambiguous and orphaned links have no counterpart.
+            return null;
+        }
+    }
+
+    private List<LinkedSpecificationItem> findItemsToRelink(
+            final Set<SpecificationItemId> changedNames,
+            final List<LinkedSpecificationItem> newItems,
+            final Set<LinkedSpecificationItem> touchedItems)
+    {
+        final Set<LinkedSpecificationItem> itemsToRelink = createIdentitySet();
+        itemsToRelink.addAll(newItems);
+        final Set<LinkedSpecificationItem> existingItemsToRelink = createIdentitySet();
+        for (final SpecificationItemId changedName : changedNames)
+        {
+            existingItemsToRelink.addAll(this.coveringItemsByCoveredName
+                    .getOrDefault(changedName, Collections.emptyList()));
+        }
+        existingItemsToRelink.removeAll(itemsToRelink);
+        for (final LinkedSpecificationItem item : existingItemsToRelink)
+        {
+            unlinkOutgoing(item, touchedItems);
+            restoreOriginalCoveredIds(item);
+            touchedItems.add(item);
+        }
+        itemsToRelink.addAll(existingItemsToRelink);
+        final List<LinkedSpecificationItem> sortedItems = new ArrayList<>(itemsToRelink);
+        sortedItems.sort(Comparator.comparing(this.positions::get));
+        return sortedItems;
+    }
+
+    private static void unlinkOutgoing(final LinkedSpecificationItem item,
+            final Set<LinkedSpecificationItem> touchedItems)
+    {
+        for (final Map.Entry<LinkStatus, List<LinkedSpecificationItem>> entry : copyLinks(item))
+        {
+            if (entry.getKey().isOutgoing())
+            {
+                for (final LinkedSpecificationItem target : entry.getValue())
+                {
+                    removeLink(item, target, entry.getKey());
+                    touchedItems.add(target);
+                }
+            }
+        }
+    }
+
+    // [impl->dsn~tracing.tracing.duplicate-items~1]
+    private void relinkDuplicates(final Set<SpecificationItemId> changedNames,
+            final Set<LinkedSpecificationItem> touchedItems)
+    {
+        for (final SpecificationItemId changedName : changedNames)
+        {
+            final List<LinkedSpecificationItem> itemsWithName = this.index
+                    .getByIdIgnoringVersion(changedName);
+            for (final LinkedSpecificationItem item : itemsWithName)
+            {
+                for (final LinkedSpecificationItem duplicate : List
+                        .copyOf(item.getLinksByStatus(LinkStatus.DUPLICATE)))
+                {
+                    removeLink(item, duplicate, LinkStatus.DUPLICATE);
+                }
+            }
+            for (final LinkedSpecificationItem item : itemsWithName)
+            {
+                final LinkedSpecificationItem first = this.index.getById(item.getId());
+                if (first != item)
+                {
+                    first.addLinkToItemWithStatus(item, LinkStatus.DUPLICATE);
+                    item.addLinkToItemWithStatus(first, LinkStatus.DUPLICATE);
+                }
+            }
+            touchedItems.addAll(itemsWithName);
+        }
+    }
+
+    private void relink(final List<LinkedSpecificationItem> itemsToRelink,
+            final Set<LinkedSpecificationItem> touchedItems)
+    {
+        final Linker linker = new Linker(itemsToRelink, this.index, this.staleIndex);
+        for (final LinkedSpecificationItem item : itemsToRelink)
+        {
+            linker.linkItem(item);
+            for (final Map.Entry<LinkStatus, List<LinkedSpecificationItem>> entry : item.getLinks()
+                    .entrySet())
+            {
+                if (entry.getKey().isOutgoing())
+                {
+                    touchedItems.addAll(entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Incoming links are added while linking the covering items, so a full
+     * link run orders them by the position of the covering item. Relinked
+     * items append their links at the end, which is fixed here.
+     */
+    private void restoreCanonicalIncomingLinkOrder(final LinkedSpecificationItem item)
+    {
+        if (!this.positions.containsKey(item))
+        {
+            return;
+        }
+        final Comparator<LinkedSpecificationItem> byPosition = Comparator
+                .comparing(this.positions::get);
+        for (final Map.Entry<LinkStatus, List<LinkedSpecificationItem>> entry : copyLinks(item))
+        {
+            final LinkStatus status = entry.getKey();
+            final List<LinkedSpecificationItem> linkedItems = entry.getValue();
+            if (status.isIncoming() && !isSorted(linkedItems, byPosition))
+            {
+                for (final LinkedSpecificationItem other : linkedItems)
+                {
+                    item.removeLinkToItemWithStatus(other, status);
+                }
+                final List<LinkedSpecificationItem> sortedItems = new ArrayList<>(linkedItems);
+                sortedItems.sort(byPosition);
+                for (final LinkedSpecificationItem other : sortedItems)
+                {
+                    item.addLinkToItemWithStatus(other, status);
+                }
+            }
+        }
+    }
+
+    private static boolean isSorted(final List<LinkedSpecificationItem> items,
+            final Comparator<LinkedSpecificationItem> comparator)
+    {
+        for (int i = 1; i < items.size(); ++i)
+        {
+            if (comparator.compare(items.get(i - 1), items.get(i)) > 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The deep coverage of an item depends on all items that cover it directly
+     * or indirectly. So a change can only affect the defect status of items
+     * reachable by following the outgoing links.
+     */
+    private void updateDefectStatusOfUpstreamClosure(
+            final Set<LinkedSpecificationItem> changedItems)
+    {
+        final Set<LinkedSpecificationItem> visited = createIdentitySet();
+        final Deque<LinkedSpecificationItem> pending = new ArrayDeque<>(changedItems);
+        while (!pending.isEmpty())
+        {
+            final LinkedSpecificationItem item = pending.pop();
+            if (this.positions.containsKey(item) && visited.add(item))
+            {
+                updateDefectStatus(item);
+                for (final Map.Entry<LinkStatus, List<LinkedSpecificationItem>> entry : item
+                        .getLinks().entrySet())
+                {
+                    if (entry.getKey().isOutgoing())
+                    {
+                        pending.addAll(entry.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    private void updateDefectStatus(final LinkedSpecificationItem item)
+    {
+        if (item.isDefect())
+        {
+            this.defectItems.add(item);
+        }
+        else
+        {
+            this.defectItems.remove(item);
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package org.itsallcode.openfasttrace.core;
+
+import static org.itsallcode.openfasttrace.core.ItemDataStreams.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+import org.itsallcode.openfasttrace.api.core.*;
+
+/**
+ * Reads and writes the state of a {@link TraceSession} together with the
+ * fingerprints of the input files it was built from.
+ * <p>
+ * The state file is a binary file. It starts with a magic number and a format
+ * version, followed by a key describing the import settings, the input file
+ * fingerprints, the items with their links in link order and the defect flags.
+ * A state written with different import settings or in a different format is
+ * ignored on load.
+ * </p>
+ */
+final class TraceSessionStore
+{
+    private static final int MAGIC = 0x4F465453; // "OFTS"
+    private static final int FORMAT_VERSION = 1;
+    private static final ItemStatus[] ITEM_STATUSES = ItemStatus.values();
+
+    private TraceSessionStore()
+    {
+        // not instantiable
+    }
+
+    /**
+     * Fingerprint of an input file: its path, size and modification time.
+     */
+    static final class FileFingerprint
+    {
+        private final String path;
+        private final long size;
+        private final long lastModified;
+
+        FileFingerprint(final String path, final long size, final long lastModified)
+        {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        String getPath()
+        {
+            return this.path;
+        }
+
+        long getSize()
+        {
+            return this.size;
+        }
+
+        long getLastModified()
+        {
+            return this.lastModified;
+        }
+
+        boolean hasSameContentAs(final FileFingerprint other)
+        {
+            return (other != null) && (this.size == other.size)
+                    && (this.lastModified == other.lastModified);
+        }
+    }
+
+    /**
+     * State loaded from a state file.
+     */
+    static final class State
+    {
+        private final long savedAt;
+        private final Map<String, FileFingerprint> fingerprints;
+        private final TraceSession session;
+
+        private State(final long savedAt, final Map<String, FileFingerprint> fingerprints,
+                final TraceSession session)
+        {
+            this.savedAt = savedAt;
+            this.fingerprints = fingerprints;
+            this.session = session;
+        }
+
+        long getSavedAt()
+        {
+            return this.savedAt;
+        }
+
+        Map<String, FileFingerprint> getFingerprints()
+        {
+            return this.fingerprints;
+        }
+
+        TraceSession getSession()
+        {
+            return this.session;
+        }
+    }
+
+    /**
+     * Write the state to a file.
+     * <p>
+     * The state is written to a temporary file first which then replaces the
+     * target, so that an interrupted run never leaves a truncated state.
+     * </p>
+     *
+     * @param path
+     *            the state file
+     * @param settingsKey
+     *            key describing the import settings
+     * @param fingerprints
+     *            fingerprints of all input files
+     * @param session
+     *            the session to be saved
+     * @throws IOException
+     *             if writing fails
+     */
+    static void save(final Path path, final String settingsKey,
+            final Collection<FileFingerprint> fingerprints, final TraceSession session)
+            throws IOException
+    {
+        final Path absolutePath = path.toAbsolutePath();
+        final Path directory = absolutePath.getParent();
+        Files.createDirectories(directory);
+        final Path tempFile = Files.createTempFile(directory, absolutePath.getFileName().toString(),
+                ".tmp");
+        try
+        {
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile))))
+            {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                writeString(output, settingsKey);
+                output.writeLong(System.currentTimeMillis());
+                writeFingerprints(output, fingerprints);
+                writeSession(output, session);
+            }
+            Files.move(tempFile, absolutePath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static void writeFingerprints(final DataOutputStream output,
+            final Collection<FileFingerprint> fingerprints) throws IOException
+    {
+        output.writeInt(fingerprints.size());
+        for (final FileFingerprint fingerprint : fingerprints)
+        {
+            writeString(output, fingerprint.getPath());
+            output.writeLong(fingerprint.getSize());
+            output.writeLong(fingerprint.getLastModified());
+        }
+    }
+
+    private static void writeSession(final DataOutputStream output, final TraceSession session)
+            throws IOException
+    {
+        final List<String> sources = session.getSourcesInOrder();
+        final Map<LinkedSpecificationItem, Integer> itemIndices = new IdentityHashMap<>();
+        for (final String source : sources)
+        {
+            for (final LinkedSpecificationItem item : session.getItemsFromSource(source))
+            {
+                itemIndices.put(item, itemIndices.size());
+            }
+        }
+        final List<LinkedSpecificationItem> staleItems = new ArrayList<>(
+                session.getStaleItems());
+        output.writeInt(staleItems.size());
+        for (final LinkedSpecificationItem staleItem : staleItems)
+        {
+            itemIndices.put(staleItem, itemIndices.size());
+            writeId(output, staleItem.getId());
+        }
+        output.writeInt(sources.size());
+        for (final String source : sources)
+        {
+            final List<LinkedSpecificationItem> items = session.getItemsFromSource(source);
+            writeString(output, source);
+            output.writeInt(items.size());
+            for (final LinkedSpecificationItem item : items)
+            {
+                writeItem(output, item.getItem(), session.getOriginalCoveredIds(item));
+                output.writeBoolean(session.isDefect(item));
+            }
+        }
+        for (final String source : sources)
+        {
+            for (final LinkedSpecificationItem item : session.getItemsFromSource(source))
+            {
+                writeLinks(output, item, itemIndices);
+            }
+        }
+    }
+
+    private static void writeItem(final DataOutputStream output, final SpecificationItem item,
+            final List<SpecificationItemId> originalCoveredIds) throws IOException
+    {
+        writeId(output, item.getId());
+        writeString(output, item.getTitle());
+        writeString(output, item.getDescription());
+        writeString(output, item.getRationale());
+        writeString(output, item.getComment());
+        writeLocation(output, item.getLocation());
+        output.writeByte(item.getStatus().ordinal());
+        writeIds(output, originalCoveredIds);
+        writeIds(output, item.getCoveredIds());
+        writeIds(output, item.getDependOnIds());
+        writeStrings(output, item.getNeedsArtifactTypes());
+        writeStrings(output, item.getTags());
+        output.writeBoolean(item.isForwarding());
+    }
+
+    /**
+     * Read the state from a file.
+     *
+     * @param path
+     *            the state file
+     * @param settingsKey
+     *            key describing the current import settings
+     * @param textStore
+     *            store for the text of the items or {@code null} to keep the
+     *            text in memory
+     * @return the state or an empty {@link Optional} if the file does not exist
+     *         or was written for other settings or in another format
+     * @throws IOException
+     *             if reading fails
+     */
+    static Optional<State> load(final Path path, final String settingsKey,
+            final ItemTextStore textStore) throws IOException
+    {
+        if (!Files.isRegularFile(path))
+        {
+            return Optional.empty();
+        }
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path))))
+        {
+            if ((input.readInt() != MAGIC) || (input.readInt() != FORMAT_VERSION)
+                    || !settingsKey.equals(readString(input)))
+            {
+                return Optional.empty();
+            }
+            final long savedAt = input.readLong();
+            final Map<String, FileFingerprint> fingerprints = readFingerprints(input);
+            return Optional.of(new State(savedAt, fingerprints, readSession(input, textStore)));
+        }
+    }
+
+    private static Map<String, FileFingerprint> readFingerprints(final DataInputStream input)
+            throws IOException
+    {
+        final int count = input.readInt();
+        final Map<String, FileFingerprint> fingerprints = new LinkedHashMap<>();
+        for (int i = 0; i < count; ++i)
+        {
+            final FileFingerprint fingerprint = new FileFingerprint(readString(input),
+                    input.readLong(), input.readLong());
+            fingerprints.put(fingerprint.getPath(), fingerprint);
+        }
+        return fingerprints;
+    }
+
+    private static TraceSession readSession(final DataInputStream input,
+            final ItemTextStore textStore) throws IOException
+    {
+        final int staleItemCount = input.readInt();
+        final List<LinkedSpecificationItem> staleItems = new ArrayList<>(staleItemCount);
+        for (int i = 0; i < staleItemCount; ++i)
+        {
+            staleItems.add(new LinkedSpecificationItem(
+                    SpecificationItem.builder().id(readId(input)).build()));
+        }
+        final int sourceCount = input.readInt();
+        final Map<String, List<LinkedSpecificationItem>> itemsBySource = new LinkedHashMap<>();
+        final Map<LinkedSpecificationItem, List<SpecificationItemId>> originalCoveredIds = new IdentityHashMap<>();
+        final List<LinkedSpecificationItem> defectItems = new ArrayList<>();
+        final List<LinkedSpecificationItem> allItems = new ArrayList<>();
+        for (int i = 0; i < sourceCount; ++i)
+        {
+            final String source = readString(input);
+            final int itemCount = input.readInt();
+            final List<LinkedSpecificationItem> items = new ArrayList<>(itemCount);
+            for (int j = 0; j < itemCount; ++j)
+            {
+                final List<SpecificationItemId> originalIds = new ArrayList<>();
+                final LinkedSpecificationItem item = new LinkedSpecificationItem(
+                        readItem(input, originalIds, textStore));
+                originalCoveredIds.put(item, List.copyOf(originalIds));
+                if (input.readBoolean())
+                {
+                    defectItems.add(item);
+                }
+                items.add(item);
+            }
+            itemsBySource.put(source, items);
+            allItems.addAll(items);
+        }
+        allItems.addAll(staleItems);
+        for (final LinkedSpecificationItem item : allItems.subList(0,
+                allItems.size() - staleItems.size()))
+        {
+            readLinks(input, item, allItems);
+        }
+        return new TraceSession(itemsBySource, originalCoveredIds, staleItems, defectItems);
+    }
+
+    private static SpecificationItem readItem(final DataInputStream input,
+            final List<SpecificationItemId> originalCoveredIds, final ItemTextStore textStore)
+            throws IOException
+    {
+        final SpecificationItem.Builder builder = SpecificationItem.builder() //
+                .id(readId(input)) //
+                .title(readString(input)) //
+                .description(readText(input, textStore)) //
+                .rationale(readText(input, textStore)) //
+                .comment(readText(input, textStore)) //
+                .location(readLocation(input)) //
+                .status(ITEM_STATUSES[input.readByte()]);
+        originalCoveredIds.addAll(readIds(input));
+        readIds(input).forEach(builder::addCoveredId);
+        readIds(input).forEach(builder::addDependOnId);
+        readStrings(input).forEach(builder::addNeedsArtifactType);
+        readStrings(input).forEach(builder::addTag);
+        return builder.forwards(input.readBoolean()).build();
+    }
+}
@@ -0,0 +1,243 @@
+package org.itsallcode.openfasttrace.core;
+
+import static org.itsallcode.openfasttrace.core.ItemDataStreams.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+import org.itsallcode.openfasttrace.api.core.*;
+
+/**
+ * Reads and writes snapshots of a {@link Trace}.
+ * <p>
+ * A snapshot contains the traced items with their links and the results of the
+ * deep coverage and defect evaluation. A trace loaded from a snapshot can be
+ * passed to the reporters right away without importing, linking and tracing the
+ * items again.
+ * </p>
+ * <p>
+ * The snapshot file is a binary file. It starts with a magic number and a
+ * format version, followed by the IDs of linked items that are not part of the
+ * trace, the items with their evaluation results and finally the links of all
+ * items in item order.
+ * </p>
+ */
+final class TraceSnapshot
+{
+    private static final int MAGIC = 0x4F465454; // "OFTT"
+    private static final int FORMAT_VERSION = 1;
+    private static final ItemStatus[] ITEM_STATUSES = ItemStatus.values();
+    private static final DeepCoverageStatus[] DEEP_COVERAGE_STATUSES = DeepCoverageStatus
+            .values();
+
+    private TraceSnapshot()
+    {
+        // not instantiable
+    }
+
+    /**
+     * Write a snapshot of a trace to a file.
+     * <p>
+     * The snapshot is written to a temporary file first which then replaces the
+     * target, so that an interrupted run never leaves a truncated snapshot.
+     * </p>
+     *
+     * @param path
+     *            the snapshot file
+     * @param trace
+     *            the trace to be saved
+     * @throws IOException
+     *             if writing fails
+     */
+    static void save(final Path path, final Trace trace) throws IOException
+    {
+        final Path absolutePath = path.toAbsolutePath();
+        final Path directory = absolutePath.getParent();
+        Files.createDirectories(directory);
+        final Path tempFile = Files.createTempFile(directory, absolutePath.getFileName().toString(),
+                ".tmp");
+        try
+        {
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile))))
+            {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                writeTrace(output, trace);
+            }
+            Files.move(tempFile, absolutePath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static void writeTrace(final DataOutputStream output, final Trace trace)
+            throws IOException
+    {
+        final List<LinkedSpecificationItem> items = trace.getItems();
+        final Map<LinkedSpecificationItem, Integer> itemIndices = new IdentityHashMap<>();
+        for (final LinkedSpecificationItem item : items)
+        {
+            itemIndices.put(item, itemIndices.size());
+        }
+        writeItemsOutsideOfTrace(output, items, itemIndices);
+        final Set<LinkedSpecificationItem> defectItems = Collections
+                .newSetFromMap(new IdentityHashMap<>());
+        defectItems.addAll(trace.getDefectItems());
+        final DeepCoverageStatus[][] deepCoverage = evaluateDeepCoverage(items);
+        output.writeInt(items.size());
+        for (int i = 0; i < items.size(); ++i)
+        {
+            final LinkedSpecificationItem item = items.get(i);
+            writeItem(output, item.getItem());
+            output.writeByte(deepCoverage[i][0].ordinal());
+            output.writeByte(deepCoverage[i][1].ordinal());
+            output.writeBoolean(defectItems.contains(item));
+        }
+        for (final LinkedSpecificationItem item : items)
+        {
+            writeLinks(output, item, itemIndices);
+        }
+    }
+
+    // Linked items that are not part of the trace, like the items of files
+    // removed from an incremental trace, are stored with their ID only.
+    private static void writeItemsOutsideOfTrace(final DataOutputStream output,
+            final List<LinkedSpecificationItem> items,
+            final Map<LinkedSpecificationItem, Integer> itemIndices) throws IOException
+    {
+        final List<LinkedSpecificationItem> outsideItems = new ArrayList<>();
+        for (final LinkedSpecificationItem item : items)
+        {
+            for (final List<LinkedSpecificationItem> linkedItems : item.getLinks().values())
+            {
+                for (final LinkedSpecificationItem linkedItem : linkedItems)
+                {
+                    if (!itemIndices.containsKey(linkedItem))
+                    {
+                        itemIndices.put(linkedItem, itemIndices.size());
+                        outsideItems.add(linkedItem);
+                    }
+                }
+            }
+        }
+        output.writeInt(outsideItems.size());
+        for (final LinkedSpecificationItem outsideItem : outsideItems)
+        {
+            writeId(output, outsideItem.getId());
+        }
+    }
+
+    private static DeepCoverageStatus[][] evaluateDeepCoverage(
+            final List<LinkedSpecificationItem> items)
+    {
+        return items.parallelStream() //
+                .map(item -> new DeepCoverageStatus[] { item.getDeepCoverageStatus(),
+                        item.getDeepCoverageStatusOnlyAcceptApprovedItems() }) //
+                .toArray(DeepCoverageStatus[][]::new);
+    }
+
+    private static void writeItem(final DataOutputStream output, final SpecificationItem item)
+            throws IOException
+    {
+        writeId(output, item.getId());
+        writeString(output, item.getTitle());
+        writeString(output, item.getDescription());
+        writeString(output, item.getRationale());
+        writeString(output, item.getComment());
+        writeLocation(output, item.getLocation());
+        output.writeByte(item.getStatus().ordinal());
+        writeIds(output, item.getCoveredIds());
+        writeIds(output, item.getDependOnIds());
+        writeStrings(output, item.getNeedsArtifactTypes());
+        writeStrings(output, item.getTags());
+        output.writeBoolean(item.isForwarding());
+    }
+
+    /**
+     * Read a trace from a snapshot file.
+     *
+     * @param path
+     *            the snapshot file
+     * @param textStore
+     *            store for the text of the items or {@code null} to keep the
+     *            text in memory
+     * @return the trace
+     * @throws IOException
+     *             if reading fails or the file is not a snapshot in the
+     *             supported format
+     */
+    static Trace load(final Path path, final ItemTextStore textStore) throws IOException
+    {
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path))))
+        {
+            if (input.readInt() != MAGIC)
+            {
+                throw new IOException("Not a trace snapshot");
+            }
+            final int version = input.readInt();
+            if (version != FORMAT_VERSION)
+            {
+                throw new IOException("Unsupported trace snapshot version " + version
+                        + ", expected version " + FORMAT_VERSION);
+            }
+            return readTrace(input, textStore);
+        }
+    }
+
+    private static Trace readTrace(final DataInputStream input,
+            final ItemTextStore textStore) throws IOException
+    {
+        final int outsideItemCount = input.readInt();
+        final List<LinkedSpecificationItem> outsideItems = new ArrayList<>(outsideItemCount);
+        for (int i = 0; i < outsideItemCount; ++i)
+        {
+            outsideItems.add(new LinkedSpecificationItem(
+                    SpecificationItem.builder().id(readId(input)).build()));
+        }
+        final int itemCount = input.readInt();
+        final List<LinkedSpecificationItem> items = new ArrayList<>(itemCount);
+        final List<LinkedSpecificationItem> defectItems = new ArrayList<>();
+        for (int i = 0; i < itemCount; ++i)
+        {
+            final LinkedSpecificationItem item = new SnapshotLinkedItem(readItem(input, textStore),
+                    DEEP_COVERAGE_STATUSES[input.readByte()],
+                    DEEP_COVERAGE_STATUSES[input.readByte()], input.readBoolean());
+            if (item.isDefect())
+            {
+                defectItems.add(item);
+            }
+            items.add(item);
+        }
+        final List<LinkedSpecificationItem> allItems = new ArrayList<>(items);
+        allItems.addAll(outsideItems);
+        for (final LinkedSpecificationItem item : items)
+        {
+            readLinks(input, item, allItems);
+        }
+        return Trace.builder().items(items).defectItems(defectItems).build();
+    }
+
+    private static SpecificationItem readItem(final DataInputStream input,
+            final ItemTextStore textStore) throws IOException
+    {
+        final SpecificationItem.Builder builder = SpecificationItem.builder() //
+                .id(readId(input)) //
+                .title(readString(input)) //
+                .description(readText(input, textStore)) //
+                .rationale(readText(input, textStore)) //
+                .comment(readText(input, textStore)) //
+                .location(readLocation(input)) //
+                .status(ITEM_STATUSES[input.readByte()]);
+        readIds(input).forEach(builder::addCoveredId);
+        readIds(input).forEach(builder::addDependOnId);
+        readStrings(input).forEach(builder::addNeedsArtifactType);
+        readStrings(input).forEach(builder::addTag);
+        return builder.forwards(input.readBoolean()).build();
+    }
+}
@@ -1,7 +1,6 @@
 package org.itsallcode.openfasttrace.core;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.itsallcode.openfasttrace.api.core.LinkedSpecificationItem;
 import org.itsallcode.openfasttrace.api.core.Trace;
@@ -22,6 +21,9 @@ public class Tracer
 
     /**
      * Traces the given items.
+     * <p>
+     * The defect items of the returned {@link Trace} are determined lazily.
+     * </p>
      * 
      * @param items
      *            the items to trace.
@@ -29,11 +31,6 @@ public class Tracer
      */
     public Trace trace(final List<LinkedSpecificationItem> items)
     {
-        final Trace.Builder builder = Trace.builder();
-        builder.items(items);
-        builder.defectItems(items.stream() //
-                .filter(LinkedSpecificationItem::isDefect) //
-                .collect(Collectors.toList()));
-        return builder.build();
+        return Trace.builder().items(items).build();
     }
 }
@@ -2,6 +2,7 @@ package org.itsallcode.openfasttrace.core.cli;
 
 import static java.util.Arrays.asList;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -19,6 +20,7 @@ public class ArgumentValidator
     private static final List<String> AVAILABLE_COMMANDS = asList(HelpCommand.COMMAND_NAME, ConvertCommand.COMMAND_NAME,
             TraceCommand.COMMAND_NAME);
 
+    private static final String MULTI_PAGE_HTML_REPORT_FORMAT = "html-pages";
     private final CliArguments arguments;
     private String error = "";
     private String suggestion = "";
@@ -75,18 +77,127 @@ public class ArgumentValidator
             this.error = "combining stream verbosity 'quiet' and output to file is not supported.";
             this.suggestion = "remove output file parameter.";
         }
+        else if (this.arguments.getStateFile() != null
+                && !this.arguments.getChangedFiles().isEmpty())
+        {
+            this.error = "combining a state file and changed files is not supported.";
+            this.suggestion = "remove one of the parameters.";
+        }
+        else if (this.arguments.getFailFast() && !isPassFailVerbosity())
+        {
+            this.error = "fail-fast mode requires report verbosity 'quiet' or 'minimal'.";
+            this.suggestion = "add parameter '--report-verbosity minimal'.";
+        }
+        else if (this.arguments.getFailFast() && (this.arguments.getStateFile() != null
+                || !this.arguments.getChangedFiles().isEmpty()))
+        {
+            this.error = "fail-fast mode can not be combined with a state file or changed files.";
+            this.suggestion = "remove one of the parameters.";
+        }
+        else if (this.arguments.getReportVerbosity() == ReportVerbosity.QUIET
+                && !this.arguments.getAdditionalReports().isEmpty())
+        {
+            this.error = "combining stream verbosity 'quiet' and additional reports is not supported.";
+            this.suggestion = "remove parameter '--report'.";
+        }
+        else if ((this.arguments.getFailFast() || this.arguments.getStateFile() != null)
+                && !this.arguments.getExports().isEmpty())
+        {
+            this.error = "exports can not be combined with fail-fast mode or a state file.";
+            this.suggestion = "remove one of the parameters.";
+        }
+        else if (this.arguments.getFailFast() && (this.arguments.getSaveSnapshot() != null
+                || !this.arguments.getAdditionalReports().isEmpty()))
+        {
+            this.error = "fail-fast mode can not be combined with saving a snapshot or additional reports.";
+            this.suggestion = "remove one of the parameters.";
+        }
+        else if (this.arguments.getLoadSnapshot() != null && (this.arguments.getFailFast()
+                || this.arguments.getStateFile() != null
+                || !this.arguments.getChangedFiles().isEmpty()
+                || !this.arguments.getExports().isEmpty()))
+        {
+            this.error = "loading a snapshot can not be combined with fail-fast mode, a state file, changed files or exports.";
+            this.suggestion = "remove one of the parameters.";
+        }
+        else if (this.arguments.getResultCache() != null
+                && this.arguments.getLoadSnapshot() != null)
+        {
+            this.error = "a result cache can not be combined with loading a snapshot.";
+            this.suggestion = "remove one of the parameters.";
+        }
+        else if (this.arguments.getItemsPerPage() < 0)
+        {
+            this.error = "the number of items per page must not be negative.";
+            this.suggestion = "use '0' for no limit.";
+        }
+        else if (MULTI_PAGE_HTML_REPORT_FORMAT.equalsIgnoreCase(this.arguments.getOutputFormat())
+                && this.arguments.getOutputPath() == null)
+        {
+            this.error = "the report format '" + MULTI_PAGE_HTML_REPORT_FORMAT
+                    + "' requires an output directory.";
+            this.suggestion = "add parameter '--output-file <directory>'.";
+        }
         else
         {
-            ok = true;
+            ok = validateOutputTargets();
         }
         return ok;
     }
 
+    private boolean validateOutputTargets()
+    {
+        final List<String> targets = new ArrayList<>(this.arguments.getAdditionalReports());
+        targets.addAll(this.arguments.getExports());
+        for (final String target : targets)
+        {
+            if (OutputTarget.parse(target).isEmpty())
+            {
+                this.error = "'" + target + "' is not a valid output target.";
+                this.suggestion = "use the form '<format>:<path>'.";
+                return false;
+            }
+        }
+        for (final String export : this.arguments.getExports())
+        {
+            final String format = OutputTarget.parse(export).orElseThrow().getFormat();
+            if (!new ExporterFactoryLoader(null).isFormatSupported(format))
+            {
+                this.error = "export format '" + format + "' is not supported.";
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isPassFailVerbosity()
+    {
+        final ReportVerbosity verbosity = this.arguments.getReportVerbosity();
+        return (verbosity == ReportVerbosity.QUIET) || (verbosity == ReportVerbosity.MINIMAL);
+    }
+
     private boolean validateConvertCommand()
     {
         boolean ok = false;
         final String format = this.arguments.getOutputFormat();
-        if (format != null && !new ExporterFactoryLoader(null).isFormatSupported(format))
+        final String shardBy = this.arguments.getShardBy();
+        if (shardBy != null && !isValidShardMode(shardBy))
+        {
+            this.error = "'" + shardBy + "' is not a valid shard mode.";
+            this.suggestion = "use '" + CliArguments.SHARD_BY_ARTIFACT_TYPE
+                    + "' or a positive number of items per shard.";
+        }
+        else if (shardBy != null && this.arguments.getOutputPath() == null)
+        {
+            this.error = "a sharded export requires an output directory.";
+            this.suggestion = "add parameter '--output-file <directory>'.";
+        }
+        else if (shardBy == null && this.arguments.getShardManifest())
+        {
+            this.error = "a shard manifest requires a sharded export.";
+            this.suggestion = "add parameter '--shard-by <mode>'.";
+        }
+        else if (format != null && !new ExporterFactoryLoader(null).isFormatSupported(format))
         {
             this.error = "export format '" + format + "' is not supported.";
         }
@@ -97,6 +208,22 @@ public class ArgumentValidator
         return ok;
     }
 
+    private static boolean isValidShardMode(final String shardBy)
+    {
+        if (CliArguments.SHARD_BY_ARTIFACT_TYPE.equals(shardBy))
+        {
+            return true;
+        }
+        try
+        {
+            return Integer.parseInt(shardBy) > 0;
+        }
+        catch (final NumberFormatException exception)
+        {
+            return false;
+        }
+    }
+
     private String listCommands()
     {
         return AVAILABLE_COMMANDS.stream().map(text -> "'" + text + "'")
@@ -3,6 +3,7 @@ package org.itsallcode.openfasttrace.core.cli;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import org.itsallcode.openfasttrace.api.ColorScheme;
 import org.itsallcode.openfasttrace.api.DetailsSectionDisplay;
@@ -23,6 +24,8 @@ public class CliArguments
 {
     /** Filter in command line arguments matching items with no tags. */
     public static final String NO_TAGS_MARKER = "_";
+    /** Shard mode writing one shard per artifact type. */
+    public static final String SHARD_BY_ARTIFACT_TYPE = "artifact-type";
     // [impl->dsn~cli.default-newline-format~1]
     private Newline newline = Newline.fromRepresentation(System.lineSeparator());
     private List<String> unnamedValues;
@@ -45,6 +48,18 @@ public class CliArguments
 
     // [impl->dsn~cli.plugins.log~1]
     private LogLevel logLevel;
+    private Path stateFile;
+    private List<Path> changedFiles = Collections.emptyList();
+    private boolean failFast;
+    private int itemsPerPage;
+    private final List<String> additionalReports = new ArrayList<>();
+    private final List<String> exports = new ArrayList<>();
+    private String shardBy;
+    private Path saveSnapshot;
+    private Path loadSnapshot;
+    private Path resultCache;
+    private boolean offloadItemText;
+    private boolean shardManifest;
 
     /**
      * Create new {@link CliArguments}.
@@ -454,4 +469,281 @@ public class CliArguments
     {
         setLogLevel(logLevel);
     }
+
+    /**
+     * Get the path of the file holding the state for incremental tracing.
+     * 
+     * @return path of the state file or {@code null} if not set
+     */
+    public Path getStateFile()
+    {
+        return this.stateFile;
+    }
+
+    /**
+     * Set the path of the file holding the state for incremental tracing.
+     * 
+     * @param stateFile
+     *            path of the state file
+     */
+    public void setStateFile(final String stateFile)
+    {
+        this.stateFile = Paths.get(stateFile);
+    }
+
+    /**
+     * Get the paths of the changed files that limit tracing to the affected
+     * specification items.
+     * 
+     * @return paths of the changed files or an empty list if tracing is not
+     *         limited
+     */
+    public List<Path> getChangedFiles()
+    {
+        return this.changedFiles;
+    }
+
+    /**
+     * Set the paths of the changed files that limit tracing to the affected
+     * specification items.
+     * 
+     * @param changedFiles
+     *            comma-separated list of paths
+     */
+    public void setChangedFiles(final String changedFiles)
+    {
+        this.changedFiles = Arrays.stream(changedFiles.split(",")) //
+                .map(String::trim) //
+                .filter(path -> !path.isEmpty()) //
+                .map(Paths::get) //
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Check if tracing stops at the first defect.
+     * 
+     * @return {@code true} if tracing stops at the first defect
+     */
+    public boolean getFailFast()
+    {
+        return this.failFast;
+    }
+
+    /**
+     * Stop tracing at the first defect.
+     * 
+     * @param failFast
+     *            {@code true} to stop tracing at the first defect
+     */
+    public void setFailFast(final boolean failFast)
+    {
+        this.failFast = failFast;
+    }
+
+    /**
+     * Get the maximum number of specification items on a single page of
+     * reports that consist of multiple pages.
+     * 
+     * @return maximum number of items per page or {@code 0} if unlimited
+     */
+    public int getItemsPerPage()
+    {
+        return this.itemsPerPage;
+    }
+
+    /**
+     * Set the maximum number of specification items on a single page of
+     * reports that consist of multiple pages.
+     * 
+     * @param itemsPerPage
+     *            maximum number of items per page or {@code 0} for no limit
+     */
+    public void setItemsPerPage(final String itemsPerPage)
+    {
+        this.itemsPerPage = Integer.parseInt(itemsPerPage.trim());
+    }
+
+    /**
+     * Get the reports that are created in addition to the report selected by
+     * output format and output file.
+     * 
+     * @return additional reports in the form {@code <format>:<path>} or an
+     *         empty list if there are none
+     */
+    public List<String> getAdditionalReports()
+    {
+        return this.additionalReports;
+    }
+
+    /**
+     * Add a report that is created in addition to the report selected by
+     * output format and output file. Can be given more than once.
+     * 
+     * @param report
+     *            report format and output file in the form
+     *            {@code <format>:<path>}
+     */
+    public void setReport(final String report)
+    {
+        this.additionalReports.add(report);
+    }
+
+    /**
+     * Get the exports of the traced specification items.
+     * 
+     * @return exports in the form {@code <format>:<path>} or an empty list if
+     *         there are none
+     */
+    public List<String> getExports()
+    {
+        return this.exports;
+    }
+
+    /**
+     * Add an export of the traced specification items. Can be given more than
+     * once.
+     * 
+     * @param export
+     *            export format and output file in the form
+     *            {@code <format>:<path>}
+     */
+    public void setExport(final String export)
+    {
+        this.exports.add(export);
+    }
+
+    /**
+     * Get the path of the file to which a snapshot of the trace is saved.
+     * 
+     * @return path of the snapshot file or {@code null} if no snapshot is
+     *         saved
+     */
+    public Path getSaveSnapshot()
+    {
+        return this.saveSnapshot;
+    }
+
+    /**
+     * Set the path of the file to which a snapshot of the trace is saved.
+     * 
+     * @param saveSnapshot
+     *            path of the snapshot file
+     */
+    public void setSaveSnapshot(final String saveSnapshot)
+    {
+        this.saveSnapshot = Paths.get(saveSnapshot);
+    }
+
+    /**
+     * Get the path of the snapshot file from which the trace is loaded instead
+     * of tracing the input files.
+     * 
+     * @return path of the snapshot file or {@code null} if the input files are
+     *         traced
+     */
+    public Path getLoadSnapshot()
+    {
+        return this.loadSnapshot;
+    }
+
+    /**
+     * Set the path of the snapshot file from which the trace is loaded instead
+     * of tracing the input files.
+     * 
+     * @param loadSnapshot
+     *            path of the snapshot file
+     */
+    public void setLoadSnapshot(final String loadSnapshot)
+    {
+        this.loadSnapshot = Paths.get(loadSnapshot);
+    }
+
+    /**
+     * Get the path of the file caching the result of the last run.
+     * 
+     * @return path of the result cache file or {@code null} if results are not
+     *         cached
+     */
+    public Path getResultCache()
+    {
+        return this.resultCache;
+    }
+
+    /**
+     * Set the path of the file caching the result of the last run.
+     * 
+     * @param resultCache
+     *            path of the result cache file
+     */
+    public void setResultCache(final String resultCache)
+    {
+        this.resultCache = Paths.get(resultCache);
+    }
+
+    /**
+     * Check if descriptions, rationales and comments of the imported items are
+     * kept in a memory-mapped file instead of the heap.
+     * 
+     * @return {@code true} if item text is kept outside the heap
+     */
+    public boolean getOffloadItemText()
+    {
+        return this.offloadItemText;
+    }
+
+    /**
+     * Keep descriptions, rationales and comments of the imported items in a
+     * memory-mapped file instead of the heap.
+     * 
+     * @param offloadItemText
+     *            {@code true} to keep item text outside the heap
+     */
+    public void setOffloadItemText(final boolean offloadItemText)
+    {
+        this.offloadItemText = offloadItemText;
+    }
+
+    /**
+     * Get how a converted export is split into shards.
+     * 
+     * @return {@value #SHARD_BY_ARTIFACT_TYPE}, the number of items per shard
+     *         or {@code null} if the export is not sharded
+     */
+    public String getShardBy()
+    {
+        return this.shardBy;
+    }
+
+    /**
+     * Split a converted export into shards written in parallel.
+     * 
+     * @param shardBy
+     *            {@value #SHARD_BY_ARTIFACT_TYPE} for one shard per artifact
+     *            type or the maximum number of items per shard
+     */
+    public void setShardBy(final String shardBy)
+    {
+        this.shardBy = shardBy.trim();
+    }
+
+    /**
+     * Check if a manifest listing the shards is written.
+     * 
+     * @return {@code true} if a shard manifest is written
+     */
+    public boolean getShardManifest()
+    {
+        return this.shardManifest;
+    }
+
+    /**
+     * Write a manifest listing the shards of a sharded export.
+     * 
+     * @param shardManifest
+     *            {@code true} to write a shard manifest
+     */
+    public void setShardManifest(final boolean shardManifest)
+    {
+        this.shardManifest = shardManifest;
+    }
 }
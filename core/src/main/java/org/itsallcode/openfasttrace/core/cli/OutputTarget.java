@@ -0,0 +1,85 @@
+package org.itsallcode.openfasttrace.core.cli;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+/**
+ * An output format together with the path the output is written to, given on
+ * the command line as {@code <format>:<path>}.
+ * <p>
+ * Formats never contain a colon, so the value is split at the first colon.
+ * This allows paths that contain colons themselves, e.g. Windows paths with
+ * drive letters.
+ * </p>
+ */
+public final class OutputTarget
+{
+    private static final char SEPARATOR = ':';
+    private final String format;
+    private final Path path;
+
+    private OutputTarget(final String format, final Path path)
+    {
+        this.format = format;
+        this.path = path;
+    }
+
+    /**
+     * Parse an output target from a command line value.
+     *
+     * @param value
+     *            the value in the form {@code <format>:<path>}
+     * @return the output target or an empty {@link Optional} if the value is
+     *         not well-formed
+     */
+    public static Optional<OutputTarget> parse(final String value)
+    {
+        final int separatorPosition = value.indexOf(SEPARATOR);
+        if (separatorPosition <= 0 || separatorPosition == value.length() - 1)
+        {
+            return Optional.empty();
+        }
+        final String format = value.substring(0, separatorPosition).trim();
+        final String path = value.substring(separatorPosition + 1).trim();
+        if (format.isEmpty() || path.isEmpty())
+        {
+            return Optional.empty();
+        }
+        try
+        {
+            return Optional.of(new OutputTarget(format, Paths.get(path)));
+        }
+        catch (final InvalidPathException exception)
+        {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Get the output format.
+     *
+     * @return output format
+     */
+    public String getFormat()
+    {
+        return this.format;
+    }
+
+    /**
+     * Get the output path.
+     *
+     * @return output path
+     */
+    public Path getPath()
+    {
+        return this.path;
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.format + SEPARATOR + this.path;
+    }
+}
@@ -6,6 +6,8 @@ import java.nio.file.Paths;
 import java.util.*;
 
 import org.itsallcode.openfasttrace.api.FilterSettings;
+import org.itsallcode.openfasttrace.api.core.ItemField;
+import org.itsallcode.openfasttrace.api.core.ItemTextStore;
 import org.itsallcode.openfasttrace.api.core.SpecificationItem;
 import org.itsallcode.openfasttrace.api.importer.ImportSettings;
 import org.itsallcode.openfasttrace.core.Oft;
@@ -21,6 +23,7 @@ public abstract class AbstractCommand implements Performable
     protected CliArguments arguments;
     /** The OFT instance for executing commands. */
     protected final Oft oft;
+    private ItemTextStore textStore = null;
 
     /**
      * Creates a new instance.
@@ -66,16 +69,10 @@ public abstract class AbstractCommand implements Performable
         final Set<String> wantedTags = this.arguments.getWantedTags();
         if (wantedTags != null && !wantedTags.isEmpty())
         {
-            if (wantedTags.contains(CliArguments.NO_TAGS_MARKER))
-            {
-                builder.withoutTags(true);
-                wantedTags.remove(CliArguments.NO_TAGS_MARKER);
-            }
-            else
-            {
-                builder.withoutTags(false);
-            }
-            builder.tags(wantedTags);
+            // Copy the tags, so that the settings can be created more than once
+            final Set<String> tags = new HashSet<>(wantedTags);
+            builder.withoutTags(tags.remove(CliArguments.NO_TAGS_MARKER));
+            builder.tags(tags);
         }
     }
 
@@ -86,11 +83,70 @@ public abstract class AbstractCommand implements Performable
      */
     protected List<SpecificationItem> importItems()
     {
-        final ImportSettings importSettings = ImportSettings
+        return this.oft.importItems(createImportSettings());
+    }
+
+    /**
+     * Create import settings from the command line arguments.
+     * 
+     * @return the import settings.
+     */
+    protected ImportSettings createImportSettings()
+    {
+        final ImportSettings.Builder builder = ImportSettings
                 .builder()
                 .addInputs(this.toPaths(this.arguments.getInputs()))
                 .filter(createFilterSettingsFromArguments())
-                .build();
-        return this.oft.importItems(importSettings);
+                .requiredFields(getRequiredItemFields());
+        getOffloadTextStore().ifPresent(builder::textStore);
+        return builder.build();
+    }
+
+    /**
+     * Get the store for the text of the items if the user asked to offload
+     * the item text from the heap.
+     * 
+     * @return the text store or an empty {@link Optional} if the text is kept
+     *         in memory.
+     */
+    protected Optional<ItemTextStore> getOffloadTextStore()
+    {
+        if (!this.arguments.getOffloadItemText())
+        {
+            return Optional.empty();
+        }
+        if (this.textStore == null)
+        {
+            this.textStore = ItemTextStore.createTemporary();
+        }
+        return Optional.of(this.textStore);
+    }
+
+    /**
+     * Close the text store, which deletes its file.
+     * <p>
+     * Commands call this when they are finished.
+     * </p>
+     */
+    protected void closeTextStore()
+    {
+        if (this.textStore != null)
+        {
+            this.textStore.close();
+            this.textStore = null;
+        }
+    }
+
+    /**
+     * Get the optional item fields that the command needs after importing.
+     * <p>
+     * The default implementation requires all fields.
+     * </p>
+     * 
+     * @return the required item fields.
+     */
+    protected Set<ItemField> getRequiredItemFields()
+    {
+        return ItemField.all();
     }
 }
\ No newline at end of file
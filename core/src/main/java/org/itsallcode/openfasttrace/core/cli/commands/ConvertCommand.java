@@ -1,9 +1,10 @@
 
 package org.itsallcode.openfasttrace.core.cli.commands;
 
-import java.util.List;
+import java.util.Set;
 
-import org.itsallcode.openfasttrace.api.core.SpecificationItem;
+import org.itsallcode.openfasttrace.api.core.ItemField;
+import org.itsallcode.openfasttrace.api.exporter.ShardSettings;
 import org.itsallcode.openfasttrace.core.ExportSettings;
 import org.itsallcode.openfasttrace.core.cli.CliArguments;
 
@@ -29,15 +30,23 @@ public class ConvertCommand extends AbstractCommand implements Performable
     @Override
     public boolean run()
     {
-        final List<SpecificationItem> items = importItems();
-        convert(items);
+        final ExportSettings exportSettings = createExportSettingsFromArguments();
+        try
+        {
+            this.oft.convert(createImportSettings(), this.arguments.getOutputPath(),
+                    exportSettings);
+        }
+        finally
+        {
+            closeTextStore();
+        }
         return true;
     }
 
-    private void convert(final List<SpecificationItem> items)
+    @Override
+    protected Set<ItemField> getRequiredItemFields()
     {
-        final ExportSettings exportSettings = createExportSettingsFromArguments();
-        this.oft.exportToPath(items, this.arguments.getOutputPath(), exportSettings);
+        return this.oft.getRequiredItemFields(createExportSettingsFromArguments());
     }
 
     private ExportSettings createExportSettingsFromArguments()
@@ -45,6 +54,27 @@ public class ConvertCommand extends AbstractCommand implements Performable
         return ExportSettings.builder() //
                 .newline(this.arguments.getNewline()) //
                 .outputFormat(this.arguments.getOutputFormat()) //
+                .shardSettings(createShardSettingsFromArguments()) //
                 .build();
     }
+
+    private ShardSettings createShardSettingsFromArguments()
+    {
+        final String shardBy = this.arguments.getShardBy();
+        if (shardBy == null)
+        {
+            return ShardSettings.none();
+        }
+        final ShardSettings.Builder builder = ShardSettings.builder()
+                .manifest(this.arguments.getShardManifest());
+        if (CliArguments.SHARD_BY_ARTIFACT_TYPE.equals(shardBy))
+        {
+            builder.byArtifactType();
+        }
+        else
+        {
+            builder.byItemCount(Integer.parseInt(shardBy));
+        }
+        return builder.build();
+    }
 }
@@ -0,0 +1,199 @@
+package org.itsallcode.openfasttrace.core.cli.commands;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * File caching the result of the last trace run.
+ * <p>
+ * The cache contains a key identifying the input and the settings of the run
+ * together with its result: the exit status, the output written to standard
+ * out and the contents of all files written by the run. A run with the same key
+ * can replay the result instead of importing and tracing the items again.
+ * </p>
+ * <p>
+ * The cache file is a binary file starting with a magic number and a format
+ * version. Strings are stored as UTF-8 bytes prefixed with their length.
+ * Problems reading or writing the cache are logged and otherwise ignored, so
+ * that the run falls back to tracing the items.
+ * </p>
+ */
+final class ResultCache
+{
+    private static final Logger LOG = Logger.getLogger(ResultCache.class.getName());
+    private static final int MAGIC = 0x4F465452; // "OFTR"
+    private static final int FORMAT_VERSION = 2;
+
+    private final Path path;
+
+    /**
+     * Create a new result cache.
+     *
+     * @param path
+     *            path of the cache file
+     */
+    ResultCache(final Path path)
+    {
+        this.path = path;
+    }
+
+    /**
+     * Load the cached result if it was stored with the given key.
+     *
+     * @param key
+     *            key identifying input and settings of the current run
+     * @return the cached result or an empty {@link Optional} if the cache does
+     *         not exist, was stored with a different key or can't be read
+     */
+    Optional<Result> load(final String key)
+    {
+        if (!Files.isRegularFile(this.path))
+        {
+            return Optional.empty();
+        }
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(this.path))))
+        {
+            if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION
+                    || !key.equals(readString(input)))
+            {
+                LOG.fine(() -> "Result cache '" + this.path + "' does not match this run.");
+                return Optional.empty();
+            }
+            return Optional.of(readResult(input));
+        }
+        catch (final IOException | RuntimeException exception)
+        {
+            LOG.warning(() -> "Ignoring unreadable result cache '" + this.path + "': "
+                    + exception);
+            return Optional.empty();
+        }
+    }
+
+    private static Result readResult(final DataInputStream input) throws IOException
+    {
+        final boolean success = input.readBoolean();
+        final byte[] standardOutput = readBytes(input);
+        final int fileCount = input.readInt();
+        final Map<Path, byte[]> files = new LinkedHashMap<>();
+        for (int i = 0; i < fileCount; ++i)
+        {
+            files.put(Paths.get(readString(input)), readBytes(input));
+        }
+        return new Result(success, standardOutput, files);
+    }
+
+    private static byte[] readBytes(final DataInputStream input) throws IOException
+    {
+        final byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    private static String readString(final DataInputStream input) throws IOException
+    {
+        return new String(readBytes(input), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Store a result in the cache, replacing the previous one.
+     *
+     * @param key
+     *            key identifying input and settings of the run
+     * @param result
+     *            result of the run
+     */
+    void save(final String key, final Result result)
+    {
+        try
+        {
+            final Path absolutePath = this.path.toAbsolutePath();
+            final Path tempFile = Files.createTempFile(absolutePath.getParent(),
+                    absolutePath.getFileName().toString(), ".tmp");
+            try
+            {
+                try (DataOutputStream output = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(tempFile))))
+                {
+                    output.writeInt(MAGIC);
+                    output.writeInt(FORMAT_VERSION);
+                    writeString(output, key);
+                    writeResult(output, result);
+                }
+                Files.move(tempFile, absolutePath, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            }
+            finally
+            {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+        catch (final IOException exception)
+        {
+            LOG.warning(() -> "Failed to write result cache '" + this.path + "': "
+                    + exception);
+        }
+    }
+
+    private static void writeResult(final DataOutputStream output, final Result result)
+            throws IOException
+    {
+        output.writeBoolean(result.success());
+        writeBytes(output, result.standardOutput());
+        output.writeInt(result.files().size());
+        for (final Map.Entry<Path, byte[]> file : result.files().entrySet())
+        {
+            writeString(output, file.getKey().toString());
+            writeBytes(output, file.getValue());
+        }
+    }
+
+    private static void writeBytes(final DataOutputStream output, final byte[] bytes)
+            throws IOException
+    {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    // Unlike DataOutputStream.writeUTF(), this supports strings longer than
+    // 65535 bytes, e.g. keys listing many input files.
+    private static void writeString(final DataOutputStream output, final String value)
+            throws IOException
+    {
+        writeBytes(output, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Result of a trace run.
+     *
+     * @param success
+     *            {@code true} if the trace had no defects
+     * @param standardOutput
+     *            output written to standard out
+     * @param files
+     *            contents of the files written by the run
+     */
+    record Result(boolean success, byte[] standardOutput, Map<Path, byte[]> files)
+    {
+        /**
+         * Write the files and the output to standard out again.
+         *
+         * @param standardOutputStream
+         *            stream receiving the output for standard out
+         * @throws IOException
+         *             if writing fails
+         */
+        void replay(final OutputStream standardOutputStream) throws IOException
+        {
+            for (final Map.Entry<Path, byte[]> file : this.files.entrySet())
+            {
+                Files.write(file.getKey(), file.getValue());
+            }
+            standardOutputStream.write(this.standardOutput);
+            standardOutputStream.flush();
+        }
+    }
+}
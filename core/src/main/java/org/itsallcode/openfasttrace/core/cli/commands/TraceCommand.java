@@ -1,22 +1,54 @@
 
 package org.itsallcode.openfasttrace.core.cli.commands;
 
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
+import org.itsallcode.openfasttrace.api.ColorScheme;
 import org.itsallcode.openfasttrace.api.ReportSettings;
 import org.itsallcode.openfasttrace.api.core.*;
-import org.itsallcode.openfasttrace.core.Oft;
+import org.itsallcode.openfasttrace.api.report.ReportException;
+import org.itsallcode.openfasttrace.core.ExportSettings;
 import org.itsallcode.openfasttrace.core.cli.CliArguments;
+import org.itsallcode.openfasttrace.core.cli.OutputTarget;
 
 /**
  * Handler for requirement tracing CLI command.
+ * <p>
+ * Besides the main report, the command can write additional reports and
+ * exports of the imported items. All of them are created concurrently after
+ * tracing, so that importing, linking and tracing happen only once. Exports
+ * share the items with the trace and only copy items whose covered IDs were
+ * extended by linking.
+ * </p>
+ * <p>
+ * The trace can also be saved as a snapshot and loaded from a snapshot
+ * instead of tracing the input files, so that reports can be created at a
+ * later stage.
+ * </p>
+ * <p>
+ * With a result cache, the command replays the result of the last run
+ * without importing the items if neither the input files nor the settings
+ * changed since.
+ * </p>
  */
 public class TraceCommand extends AbstractCommand
 {
     /** The command line action for running this command. */
     public static final String COMMAND_NAME = "trace";
 
+    private static final Logger LOG = Logger.getLogger(TraceCommand.class.getName());
+
+    private List<SpecificationItem> itemsToExport = List.of();
+    private int[] importedCoveredIdCounts = new int[0];
+
     /**
      * Create a {@link TraceCommand}.
      * 
@@ -31,13 +63,256 @@ public class TraceCommand extends AbstractCommand
     @Override
     public boolean run()
     {
-        final List<SpecificationItem> items = importItems();
-        final List<LinkedSpecificationItem> linkedItems = linkItems(items);
-        final Trace trace = traceItems(linkedItems);
-        report(this.oft, trace);
+        try
+        {
+            if (this.arguments.getResultCache() == null)
+            {
+                return traceAndWriteOutputs(this.arguments.getOutputPath());
+            }
+            else
+            {
+                return runWithResultCache(new ResultCache(this.arguments.getResultCache()));
+            }
+        }
+        finally
+        {
+            closeTextStore();
+        }
+    }
+
+    private boolean traceAndWriteOutputs(final Path reportPath)
+    {
+        final Trace trace = traceItems();
+        final List<Runnable> outputs = new ArrayList<>();
+        outputs.add(() -> report(trace, reportPath));
+        outputs.addAll(createAdditionalReports(trace));
+        outputs.addAll(createExports());
+        if (this.arguments.getSaveSnapshot() != null)
+        {
+            outputs.add(() -> this.oft.saveSnapshot(trace, this.arguments.getSaveSnapshot()));
+        }
+        runConcurrently(outputs);
         return trace.hasNoDefects();
     }
 
+    private boolean runWithResultCache(final ResultCache cache)
+    {
+        final Optional<String> key = createResultCacheKey();
+        if (key.isEmpty())
+        {
+            LOG.fine("Input files were modified too recently for caching the result.");
+            return traceAndWriteOutputs(this.arguments.getOutputPath());
+        }
+        final Optional<ResultCache.Result> cachedResult = cache.load(key.get());
+        if (cachedResult.isPresent())
+        {
+            LOG.fine(() -> "Replaying result cached in '" + this.arguments.getResultCache() + "'.");
+            return replay(cachedResult.get());
+        }
+        return traceAndCacheResult(cache, key.get());
+    }
+
+    // The key combines the fingerprint of the input with all settings that
+    // influence the output of the run.
+    private Optional<String> createResultCacheKey()
+    {
+        return this.oft.createInputFingerprint(createImportSettings())
+                .map(fingerprint -> fingerprint //
+                        + ";outputFormat=" + this.arguments.getOutputFormat() //
+                        + ";outputPath=" + this.arguments.getOutputPath() //
+                        + ";verbosity=" + this.arguments.getReportVerbosity() //
+                        + ";newline=" + this.arguments.getNewline().name() //
+                        + ";showOrigin=" + this.arguments.getShowOrigin() //
+                        + ";colorScheme=" + this.arguments.getColorScheme() //
+                        + ";detailsSectionDisplay=" + this.arguments.getDetailsSectionDisplay() //
+                        + ";itemsPerPage=" + this.arguments.getItemsPerPage() //
+                        + ";reports=" + this.arguments.getAdditionalReports() //
+                        + ";exports=" + this.arguments.getExports() //
+                        + ";saveSnapshot=" + this.arguments.getSaveSnapshot() //
+                        + ";failFast=" + this.arguments.getFailFast() //
+                        + ";stateFile=" + this.arguments.getStateFile() //
+                        + ";changedFiles=" + this.arguments.getChangedFiles());
+    }
+
+    private static boolean replay(final ResultCache.Result result)
+    {
+        try
+        {
+            result.replay(getStdOutStream());
+        }
+        catch (final IOException exception)
+        {
+            throw new ReportException("Failed to replay cached result: " + exception.getMessage(),
+                    exception);
+        }
+        return result.success();
+    }
+
+    // A report for standard out is written to a temporary file first, so that
+    // it can be cached.
+    private boolean traceAndCacheResult(final ResultCache cache, final String key)
+    {
+        try
+        {
+            final Path standardOutputFile = (this.arguments.getOutputPath() == null)
+                    ? Files.createTempFile("oft-report", ".tmp")
+                    : null;
+            try
+            {
+                final boolean success = traceAndWriteOutputs(
+                        standardOutputFile == null ? this.arguments.getOutputPath()
+                                : standardOutputFile);
+                final byte[] standardOutput = standardOutputFile == null ? new byte[0]
+                        : Files.readAllBytes(standardOutputFile);
+                getStdOutStream().write(standardOutput);
+                getStdOutStream().flush();
+                final Optional<Map<Path, byte[]>> files = readOutputFiles();
+                if (files.isPresent())
+                {
+                    cache.save(key, new ResultCache.Result(success, standardOutput, files.get()));
+                }
+                return success;
+            }
+            finally
+            {
+                if (standardOutputFile != null)
+                {
+                    Files.deleteIfExists(standardOutputFile);
+                }
+            }
+        }
+        catch (final IOException exception)
+        {
+            throw new ReportException("Failed to write report to standard out: "
+                    + exception.getMessage(), exception);
+        }
+    }
+
+    private Optional<Map<Path, byte[]>> readOutputFiles() throws IOException
+    {
+        final List<Path> paths = new ArrayList<>();
+        if (this.arguments.getOutputPath() != null)
+        {
+            paths.add(this.arguments.getOutputPath());
+        }
+        for (final String output : this.arguments.getAdditionalReports())
+        {
+            paths.add(OutputTarget.parse(output).orElseThrow().getPath());
+        }
+        for (final String output : this.arguments.getExports())
+        {
+            paths.add(OutputTarget.parse(output).orElseThrow().getPath());
+        }
+        if (this.arguments.getSaveSnapshot() != null)
+        {
+            paths.add(this.arguments.getSaveSnapshot());
+        }
+        final Map<Path, byte[]> files = new LinkedHashMap<>();
+        for (final Path path : paths)
+        {
+            if (!Files.isRegularFile(path))
+            {
+                LOG.fine(() -> "Not caching the result, because output '" + path
+                        + "' is not a single file.");
+                return Optional.empty();
+            }
+            files.put(path, Files.readAllBytes(path));
+        }
+        return Optional.of(files);
+    }
+
+    // Using System.out by intention
+    @SuppressWarnings("squid:S106")
+    private static PrintStream getStdOutStream()
+    {
+        return System.out;
+    }
+
+    private Trace traceItems()
+    {
+        if (this.arguments.getLoadSnapshot() != null)
+        {
+            final Path snapshot = this.arguments.getLoadSnapshot();
+            return getOffloadTextStore().map(store -> this.oft.loadSnapshot(snapshot, store))
+                    .orElseGet(() -> this.oft.loadSnapshot(snapshot));
+        }
+        else if (this.arguments.getFailFast())
+        {
+            return this.oft.traceFailFast(createImportSettings());
+        }
+        else if (this.arguments.getStateFile() != null)
+        {
+            return this.oft.traceIncrementally(createImportSettings(),
+                    this.arguments.getStateFile());
+        }
+        else if (!this.arguments.getChangedFiles().isEmpty())
+        {
+            return this.oft.traceImpact(importItemsForTracing(), this.arguments.getChangedFiles());
+        }
+        else
+        {
+            return importAndTrace();
+        }
+    }
+
+    private Trace importAndTrace()
+    {
+        final List<SpecificationItem> items = importItemsForTracing();
+        final List<LinkedSpecificationItem> linkedItems = linkItems(items);
+        return traceItems(linkedItems);
+    }
+
+    private List<SpecificationItem> importItemsForTracing()
+    {
+        final List<SpecificationItem> items = importItems();
+        if (!this.arguments.getExports().isEmpty())
+        {
+            // Linking appends the IDs of covered items to the covering items.
+            // Remembering how many IDs each item had before linking is enough
+            // to export the same items as the convert command.
+            this.itemsToExport = items;
+            this.importedCoveredIdCounts = new int[items.size()];
+            for (int i = 0; i < items.size(); ++i)
+            {
+                this.importedCoveredIdCounts[i] = items.get(i).getCoveredIds().size();
+            }
+        }
+        return items;
+    }
+
+    // Only the few items that linking extended are copied.
+    private List<SpecificationItem> getImportedItemsToExport()
+    {
+        final List<SpecificationItem> items = new ArrayList<>(this.itemsToExport.size());
+        for (int i = 0; i < this.itemsToExport.size(); ++i)
+        {
+            final SpecificationItem item = this.itemsToExport.get(i);
+            final int importedCount = this.importedCoveredIdCounts[i];
+            items.add((item.getCoveredIds().size() == importedCount) ? item
+                    : copyItem(item, item.getCoveredIds().subList(0, importedCount)));
+        }
+        return items;
+    }
+
+    private static SpecificationItem copyItem(final SpecificationItem item,
+            final List<SpecificationItemId> coveredIds)
+    {
+        final SpecificationItem.Builder builder = SpecificationItem.builder() //
+                .id(item.getId()) //
+                .title(item.getTitle()) //
+                .description(item.getDescriptionText()) //
+                .rationale(item.getRationaleText()) //
+                .comment(item.getCommentText()) //
+                .status(item.getStatus()) //
+                .location(item.getLocation()) //
+                .forwards(item.isForwarding());
+        coveredIds.forEach(builder::addCoveredId);
+        item.getDependOnIds().forEach(builder::addDependOnId);
+        item.getNeedsArtifactTypes().forEach(builder::addNeedsArtifactType);
+        item.getTags().forEach(builder::addTag);
+        return builder.build();
+    }
+
     private List<LinkedSpecificationItem> linkItems(final List<SpecificationItem> items)
     {
         return this.oft.link(items);
@@ -48,29 +323,135 @@ public class TraceCommand extends AbstractCommand
         return this.oft.trace(linkedItems);
     }
 
-    private void report(final Oft oft, final Trace trace)
+    private void report(final Trace trace, final Path outputPath)
     {
-        final Path outputPath = this.arguments.getOutputPath();
-        final ReportSettings reportSettings = convertCommandLineArgumentsToReportSettings();
+        final ReportSettings reportSettings = createReportSettings(this.arguments.getOutputFormat(),
+                this.arguments.getColorScheme());
         if (null == outputPath)
         {
-            oft.reportToStdOut(trace, reportSettings);
+            this.oft.reportToStdOut(trace, reportSettings);
         }
         else
         {
-            oft.reportToPath(trace, this.arguments.getOutputPath(), reportSettings);
+            this.oft.reportToPath(trace, outputPath, reportSettings);
+        }
+    }
+
+    private List<Runnable> createAdditionalReports(final Trace trace)
+    {
+        final List<Runnable> reports = new ArrayList<>();
+        for (final String report : this.arguments.getAdditionalReports())
+        {
+            final OutputTarget target = OutputTarget.parse(report).orElseThrow();
+            // Like all reports written to a file, additional reports have no
+            // colors.
+            final ReportSettings reportSettings = createReportSettings(target.getFormat(),
+                    ColorScheme.BLACK_AND_WHITE);
+            reports.add(() -> this.oft.reportToPath(trace, target.getPath(), reportSettings));
+        }
+        return reports;
+    }
+
+    private List<Runnable> createExports()
+    {
+        final List<Runnable> exports = new ArrayList<>();
+        if (this.arguments.getExports().isEmpty())
+        {
+            return exports;
+        }
+        final List<SpecificationItem> items = getImportedItemsToExport();
+        for (final String export : this.arguments.getExports())
+        {
+            final OutputTarget target = OutputTarget.parse(export).orElseThrow();
+            final ExportSettings exportSettings = createExportSettings(target);
+            exports.add(() -> this.oft.exportToPath(items, target.getPath(), exportSettings));
+        }
+        return exports;
+    }
+
+    private ExportSettings createExportSettings(final OutputTarget target)
+    {
+        return ExportSettings.builder() //
+                .newline(this.arguments.getNewline()) //
+                .outputFormat(target.getFormat()) //
+                .build();
+    }
+
+    private static void runConcurrently(final List<Runnable> outputs)
+    {
+        if (outputs.size() == 1)
+        {
+            outputs.get(0).run();
+            return;
+        }
+        final List<CompletableFuture<Void>> futures = outputs.stream() //
+                .map(CompletableFuture::runAsync) //
+                .collect(Collectors.toList());
+        RuntimeException firstFailure = null;
+        for (final CompletableFuture<Void> future : futures)
+        {
+            try
+            {
+                future.join();
+            }
+            catch (final CompletionException exception)
+            {
+                if (firstFailure == null)
+                {
+                    firstFailure = unwrap(exception);
+                }
+            }
+        }
+        if (firstFailure != null)
+        {
+            throw firstFailure;
+        }
+    }
+
+    private static RuntimeException unwrap(final CompletionException exception)
+    {
+        return (exception.getCause() instanceof RuntimeException)
+                ? (RuntimeException) exception.getCause()
+                : exception;
+    }
+
+    // Snapshots contain all fields of the items, reports and exports only
+    // those their factories declare.
+    @Override
+    protected Set<ItemField> getRequiredItemFields()
+    {
+        if (this.arguments.getSaveSnapshot() != null)
+        {
+            return ItemField.all();
+        }
+        final Set<ItemField> fields = ItemField.none();
+        fields.addAll(this.oft.getRequiredItemFields(createReportSettings(
+                this.arguments.getOutputFormat(), this.arguments.getColorScheme())));
+        for (final String report : this.arguments.getAdditionalReports())
+        {
+            final OutputTarget target = OutputTarget.parse(report).orElseThrow();
+            fields.addAll(this.oft.getRequiredItemFields(
+                    createReportSettings(target.getFormat(), ColorScheme.BLACK_AND_WHITE)));
+        }
+        for (final String export : this.arguments.getExports())
+        {
+            final OutputTarget target = OutputTarget.parse(export).orElseThrow();
+            fields.addAll(this.oft.getRequiredItemFields(createExportSettings(target)));
         }
+        return fields;
     }
 
-    private ReportSettings convertCommandLineArgumentsToReportSettings()
+    private ReportSettings createReportSettings(final String outputFormat,
+            final ColorScheme colorScheme)
     {
         return ReportSettings.builder() //
-                .outputFormat(this.arguments.getOutputFormat()) //
+                .outputFormat(outputFormat) //
                 .verbosity(this.arguments.getReportVerbosity()) //
                 .newline(this.arguments.getNewline()) //
                 .showOrigin(this.arguments.getShowOrigin()) //
-                .colorScheme(this.arguments.getColorScheme()) //
+                .colorScheme(colorScheme) //
                 .detailsSectionDisplay(this.arguments.getDetailsSectionDisplay()) //
+                .itemsPerPage(this.arguments.getItemsPerPage()) //
                 .build();
     }
 }
@@ -2,8 +2,10 @@ package org.itsallcode.openfasttrace.core.exporter;
 
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.Set;
 import java.util.stream.Stream;
 
+import org.itsallcode.openfasttrace.api.core.ItemField;
 import org.itsallcode.openfasttrace.api.core.LinkedSpecificationItem;
 import org.itsallcode.openfasttrace.api.core.SpecificationItem;
 import org.itsallcode.openfasttrace.api.exporter.ExporterFactory;
@@ -47,4 +49,18 @@ public class ExporterService
         factory.createExporter(outputFile, settings.getOutputFormat(), StandardCharsets.UTF_8,
                 settings.getNewline(), itemStream).runExport();
     }
+
+    /**
+     * Get the optional item fields that an export in the given output format
+     * writes.
+     *
+     * @param outputFormat
+     *            the format of the export. Must be a value supported by
+     *            {@link ExporterFactory#supportsFormat(String)}.
+     * @return the required item fields.
+     */
+    public Set<ItemField> getRequiredItemFields(final String outputFormat)
+    {
+        return this.factoryLoader.getExporterFactory(outputFormat).getRequiredItemFields();
+    }
 }
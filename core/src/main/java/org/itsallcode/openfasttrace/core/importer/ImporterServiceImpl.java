@@ -1,4 +1,6 @@
 package org.itsallcode.openfasttrace.core.importer;
+
+import java.nio.file.Path;
 import java.util.List;
 
 import org.itsallcode.openfasttrace.api.core.SpecificationItem;
@@ -9,11 +11,16 @@ import org.itsallcode.openfasttrace.api.importer.input.InputFile;
  * An implementation of the {@link ImporterService} interface. This service
  * provides convenient methods for importing {@link SpecificationItem}s that
  * automatically use the correct {@link Importer} based on the filename.
+ * <p>
+ * All imports of the service share a {@link StringPool}, so that paths, tags
+ * and artifact types repeated across items and files are kept only once.
+ * </p>
  */
 public class ImporterServiceImpl implements ImporterService
 {
     private final ImporterFactoryLoader factoryLoader;
     private final ImportSettings settings;
+    private final StringPool stringPool = new StringPool();
 
     /**
      * Create a new instance of an {@link ImporterServiceImpl}
@@ -45,9 +52,21 @@ public class ImporterServiceImpl implements ImporterService
     }
 
     @Override
-    public MultiFileImporter createImporter()
+    public MultiFileImporterImpl createImporter()
+    {
+        return createImporter(SpecificationListBuilder.create(this.settings, this.stringPool));
+    }
+
+    /**
+     * List the files that an import of the given paths would read, in import
+     * order.
+     * 
+     * @param paths
+     *            files and directories to be listed.
+     * @return the input files.
+     */
+    public List<InputFile> listInputFiles(final List<Path> paths)
     {
-        return createImporter(
-                SpecificationListBuilder.createWithFilter(this.settings.getFilters()));
+        return createImporter().listFiles(paths);
     }
 }
\ No newline at end of file
@@ -5,10 +5,12 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.itsallcode.openfasttrace.api.core.SpecificationItem;
@@ -78,31 +80,68 @@ public class MultiFileImporterImpl implements MultiFileImporter
     @Override
     public MultiFileImporter importRecursiveDir(final Path dir, final String glob)
     {
-        final PathMatcher matcher = dir.getFileSystem().getPathMatcher("glob:" + glob);
         final AtomicInteger fileCount = new AtomicInteger(0);
         final int itemCountBefore = this.specItemBuilder.getItemCount();
+        listRecursiveDir(dir, glob).stream()
+                .map(file -> createImporterIfPossible(file, this.specItemBuilder))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .forEach(importer -> {
+                    importer.runImport();
+                    fileCount.incrementAndGet();
+                });
+        final int itemCountImported = this.specItemBuilder.getItemCount() - itemCountBefore;
+        LOG.fine(() -> "Imported " + fileCount + " files containing " + itemCountImported
+                + " items from '" + dir + "'.");
+        return this;
+    }
+
+    /**
+     * List the files that {@link #importAny(List)} would import from the given
+     * paths in the order in which it would import them.
+     * 
+     * @param paths
+     *            files and directories to be listed.
+     * @return the input files.
+     */
+    public List<InputFile> listFiles(final List<Path> paths)
+    {
+        final List<InputFile> files = new ArrayList<>();
+        for (final Path path : paths)
+        {
+            final File file = path.toFile();
+            if (file.isDirectory())
+            {
+                files.addAll(listRecursiveDir(path, ALL_RECURSIVE_GLOB));
+            }
+            else if (file.exists())
+            {
+                files.add(RealFileInput.forPath(path));
+            }
+            else
+            {
+                LOG.warning(() -> "No such input file or directory \"" + path.toString()
+                        + "\". Skipping.");
+            }
+        }
+        return files;
+    }
+
+    private List<InputFile> listRecursiveDir(final Path dir, final String glob)
+    {
+        final PathMatcher matcher = dir.getFileSystem().getPathMatcher("glob:" + glob);
         try (Stream<Path> fileStream = Files.walk(dir))
         {
-            fileStream.filter(path -> !path.toFile().isDirectory())
+            return fileStream.filter(path -> !path.toFile().isDirectory())
                     .filter(matcher::matches)
                     .map(path -> RealFileInput.forPath(path, DEFAULT_CHARSET))
                     .filter(this.factoryLoader::supportsFile)
-                    .map(file -> createImporterIfPossible(file, this.specItemBuilder))
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .forEach(importer -> {
-                        importer.runImport();
-                        fileCount.incrementAndGet();
-                    });
+                    .collect(Collectors.toList());
         }
         catch (final IOException exception)
         {
             throw new ImporterException("Error walking directory " + dir, exception);
         }
-        final int itemCountImported = this.specItemBuilder.getItemCount() - itemCountBefore;
-        LOG.fine(() -> "Imported " + fileCount + " files containing " + itemCountImported
-                + " items from '" + dir + "'.");
-        return this;
     }
 
     @Override
@@ -2,9 +2,10 @@ package org.itsallcode.openfasttrace.core.report;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Set;
 
+import org.itsallcode.openfasttrace.api.core.ItemField;
 import org.itsallcode.openfasttrace.api.core.Trace;
 import org.itsallcode.openfasttrace.api.report.ReportException;
 import org.itsallcode.openfasttrace.api.report.Reportable;
@@ -33,7 +34,8 @@ public class ReportService
 
     /**
      * Generate a report for the given {@link Trace} in the given output format
-     * and write it to a file.
+     * and write it to a file. Reports consisting of more than one file are
+     * written to a directory at the given path instead.
      * 
      * @param trace
      *            the content of the report.
@@ -46,14 +48,7 @@ public class ReportService
     public void reportTraceToPath(final Trace trace, final Path outputPath,
             final String outputFormat)
     {
-        try (OutputStream outputStream = Files.newOutputStream(outputPath))
-        {
-            reportTraceToStream(trace, outputStream, outputFormat);
-        }
-        catch (final IOException e)
-        {
-            throw new ReportException("Error generating stream to output path " + outputPath, e);
-        }
+        createReport(trace, outputFormat).renderToPath(outputPath);
     }
 
     /**
@@ -71,6 +66,20 @@ public class ReportService
         reportTraceToStream(trace, getStdOutStream(), outputFormat);
     }
 
+    /**
+     * Get the optional item fields that a report in the given output format
+     * reads.
+     * 
+     * @param outputFormat
+     *            the format of the report. Must be a value supported by
+     *            {@link ReporterFactory#supportsFormat(String)}.
+     * @return the required item fields.
+     */
+    public Set<ItemField> getRequiredItemFields(final String outputFormat)
+    {
+        return reporterFactoryLoader.getReporterFactory(outputFormat).getRequiredItemFields();
+    }
+
     // Using System.out by intention
     @SuppressWarnings("squid:S106")
     private PrintStream getStdOutStream()
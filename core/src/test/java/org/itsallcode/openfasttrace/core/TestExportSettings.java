@@ -4,6 +4,7 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import org.itsallcode.openfasttrace.api.core.Newline;
+import org.itsallcode.openfasttrace.api.exporter.ShardSettings;
 import org.itsallcode.openfasttrace.core.exporter.ExporterConstants;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -43,4 +44,18 @@ class TestExportSettings
         assertThat(this.builder.newline(Newline.OLDMAC).build().getNewline(),
                 equalTo(Newline.OLDMAC));
     }
+
+    @Test
+    void testDefaultShardSettings()
+    {
+        assertThat(this.builder.build().getShardSettings().isSharded(), equalTo(false));
+    }
+
+    @Test
+    void testBuildWithShardSettings()
+    {
+        final ShardSettings shardSettings = ShardSettings.builder().byItemCount(10).build();
+        assertThat(this.builder.shardSettings(shardSettings).build().getShardSettings(),
+                equalTo(shardSettings));
+    }
 }
@@ -0,0 +1,125 @@
+package org.itsallcode.openfasttrace.core;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.itsallcode.openfasttrace.testutil.core.ItemBuilderFactory.item;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import org.itsallcode.openfasttrace.api.core.*;
+import org.junit.jupiter.api.Test;
+
+class TestImpactTracer
+{
+    private static final String REQ_FILE = "req.md";
+    private static final String DSN_FILE = "dsn.md";
+    private static final String IMPL_FILE = "impl.java";
+    private static final String OTHER_FILE = "other.md";
+
+    @Test
+    void testNoChangedFilesGivesEmptyTrace()
+    {
+        final Trace trace = new ImpactTracer(items()).trace(List.of());
+        assertThat(trace.getItems(), empty());
+    }
+
+    @Test
+    void testChangedImplementationAffectsUpstreamAndSiblings()
+    {
+        final Trace trace = traceImpact(IMPL_FILE);
+        assertThat(ids(trace.getItems()), contains("req~a~1", "req~b~1", "dsn~a~1", "dsn~b~1",
+                "dsn~c~1", "impl~a~1", "impl~b~1"));
+        assertSameLinksAndDefectsAsFullTrace(trace);
+    }
+
+    @Test
+    void testChangedRequirementAffectsDownstream()
+    {
+        final Trace trace = traceImpact(REQ_FILE);
+        assertThat(ids(trace.getItems()), contains("req~a~1", "req~b~1", "dsn~a~1", "dsn~b~1",
+                "dsn~c~1", "impl~a~1", "impl~b~1"));
+        assertSameLinksAndDefectsAsFullTrace(trace);
+    }
+
+    @Test
+    void testCoveringItemLinksToTargetOutsideOfScope()
+    {
+        final Trace trace = traceImpact(OTHER_FILE);
+        assertThat(ids(trace.getItems()), contains("dsn~c~1", "other~x~1", "other~y~1"));
+        assertThat(ids(trace.getDefectItems()), contains("dsn~c~1", "other~x~1", "other~y~1"));
+        assertSameLinksAndDefectsAsFullTrace(trace);
+    }
+
+    @Test
+    void testChangedDesignAffectsAllConnectedItems()
+    {
+        final Trace trace = traceImpact(DSN_FILE);
+        assertThat(ids(trace.getItems()), contains("req~a~1", "req~b~1", "dsn~a~1", "dsn~b~1",
+                "dsn~c~1", "impl~a~1", "impl~b~1", "other~y~1"));
+        assertSameLinksAndDefectsAsFullTrace(trace);
+    }
+
+    private static Trace traceImpact(final String changedFile)
+    {
+        return new ImpactTracer(items()).trace(List.of(Path.of(changedFile)));
+    }
+
+    private static List<SpecificationItem> items()
+    {
+        return List.of( //
+                item().id("req", "a", 1).location(REQ_FILE, 1).addNeedsArtifactType("dsn").build(),
+                item().id("req", "b", 1).location(REQ_FILE, 2).addNeedsArtifactType("dsn").build(),
+                item().id("dsn", "a", 1).location(DSN_FILE, 1).addCoveredId("req", "a", 1)
+                        .addNeedsArtifactType("impl").build(),
+                item().id("dsn", "b", 1).location(DSN_FILE, 2).addCoveredId("req", "b", 1)
+                        .addNeedsArtifactType("impl").build(),
+                item().id("dsn", "c", 1).location(DSN_FILE, 3).addCoveredId("req", "b", 1)
+                        .addCoveredId("other", "y", 1).addNeedsArtifactType("impl").build(),
+                item().id("impl", "a", 1).location(IMPL_FILE, 1).addCoveredId("dsn", "a", 1)
+                        .build(),
+                item().id("impl", "b", 1).location(IMPL_FILE, 2).addCoveredId("dsn", "b", 2)
+                        .build(),
+                item().id("other", "x", 1).location(OTHER_FILE, 1)
+                        .addNeedsArtifactType("dsn").build(),
+                item().id("other", "y", 1).location(OTHER_FILE, 2)
+                        .addNeedsArtifactType("dsn").build());
+    }
+
+    private static List<String> ids(final List<LinkedSpecificationItem> items)
+    {
+        return items.stream().map(item -> item.getId().toString()).collect(Collectors.toList());
+    }
+
+    private static void assertSameLinksAndDefectsAsFullTrace(final Trace trace)
+    {
+        final Oft oft = Oft.create();
+        final Trace fullTrace = oft.trace(oft.link(items()));
+        final Map<String, String> expected = new HashMap<>();
+        for (final LinkedSpecificationItem item : fullTrace.getItems())
+        {
+            expected.put(item.getId().toString(), describe(item));
+        }
+        for (final LinkedSpecificationItem item : trace.getItems())
+        {
+            assertThat(describe(item), equalTo(expected.get(item.getId().toString())));
+        }
+        final Set<String> affectedIds = new HashSet<>(ids(trace.getItems()));
+        assertThat(ids(trace.getDefectItems()), equalTo(ids(fullTrace.getDefectItems()).stream()
+                .filter(affectedIds::contains).collect(Collectors.toList())));
+    }
+
+    private static String describe(final LinkedSpecificationItem item)
+    {
+        final StringBuilder builder = new StringBuilder();
+        for (final Map.Entry<LinkStatus, List<LinkedSpecificationItem>> entry : item.getLinks()
+                .entrySet())
+        {
+            builder.append(entry.getKey()).append(':').append(ids(entry.getValue())).append(' ');
+        }
+        return builder.append("defect: ").append(item.isDefect()).toString();
+    }
+}
@@ -0,0 +1,102 @@
+package org.itsallcode.openfasttrace.core;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+
+import org.itsallcode.openfasttrace.api.FilterSettings;
+import org.itsallcode.openfasttrace.api.importer.ImportSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestInputFingerprint
+{
+    private static final FileTime LAST_HOUR = FileTime
+            .from(Instant.now().minusSeconds(3600));
+
+    @TempDir
+    Path tempDir;
+    private Path first;
+    private Path second;
+
+    @BeforeEach
+    void beforeEach() throws IOException
+    {
+        this.first = createFile("first.md", "first");
+        this.second = createFile("second.md", "second");
+    }
+
+    private Path createFile(final String name, final String content) throws IOException
+    {
+        final Path file = this.tempDir.resolve(name);
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, LAST_HOUR);
+        return file;
+    }
+
+    @Test
+    void testSameInputGivesSameFingerprint()
+    {
+        final String fingerprint = fingerprint(settings(this.first, this.second)).orElseThrow();
+        assertThat(fingerprint(settings(this.first, this.second)),
+                equalTo(Optional.of(fingerprint)));
+    }
+
+    @Test
+    void testFingerprintDependsOnInputFiles()
+    {
+        assertThat(fingerprint(settings(this.first)),
+                not(equalTo(fingerprint(settings(this.first, this.second)))));
+    }
+
+    @Test
+    void testFingerprintChangesWithFileSize() throws IOException
+    {
+        final Optional<String> before = fingerprint(settings(this.first));
+        createFile("first.md", "first changed");
+        assertThat(fingerprint(settings(this.first)), not(equalTo(before)));
+    }
+
+    @Test
+    void testFingerprintChangesWithModificationTime() throws IOException
+    {
+        final Optional<String> before = fingerprint(settings(this.first));
+        Files.setLastModifiedTime(this.first, FileTime.from(LAST_HOUR.toInstant().plusSeconds(1)));
+        assertThat(fingerprint(settings(this.first)), not(equalTo(before)));
+    }
+
+    @Test
+    void testFingerprintDependsOnFilters()
+    {
+        final ImportSettings filtered = ImportSettings.builder() //
+                .addInputs(this.first) //
+                .filter(FilterSettings.builder().artifactTypes(Set.of("req")).build()) //
+                .build();
+        assertThat(fingerprint(filtered), not(equalTo(fingerprint(settings(this.first)))));
+    }
+
+    @Test
+    void testNoFingerprintForRecentlyModifiedFile() throws IOException
+    {
+        Files.setLastModifiedTime(this.second, FileTime.from(Instant.now()));
+        assertThat(fingerprint(settings(this.first, this.second)), equalTo(Optional.empty()));
+    }
+
+    private static ImportSettings settings(final Path... inputs)
+    {
+        return ImportSettings.builder().addInputs(inputs).build();
+    }
+
+    private static Optional<String> fingerprint(final ImportSettings settings)
+    {
+        return Oft.create().createInputFingerprint(settings);
+    }
+}
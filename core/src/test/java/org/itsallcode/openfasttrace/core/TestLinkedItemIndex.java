@@ -5,16 +5,17 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.Mockito.lenient;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 import org.itsallcode.openfasttrace.api.core.*;
-import org.itsallcode.openfasttrace.core.LinkedItemIndex.SpecificationItemIdWithoutVersion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import nl.jqno.equalsverifier.EqualsVerifier;
-
 @ExtendWith(MockitoExtension.class)
 class TestLinkedItemIndex
 {
@@ -41,12 +42,6 @@ class TestLinkedItemIndex
                 .thenReturn(DUPLICATE_ID_INGORING_VERSION);
     }
 
-    @Test
-    void equalsSpecificationItemIdWithoutVersionContract()
-    {
-        EqualsVerifier.forClass(SpecificationItemIdWithoutVersion.class).verify();
-    }
-
     @Test
     void testEmptyIndex()
     {
@@ -100,4 +95,125 @@ class TestLinkedItemIndex
                         LinkedItemInstanceMatcher
                                 .sameItemInstance(this.duplicateIdIgnoringVersionItemMock))));
     }
+
+    @Test
+    void testUnknownIdIgnoringVersionReturnsEmptyList()
+    {
+        final LinkedItemIndex index = createIndex(this.uniqueIdItemMock);
+        assertThat(index.getByIdIgnoringVersion(DUPLICATE_ID_1), emptyIterable());
+    }
+
+    @Test
+    void testGetByIdWithOtherRevisionReturnsNull()
+    {
+        final LinkedItemIndex index = createIndex(this.duplicateIdItem1Mock);
+        assertThat(index.getById(DUPLICATE_ID_INGORING_VERSION), nullValue());
+    }
+
+    @Test
+    void testManyItemsWithManyRevisions()
+    {
+        final List<SpecificationItem> items = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i)
+        {
+            for (int revision = 1; revision <= 3; ++revision)
+            {
+                items.add(SpecificationItem.builder()
+                        .id(SpecificationItemId.createId("type" + (i % 7), "name" + i, revision))
+                        .build());
+            }
+        }
+        final LinkedItemIndex index = LinkedItemIndex.create(items);
+        assertThat(index.size(), equalTo(3000));
+        assertThat(index.sizeIgnoringVersion(), equalTo(1000));
+        for (final SpecificationItem item : items)
+        {
+            assertThat(index.getById(item.getId()).getItem(), sameInstance(item));
+            assertThat(index.getByIdIgnoringVersion(item.getId()), hasSize(3));
+        }
+    }
+
+    @Test
+    void testInsertKeepsSourceOrder()
+    {
+        final List<LinkedSpecificationItem> items = new ArrayList<>();
+        for (int i = 0; i < 3; ++i)
+        {
+            items.add(new LinkedSpecificationItem(SpecificationItem.builder()
+                    .id(SpecificationItemId.createId("type", "name", 1)).build()));
+        }
+        final Comparator<LinkedSpecificationItem> sourceOrder = Comparator
+                .comparing(items::indexOf);
+        final LinkedItemIndex index = LinkedItemIndex
+                .createFromWrappedItemsIgnoringDuplicates(List.of(items.get(1)));
+        index.insert(items.get(2), sourceOrder);
+        index.insert(items.get(0), sourceOrder);
+        assertThat(index.getById(items.get(0).getId()), sameInstance(items.get(0)));
+        assertThat(index.getByIdIgnoringVersion(items.get(0).getId()),
+                contains(sameInstance(items.get(0)), sameInstance(items.get(1)),
+                        sameInstance(items.get(2))));
+        assertThat(items.get(0).getLinksByStatus(LinkStatus.DUPLICATE), emptyIterable());
+    }
+
+    @Test
+    void testRemovePromotesNextItemWithSameId()
+    {
+        final LinkedItemIndex index = createIndex(this.duplicateIdItem1Mock,
+                this.duplicateIdItem2Mock, this.duplicateIdIgnoringVersionItemMock);
+        final LinkedSpecificationItem first = index.getById(DUPLICATE_ID_1);
+        index.remove(first);
+        assertThat(index.getById(DUPLICATE_ID_1).getItem(),
+                sameInstance(this.duplicateIdItem2Mock));
+        assertThat(index.getByIdIgnoringVersion(DUPLICATE_ID_1), hasSize(2));
+        assertThat(index.size(), equalTo(2));
+    }
+
+    @Test
+    void testRemoveLastItemOfName()
+    {
+        final LinkedItemIndex index = createIndex(this.uniqueIdItemMock);
+        index.remove(index.getById(UNIQUE_ID));
+        assertThat(index.size(), equalTo(0));
+        assertThat(index.sizeIgnoringVersion(), equalTo(0));
+        assertThat(index.getById(UNIQUE_ID), nullValue());
+        assertThat(index.getByIdIgnoringVersion(UNIQUE_ID), emptyIterable());
+    }
+
+    @Test
+    void testManyInsertionsAndRemovals()
+    {
+        final List<LinkedSpecificationItem> items = new ArrayList<>();
+        for (int i = 0; i < 2000; ++i)
+        {
+            items.add(new LinkedSpecificationItem(SpecificationItem.builder()
+                    .id(SpecificationItemId.createId("type" + (i % 5), "name" + (i / 2), i % 2))
+                    .build()));
+        }
+        final Comparator<LinkedSpecificationItem> sourceOrder = Comparator
+                .comparing(items::indexOf);
+        final LinkedItemIndex index = LinkedItemIndex
+                .createFromWrappedItemsIgnoringDuplicates(List.of());
+        for (final LinkedSpecificationItem item : items)
+        {
+            index.insert(item, sourceOrder);
+        }
+        for (int i = 0; i < items.size(); i += 3)
+        {
+            index.remove(items.get(i));
+        }
+        for (int i = 0; i < items.size(); ++i)
+        {
+            final LinkedSpecificationItem item = items.get(i);
+            if (i % 3 == 0)
+            {
+                assertThat(index.getById(item.getId()), nullValue());
+            }
+            else
+            {
+                assertThat(index.getById(item.getId()), sameInstance(item));
+                assertThat(index.getByIdIgnoringVersion(item.getId()), hasItem(sameInstance(item)));
+            }
+        }
+        assertThat(index.size(), equalTo(1333));
+    }
 }
@@ -3,6 +3,7 @@ package org.itsallcode.openfasttrace.core;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.itsallcode.openfasttrace.api.core.Newline;
@@ -33,4 +34,22 @@ class TestNewline
     {
         assertThrows(IllegalArgumentException.class, () -> Newline.fromRepresentation("unknown"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testNormalizeMatchesRegularExpression()
+    {
+        final String text = "a\r\nb\rc\nd\n\re\r\r\n";
+        for (final Newline newline : Newline.values())
+        {
+            assertThat(newline.normalize(text), equalTo(
+                    Newline.anyNewlinePattern().matcher(text).replaceAll(newline.toString())));
+        }
+    }
+
+    @Test
+    void testNormalizeReturnsUnchangedText()
+    {
+        final String text = "a\nb\nc";
+        assertThat(Newline.UNIX.normalize(text), sameInstance(text));
+    }
+}
@@ -7,11 +7,13 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import org.itsallcode.openfasttrace.api.ReportSettings;
 import org.itsallcode.openfasttrace.api.core.*;
@@ -46,6 +48,8 @@ class TestOftRunner
     private ExporterService exporterServiceMock;
     @Mock
     private ReportService reportServiceMock;
+    @Mock
+    private StreamingConverter streamingConverterMock;
 
     private List<SpecificationItem> importedItems;
     private List<LinkedSpecificationItem> linkedItems;
@@ -70,7 +74,7 @@ class TestOftRunner
         lenient().when(serviceFactoryMock.createTracer()).thenReturn(tracerMock);
         lenient().when(tracerMock.trace(same(linkedItems))).thenReturn(traceMock);
 
-        lenient().when(serviceFactoryMock.createExporterService()).thenReturn(exporterServiceMock);
+        lenient().when(serviceFactoryMock.createExporterService(any())).thenReturn(exporterServiceMock);
 
         lenient().when(serviceFactoryMock.createReportService(any())).thenReturn(reportServiceMock);
     }
@@ -137,6 +141,28 @@ class TestOftRunner
         verify(exporterServiceMock).exportToPath(any(), same(PATH), same(settings));
     }
 
+    @Test
+    void testGetRequiredItemFieldsForExport()
+    {
+        final ExportSettings settings = ExportSettings.builder().outputFormat("myFormat").build();
+        final Set<ItemField> fields = Set.of(ItemField.TITLE);
+        when(exporterServiceMock.getRequiredItemFields("myFormat")).thenReturn(fields);
+        assertThat(oftRunner.getRequiredItemFields(settings), sameInstance(fields));
+    }
+
+    @Test
+    void testConvert()
+    {
+        final ImportSettings importSettings = ImportSettings.createDefault();
+        final ExportSettings exportSettings = ExportSettings.createDefault();
+        when(serviceFactoryMock.createStreamingConverter(same(importSettings),
+                same(exportSettings)))
+                .thenReturn(streamingConverterMock);
+        oftRunner.convert(importSettings, PATH, exportSettings);
+        verify(streamingConverterMock).convert(same(importSettings), same(PATH),
+                same(exportSettings));
+    }
+
     @Test
     void testReportToStdOutTrace()
     {
@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.itsallcode.openfasttrace.api.core.ItemStatus;
+import org.itsallcode.openfasttrace.api.core.ItemText;
 import org.itsallcode.openfasttrace.api.core.Location;
 import org.itsallcode.openfasttrace.api.core.SpecificationItem;
 import org.itsallcode.openfasttrace.api.core.SpecificationItem.Builder;
@@ -152,7 +153,9 @@ class TestSpecificationItem
     @Test
     void testEqualsAndHashContract()
     {
-        EqualsVerifier.forClass(SpecificationItem.class).verify();
+        EqualsVerifier.forClass(SpecificationItem.class) //
+                .withPrefabValues(ItemText.class, ItemText.of("red"), ItemText.of("blue")) //
+                .verify();
     }
 
     @Test
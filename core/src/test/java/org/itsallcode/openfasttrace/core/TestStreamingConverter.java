@@ -0,0 +1,143 @@
+package org.itsallcode.openfasttrace.core;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.itsallcode.openfasttrace.api.core.SpecificationItem;
+import org.itsallcode.openfasttrace.api.importer.ImportSettings;
+import org.itsallcode.openfasttrace.api.importer.ImporterException;
+import org.itsallcode.openfasttrace.api.importer.input.InputFile;
+import org.itsallcode.openfasttrace.core.exporter.ExporterService;
+import org.itsallcode.openfasttrace.core.importer.ImporterServiceImpl;
+import org.itsallcode.openfasttrace.testutil.importer.input.StreamInput;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TestStreamingConverter
+{
+    private static final ImportSettings IMPORT_SETTINGS = ImportSettings.builder()
+            .addInputs(Paths.get("input")).build();
+    private static final ExportSettings EXPORT_SETTINGS = ExportSettings.createDefault();
+
+    @Mock
+    private ImporterServiceImpl importerServiceMock;
+    @Mock
+    private ExporterService exporterServiceMock;
+
+    @TempDir
+    private Path tempDir;
+
+    private final List<SpecificationItem> exportedItems = new ArrayList<>();
+    private List<InputFile> files;
+    private Path outputPath;
+
+    @BeforeEach
+    void beforeEach()
+    {
+        this.outputPath = this.tempDir.resolve("output.xml");
+        this.files = new ArrayList<>();
+        for (int i = 0; i < 5; ++i)
+        {
+            this.files.add(StreamInput.forContent(Paths.get("file" + i), ""));
+        }
+        when(this.importerServiceMock.listInputFiles(IMPORT_SETTINGS.getInputs()))
+                .thenReturn(this.files);
+    }
+
+    private static SpecificationItem item(final String name)
+    {
+        return SpecificationItem.builder().id("req", name, 1).build();
+    }
+
+    // Like a real exporter, the mock creates the file before consuming the
+    // items and writes it after all items were consumed.
+    @SuppressWarnings("unchecked")
+    private void collectExportedItems()
+    {
+        doAnswer(invocation -> {
+            final Path file = invocation.getArgument(1);
+            Files.writeString(file, "");
+            this.exportedItems.addAll(
+                    ((Stream<SpecificationItem>) invocation.getArgument(0)).collect(toList()));
+            Files.writeString(file, "exported");
+            return null;
+        }).when(this.exporterServiceMock).exportToPath(any(), any(), same(EXPORT_SETTINGS));
+    }
+
+    @Test
+    void testConvertKeepsImportOrderWithSmallQueue()
+    {
+        final SpecificationItem a = item("a");
+        final SpecificationItem b = item("b");
+        final SpecificationItem c = item("c");
+        when(this.importerServiceMock.importFile(any())).thenReturn(List.of(a, b))
+                .thenReturn(List.of()).thenReturn(List.of(c)).thenReturn(List.of())
+                .thenReturn(List.of(a));
+        collectExportedItems();
+        new StreamingConverter(this.importerServiceMock, this.exporterServiceMock, 1)
+                .convert(IMPORT_SETTINGS, this.outputPath, EXPORT_SETTINGS);
+        assertAll(() -> assertThat(this.exportedItems, contains(a, b, c, a)),
+                () -> assertThat(Files.readString(this.outputPath), equalTo("exported")),
+                () -> assertThat(listTempDir(), contains(this.outputPath)));
+    }
+
+    private List<Path> listTempDir() throws IOException
+    {
+        try (Stream<Path> files = Files.list(this.tempDir))
+        {
+            return files.toList();
+        }
+    }
+
+    @Test
+    void testConvertRethrowsImportFailure()
+    {
+        final ImporterException failure = new ImporterException("expected");
+        when(this.importerServiceMock.importFile(any())).thenReturn(List.of(item("a")))
+                .thenThrow(failure);
+        collectExportedItems();
+        final StreamingConverter converter = new StreamingConverter(this.importerServiceMock,
+                this.exporterServiceMock);
+        final ImporterException exception = assertThrows(ImporterException.class,
+                () -> converter.convert(IMPORT_SETTINGS, this.outputPath, EXPORT_SETTINGS));
+        assertThat(exception, sameInstance(failure));
+    }
+
+    @Test
+    void testFailedImportKeepsExistingOutput() throws IOException
+    {
+        Files.writeString(this.outputPath, "previous export");
+        when(this.importerServiceMock.importFile(any())).thenReturn(List.of(item("a")))
+                .thenThrow(new ImporterException("expected"));
+        collectExportedItems();
+        final StreamingConverter converter = new StreamingConverter(this.importerServiceMock,
+                this.exporterServiceMock);
+        assertThrows(ImporterException.class,
+                () -> converter.convert(IMPORT_SETTINGS, this.outputPath, EXPORT_SETTINGS));
+        assertAll(
+                () -> assertThat(Files.readString(this.outputPath), equalTo("previous export")),
+                () -> assertThat(listTempDir(), contains(this.outputPath)));
+    }
+}
@@ -0,0 +1,178 @@
+package org.itsallcode.openfasttrace.core;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.itsallcode.openfasttrace.testutil.core.ItemBuilderFactory.item;
+
+import java.util.*;
+
+import org.itsallcode.openfasttrace.api.core.*;
+import org.junit.jupiter.api.Test;
+
+class TestTraceSession
+{
+    static final String REQ_FILE = "req.md";
+    static final String DSN_FILE = "dsn.md";
+    static final String IMPL_FILE = "impl.java";
+    static final String OTHER_FILE = "other.md";
+
+    @Test
+    void testInitialTraceEqualsColdTrace()
+    {
+        final TraceSession session = new TraceSession(concat(req(), dsn(), impl(1)));
+        assertSameAsColdTrace(session, req(), dsn(), impl(1));
+    }
+
+    @Test
+    void testReplaceItemsFixesPredatedLink()
+    {
+        final TraceSession session = new TraceSession(concat(req(), dsn(), impl(2)));
+        assertThat(session.getTrace().hasNoDefects(), equalTo(false));
+        session.replaceItemsFromSource(IMPL_FILE, impl(1));
+        assertSameAsColdTrace(session, req(), dsn(), impl(1));
+        assertThat(session.getTrace().hasNoDefects(), equalTo(true));
+    }
+
+    @Test
+    void testReplaceItemsBreaksCoverage()
+    {
+        final TraceSession session = new TraceSession(concat(req(), dsn(), impl(1)));
+        session.replaceItemsFromSource(IMPL_FILE, impl(0));
+        assertSameAsColdTrace(session, req(), dsn(), impl(0));
+        assertThat(session.getTrace().getDefectIds(),
+                contains(SpecificationItemId.parseId("req~b~1"),
+                        SpecificationItemId.parseId("dsn~b~1"),
+                        SpecificationItemId.parseId("impl~b~1")));
+    }
+
+    @Test
+    void testRemoveItemsCreatesOrphans()
+    {
+        final TraceSession session = new TraceSession(concat(req(), dsn(), impl(1)));
+        session.removeItemsFromSource(REQ_FILE);
+        assertSameAsColdTrace(session, dsn(), impl(1));
+    }
+
+    @Test
+    void testRemoveAndAddItemsAgain()
+    {
+        final TraceSession session = new TraceSession(concat(req(), dsn(), impl(1)));
+        session.removeItemsFromSource(DSN_FILE);
+        session.addItems(dsn());
+        assertSameAsColdTrace(session, req(), impl(1), dsn());
+    }
+
+    @Test
+    void testAddAndRemoveDuplicates()
+    {
+        final TraceSession session = new TraceSession(concat(req(), dsn(), impl(1)));
+        session.addItems(duplicateDsn());
+        assertSameAsColdTrace(session, req(), dsn(), impl(1), duplicateDsn());
+        session.removeItemsFromSource(OTHER_FILE);
+        assertSameAsColdTrace(session, req(), dsn(), impl(1));
+        assertThat(session.getTrace().getDefectItems(), empty());
+    }
+
+    @Test
+    void testReplaceFirstSourceKeepsSourceOrder()
+    {
+        final TraceSession session = new TraceSession(concat(req(), dsn(), impl(1)));
+        session.replaceItemsFromSource(REQ_FILE, req());
+        assertSameAsColdTrace(session, req(), dsn(), impl(1));
+    }
+
+    @Test
+    void testSetSourceOrderReordersItems()
+    {
+        final TraceSession session = new TraceSession(concat(req(), dsn(), impl(2)));
+        session.setSourceOrder(List.of(IMPL_FILE, DSN_FILE, REQ_FILE));
+        assertSameAsColdTrace(session, impl(2), dsn(), req());
+        assertThat(session.getSourcesInOrder(), contains(IMPL_FILE, DSN_FILE, REQ_FILE));
+    }
+
+    @Test
+    void testSetSourceOrderPlacesNewSource()
+    {
+        final TraceSession session = new TraceSession(concat(req(), impl(1)));
+        session.setSourceOrder(List.of(REQ_FILE, DSN_FILE, IMPL_FILE));
+        session.replaceItemsFromSource(DSN_FILE, dsn());
+        assertSameAsColdTrace(session, req(), dsn(), impl(1));
+    }
+
+    static List<SpecificationItem> req()
+    {
+        return List.of( //
+                item().id("req", "a", 1).location(REQ_FILE, 1).addNeedsArtifactType("dsn").build(),
+                item().id("req", "b", 1).location(REQ_FILE, 2).addNeedsArtifactType("dsn").build());
+    }
+
+    static List<SpecificationItem> dsn()
+    {
+        return List.of( //
+                item().id("dsn", "a", 1).location(DSN_FILE, 1).addCoveredId("req", "a", 1)
+                        .addNeedsArtifactType("impl").build(),
+                item().id("dsn", "b", 1).location(DSN_FILE, 2).addCoveredId("req", "b", 1)
+                        .addNeedsArtifactType("impl").build());
+    }
+
+    static List<SpecificationItem> duplicateDsn()
+    {
+        return List.of(item().id("dsn", "a", 1).location(OTHER_FILE, 1)
+                .addCoveredId("req", "a", 1).addNeedsArtifactType("impl").build());
+    }
+
+    static List<SpecificationItem> impl(final int coveredRevisionOfDsnB)
+    {
+        return List.of( //
+                item().id("impl", "a", 1).location(IMPL_FILE, 1).addCoveredId("dsn", "a", 1)
+                        .build(),
+                item().id("impl", "b", 1).location(IMPL_FILE, 2)
+                        .addCoveredId("dsn", "b", coveredRevisionOfDsnB).build());
+    }
+
+    @SafeVarargs
+    static List<SpecificationItem> concat(final List<SpecificationItem>... sources)
+    {
+        final List<SpecificationItem> items = new ArrayList<>();
+        for (final List<SpecificationItem> source : sources)
+        {
+            items.addAll(source);
+        }
+        return items;
+    }
+
+    @SafeVarargs
+    static void assertSameAsColdTrace(final TraceSession session,
+            final List<SpecificationItem>... sources)
+    {
+        final Oft oft = Oft.create();
+        final Trace coldTrace = oft.trace(oft.link(concat(sources)));
+        assertThat(describe(session.getTrace()), equalTo(describe(coldTrace)));
+    }
+
+    private static String describe(final Trace trace)
+    {
+        final StringBuilder builder = new StringBuilder();
+        for (final LinkedSpecificationItem item : trace.getItems())
+        {
+            builder.append(item.getId()).append(" covers ").append(item.getItem().getCoveredIds())
+                    .append('\n');
+            for (final Map.Entry<LinkStatus, List<LinkedSpecificationItem>> entry : item.getLinks()
+                    .entrySet())
+            {
+                builder.append("  ").append(entry.getKey()).append(':');
+                for (final LinkedSpecificationItem other : entry.getValue())
+                {
+                    builder.append(' ').append(other.getId());
+                }
+                builder.append('\n');
+            }
+            builder.append("  covered types: ").append(new TreeSet<>(item.getCoveredArtifactTypes()))
+                    .append('\n');
+        }
+        builder.append("defects: ").append(trace.getDefectIds());
+        return builder.toString();
+    }
+}
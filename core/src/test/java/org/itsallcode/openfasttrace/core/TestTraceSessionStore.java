@@ -0,0 +1,88 @@
+package org.itsallcode.openfasttrace.core;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.itsallcode.openfasttrace.core.TestTraceSession.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import org.itsallcode.openfasttrace.api.core.ItemTextStore;
+import org.itsallcode.openfasttrace.api.core.SpecificationItem;
+import org.itsallcode.openfasttrace.core.TraceSessionStore.FileFingerprint;
+import org.itsallcode.openfasttrace.core.TraceSessionStore.State;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestTraceSessionStore
+{
+    private static final String SETTINGS_KEY = "settings";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testLoadMissingFileReturnsEmpty() throws IOException
+    {
+        assertThat(TraceSessionStore.load(this.tempDir.resolve("missing"), SETTINGS_KEY, null)
+                .isPresent(), equalTo(false));
+    }
+
+    @Test
+    void testLoadWithOtherSettingsReturnsEmpty() throws IOException
+    {
+        final Path stateFile = save(new TraceSession(concat(req(), dsn(), impl(1))));
+        assertThat(TraceSessionStore.load(stateFile, "other settings", null).isPresent(),
+                equalTo(false));
+    }
+
+    @Test
+    void testRoundTripKeepsTrace() throws IOException
+    {
+        final Path stateFile = save(new TraceSession(concat(req(), dsn(), impl(2))));
+        final State state = TraceSessionStore.load(stateFile, SETTINGS_KEY, null).orElseThrow();
+        assertSameAsColdTrace(state.getSession(), req(), dsn(), impl(2));
+        assertThat(state.getFingerprints().get(REQ_FILE).getSize(), equalTo(42L));
+    }
+
+    @Test
+    void testLoadedSessionCanBeUpdated() throws IOException
+    {
+        final Path stateFile = save(new TraceSession(concat(req(), dsn(), impl(2))));
+        final TraceSession session = TraceSessionStore.load(stateFile, SETTINGS_KEY, null)
+                .orElseThrow().getSession();
+        session.replaceItemsFromSource(IMPL_FILE, impl(1));
+        assertSameAsColdTrace(session, req(), dsn(), impl(1));
+        session.removeItemsFromSource(DSN_FILE);
+        assertSameAsColdTrace(session, req(), impl(1));
+    }
+
+    @Test
+    void testLoadWithTextStoreKeepsTextInStore() throws IOException
+    {
+        final SpecificationItem item = SpecificationItem.builder().id("req", "a", 1)
+                .description("description").build();
+        final Path stateFile = save(new TraceSession(Map.of(REQ_FILE, List.of(item))));
+        try (ItemTextStore store = ItemTextStore.createTemporary())
+        {
+            final TraceSession session = TraceSessionStore.load(stateFile, SETTINGS_KEY, store)
+                    .orElseThrow().getSession();
+            assertThat(session.getTrace().getItems().get(0).getDescription(),
+                    equalTo("description"));
+            assertThat(store.getSize(), equalTo(11L));
+        }
+    }
+
+    private Path save(final TraceSession session) throws IOException
+    {
+        final Path stateFile = this.tempDir.resolve("state.bin");
+        final List<FileFingerprint> fingerprints = List.of(
+                new FileFingerprint(REQ_FILE, 42, 1000), new FileFingerprint(DSN_FILE, 43, 1000),
+                new FileFingerprint(IMPL_FILE, 44, 1000));
+        TraceSessionStore.save(stateFile, SETTINGS_KEY, fingerprints, session);
+        assertThat(Files.exists(stateFile), equalTo(true));
+        return stateFile;
+    }
+}
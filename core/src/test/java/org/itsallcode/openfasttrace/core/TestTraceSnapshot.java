@@ -0,0 +1,126 @@
+package org.itsallcode.openfasttrace.core;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.itsallcode.openfasttrace.core.TestTraceSession.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import org.itsallcode.openfasttrace.api.core.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestTraceSnapshot
+{
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRoundTripKeepsTrace() throws IOException
+    {
+        final Oft oft = Oft.create();
+        final Trace trace = oft.trace(oft.link(concat(req(), dsn(), impl(0), duplicateDsn())));
+        final Trace loadedTrace = saveAndLoad(trace);
+        assertThat(describe(loadedTrace), equalTo(describe(trace)));
+        assertThat(loadedTrace.getDefectIds(), equalTo(trace.getDefectIds()));
+    }
+
+    @Test
+    void testLoadedItemsKeepEvaluationResults() throws IOException
+    {
+        final Oft oft = Oft.create();
+        final Trace loadedTrace = saveAndLoad(oft.trace(oft.link(concat(req(), dsn(), impl(0)))));
+        assertThat(loadedTrace.getItems(), everyItem(instanceOf(SnapshotLinkedItem.class)));
+        assertThat(loadedTrace.hasNoDefects(), equalTo(false));
+    }
+
+    @Test
+    void testItemsLinkedFromOutsideOfTraceAreKept() throws IOException
+    {
+        final TraceSession session = new TraceSession(concat(req(), dsn(), impl(1)));
+        session.removeItemsFromSource(DSN_FILE);
+        final Trace trace = session.getTrace();
+        assertThat(describe(saveAndLoad(trace)), equalTo(describe(trace)));
+    }
+
+    @Test
+    void testLoadWithTextStoreKeepsTextInStore() throws IOException
+    {
+        final Oft oft = Oft.create();
+        final Trace trace = oft.trace(oft.link(List.of(SpecificationItem.builder()
+                .id("req", "a", 1).description("description").rationale("rationale")
+                .comment("comment").build())));
+        final Path file = this.tempDir.resolve("trace.snapshot");
+        TraceSnapshot.save(file, trace);
+        try (ItemTextStore store = ItemTextStore.createTemporary())
+        {
+            final SpecificationItem item = TraceSnapshot.load(file, store).getItems().get(0)
+                    .getItem();
+            assertThat(item.getDescription() + item.getRationale() + item.getComment(),
+                    equalTo("descriptionrationalecomment"));
+            assertThat(store.getSize(), equalTo(27L));
+        }
+    }
+
+    @Test
+    void testLoadOtherFileFails() throws IOException
+    {
+        final Path file = this.tempDir.resolve("other.snapshot");
+        Files.writeString(file, "no snapshot");
+        final IOException exception = assertThrows(IOException.class,
+                () -> TraceSnapshot.load(file, null));
+        assertThat(exception.getMessage(), equalTo("Not a trace snapshot"));
+    }
+
+    @Test
+    void testLoadUnsupportedVersionFails() throws IOException
+    {
+        final Path file = this.tempDir.resolve("future.snapshot");
+        Files.write(file, new byte[] { 'O', 'F', 'T', 'T', 0, 0, 0, 2 });
+        final IOException exception = assertThrows(IOException.class,
+                () -> TraceSnapshot.load(file, null));
+        assertThat(exception.getMessage(),
+                equalTo("Unsupported trace snapshot version 2, expected version 1"));
+    }
+
+    private Trace saveAndLoad(final Trace trace) throws IOException
+    {
+        final Path file = this.tempDir.resolve("trace.snapshot");
+        TraceSnapshot.save(file, trace);
+        return TraceSnapshot.load(file, null);
+    }
+
+    private static String describe(final Trace trace)
+    {
+        final StringBuilder builder = new StringBuilder();
+        for (final LinkedSpecificationItem item : trace.getItems())
+        {
+            builder.append(item.getId()).append(' ').append(item.getStatus()).append(' ')
+                    .append(item.getLocation()).append(" covers ")
+                    .append(item.getItem().getCoveredIds()).append(" needs ")
+                    .append(item.getNeedsArtifactTypes()).append(' ')
+                    .append(item.getDeepCoverageStatus()).append(' ')
+                    .append(item.getDeepCoverageStatusOnlyAcceptApprovedItems()).append(' ')
+                    .append(item.isDefect()).append('\n');
+            for (final Map.Entry<LinkStatus, List<LinkedSpecificationItem>> entry : item.getLinks()
+                    .entrySet())
+            {
+                builder.append("  ").append(entry.getKey()).append(':');
+                for (final LinkedSpecificationItem other : entry.getValue())
+                {
+                    builder.append(' ').append(other.getId());
+                }
+                builder.append('\n');
+            }
+            builder.append("  covered types: ").append(new TreeSet<>(item.getCoveredArtifactTypes()))
+                    .append('\n');
+        }
+        return builder.toString();
+    }
+}
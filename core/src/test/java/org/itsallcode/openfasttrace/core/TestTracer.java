@@ -6,6 +6,8 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
@@ -68,4 +70,25 @@ class TestTracer
                 () -> assertThat(trace.count(), equalTo(2)),
                 () -> assertThat(trace.getDefectIds(), containsInAnyOrder(ID_B)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testHasNoDefectsStopsAtFirstDefect()
+    {
+        when(this.aMock.isDefect()).thenReturn(true);
+        final Trace trace = traceItems(this.aMock, this.bMock, this.cMock);
+        assertThat(trace.hasNoDefects(), equalTo(false));
+        verify(this.bMock, never()).isDefect();
+        verify(this.cMock, never()).isDefect();
+    }
+
+    @Test
+    void testDefectItemsAreEvaluatedOnce()
+    {
+        when(this.aMock.isDefect()).thenReturn(false);
+        final Trace trace = traceItems(this.aMock);
+        assertThat(trace.hasNoDefects(), equalTo(true));
+        assertThat(trace.getDefectItems(), empty());
+        assertThat(trace.hasNoDefects(), equalTo(true));
+        verify(this.aMock).isDefect();
+    }
+}
@@ -58,6 +58,189 @@ class TestArgumentValidator
                 "remove output file parameter.");
     }
 
+    @Test
+    void testTraceCommandStateFileAndChangedFilesGivenIsNotValid()
+    {
+        cliArgs.setUnnamedValues(asList("trace"));
+        cliArgs.setStateFile("state.bin");
+        cliArgs.setChangedFiles("changed.md");
+        assertValidatorResult("combining a state file and changed files is not supported.",
+                "remove one of the parameters.");
+    }
+
+    @Test
+    void testTraceCommandFailFastWithMinimalVerbosityIsValid()
+    {
+        cliArgs.setUnnamedValues(asList("trace"));
+        cliArgs.setFailFast(true);
+        cliArgs.setV(ReportVerbosity.MINIMAL);
+        assertValidatorResult("", "");
+    }
+
+    @Test
+    void testTraceCommandFailFastWithDetailedVerbosityIsNotValid()
+    {
+        cliArgs.setUnnamedValues(asList("trace"));
+        cliArgs.setFailFast(true);
+        cliArgs.setV(ReportVerbosity.FAILURE_DETAILS);
+        assertValidatorResult("fail-fast mode requires report verbosity 'quiet' or 'minimal'.",
+                "add parameter '--report-verbosity minimal'.");
+    }
+
+    @Test
+    void testTraceCommandFailFastWithChangedFilesIsNotValid()
+    {
+        cliArgs.setUnnamedValues(asList("trace"));
+        cliArgs.setFailFast(true);
+        cliArgs.setV(ReportVerbosity.QUIET);
+        cliArgs.setChangedFiles("changed.md");
+        assertValidatorResult(
+                "fail-fast mode can not be combined with a state file or changed files.",
+                "remove one of the parameters.");
+    }
+
+    @Test
+    void testTraceCommandNegativeItemsPerPageIsNotValid()
+    {
+        cliArgs.setUnnamedValues(asList("trace"));
+        cliArgs.setItemsPerPage("-1");
+        assertValidatorResult("the number of items per page must not be negative.",
+                "use '0' for no limit.");
+    }
+
+    @Test
+    void testTraceCommandMultiPageHtmlWithoutOutputFileIsNotValid()
+    {
+        cliArgs.setUnnamedValues(asList("trace"));
+        cliArgs.setOutputFormat("html-pages");
+        assertValidatorResult("the report format 'html-pages' requires an output directory.",
+                "add parameter '--output-file <directory>'.");
+    }
+
+    @Test
+    void testTraceCommandMultiPageHtmlWithOutputFileIsValid()
+    {
+        cliArgs.setUnnamedValues(asList("trace"));
+        cliArgs.setOutputFormat("html-pages");
+        cliArgs.setOutputFile("report");
+        cliArgs.setItemsPerPage("500");
+        assertValidatorResult("", "");
+    }
+
+    @Test
+    void testTraceCommandWithAdditionalReportsIsValid()
+    {
+        cliArgs.setUnnamedValues(asList("trace"));
+        cliArgs.setReport("html:report.html");
+        cliArgs.setReport("aspec:C:\\reports\\aspec.xml");
+        assertValidatorResult("", "");
+    }
+
+    @Test
+    void testTraceCommandMalformedReportIsNotValid()
+    {
+        cliArgs.setUnnamedValues(asList("trace"));
+        cliArgs.setReport("report.html");
+        assertValidatorResult("'report.html' is not a valid output target.",
+                "use the form '<format>:<path>'.");
+    }
+
+    @Test
+    void testTraceCommandQuietWithAdditionalReportIsNotValid()
+    {
+        cliArgs.setUnnamedValues(asList("trace"));
+        cliArgs.setV(ReportVerbosity.QUIET);
+        cliArgs.setReport("html:report.html");
+        assertValidatorResult(
+                "combining stream verbosity 'quiet' and additional reports is not supported.",
+                "remove parameter '--report'.");
+    }
+
+    @Test
+    void testTraceCommandFailFastWithExportIsNotValid()
+    {
+        cliArgs.setUnnamedValues(asList("trace"));
+        cliArgs.setFailFast(true);
+        cliArgs.setV(ReportVerbosity.MINIMAL);
+        cliArgs.setExport("specobject:export.xml");
+        assertValidatorResult("exports can not be combined with fail-fast mode or a state file.",
+                "remove one of the parameters.");
+    }
+
+    @Test
+    void testTraceCommandFailFastWithSaveSnapshotIsNotValid()
+    {
+        cliArgs.setUnnamedValues(asList("trace"));
+        cliArgs.setFailFast(true);
+        cliArgs.setV(ReportVerbosity.MINIMAL);
+        cliArgs.setSaveSnapshot("trace.snapshot");
+        assertValidatorResult(
+                "fail-fast mode can not be combined with saving a snapshot or additional reports.",
+                "remove one of the parameters.");
+    }
+
+    @Test
+    void testTraceCommandFailFastWithAdditionalReportIsNotValid()
+    {
+        cliArgs.setUnnamedValues(asList("trace"));
+        cliArgs.setFailFast(true);
+        cliArgs.setV(ReportVerbosity.MINIMAL);
+        cliArgs.setReport("html:report.html");
+        assertValidatorResult(
+                "fail-fast mode can not be combined with saving a snapshot or additional reports.",
+                "remove one of the parameters.");
+    }
+
+    @Test
+    void testTraceCommandStateFileWithExportIsNotValid()
+    {
+        cliArgs.setUnnamedValues(asList("trace"));
+        cliArgs.setStateFile("state.bin");
+        cliArgs.setExport("specobject:export.xml");
+        assertValidatorResult("exports can not be combined with fail-fast mode or a state file.",
+                "remove one of the parameters.");
+    }
+
+    @Test
+    void testTraceCommandSaveAndLoadSnapshotIsValid()
+    {
+        cliArgs.setUnnamedValues(asList("trace"));
+        cliArgs.setLoadSnapshot("old.snapshot");
+        cliArgs.setSaveSnapshot("new.snapshot");
+        assertValidatorResult("", "");
+    }
+
+    @Test
+    void testTraceCommandLoadSnapshotWithStateFileIsNotValid()
+    {
+        cliArgs.setUnnamedValues(asList("trace"));
+        cliArgs.setLoadSnapshot("trace.snapshot");
+        cliArgs.setStateFile("state.bin");
+        assertValidatorResult(
+                "loading a snapshot can not be combined with fail-fast mode, a state file, changed files or exports.",
+                "remove one of the parameters.");
+    }
+
+    @Test
+    void testTraceCommandResultCacheWithLoadSnapshotIsNotValid()
+    {
+        cliArgs.setUnnamedValues(asList("trace"));
+        cliArgs.setResultCache("result.cache");
+        cliArgs.setLoadSnapshot("trace.snapshot");
+        assertValidatorResult("a result cache can not be combined with loading a snapshot.",
+                "remove one of the parameters.");
+    }
+
+    @Test
+    void testTraceCommandUnsupportedExportFormatIsNotValid()
+    {
+        cliArgs.setUnnamedValues(asList("trace"));
+        cliArgs.setExport("unsupportedFormat:export.xml");
+        // No exporters are available in this module, so every export format
+        // is unsupported here.
+        assertValidatorResult("export format 'unsupportedFormat' is not supported.", "");
+    }
+
     @Test
     void testConvertCommandGivenIsValid()
     {
@@ -66,6 +249,34 @@ class TestArgumentValidator
         assertValidatorResult("export format 'unsupportedFormat' is not supported.", "");
     }
 
+    @Test
+    void testConvertCommandWithInvalidShardModeIsNotValid()
+    {
+        cliArgs.setUnnamedValues(asList("convert"));
+        cliArgs.setOutputFile("outputDirectory");
+        cliArgs.setShardBy("0");
+        assertValidatorResult("'0' is not a valid shard mode.",
+                "use 'artifact-type' or a positive number of items per shard.");
+    }
+
+    @Test
+    void testConvertCommandShardedWithoutOutputFileIsNotValid()
+    {
+        cliArgs.setUnnamedValues(asList("convert"));
+        cliArgs.setShardBy("artifact-type");
+        assertValidatorResult("a sharded export requires an output directory.",
+                "add parameter '--output-file <directory>'.");
+    }
+
+    @Test
+    void testConvertCommandShardManifestWithoutShardsIsNotValid()
+    {
+        cliArgs.setUnnamedValues(asList("convert"));
+        cliArgs.setShardManifest(true);
+        assertValidatorResult("a shard manifest requires a sharded export.",
+                "add parameter '--shard-by <mode>'.");
+    }
+
     @Test
     void testUnknownCommandGivenIsNotValid()
     {
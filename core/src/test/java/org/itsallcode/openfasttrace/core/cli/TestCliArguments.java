@@ -3,6 +3,7 @@ package org.itsallcode.openfasttrace.core.cli;
 import static java.util.Collections.emptyList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
 
 import java.nio.file.Paths;
 import java.util.List;
@@ -290,4 +291,113 @@ class TestCliArguments
         this.arguments.setDetailsSectionDisplay(DetailsSectionDisplay.EXPAND);
         assertThat(this.arguments.getDetailsSectionDisplay(), is(DetailsSectionDisplay.EXPAND));
     }
+
+    @Test
+    void testSnapshotsDefaultToNull()
+    {
+        assertThat(this.arguments.getSaveSnapshot(), nullValue());
+        assertThat(this.arguments.getLoadSnapshot(), nullValue());
+    }
+
+    @Test
+    void testSetSnapshots()
+    {
+        this.arguments.setSaveSnapshot("new.snapshot");
+        this.arguments.setLoadSnapshot("old.snapshot");
+        assertThat(this.arguments.getSaveSnapshot(), equalTo(Paths.get("new.snapshot")));
+        assertThat(this.arguments.getLoadSnapshot(), equalTo(Paths.get("old.snapshot")));
+    }
+
+    @Test
+    void testResultCacheDefaultsToNull()
+    {
+        assertThat(this.arguments.getResultCache(), nullValue());
+    }
+
+    @Test
+    void testSetResultCache()
+    {
+        this.arguments.setResultCache("result.cache");
+        assertThat(this.arguments.getResultCache(), equalTo(Paths.get("result.cache")));
+    }
+
+    @Test
+    void testOffloadItemText()
+    {
+        assertThat(this.arguments.getOffloadItemText(), equalTo(false));
+        this.arguments.setOffloadItemText(true);
+        assertThat(this.arguments.getOffloadItemText(), equalTo(true));
+    }
+
+    @Test
+    void testStateFileDefaultsToNull()
+    {
+        assertThat(this.arguments.getStateFile(), nullValue());
+    }
+
+    @Test
+    void testSetStateFile()
+    {
+        this.arguments.setStateFile("state.bin");
+        assertThat(this.arguments.getStateFile(), equalTo(Paths.get("state.bin")));
+    }
+
+    @Test
+    void testChangedFilesDefaultsToEmpty()
+    {
+        assertThat(this.arguments.getChangedFiles(), emptyIterable());
+    }
+
+    @Test
+    void testSetChangedFiles()
+    {
+        this.arguments.setChangedFiles("a.md, dir/b.java,");
+        assertThat(this.arguments.getChangedFiles(),
+                contains(Paths.get("a.md"), Paths.get("dir/b.java")));
+    }
+
+    @Test
+    void testFailFastDefaultsToFalse()
+    {
+        assertThat(this.arguments.getFailFast(), equalTo(false));
+    }
+
+    @Test
+    void testSetFailFast()
+    {
+        this.arguments.setFailFast(true);
+        assertThat(this.arguments.getFailFast(), equalTo(true));
+    }
+
+    @Test
+    void testItemsPerPageDefaultsToUnlimited()
+    {
+        assertThat(this.arguments.getItemsPerPage(), equalTo(0));
+    }
+
+    @Test
+    void testSetItemsPerPage()
+    {
+        this.arguments.setItemsPerPage("500");
+        assertThat(this.arguments.getItemsPerPage(), equalTo(500));
+    }
+
+    @Test
+    void testAdditionalReportsAndExportsDefaultToEmpty()
+    {
+        assertAll(() -> assertThat(this.arguments.getAdditionalReports(), empty()),
+                () -> assertThat(this.arguments.getExports(), empty()));
+    }
+
+    @Test
+    void testSetReportAndExportMoreThanOnce()
+    {
+        this.arguments.setReport("html:report.html");
+        this.arguments.setReport("aspec:report.xml");
+        this.arguments.setExport("specobject:export.xml");
+        assertAll(
+                () -> assertThat(this.arguments.getAdditionalReports(),
+                        contains("html:report.html", "aspec:report.xml")),
+                () -> assertThat(this.arguments.getExports(), contains("specobject:export.xml")));
+    }
 }
@@ -0,0 +1,95 @@
+package org.itsallcode.openfasttrace.core.cli.commands;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestResultCache
+{
+    private static final String KEY = "fingerprint;outputFormat=plain";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testLoadMissingCacheReturnsEmpty()
+    {
+        assertThat(cache().load(KEY), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void testLoadWithOtherKeyReturnsEmpty()
+    {
+        cache().save(KEY, result(true, "report"));
+        assertThat(cache().load("other key"), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void testLoadCorruptCacheReturnsEmpty() throws IOException
+    {
+        Files.write(this.tempDir.resolve("result.cache"), new byte[] { 0x4F, 0x46 });
+        assertThat(cache().load(KEY), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void testReplayRestoresOutputAndFiles() throws IOException
+    {
+        final Path reportFile = this.tempDir.resolve("trace.html");
+        final Map<Path, byte[]> files = new LinkedHashMap<>();
+        files.put(reportFile, bytes("<html/>"));
+        cache().save(KEY, new ResultCache.Result(false, bytes("not ok"), files));
+        final ByteArrayOutputStream standardOutput = new ByteArrayOutputStream();
+        final ResultCache.Result result = cache().load(KEY).orElseThrow();
+        result.replay(standardOutput);
+        assertThat(result.success(), equalTo(false));
+        assertThat(standardOutput.toString(StandardCharsets.UTF_8), equalTo("not ok"));
+        assertThat(Files.readString(reportFile), equalTo("<html/>"));
+    }
+
+    @Test
+    void testLongKey()
+    {
+        final String longKey = "input=" + "ä".repeat(70_000);
+        cache().save(longKey, result(true, "report"));
+        assertAll(() -> assertThat(cache().load(longKey).isPresent(), equalTo(true)),
+                () -> assertThat(cache().load(KEY), equalTo(Optional.empty())));
+    }
+
+    @Test
+    void testSaveReplacesPreviousResult()
+    {
+        cache().save(KEY, result(false, "first"));
+        cache().save(KEY, result(true, "second"));
+        final ResultCache.Result result = cache().load(KEY).orElseThrow();
+        assertThat(result.success(), equalTo(true));
+        assertThat(new String(result.standardOutput(), StandardCharsets.UTF_8),
+                equalTo("second"));
+    }
+
+    private ResultCache cache()
+    {
+        return new ResultCache(this.tempDir.resolve("result.cache"));
+    }
+
+    private static ResultCache.Result result(final boolean success, final String output)
+    {
+        return new ResultCache.Result(success, bytes(output), Map.of());
+    }
+
+    private static byte[] bytes(final String text)
+    {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
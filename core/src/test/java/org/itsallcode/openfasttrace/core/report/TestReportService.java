@@ -45,8 +45,9 @@ class TestReportService
     @Test
     void testReportTraceToPath(@TempDir Path tempDir)
     {
-        service.reportTraceToPath(traceMock, tempDir.resolve("output"), OUTPUT_FORMAT);
-        verify(reportableMock).renderToStream(any());
+        final Path outputPath = tempDir.resolve("output");
+        service.reportTraceToPath(traceMock, outputPath, OUTPUT_FORMAT);
+        verify(reportableMock).renderToPath(outputPath);
     }
 
     @Test
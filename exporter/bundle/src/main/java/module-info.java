@@ -0,0 +1,13 @@
+/**
+ * This provides an exporter for the binary item bundle format.
+ * 
+ * @provides org.itsallcode.openfasttrace.api.exporter.ExporterFactory
+ */
+module org.itsallcode.openfasttrace.exporter.bundle
+{
+    requires java.logging;
+    requires org.itsallcode.openfasttrace.api;
+
+    provides org.itsallcode.openfasttrace.api.exporter.ExporterFactory
+            with org.itsallcode.openfasttrace.exporter.bundle.BundleExporterFactory;
+}
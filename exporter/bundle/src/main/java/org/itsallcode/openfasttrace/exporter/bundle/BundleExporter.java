@@ -0,0 +1,122 @@
+package org.itsallcode.openfasttrace.exporter.bundle;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.itsallcode.openfasttrace.api.core.Location;
+import org.itsallcode.openfasttrace.api.core.SpecificationItem;
+import org.itsallcode.openfasttrace.api.core.SpecificationItemId;
+import org.itsallcode.openfasttrace.api.exporter.Exporter;
+import org.itsallcode.openfasttrace.api.exporter.ExporterException;
+
+/**
+ * An {@link Exporter} for the binary item bundle format.
+ * <p>
+ * Items are written in the order they arrive. A new section starts whenever
+ * the source file of an item differs from the one of the current section, so
+ * that the items of each imported file end up in one section.
+ * </p>
+ *
+ * @see BundleWriter
+ */
+class BundleExporter implements Exporter
+{
+    static final int FLAG_FORWARDS = 1;
+    static final int FLAG_LOCATION = 2;
+
+    private static final Logger LOG = Logger.getLogger(BundleExporter.class.getName());
+
+    private final Stream<SpecificationItem> itemStream;
+    private final OutputStream stream;
+
+    BundleExporter(final Stream<SpecificationItem> itemStream, final OutputStream stream)
+    {
+        this.itemStream = itemStream;
+        this.stream = stream;
+    }
+
+    @Override
+    public void runExport()
+    {
+        int itemCount = 0;
+        try (BundleWriter writer = new BundleWriter(this.stream))
+        {
+            writer.writeHeader();
+            final Iterator<SpecificationItem> iterator = this.itemStream.iterator();
+            while (iterator.hasNext())
+            {
+                writeItem(writer, iterator.next());
+                itemCount++;
+            }
+            writer.finish();
+        }
+        catch (final IOException e)
+        {
+            throw new ExporterException("Error exporting item bundle", e);
+        }
+        final int exportedItems = itemCount;
+        LOG.finest(() -> "Exported " + exportedItems + " items to bundle");
+    }
+
+    private static void writeItem(final BundleWriter writer, final SpecificationItem item)
+            throws IOException
+    {
+        final Location location = item.getLocation();
+        if (location != null && (!writer.hasSection()
+                || !Objects.equals(location.getPath(), writer.getSectionPath())))
+        {
+            writer.startSection(location.getPath());
+        }
+        writer.startItem();
+        writeId(writer, item.getId());
+        writer.writeString(item.getStatus().toString());
+        writer.writeUnsigned((item.isForwarding() ? FLAG_FORWARDS : 0)
+                | (location != null ? FLAG_LOCATION : 0));
+        if (location != null)
+        {
+            writer.writeSigned(location.getLine());
+            writer.writeSigned(location.getColumn());
+        }
+        writer.writeText(item.getTitle());
+        writer.writeText(item.getDescription());
+        writer.writeText(item.getRationale());
+        writer.writeText(item.getComment());
+        writeIds(writer, item.getCoveredIds());
+        writeIds(writer, item.getDependOnIds());
+        writeStrings(writer, item.getNeedsArtifactTypes());
+        writeStrings(writer, item.getTags());
+    }
+
+    private static void writeId(final BundleWriter writer, final SpecificationItemId id)
+            throws IOException
+    {
+        writer.writeString(id.getArtifactType());
+        writer.writeString(id.getName());
+        writer.writeSigned(id.getRevision());
+    }
+
+    private static void writeIds(final BundleWriter writer, final List<SpecificationItemId> ids)
+            throws IOException
+    {
+        writer.writeUnsigned(ids.size());
+        for (final SpecificationItemId id : ids)
+        {
+            writeId(writer, id);
+        }
+    }
+
+    private static void writeStrings(final BundleWriter writer, final List<String> values)
+            throws IOException
+    {
+        writer.writeUnsigned(values.size());
+        for (final String value : values)
+        {
+            writer.writeString(value);
+        }
+    }
+}
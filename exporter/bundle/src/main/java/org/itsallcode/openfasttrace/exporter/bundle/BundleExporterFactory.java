@@ -0,0 +1,78 @@
+package org.itsallcode.openfasttrace.exporter.bundle;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.itsallcode.openfasttrace.api.core.Newline;
+import org.itsallcode.openfasttrace.api.core.SpecificationItem;
+import org.itsallcode.openfasttrace.api.exporter.Exporter;
+import org.itsallcode.openfasttrace.api.exporter.ExporterException;
+import org.itsallcode.openfasttrace.api.exporter.ExporterFactory;
+
+/**
+ * {@link ExporterFactory} for creating {@link Exporter}s that write binary item
+ * bundles.
+ * <p>
+ * A bundle contains the items of one or more imported files in a compact form
+ * that is much faster to import than the original sources. Build steps can
+ * produce a bundle per module once and trace all bundles later.
+ * </p>
+ */
+public class BundleExporterFactory extends ExporterFactory
+{
+    private static final String SUPPORTED_FORMAT = "bundle";
+
+    /** Creates a new instance. */
+    public BundleExporterFactory()
+    {
+        super(SUPPORTED_FORMAT);
+    }
+
+    // Bundles are binary, so charset and newline do not apply.
+    @Override
+    public Exporter createExporter(final Path file, final String format, final Charset charset,
+            final Newline newline, final Stream<SpecificationItem> itemStream)
+    {
+        if (!supportsFormat(format))
+        {
+            throw new ExporterException("Output format '" + format + "' not supported for export");
+        }
+        return new BundleExporter(itemStream, createStream(file));
+    }
+
+    private static OutputStream createStream(final Path file)
+    {
+        if (file == null)
+        {
+            return getStdOutStream();
+        }
+        try
+        {
+            return Files.newOutputStream(file);
+        }
+        catch (final IOException e)
+        {
+            throw new ExporterException("Error creating output stream for file " + file, e);
+        }
+    }
+
+    // Using System.out by intention
+    @SuppressWarnings("squid:S106")
+    private static PrintStream getStdOutStream()
+    {
+        return System.out;
+    }
+
+    @Override
+    protected Exporter createExporter(final Writer writer,
+            final Stream<SpecificationItem> itemStream, final Newline newline)
+    {
+        throw new ExporterException("Item bundles are binary and cannot be written to a writer");
+    }
+}
@@ -0,0 +1,235 @@
+package org.itsallcode.openfasttrace.exporter.bundle;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Low level writer for the binary item bundle format.
+ * <p>
+ * A bundle consists of
+ * </p>
+ * <ol>
+ * <li>a header with the magic bytes {@code OFTB} and the format version as a
+ * single byte,</li>
+ * <li>the records: sections starting with the path of the file the following
+ * items were imported from, items and a final end record,</li>
+ * <li>the string table containing all IDs, paths, artifact types, status
+ * names and tags referenced by the records and</li>
+ * <li>a trailer of fixed size containing the offset of the string table
+ * followed by the magic bytes.</li>
+ * </ol>
+ * <p>
+ * Numbers are variable length integers with seven bits per byte, least
+ * significant bits first. Signed numbers are zig-zag encoded. References into
+ * the string table are stored as index plus one, so that {@code 0} stands for
+ * {@code null}. Longer texts are stored inline as UTF-8 bytes prefixed with
+ * their length plus one. The string table follows the records, so that items
+ * can be written as soon as they arrive.
+ * </p>
+ */
+final class BundleWriter implements Closeable
+{
+    static final byte[] MAGIC = { 'O', 'F', 'T', 'B' };
+    static final int VERSION = 1;
+    static final int RECORD_END = 0;
+    static final int RECORD_SECTION = 1;
+    static final int RECORD_ITEM = 2;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DataOutputStream stream;
+    private final Map<String, Integer> stringReferences = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private boolean sectionStarted = false;
+    private int sectionPathReference = 0;
+
+    /**
+     * Create a new writer.
+     *
+     * @param stream
+     *            stream receiving the bundle
+     */
+    BundleWriter(final OutputStream stream)
+    {
+        this.stream = new DataOutputStream(new BufferedOutputStream(stream, BUFFER_SIZE));
+    }
+
+    /**
+     * Write the header identifying the bundle and its format version.
+     *
+     * @throws IOException
+     *             if writing fails
+     */
+    void writeHeader() throws IOException
+    {
+        this.stream.write(MAGIC);
+        this.stream.writeByte(VERSION);
+    }
+
+    /**
+     * Start a new section for the items imported from the given path.
+     *
+     * @param path
+     *            path of the file the following items were imported from or
+     *            {@code null} if unknown
+     * @throws IOException
+     *             if writing fails
+     */
+    void startSection(final String path) throws IOException
+    {
+        this.sectionPathReference = getReference(path);
+        this.sectionStarted = true;
+        this.stream.writeByte(RECORD_SECTION);
+        writeUnsigned(this.sectionPathReference);
+    }
+
+    /**
+     * Start a new item in the current section.
+     *
+     * @throws IOException
+     *             if writing fails
+     */
+    void startItem() throws IOException
+    {
+        if (!this.sectionStarted)
+        {
+            startSection(null);
+        }
+        this.stream.writeByte(RECORD_ITEM);
+    }
+
+    /**
+     * Get the path of the current section.
+     *
+     * @return path of the current section or {@code null} if there is no
+     *         section or its path is unknown
+     */
+    String getSectionPath()
+    {
+        return this.sectionPathReference == 0 ? null
+                : this.strings.get(this.sectionPathReference - 1);
+    }
+
+    /**
+     * Check if a section was started.
+     *
+     * @return {@code true} if at least one section exists
+     */
+    boolean hasSection()
+    {
+        return this.sectionStarted;
+    }
+
+    /**
+     * Write a non-negative number.
+     *
+     * @param value
+     *            the number
+     * @throws IOException
+     *             if writing fails
+     */
+    void writeUnsigned(final int value) throws IOException
+    {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0)
+        {
+            this.stream.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        this.stream.writeByte(remaining);
+    }
+
+    /**
+     * Write a number that may be negative.
+     *
+     * @param value
+     *            the number
+     * @throws IOException
+     *             if writing fails
+     */
+    void writeSigned(final int value) throws IOException
+    {
+        writeUnsigned((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Write a reference to a string in the string table.
+     *
+     * @param value
+     *            the string or {@code null}
+     * @throws IOException
+     *             if writing fails
+     */
+    void writeString(final String value) throws IOException
+    {
+        writeUnsigned(getReference(value));
+    }
+
+    /**
+     * Write a text inline.
+     *
+     * @param value
+     *            the text or {@code null}
+     * @throws IOException
+     *             if writing fails
+     */
+    void writeText(final String value) throws IOException
+    {
+        if (value == null)
+        {
+            writeUnsigned(0);
+        }
+        else
+        {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeUnsigned(bytes.length + 1);
+            this.stream.write(bytes);
+        }
+    }
+
+    private int getReference(final String value)
+    {
+        if (value == null)
+        {
+            return 0;
+        }
+        return this.stringReferences.computeIfAbsent(value, key -> {
+            this.strings.add(key);
+            return this.strings.size();
+        });
+    }
+
+    /**
+     * Terminate the records and write string table and trailer.
+     *
+     * @throws IOException
+     *             if writing fails or the bundle got too large
+     */
+    void finish() throws IOException
+    {
+        this.stream.writeByte(RECORD_END);
+        final int stringTableOffset = this.stream.size();
+        writeUnsigned(this.strings.size());
+        for (final String value : this.strings)
+        {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeUnsigned(bytes.length);
+            this.stream.write(bytes);
+        }
+        if (this.stream.size() == Integer.MAX_VALUE)
+        {
+            throw new IOException("Item bundle exceeds the maximum size of 2 GiB");
+        }
+        this.stream.writeLong(stringTableOffset);
+        this.stream.write(MAGIC);
+        this.stream.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        this.stream.close();
+    }
+
+}
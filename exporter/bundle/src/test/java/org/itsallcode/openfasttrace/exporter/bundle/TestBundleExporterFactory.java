@@ -0,0 +1,57 @@
+package org.itsallcode.openfasttrace.exporter.bundle;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.itsallcode.openfasttrace.testutil.core.ItemBuilderFactory.item;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.itsallcode.openfasttrace.api.core.Newline;
+import org.itsallcode.openfasttrace.api.core.SpecificationItem;
+import org.itsallcode.openfasttrace.api.exporter.ExporterException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestBundleExporterFactory
+{
+    @TempDir
+    Path tempDir;
+
+    private final BundleExporterFactory factory = new BundleExporterFactory();
+
+    @Test
+    void testExportToFile() throws IOException
+    {
+        final Path file = this.tempDir.resolve("items.oftb");
+        final SpecificationItem item = item().id("req", "name", 1).location("spec.md", 3).build();
+        this.factory.createExporter(file, "bundle", StandardCharsets.UTF_8, Newline.UNIX,
+                Stream.of(item)).runExport();
+        final byte[] bundle = Files.readAllBytes(file);
+        assertThat(Arrays.copyOfRange(bundle, 0, 5), equalTo(new byte[] { 'O', 'F', 'T', 'B', 1 }));
+    }
+
+    @Test
+    void testUnsupportedFormatFails()
+    {
+        final Stream<SpecificationItem> items = Stream.empty();
+        assertThrows(ExporterException.class, () -> this.factory.createExporter(
+                this.tempDir.resolve("items.xml"), "specobject", StandardCharsets.UTF_8,
+                Newline.UNIX, items));
+    }
+
+    @Test
+    void testExportToWriterFails()
+    {
+        final StringWriter writer = new StringWriter();
+        final Stream<SpecificationItem> items = Stream.empty();
+        assertThrows(ExporterException.class,
+                () -> this.factory.createExporter(writer, items, Newline.UNIX));
+    }
+}
@@ -0,0 +1,114 @@
+package org.itsallcode.openfasttrace.exporter.bundle;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class TestBundleWriter
+{
+    @Test
+    void testWriteHeader() throws IOException
+    {
+        assertThat(write(BundleWriter::writeHeader), equalTo(new byte[] { 'O', 'F', 'T', 'B', 1 }));
+    }
+
+    @Test
+    void testWriteUnsigned() throws IOException
+    {
+        assertThat(write(writer -> {
+            writer.writeUnsigned(0);
+            writer.writeUnsigned(127);
+            writer.writeUnsigned(300);
+        }), equalTo(new byte[] { 0, 127, (byte) 0xAC, 0x02 }));
+    }
+
+    @Test
+    void testWriteSigned() throws IOException
+    {
+        assertThat(write(writer -> {
+            writer.writeSigned(0);
+            writer.writeSigned(-1);
+            writer.writeSigned(1);
+            writer.writeSigned(-2);
+        }), equalTo(new byte[] { 0, 1, 2, 3 }));
+    }
+
+    @Test
+    void testWriteTextStoresLengthPlusOne() throws IOException
+    {
+        assertThat(write(writer -> {
+            writer.writeText(null);
+            writer.writeText("");
+            writer.writeText("ä");
+        }), equalTo(new byte[] { 0, 1, 3, (byte) 0xC3, (byte) 0xA4 }));
+    }
+
+    @Test
+    void testStringsAreStoredOnceInStringTable() throws IOException
+    {
+        final byte[] bundle = write(writer -> {
+            writer.writeString("req");
+            writer.writeString(null);
+            writer.writeString("dsn");
+            writer.writeString("req");
+            writer.finish();
+        });
+        final int trailerSize = Long.BYTES + 4;
+        final ByteBuffer trailer = ByteBuffer.wrap(bundle, bundle.length - trailerSize,
+                trailerSize);
+        final int stringTableOffset = (int) trailer.getLong();
+        assertThat(Arrays.copyOfRange(bundle, 0, stringTableOffset),
+                equalTo(new byte[] { 1, 0, 2, 1, BundleWriter.RECORD_END }));
+        assertThat(Arrays.copyOfRange(bundle, stringTableOffset, stringTableOffset + 9),
+                equalTo(new byte[] { 2, 3, 'r', 'e', 'q', 3, 'd', 's', 'n' }));
+    }
+
+    @Test
+    void testFinishWritesTrailer() throws IOException
+    {
+        final byte[] bundle = write(writer -> {
+            writer.writeHeader();
+            writer.startSection("a.md");
+            writer.startItem();
+            writer.startSection("b.md");
+            writer.startItem();
+            writer.finish();
+        });
+        final int stringTableOffset = (int) ByteBuffer.wrap(bundle, bundle.length - 12, 8)
+                .getLong();
+        assertThat(stringTableOffset, equalTo(12));
+        assertThat(Arrays.copyOfRange(bundle, stringTableOffset, bundle.length - 12),
+                equalTo(new byte[] { 2, 4, 'a', '.', 'm', 'd', 4, 'b', '.', 'm', 'd' }));
+        assertThat(Arrays.copyOfRange(bundle, bundle.length - 4, bundle.length),
+                equalTo(BundleWriter.MAGIC));
+    }
+
+    @Test
+    void testItemWithoutSectionStartsSectionWithoutPath() throws IOException
+    {
+        assertThat(write(BundleWriter::startItem), equalTo(new byte[] {
+                BundleWriter.RECORD_SECTION, 0, BundleWriter.RECORD_ITEM }));
+    }
+
+    @FunctionalInterface
+    private interface WriterAction
+    {
+        void run(BundleWriter writer) throws IOException;
+    }
+
+    private static byte[] write(final WriterAction action) throws IOException
+    {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (BundleWriter writer = new BundleWriter(stream))
+        {
+            action.run(writer);
+        }
+        return stream.toByteArray();
+    }
+}
@@ -7,5 +7,5 @@ module org.itsallcode.openfasttrace.exporter.common
 
     requires java.logging;
     requires transitive java.xml;
-    requires org.itsallcode.openfasttrace.api;
+    requires transitive org.itsallcode.openfasttrace.api;
 }
@@ -0,0 +1,542 @@
+package org.itsallcode.openfasttrace.exporter.common;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.itsallcode.openfasttrace.api.core.Newline;
+
+/**
+ * An indenting {@link XMLStreamWriter} that writes the markup directly into a
+ * character buffer instead of delegating to another {@link XMLStreamWriter}.
+ * <p>
+ * The output is the same as the one of an {@link IndentingXMLStreamWriter}
+ * wrapping the writer of the JDK's default {@code XMLOutputFactory}: text is
+ * escaped the same way, start tags are closed lazily and elements are indented
+ * by two spaces. Text can be escaped and its newlines unified in a single pass
+ * using {@link #writeCharacters(String, Newline)}.
+ * </p>
+ * <p>
+ * Namespaces are not supported. The writer is not thread safe.
+ * </p>
+ */
+public class DirectIndentingXMLStreamWriter implements XMLStreamWriter, AutoCloseable
+{
+    private enum State
+    {
+        SEEN_NOTHING, SEEN_ELEMENT, SEEN_DATA
+    }
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final char NEWLINE = '\n';
+    private static final String INDENTATION = "  ";
+
+    private final Writer writer;
+    private final char[] buffer;
+    private int position = 0;
+    private final Deque<String> elementStack = new ArrayDeque<>();
+    private final Deque<State> stateStack = new ArrayDeque<>();
+    private State state = State.SEEN_NOTHING;
+    private int depth;
+    private boolean startTagOpen = false;
+    private boolean emptyElementOpen = false;
+
+    /**
+     * Create a new instance writing to a {@link Writer}.
+     *
+     * @param writer
+     *            the writer receiving the XML output
+     */
+    public DirectIndentingXMLStreamWriter(final Writer writer)
+    {
+        this(writer, 0);
+    }
+
+    /**
+     * Create a new instance for a document fragment that is nested into
+     * elements written elsewhere.
+     *
+     * @param writer
+     *            the writer receiving the XML output
+     * @param depth
+     *            the number of elements the fragment is nested in
+     */
+    public DirectIndentingXMLStreamWriter(final Writer writer, final int depth)
+    {
+        this.writer = writer;
+        this.buffer = new char[DEFAULT_BUFFER_SIZE];
+        this.depth = depth;
+    }
+
+    /**
+     * Create a new instance writing UTF-8 encoded output to a stream.
+     *
+     * @param stream
+     *            the stream receiving the XML output
+     */
+    public DirectIndentingXMLStreamWriter(final OutputStream stream)
+    {
+        this(stream, 0);
+    }
+
+    /**
+     * Create a new instance writing UTF-8 encoded output to a stream for a
+     * document fragment that is nested into elements written elsewhere.
+     *
+     * @param stream
+     *            the stream receiving the XML output
+     * @param depth
+     *            the number of elements the fragment is nested in
+     */
+    public DirectIndentingXMLStreamWriter(final OutputStream stream, final int depth)
+    {
+        this(new OutputStreamWriter(stream, StandardCharsets.UTF_8), depth);
+    }
+
+    @Override
+    public void writeStartDocument() throws XMLStreamException
+    {
+        write("<?xml version=\"1.0\" ?>");
+        write(NEWLINE);
+    }
+
+    @Override
+    public void writeStartDocument(final String version) throws XMLStreamException
+    {
+        write("<?xml version=\"");
+        write(version);
+        write("\"?>");
+        write(NEWLINE);
+    }
+
+    @Override
+    public void writeStartDocument(final String encoding, final String version)
+            throws XMLStreamException
+    {
+        write("<?xml version=\"");
+        write(version);
+        write("\" encoding=\"");
+        write(encoding);
+        write("\"?>");
+        write(NEWLINE);
+    }
+
+    @Override
+    public void writeEndDocument() throws XMLStreamException
+    {
+        closeStartTag();
+        while (!this.elementStack.isEmpty())
+        {
+            writeEndTag(this.elementStack.pop());
+        }
+    }
+
+    @Override
+    public void writeStartElement(final String localName) throws XMLStreamException
+    {
+        this.stateStack.push(State.SEEN_ELEMENT);
+        this.state = State.SEEN_NOTHING;
+        closeStartTag();
+        if (this.depth > 0)
+        {
+            write(NEWLINE);
+        }
+        writeIndentation();
+        this.depth++;
+        write('<');
+        write(localName);
+        this.elementStack.push(localName);
+        this.startTagOpen = true;
+    }
+
+    @Override
+    public void writeEmptyElement(final String localName) throws XMLStreamException
+    {
+        this.state = State.SEEN_ELEMENT;
+        closeStartTag();
+        if (this.depth > 0)
+        {
+            write(NEWLINE);
+        }
+        writeIndentation();
+        write('<');
+        write(localName);
+        this.startTagOpen = true;
+        this.emptyElementOpen = true;
+    }
+
+    private void writeIndentation() throws XMLStreamException
+    {
+        for (int i = 0; i < this.depth; i++)
+        {
+            write(INDENTATION);
+        }
+    }
+
+    @Override
+    public void writeEndElement() throws XMLStreamException
+    {
+        this.depth--;
+        if (this.state == State.SEEN_ELEMENT)
+        {
+            closeStartTag();
+            write(NEWLINE);
+            writeIndentation();
+        }
+        this.state = this.stateStack.isEmpty() ? null : this.stateStack.pop();
+        if (this.elementStack.isEmpty())
+        {
+            throw new XMLStreamException("No element was found to write");
+        }
+        closeStartTag();
+        writeEndTag(this.elementStack.pop());
+    }
+
+    private void writeEndTag(final String localName) throws XMLStreamException
+    {
+        write("</");
+        write(localName);
+        write('>');
+    }
+
+    private void closeStartTag() throws XMLStreamException
+    {
+        if (this.startTagOpen)
+        {
+            if (this.emptyElementOpen)
+            {
+                write("/>");
+                this.emptyElementOpen = false;
+            }
+            else
+            {
+                write('>');
+            }
+            this.startTagOpen = false;
+        }
+    }
+
+    @Override
+    public void writeAttribute(final String localName, final String value)
+            throws XMLStreamException
+    {
+        if (!this.startTagOpen)
+        {
+            throw new XMLStreamException("Attribute not associated with any element");
+        }
+        write(' ');
+        write(localName);
+        write("=\"");
+        writeEscaped(value, true, null);
+        write('"');
+    }
+
+    @Override
+    public void writeCharacters(final String text) throws XMLStreamException
+    {
+        this.state = State.SEEN_DATA;
+        closeStartTag();
+        writeEscaped(text, false, null);
+    }
+
+    /**
+     * Write text with all newlines replaced by the given newline.
+     * <p>
+     * The result is the same as writing the text after replacing all matches
+     * of {@link Newline#anyNewlinePattern()}, but escaping and replacing
+     * newlines happens in a single pass over the text.
+     * </p>
+     *
+     * @param text
+     *            the text to write
+     * @param newline
+     *            the newline replacing all newlines in the text
+     * @throws XMLStreamException
+     *             if writing fails
+     */
+    public void writeCharacters(final String text, final Newline newline)
+            throws XMLStreamException
+    {
+        this.state = State.SEEN_DATA;
+        closeStartTag();
+        writeEscaped(text, false, newline.toString());
+    }
+
+    @Override
+    public void writeCharacters(final char[] text, final int start, final int len)
+            throws XMLStreamException
+    {
+        writeCharacters(new String(text, start, len));
+    }
+
+    @Override
+    public void writeCData(final String data) throws XMLStreamException
+    {
+        this.state = State.SEEN_DATA;
+        closeStartTag();
+        write("<![CDATA[");
+        write(data);
+        write("]]>");
+    }
+
+    @Override
+    public void writeComment(final String data) throws XMLStreamException
+    {
+        closeStartTag();
+        write("<!--");
+        write(data);
+        write("-->");
+    }
+
+    @Override
+    public void writeProcessingInstruction(final String target) throws XMLStreamException
+    {
+        closeStartTag();
+        write("<?");
+        write(target);
+        write("?>");
+    }
+
+    @Override
+    public void writeProcessingInstruction(final String target, final String data)
+            throws XMLStreamException
+    {
+        closeStartTag();
+        write("<?");
+        write(target);
+        write(' ');
+        write(data);
+        write("?>");
+    }
+
+    @Override
+    public void writeDTD(final String dtd) throws XMLStreamException
+    {
+        closeStartTag();
+        write(dtd);
+    }
+
+    @Override
+    public void writeEntityRef(final String name) throws XMLStreamException
+    {
+        closeStartTag();
+        write('&');
+        write(name);
+        write(';');
+    }
+
+    // Escapes like the JDK writer and optionally replaces any newline.
+    private void writeEscaped(final String text, final boolean attribute,
+            final String newline) throws XMLStreamException
+    {
+        final int length = text.length();
+        int copied = 0;
+        for (int i = 0; i < length; ++i)
+        {
+            final char character = text.charAt(i);
+            final String replacement;
+            int end = i + 1;
+            switch (character)
+            {
+            case '&':
+                replacement = "&amp;";
+                break;
+            case '<':
+                replacement = "&lt;";
+                break;
+            case '>':
+                replacement = "&gt;";
+                break;
+            case '"':
+                replacement = attribute ? "&quot;" : null;
+                break;
+            case '\r':
+                if ((i + 1 < length) && (text.charAt(i + 1) == '\n'))
+                {
+                    end = i + 2;
+                }
+                replacement = newline;
+                break;
+            case '\n':
+                replacement = newline;
+                break;
+            default:
+                replacement = null;
+            }
+            if (replacement != null)
+            {
+                write(text, copied, i);
+                write(replacement);
+                copied = end;
+                i = end - 1;
+            }
+        }
+        write(text, copied, length);
+    }
+
+    private void write(final char character) throws XMLStreamException
+    {
+        if (this.position == this.buffer.length)
+        {
+            flushBuffer();
+        }
+        this.buffer[this.position++] = character;
+    }
+
+    private void write(final String text) throws XMLStreamException
+    {
+        write(text, 0, text.length());
+    }
+
+    private void write(final String text, final int start, final int end)
+            throws XMLStreamException
+    {
+        int from = start;
+        while (from < end)
+        {
+            if (this.position == this.buffer.length)
+            {
+                flushBuffer();
+            }
+            final int to = Math.min(end, from + this.buffer.length - this.position);
+            text.getChars(from, to, this.buffer, this.position);
+            this.position += to - from;
+            from = to;
+        }
+    }
+
+    private void flushBuffer() throws XMLStreamException
+    {
+        try
+        {
+            this.writer.write(this.buffer, 0, this.position);
+            this.position = 0;
+        }
+        catch (final IOException exception)
+        {
+            throw new XMLStreamException("Error writing XML output", exception);
+        }
+    }
+
+    @Override
+    public void flush() throws XMLStreamException
+    {
+        flushBuffer();
+        try
+        {
+            this.writer.flush();
+        }
+        catch (final IOException exception)
+        {
+            throw new XMLStreamException("Error flushing XML output", exception);
+        }
+    }
+
+    /**
+     * Flush all output. Like the JDK's writer this does not close the
+     * underlying writer.
+     */
+    @Override
+    public void close() throws XMLStreamException
+    {
+        flush();
+    }
+
+    @Override
+    public void writeStartElement(final String namespaceURI, final String localName)
+    {
+        throw namespacesNotSupported();
+    }
+
+    @Override
+    public void writeStartElement(final String prefix, final String localName,
+            final String namespaceURI)
+    {
+        throw namespacesNotSupported();
+    }
+
+    @Override
+    public void writeEmptyElement(final String namespaceURI, final String localName)
+    {
+        throw namespacesNotSupported();
+    }
+
+    @Override
+    public void writeEmptyElement(final String prefix, final String localName,
+            final String namespaceURI)
+    {
+        throw namespacesNotSupported();
+    }
+
+    @Override
+    public void writeAttribute(final String prefix, final String namespaceURI,
+            final String localName, final String value)
+    {
+        throw namespacesNotSupported();
+    }
+
+    @Override
+    public void writeAttribute(final String namespaceURI, final String localName,
+            final String value)
+    {
+        throw namespacesNotSupported();
+    }
+
+    @Override
+    public void writeNamespace(final String prefix, final String namespaceURI)
+    {
+        throw namespacesNotSupported();
+    }
+
+    @Override
+    public void writeDefaultNamespace(final String namespaceURI)
+    {
+        throw namespacesNotSupported();
+    }
+
+    @Override
+    public String getPrefix(final String uri)
+    {
+        throw namespacesNotSupported();
+    }
+
+    @Override
+    public void setPrefix(final String prefix, final String uri)
+    {
+        throw namespacesNotSupported();
+    }
+
+    @Override
+    public void setDefaultNamespace(final String uri)
+    {
+        throw namespacesNotSupported();
+    }
+
+    @Override
+    public void setNamespaceContext(final NamespaceContext context)
+    {
+        throw namespacesNotSupported();
+    }
+
+    @Override
+    public NamespaceContext getNamespaceContext()
+    {
+        return null;
+    }
+
+    @Override
+    public Object getProperty(final String name)
+    {
+        throw new IllegalArgumentException("Property '" + name + "' is not supported");
+    }
+
+    private static UnsupportedOperationException namespacesNotSupported()
+    {
+        return new UnsupportedOperationException("Namespaces are not supported");
+    }
+}
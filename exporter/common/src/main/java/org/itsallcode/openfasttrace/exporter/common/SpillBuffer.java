@@ -0,0 +1,132 @@
+package org.itsallcode.openfasttrace.exporter.common;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Logger;
+
+/**
+ * An {@link OutputStream} that keeps the written bytes in memory until a
+ * threshold is reached and spills everything to a temporary file from then
+ * on.
+ * <p>
+ * This allows exporters to buffer parts of their output that can only be
+ * written later (e.g. items grouped by a key) without holding the complete
+ * output in the heap. The buffered content can be read back after closing the
+ * buffer. Call {@link #delete()} when the content is no longer needed to
+ * remove the temporary file.
+ * </p>
+ */
+public class SpillBuffer extends OutputStream
+{
+    private static final Logger LOG = Logger.getLogger(SpillBuffer.class.getName());
+    private static final String TEMP_FILE_PREFIX = "oft-spill-";
+    private static final int FILE_BUFFER_SIZE = 64 * 1024;
+
+    private final int memoryThreshold;
+    private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+    private Path spillFile;
+    private OutputStream fileStream;
+
+    /**
+     * Create a new instance.
+     *
+     * @param memoryThreshold
+     *            number of bytes kept in memory before the content is spilled
+     *            to a temporary file.
+     */
+    public SpillBuffer(final int memoryThreshold)
+    {
+        this.memoryThreshold = memoryThreshold;
+    }
+
+    @Override
+    public void write(final int b) throws IOException
+    {
+        spillIfNeeded(1).write(b);
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException
+    {
+        spillIfNeeded(length).write(bytes, offset, length);
+    }
+
+    private OutputStream spillIfNeeded(final int length) throws IOException
+    {
+        if (this.fileStream == null && this.memory.size() + length > this.memoryThreshold)
+        {
+            this.spillFile = Files.createTempFile(TEMP_FILE_PREFIX, ".tmp");
+            LOG.finest(() -> "Spilling " + this.memory.size() + " bytes to '" + this.spillFile
+                    + "'");
+            this.fileStream = new BufferedOutputStream(Files.newOutputStream(this.spillFile),
+                    FILE_BUFFER_SIZE);
+            this.memory.writeTo(this.fileStream);
+            this.memory = null;
+        }
+        return this.fileStream == null ? this.memory : this.fileStream;
+    }
+
+    /**
+     * Check if the content was spilled to a temporary file.
+     *
+     * @return {@code true} if the content is stored in a temporary file.
+     */
+    public boolean isSpilled()
+    {
+        return this.spillFile != null;
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        if (this.fileStream != null)
+        {
+            this.fileStream.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if (this.fileStream != null)
+        {
+            this.fileStream.close();
+        }
+    }
+
+    /**
+     * Open a stream for reading back the buffered content.
+     * <p>
+     * Close the buffer before reading it.
+     * </p>
+     *
+     * @return a new stream reading the content from the start.
+     * @throws IOException
+     *             if the temporary file can't be read.
+     */
+    public InputStream openInputStream() throws IOException
+    {
+        if (this.spillFile == null)
+        {
+            return new ByteArrayInputStream(this.memory.toByteArray());
+        }
+        return new BufferedInputStream(Files.newInputStream(this.spillFile), FILE_BUFFER_SIZE);
+    }
+
+    /**
+     * Close the buffer and delete the temporary file if the content was
+     * spilled.
+     *
+     * @throws IOException
+     *             if closing or deleting fails.
+     */
+    public void delete() throws IOException
+    {
+        close();
+        if (this.spillFile != null)
+        {
+            Files.deleteIfExists(this.spillFile);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.itsallcode.openfasttrace.exporter.common;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.itsallcode.openfasttrace.api.core.Newline;
+import org.junit.jupiter.api.Test;
+
+class TestDirectIndentingXMLStreamWriter
+{
+    private static final String TRICKY_TEXT = "a & b < c > d \"e\" 'f'\r\ng\rh\ni\tj ä€😀";
+
+    @FunctionalInterface
+    private interface XmlScript
+    {
+        void write(XMLStreamWriter writer) throws XMLStreamException;
+    }
+
+    @Test
+    void testDocumentMatchesJdkWriter() throws XMLStreamException
+    {
+        assertSameOutput(writer -> {
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeStartElement("root");
+            writer.writeAttribute("attr", TRICKY_TEXT);
+            writer.writeStartElement("child");
+            writer.writeCharacters(TRICKY_TEXT);
+            writer.writeEndElement();
+            writer.writeStartElement("empty");
+            writer.writeEndElement();
+            writer.writeEmptyElement("leaf");
+            writer.writeAttribute("k", "v");
+            writer.writeEmptyElement("leaf");
+            writer.writeStartElement("nested");
+            writer.writeStartElement("inner");
+            writer.writeCData("<raw>");
+            writer.writeEndElement();
+            writer.writeComment(" note ");
+            writer.writeEndElement();
+            writer.writeEndElement();
+            writer.writeEndDocument();
+        });
+    }
+
+    @Test
+    void testStartDocumentVariantsMatchJdkWriter() throws XMLStreamException
+    {
+        assertSameOutput(XMLStreamWriter::writeStartDocument);
+        assertSameOutput(writer -> writer.writeStartDocument("1.0"));
+    }
+
+    @Test
+    void testEndDocumentClosesOpenElements() throws XMLStreamException
+    {
+        assertSameOutput(writer -> {
+            writer.writeStartElement("a");
+            writer.writeStartElement("b");
+            writer.writeCharacters("text");
+            writer.writeEndDocument();
+        });
+    }
+
+    @Test
+    void testNestedFragmentIsIndentedByDepth() throws XMLStreamException
+    {
+        final StringWriter output = new StringWriter();
+        final DirectIndentingXMLStreamWriter writer = new DirectIndentingXMLStreamWriter(output,
+                1);
+        writer.writeStartElement("specobjects");
+        writer.writeStartElement("specobject");
+        writer.writeStartElement("id");
+        writer.writeCharacters("name");
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.close();
+        assertThat(output.toString(), equalTo("\n  <specobjects>\n    <specobject>\n"
+                + "      <id>name</id>\n    </specobject>\n  </specobjects>"));
+    }
+
+    @Test
+    void testWriteCharactersUnifiesNewlines() throws XMLStreamException
+    {
+        for (final Newline newline : Newline.values())
+        {
+            final StringWriter output = new StringWriter();
+            final DirectIndentingXMLStreamWriter writer = new DirectIndentingXMLStreamWriter(output);
+            writer.writeCharacters(TRICKY_TEXT, newline);
+            writer.close();
+            assertThat(output.toString(), equalTo(render(w -> w.writeCharacters(Newline
+                    .anyNewlinePattern().matcher(TRICKY_TEXT).replaceAll(newline.toString())))));
+        }
+    }
+
+    @Test
+    void testWriteToStreamUsesUtf8() throws XMLStreamException
+    {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final DirectIndentingXMLStreamWriter writer = new DirectIndentingXMLStreamWriter(output);
+        writer.writeStartElement("e");
+        writer.writeCharacters("ä€");
+        writer.writeEndElement();
+        writer.close();
+        assertThat(output.toString(StandardCharsets.UTF_8), equalTo("<e>ä€</e>"));
+    }
+
+    @Test
+    void testLongTextExceedingBuffer() throws XMLStreamException
+    {
+        final String text = "x&".repeat(100_000);
+        assertSameOutput(writer -> {
+            writer.writeStartElement("e");
+            writer.writeCharacters(text);
+            writer.writeEndElement();
+        });
+    }
+
+    @Test
+    void testAttributeWithoutElementFails()
+    {
+        final DirectIndentingXMLStreamWriter writer = new DirectIndentingXMLStreamWriter(
+                new StringWriter());
+        assertThrows(XMLStreamException.class, () -> writer.writeAttribute("k", "v"));
+    }
+
+    @Test
+    void testNamespacesAreNotSupported()
+    {
+        final DirectIndentingXMLStreamWriter writer = new DirectIndentingXMLStreamWriter(
+                new StringWriter());
+        assertThrows(UnsupportedOperationException.class,
+                () -> writer.writeStartElement("ns", "e"));
+    }
+
+    private static void assertSameOutput(final XmlScript script) throws XMLStreamException
+    {
+        final StringWriter output = new StringWriter();
+        final DirectIndentingXMLStreamWriter writer = new DirectIndentingXMLStreamWriter(output);
+        script.write(writer);
+        writer.close();
+        assertThat(output.toString(), equalTo(render(script)));
+    }
+
+    private static String render(final XmlScript script) throws XMLStreamException
+    {
+        final StringWriter output = new StringWriter();
+        final XMLStreamWriter writer = new IndentingXMLStreamWriter(
+                XMLOutputFactory.newFactory().createXMLStreamWriter(output));
+        script.write(writer);
+        writer.close();
+        return output.toString();
+    }
+}
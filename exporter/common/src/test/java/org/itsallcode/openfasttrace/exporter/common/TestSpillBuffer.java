@@ -0,0 +1,60 @@
+package org.itsallcode.openfasttrace.exporter.common;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class TestSpillBuffer
+{
+    private static final String CONTENT = "first line\nsecond line\n";
+
+    @Test
+    void testContentBelowThresholdStaysInMemory() throws IOException
+    {
+        final SpillBuffer buffer = new SpillBuffer(1024);
+        write(buffer, CONTENT);
+        assertThat(buffer.isSpilled(), is(false));
+        assertThat(read(buffer), equalTo(CONTENT));
+        buffer.delete();
+    }
+
+    @Test
+    void testContentAboveThresholdIsSpilled() throws IOException
+    {
+        final SpillBuffer buffer = new SpillBuffer(8);
+        write(buffer, CONTENT);
+        buffer.write('!');
+        assertThat(buffer.isSpilled(), is(true));
+        assertThat(read(buffer), equalTo(CONTENT + "!"));
+        buffer.delete();
+    }
+
+    @Test
+    void testContentCanBeReadRepeatedly() throws IOException
+    {
+        final SpillBuffer buffer = new SpillBuffer(4);
+        write(buffer, CONTENT);
+        assertThat(read(buffer), equalTo(read(buffer)));
+        buffer.delete();
+    }
+
+    private static void write(final SpillBuffer buffer, final String content) throws IOException
+    {
+        buffer.write(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(final SpillBuffer buffer) throws IOException
+    {
+        buffer.close();
+        try (InputStream stream = buffer.openInputStream())
+        {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+/**
+ * This provides an exporter for the newline-delimited JSON format.
+ * 
+ * @provides org.itsallcode.openfasttrace.api.exporter.ExporterFactory
+ */
+module org.itsallcode.openfasttrace.exporter.ndjson
+{
+    requires java.logging;
+    requires org.itsallcode.openfasttrace.api;
+
+    provides org.itsallcode.openfasttrace.api.exporter.ExporterFactory
+            with org.itsallcode.openfasttrace.exporter.ndjson.NdjsonExporterFactory;
+}
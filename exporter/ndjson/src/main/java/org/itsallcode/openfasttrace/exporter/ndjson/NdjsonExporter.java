@@ -0,0 +1,200 @@
+package org.itsallcode.openfasttrace.exporter.ndjson;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.itsallcode.openfasttrace.api.core.*;
+import org.itsallcode.openfasttrace.api.exporter.Exporter;
+import org.itsallcode.openfasttrace.api.exporter.ExporterException;
+
+/**
+ * An {@link Exporter} for newline-delimited JSON.
+ * <p>
+ * Each item is written as a JSON object on a line of its own, e.g.
+ * </p>
+ * 
+ * <pre>
+ * {"id":"impl~run-tests~1","status":"approved","covers":["dsn~tests~1"],"file":"Run.java","line":12}
+ * </pre>
+ * <p>
+ * IDs have the form {@code <artifact type>~<name>~<revision>}. Empty texts,
+ * empty lists and a {@code false} forwarding flag are left out.
+ * </p>
+ */
+class NdjsonExporter implements Exporter
+{
+    private static final Logger LOG = Logger.getLogger(NdjsonExporter.class.getName());
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Stream<SpecificationItem> itemStream;
+    private final Writer writer;
+    private final Newline newline;
+    private final StringBuilder line = new StringBuilder(1024);
+
+    NdjsonExporter(final Stream<SpecificationItem> itemStream, final Writer writer,
+            final Newline newline)
+    {
+        this.itemStream = itemStream;
+        this.writer = writer;
+        this.newline = newline;
+    }
+
+    @Override
+    public void runExport()
+    {
+        int itemCount = 0;
+        try (this.writer)
+        {
+            final Iterator<SpecificationItem> iterator = this.itemStream.iterator();
+            while (iterator.hasNext())
+            {
+                this.line.setLength(0);
+                appendItem(iterator.next());
+                this.line.append(this.newline);
+                this.writer.append(this.line);
+                itemCount++;
+            }
+        }
+        catch (final IOException e)
+        {
+            throw new ExporterException("Error exporting to ndjson format", e);
+        }
+        final int exportedItems = itemCount;
+        LOG.finest(() -> "Exported " + exportedItems + " items to ndjson");
+    }
+
+    private void appendItem(final SpecificationItem item)
+    {
+        this.line.append("{\"id\":");
+        appendString(item.getId().toString());
+        appendField("status", item.getStatus().toString());
+        appendField("title", item.getTitle());
+        appendField("description", item.getDescription());
+        appendField("rationale", item.getRationale());
+        appendField("comment", item.getComment());
+        appendIds("covers", item.getCoveredIds());
+        appendIds("dependsOn", item.getDependOnIds());
+        appendStrings("needs", item.getNeedsArtifactTypes());
+        appendStrings("tags", item.getTags());
+        if (item.isForwarding())
+        {
+            appendKey("forwards");
+            this.line.append("true");
+        }
+        appendLocation(item.getLocation());
+        this.line.append('}');
+    }
+
+    private void appendLocation(final Location location)
+    {
+        if (location == null)
+        {
+            return;
+        }
+        appendField("file", location.getPath());
+        if (location.getLine() != Location.NO_LINE)
+        {
+            appendKey("line");
+            this.line.append(location.getLine());
+        }
+        if (location.getColumn() != Location.NO_COLUMN)
+        {
+            appendKey("column");
+            this.line.append(location.getColumn());
+        }
+    }
+
+    private void appendField(final String key, final String value)
+    {
+        if (value != null && !value.isEmpty())
+        {
+            appendKey(key);
+            appendString(value);
+        }
+    }
+
+    private void appendIds(final String key, final List<SpecificationItemId> ids)
+    {
+        if (ids.isEmpty())
+        {
+            return;
+        }
+        appendKey(key);
+        this.line.append('[');
+        for (int i = 0; i < ids.size(); i++)
+        {
+            if (i > 0)
+            {
+                this.line.append(',');
+            }
+            appendString(ids.get(i).toString());
+        }
+        this.line.append(']');
+    }
+
+    private void appendStrings(final String key, final List<String> values)
+    {
+        if (values.isEmpty())
+        {
+            return;
+        }
+        appendKey(key);
+        this.line.append('[');
+        for (int i = 0; i < values.size(); i++)
+        {
+            if (i > 0)
+            {
+                this.line.append(',');
+            }
+            appendString(values.get(i));
+        }
+        this.line.append(']');
+    }
+
+    private void appendKey(final String key)
+    {
+        this.line.append(",\"").append(key).append("\":");
+    }
+
+    private void appendString(final String value)
+    {
+        this.line.append('"');
+        for (int i = 0; i < value.length(); i++)
+        {
+            final char character = value.charAt(i);
+            switch (character)
+            {
+            case '"':
+                this.line.append("\\\"");
+                break;
+            case '\\':
+                this.line.append("\\\\");
+                break;
+            case '\n':
+                this.line.append("\\n");
+                break;
+            case '\r':
+                this.line.append("\\r");
+                break;
+            case '\t':
+                this.line.append("\\t");
+                break;
+            default:
+                if (character < 0x20)
+                {
+                    this.line.append("\\u00").append(HEX_DIGITS[character >> 4])
+                            .append(HEX_DIGITS[character & 0xF]);
+                }
+                else
+                {
+                    this.line.append(character);
+                }
+            }
+        }
+        this.line.append('"');
+    }
+}
@@ -0,0 +1,31 @@
+package org.itsallcode.openfasttrace.exporter.ndjson;
+
+import java.io.Writer;
+import java.util.stream.Stream;
+
+import org.itsallcode.openfasttrace.api.core.Newline;
+import org.itsallcode.openfasttrace.api.core.SpecificationItem;
+import org.itsallcode.openfasttrace.api.exporter.Exporter;
+import org.itsallcode.openfasttrace.api.exporter.ExporterFactory;
+
+/**
+ * {@link ExporterFactory} for creating {@link Exporter}s that write one JSON
+ * object per specification item and line.
+ */
+public class NdjsonExporterFactory extends ExporterFactory
+{
+    private static final String SUPPORTED_FORMAT = "ndjson";
+
+    /** Creates a new instance. */
+    public NdjsonExporterFactory()
+    {
+        super(SUPPORTED_FORMAT);
+    }
+
+    @Override
+    protected Exporter createExporter(final Writer writer,
+            final Stream<SpecificationItem> itemStream, final Newline newline)
+    {
+        return new NdjsonExporter(itemStream, writer, newline);
+    }
+}
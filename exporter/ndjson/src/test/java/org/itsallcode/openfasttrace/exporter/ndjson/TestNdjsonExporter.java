@@ -0,0 +1,70 @@
+package org.itsallcode.openfasttrace.exporter.ndjson;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.itsallcode.openfasttrace.testutil.core.ItemBuilderFactory.item;
+
+import java.io.StringWriter;
+import java.util.stream.Stream;
+
+import org.itsallcode.openfasttrace.api.core.*;
+import org.junit.jupiter.api.Test;
+
+class TestNdjsonExporter
+{
+    @Test
+    void testExportItemWithAllElements()
+    {
+        final SpecificationItem item = item().id("req", "name", 2) //
+                .title("title") //
+                .status(ItemStatus.PROPOSED) //
+                .description("description") //
+                .rationale("rationale") //
+                .comment("comment") //
+                .addCoveredId("feat", "covered", 1) //
+                .addDependOnId("req", "other", 3) //
+                .addNeedsArtifactType("dsn") //
+                .addTag("tag") //
+                .forwards(true) //
+                .location(Location.create("spec.md", 4, 2)) //
+                .build();
+        assertThat(export(Newline.UNIX, item), equalTo("{\"id\":\"req~name~2\","
+                + "\"status\":\"proposed\",\"title\":\"title\",\"description\":\"description\","
+                + "\"rationale\":\"rationale\",\"comment\":\"comment\","
+                + "\"covers\":[\"feat~covered~1\"],\"dependsOn\":[\"req~other~3\"],"
+                + "\"needs\":[\"dsn\"],\"tags\":[\"tag\"],\"forwards\":true,"
+                + "\"file\":\"spec.md\",\"line\":4,\"column\":2}\n"));
+    }
+
+    @Test
+    void testExportMinimalItems()
+    {
+        final SpecificationItem itemA = item().id("req", "a", 1).build();
+        final SpecificationItem itemB = item().id("req", "b", 1).location("b.md", 3).build();
+        assertThat(export(Newline.WINDOWS, itemA, itemB),
+                equalTo("{\"id\":\"req~a~1\",\"status\":\"approved\"}\r\n"
+                        + "{\"id\":\"req~b~1\",\"status\":\"approved\",\"file\":\"b.md\",\"line\":3}\r\n"));
+    }
+
+    @Test
+    void testExportEscapesStrings()
+    {
+        final SpecificationItem item = item().id("req", "a", 1)
+                .description("\"quoted\" \\ line\r\nbreak\ttab \u0001 ä").build();
+        assertThat(export(Newline.UNIX, item), equalTo("{\"id\":\"req~a~1\",\"status\":\"approved\","
+                + "\"description\":\"\\\"quoted\\\" \\\\ line\\r\\nbreak\\ttab \\u0001 ä\"}\n"));
+    }
+
+    @Test
+    void testExportNoItems()
+    {
+        assertThat(export(Newline.UNIX), equalTo(""));
+    }
+
+    private static String export(final Newline newline, final SpecificationItem... items)
+    {
+        final StringWriter writer = new StringWriter();
+        new NdjsonExporter(Stream.of(items), writer, newline).runExport();
+        return writer.toString();
+    }
+}
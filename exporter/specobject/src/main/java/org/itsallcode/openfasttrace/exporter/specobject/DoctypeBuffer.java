@@ -0,0 +1,95 @@
+package org.itsallcode.openfasttrace.exporter.specobject;
+
+import java.io.*;
+import java.util.Collection;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.itsallcode.openfasttrace.api.core.Newline;
+import org.itsallcode.openfasttrace.api.core.SpecificationItem;
+import org.itsallcode.openfasttrace.exporter.common.SpillBuffer;
+
+/**
+ * Buffers the exported items of one artifact type until they are written.
+ * <p>
+ * Items are kept in a {@link SpillBuffer}, so that large exports spill to
+ * temporary files instead of being held in the heap.
+ * </p>
+ */
+class DoctypeBuffer
+{
+    private static final Logger LOG = Logger.getLogger(DoctypeBuffer.class.getName());
+    private static final int MEMORY_THRESHOLD = 256 * 1024;
+
+    private final SpillBuffer buffer = new SpillBuffer(MEMORY_THRESHOLD);
+    private final DataOutputStream output = new DataOutputStream(this.buffer);
+    private int itemCount = 0;
+
+    /**
+     * Append an item to the buffer of its artifact type, creating the buffer
+     * if needed.
+     *
+     * @param doctypes
+     *            buffers by artifact type
+     * @param item
+     *            the item to append
+     * @param newline
+     *            the newline used in multi-line texts
+     * @throws IOException
+     *             if buffering fails
+     */
+    static void append(final Map<String, DoctypeBuffer> doctypes, final SpecificationItem item,
+            final Newline newline) throws IOException
+    {
+        DoctypeBuffer buffer = doctypes.get(item.getArtifactType());
+        if (buffer == null)
+        {
+            buffer = new DoctypeBuffer();
+            doctypes.put(item.getArtifactType(), buffer);
+        }
+        buffer.append(ExportedItem.of(item, newline));
+    }
+
+    /**
+     * Delete the given buffers, logging failures instead of throwing them.
+     *
+     * @param buffers
+     *            the buffers to delete
+     */
+    static void deleteAll(final Collection<DoctypeBuffer> buffers)
+    {
+        for (final DoctypeBuffer buffer : buffers)
+        {
+            try
+            {
+                buffer.delete();
+            }
+            catch (final IOException e)
+            {
+                LOG.warning(() -> "Failed to delete item buffer: " + e.getMessage());
+            }
+        }
+    }
+
+    private void append(final ExportedItem item) throws IOException
+    {
+        item.writeTo(this.output);
+        this.itemCount++;
+    }
+
+    int getItemCount()
+    {
+        return this.itemCount;
+    }
+
+    InputStream openInputStream() throws IOException
+    {
+        this.output.close();
+        return this.buffer.openInputStream();
+    }
+
+    private void delete() throws IOException
+    {
+        this.buffer.delete();
+    }
+}
@@ -0,0 +1,169 @@
+package org.itsallcode.openfasttrace.exporter.specobject;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.itsallcode.openfasttrace.api.core.*;
+
+/**
+ * The values of a {@link SpecificationItem} that end up in a specobject
+ * document, ready to be written.
+ * <p>
+ * Exported items can be written to and read from a compact binary form. This
+ * allows buffering them outside the heap until their {@code specobjects}
+ * section is written.
+ * </p>
+ */
+record ExportedItem(String name, String title, String status, int revision, String sourceFile,
+        int sourceLine, String description, String rationale, String comment, List<String> tags,
+        List<String> neededArtifactTypes, List<String> coveredIds, List<Integer> coveredRevisions,
+        List<String> dependOnIds)
+{
+    private static final int NULL_LENGTH = -1;
+
+    /**
+     * Extract the exported values from a specification item.
+     *
+     * @param item
+     *            the item to export
+     * @param newline
+     *            the newline used in multi-line texts
+     * @return the exported item
+     */
+    static ExportedItem of(final SpecificationItem item, final Newline newline)
+    {
+        final Location location = item.getLocation();
+        final boolean hasLocation = location != null && location.getPath() != null
+                && !location.getPath().isEmpty();
+        final List<String> coveredIds = new ArrayList<>(item.getCoveredIds().size());
+        final List<Integer> coveredRevisions = new ArrayList<>(item.getCoveredIds().size());
+        for (final SpecificationItemId coveredId : item.getCoveredIds())
+        {
+            coveredIds.add(coveredId.getArtifactType() + ":" + coveredId.getName());
+            coveredRevisions.add(coveredId.getRevision());
+        }
+        final List<String> dependOnIds = new ArrayList<>(item.getDependOnIds().size());
+        for (final SpecificationItemId dependOnId : item.getDependOnIds())
+        {
+            dependOnIds.add(dependOnId.toString());
+        }
+        return new ExportedItem(item.getName(), item.getTitle(), item.getStatus().toString(),
+                item.getRevision(), hasLocation ? location.getPath() : null,
+                hasLocation ? location.getLine() : 0,
+                newline.normalize(item.getDescription()),
+                newline.normalize(item.getRationale()),
+                newline.normalize(item.getComment()), item.getTags(),
+                item.getNeedsArtifactTypes(), coveredIds, coveredRevisions, dependOnIds);
+    }
+
+    /**
+     * Write the item in binary form.
+     *
+     * @param output
+     *            the output to write to
+     * @throws IOException
+     *             if writing fails
+     */
+    void writeTo(final DataOutput output) throws IOException
+    {
+        writeString(output, this.name);
+        writeString(output, this.title);
+        writeString(output, this.status);
+        output.writeInt(this.revision);
+        writeString(output, this.sourceFile);
+        output.writeInt(this.sourceLine);
+        writeString(output, this.description);
+        writeString(output, this.rationale);
+        writeString(output, this.comment);
+        writeStrings(output, this.tags);
+        writeStrings(output, this.neededArtifactTypes);
+        writeStrings(output, this.coveredIds);
+        for (final Integer coveredRevision : this.coveredRevisions)
+        {
+            output.writeInt(coveredRevision);
+        }
+        writeStrings(output, this.dependOnIds);
+    }
+
+    private static void writeStrings(final DataOutput output, final List<String> values)
+            throws IOException
+    {
+        output.writeInt(values.size());
+        for (final String value : values)
+        {
+            writeString(output, value);
+        }
+    }
+
+    private static void writeString(final DataOutput output, final String value)
+            throws IOException
+    {
+        if (value == null)
+        {
+            output.writeInt(NULL_LENGTH);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Read an item written by {@link #writeTo(DataOutput)}.
+     *
+     * @param input
+     *            the input to read from
+     * @return the item
+     * @throws IOException
+     *             if reading fails
+     */
+    static ExportedItem readFrom(final DataInput input) throws IOException
+    {
+        final String name = readString(input);
+        final String title = readString(input);
+        final String status = readString(input);
+        final int revision = input.readInt();
+        final String sourceFile = readString(input);
+        final int sourceLine = input.readInt();
+        final String description = readString(input);
+        final String rationale = readString(input);
+        final String comment = readString(input);
+        final List<String> tags = readStrings(input);
+        final List<String> neededArtifactTypes = readStrings(input);
+        final List<String> coveredIds = readStrings(input);
+        final List<Integer> coveredRevisions = new ArrayList<>(coveredIds.size());
+        for (int i = 0; i < coveredIds.size(); ++i)
+        {
+            coveredRevisions.add(input.readInt());
+        }
+        final List<String> dependOnIds = readStrings(input);
+        return new ExportedItem(name, title, status, revision, sourceFile, sourceLine,
+                description, rationale, comment, tags, neededArtifactTypes, coveredIds,
+                coveredRevisions, dependOnIds);
+    }
+
+    private static List<String> readStrings(final DataInput input) throws IOException
+    {
+        final int size = input.readInt();
+        final List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i)
+        {
+            values.add(readString(input));
+        }
+        return values;
+    }
+
+    private static String readString(final DataInput input) throws IOException
+    {
+        final int length = input.readInt();
+        if (length == NULL_LENGTH)
+        {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,276 @@
+package org.itsallcode.openfasttrace.exporter.specobject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.itsallcode.openfasttrace.api.core.Newline;
+import org.itsallcode.openfasttrace.api.core.SpecificationItem;
+import org.itsallcode.openfasttrace.api.exporter.Exporter;
+import org.itsallcode.openfasttrace.api.exporter.ExporterException;
+import org.itsallcode.openfasttrace.api.exporter.ShardSettings;
+import org.itsallcode.openfasttrace.exporter.common.DirectIndentingXMLStreamWriter;
+
+/**
+ * An {@link Exporter} that splits the specobject output into several
+ * documents (shards) in an output directory and writes them in parallel.
+ * <p>
+ * Each shard is a complete specobject document, so that it can be read
+ * independently of the others. Shards either contain all items of one
+ * artifact type ({@code <artifact type>.xml}, with a number suffix if the
+ * name differs only in case from another one) or a fixed number of items in
+ * import order ({@code shard-00001.xml}, {@code shard-00002.xml}, ...). The
+ * optional manifest {@value #MANIFEST_FILE_NAME} lists the shards in order.
+ * </p>
+ */
+class ShardedSpecobjectExporter implements Exporter
+{
+    static final String MANIFEST_FILE_NAME = "manifest.xml";
+
+    private static final Logger LOG = Logger.getLogger(ShardedSpecobjectExporter.class.getName());
+    private static final int MAX_PENDING_SHARDS = Runtime.getRuntime().availableProcessors() + 1;
+
+    private final Stream<SpecificationItem> itemStream;
+    private final Path outputDirectory;
+    private final Charset charset;
+    private final Newline newline;
+    private final ShardSettings settings;
+    private final List<Shard> shards = new ArrayList<>();
+    private final Deque<CompletableFuture<Void>> pendingShards = new ArrayDeque<>();
+
+    ShardedSpecobjectExporter(final Stream<SpecificationItem> itemStream,
+            final Path outputDirectory, final Charset charset, final Newline newline,
+            final ShardSettings settings)
+    {
+        this.itemStream = itemStream;
+        this.outputDirectory = outputDirectory;
+        this.charset = charset;
+        this.newline = newline;
+        this.settings = settings;
+    }
+
+    @Override
+    public void runExport()
+    {
+        try
+        {
+            Files.createDirectories(this.outputDirectory);
+            if (this.settings.isByArtifactType())
+            {
+                exportByArtifactType();
+            }
+            else
+            {
+                exportByItemCount();
+            }
+            awaitPendingShards(0);
+            if (this.settings.hasManifest())
+            {
+                writeManifest();
+            }
+        }
+        catch (final IOException e)
+        {
+            throw new ExporterException(
+                    "Error exporting specobject shards to '" + this.outputDirectory + "'", e);
+        }
+        finally
+        {
+            cancelPendingShards();
+        }
+    }
+
+    private void exportByArtifactType() throws IOException
+    {
+        final Map<String, DoctypeBuffer> doctypes = new LinkedHashMap<>();
+        try
+        {
+            bufferItems(doctypes, this.itemStream.iterator(), Integer.MAX_VALUE);
+        }
+        catch (final IOException | RuntimeException e)
+        {
+            DoctypeBuffer.deleteAll(doctypes.values());
+            throw e;
+        }
+        final Iterator<Map.Entry<String, DoctypeBuffer>> entries = doctypes.entrySet().iterator();
+        final Set<String> usedFileNames = new HashSet<>();
+        usedFileNames.add(MANIFEST_FILE_NAME);
+        try
+        {
+            while (entries.hasNext())
+            {
+                final Map.Entry<String, DoctypeBuffer> entry = entries.next();
+                entries.remove();
+                final Map<String, DoctypeBuffer> shardContent = new LinkedHashMap<>();
+                shardContent.put(entry.getKey(), entry.getValue());
+                startShard(createFileName(usedFileNames, entry.getKey()), entry.getKey(),
+                        shardContent);
+            }
+        }
+        finally
+        {
+            DoctypeBuffer.deleteAll(doctypes.values());
+        }
+    }
+
+    // Artifact types are case-sensitive, but file systems may not be. So file
+    // names that differ only in case from a used one get a number suffix.
+    private static String createFileName(final Set<String> usedFileNames,
+            final String artifactType)
+    {
+        String fileName = artifactType + ".xml";
+        int suffix = 0;
+        while (!usedFileNames.add(fileName.toLowerCase(Locale.ROOT)))
+        {
+            ++suffix;
+            fileName = artifactType + "-" + suffix + ".xml";
+        }
+        return fileName;
+    }
+
+    private void exportByItemCount() throws IOException
+    {
+        final Iterator<SpecificationItem> iterator = this.itemStream.iterator();
+        while (iterator.hasNext())
+        {
+            final Map<String, DoctypeBuffer> shardContent = new LinkedHashMap<>();
+            try
+            {
+                bufferItems(shardContent, iterator, this.settings.getItemsPerShard());
+            }
+            catch (final IOException | RuntimeException e)
+            {
+                DoctypeBuffer.deleteAll(shardContent.values());
+                throw e;
+            }
+            startShard(String.format("shard-%05d.xml", this.shards.size() + 1), null,
+                    shardContent);
+        }
+    }
+
+    private void bufferItems(final Map<String, DoctypeBuffer> doctypes,
+            final Iterator<SpecificationItem> iterator, final int maxItems) throws IOException
+    {
+        int count = 0;
+        while (count < maxItems && iterator.hasNext())
+        {
+            DoctypeBuffer.append(doctypes, iterator.next(), this.newline);
+            count++;
+        }
+    }
+
+    private void startShard(final String fileName, final String doctype,
+            final Map<String, DoctypeBuffer> content) throws IOException
+    {
+        final Shard shard = new Shard(fileName, doctype, countItems(content));
+        this.shards.add(shard);
+        final Path file = this.outputDirectory.resolve(fileName);
+        LOG.finest(() -> "Writing " + shard.itemCount + " items to shard '" + file + "'");
+        final Writer writer;
+        final XMLStreamWriter xmlWriter;
+        try
+        {
+            awaitPendingShards(MAX_PENDING_SHARDS - 1);
+            writer = Files.newBufferedWriter(file, this.charset);
+            xmlWriter = new DirectIndentingXMLStreamWriter(writer);
+        }
+        catch (final IOException | RuntimeException e)
+        {
+            DoctypeBuffer.deleteAll(content.values());
+            throw e;
+        }
+        this.pendingShards.add(CompletableFuture
+                .runAsync(() -> new SpecobjectExporter(xmlWriter, writer, content).runExport()));
+    }
+
+    private static int countItems(final Map<String, DoctypeBuffer> content)
+    {
+        int count = 0;
+        for (final DoctypeBuffer buffer : content.values())
+        {
+            count += buffer.getItemCount();
+        }
+        return count;
+    }
+
+    private void awaitPendingShards(final int maxPending)
+    {
+        while (this.pendingShards.size() > maxPending)
+        {
+            try
+            {
+                this.pendingShards.removeFirst().join();
+            }
+            catch (final CompletionException e)
+            {
+                if (e.getCause() instanceof RuntimeException)
+                {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    private void cancelPendingShards()
+    {
+        for (final CompletableFuture<Void> shard : this.pendingShards)
+        {
+            // Let running shards finish so that their buffers are deleted.
+            shard.exceptionally(e -> null).join();
+        }
+        this.pendingShards.clear();
+    }
+
+    private void writeManifest() throws IOException
+    {
+        final Path file = this.outputDirectory.resolve(MANIFEST_FILE_NAME);
+        try (Writer writer = Files.newBufferedWriter(file, this.charset))
+        {
+            final XMLStreamWriter xmlWriter = new DirectIndentingXMLStreamWriter(writer);
+            xmlWriter.writeStartDocument("UTF-8", "1.0");
+            xmlWriter.writeStartElement("specshards");
+            for (final Shard shard : this.shards)
+            {
+                xmlWriter.writeEmptyElement("shard");
+                xmlWriter.writeAttribute("file", shard.fileName);
+                if (shard.doctype != null)
+                {
+                    xmlWriter.writeAttribute("doctype", shard.doctype);
+                }
+                xmlWriter.writeAttribute("items", String.valueOf(shard.itemCount));
+            }
+            xmlWriter.writeEndElement();
+            xmlWriter.writeEndDocument();
+            xmlWriter.close();
+        }
+        catch (final XMLStreamException e)
+        {
+            throw new ExporterException("Error writing shard manifest '" + file + "'", e);
+        }
+    }
+
+    private static final class Shard
+    {
+        private final String fileName;
+        private final String doctype;
+        private final int itemCount;
+
+        private Shard(final String fileName, final String doctype, final int itemCount)
+        {
+            this.fileName = fileName;
+            this.doctype = doctype;
+            this.itemCount = itemCount;
+        }
+    }
+}
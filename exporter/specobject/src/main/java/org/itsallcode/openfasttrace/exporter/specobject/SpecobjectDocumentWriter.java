@@ -0,0 +1,178 @@
+package org.itsallcode.openfasttrace.exporter.specobject;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writes buffered items as a specobject document.
+ */
+class SpecobjectDocumentWriter
+{
+    private static final Logger LOG = Logger.getLogger(SpecobjectDocumentWriter.class.getName());
+
+    private final XMLStreamWriter writer;
+
+    SpecobjectDocumentWriter(final XMLStreamWriter writer)
+    {
+        this.writer = writer;
+    }
+
+    /**
+     * Write a complete specobject document containing the buffered items.
+     *
+     * @param doctypes
+     *            the buffered items by artifact type in output order
+     * @throws XMLStreamException
+     *             if writing the XML fails
+     * @throws IOException
+     *             if reading the buffered items fails
+     */
+    void writeDocument(final Map<String, DoctypeBuffer> doctypes)
+            throws XMLStreamException, IOException
+    {
+        this.writer.writeStartDocument("UTF-8", "1.0");
+        this.writer.writeStartElement("specdocument");
+
+        for (final Map.Entry<String, DoctypeBuffer> entry : doctypes.entrySet())
+        {
+            writeItems(entry.getKey(), entry.getValue());
+        }
+
+        this.writer.writeEndElement();
+        this.writer.writeEndDocument();
+    }
+
+    private void writeItems(final String doctype, final DoctypeBuffer buffer)
+            throws XMLStreamException, IOException
+    {
+        LOG.finest(() -> "Writing " + buffer.getItemCount() + " items with doctype " + doctype);
+        this.writer.writeStartElement("specobjects");
+        this.writer.writeAttribute("doctype", doctype);
+        try (DataInputStream input = new DataInputStream(buffer.openInputStream()))
+        {
+            for (int i = 0; i < buffer.getItemCount(); ++i)
+            {
+                writeItem(ExportedItem.readFrom(input));
+            }
+        }
+        this.writer.writeEndElement();
+    }
+
+    private void writeItem(final ExportedItem item) throws XMLStreamException
+    {
+        this.writer.writeStartElement("specobject");
+        writeElement("id", item.name());
+        writeElementIfPresent("shortdesc", item.title());
+        writeElement("status", item.status());
+        writeElement("version", item.revision());
+        writeLocation(item);
+        writeElementIfPresent("description", item.description());
+        writeElementIfPresent("rationale", item.rationale());
+        writeElementIfPresent("comment", item.comment());
+
+        writeTags(item.tags());
+        writeNeedsArtifactTypes(item.neededArtifactTypes());
+        writeCoveredIds(item.coveredIds(), item.coveredRevisions());
+        writeDependsOnIds(item.dependOnIds());
+
+        this.writer.writeEndElement();
+    }
+
+    private void writeTags(final List<String> tags) throws XMLStreamException
+    {
+        if (tags.isEmpty())
+        {
+            return;
+        }
+        this.writer.writeStartElement("tags");
+        for (final String tag : tags)
+        {
+            writeElement("tag", tag);
+        }
+        this.writer.writeEndElement();
+    }
+
+    private void writeDependsOnIds(final List<String> dependOnIds) throws XMLStreamException
+    {
+        if (dependOnIds.isEmpty())
+        {
+            return;
+        }
+        this.writer.writeStartElement("dependencies");
+        for (final String dependsOnId : dependOnIds)
+        {
+            writeElement("dependson", dependsOnId);
+        }
+        this.writer.writeEndElement();
+    }
+
+    private void writeCoveredIds(final List<String> coveredIds,
+            final List<Integer> coveredRevisions) throws XMLStreamException
+    {
+        if (coveredIds.isEmpty())
+        {
+            return;
+        }
+        this.writer.writeStartElement("providescoverage");
+        for (int i = 0; i < coveredIds.size(); ++i)
+        {
+            this.writer.writeStartElement("provcov");
+            writeElement("linksto", coveredIds.get(i));
+            writeElement("dstversion", coveredRevisions.get(i));
+            this.writer.writeEndElement();
+        }
+        this.writer.writeEndElement();
+    }
+
+    private void writeNeedsArtifactTypes(final List<String> needsArtifactTypes)
+            throws XMLStreamException
+    {
+        if (needsArtifactTypes.isEmpty())
+        {
+            return;
+        }
+        this.writer.writeStartElement("needscoverage");
+        for (final String neededArtifactType : needsArtifactTypes)
+        {
+            writeElement("needsobj", neededArtifactType);
+        }
+        this.writer.writeEndElement();
+    }
+
+    private void writeElement(final String elementName, final int content) throws XMLStreamException
+    {
+        writeElement(elementName, String.valueOf(content));
+    }
+
+    private void writeElementIfPresent(final String elementName, final String content)
+            throws XMLStreamException
+    {
+        if (content != null && !content.isEmpty())
+        {
+            writeElement(elementName, content);
+        }
+    }
+
+    private void writeElement(final String elementName, final String content)
+            throws XMLStreamException
+    {
+        this.writer.writeStartElement(elementName);
+        this.writer.writeCharacters(content);
+        this.writer.writeEndElement();
+    }
+
+    private void writeLocation(final ExportedItem item) throws XMLStreamException
+    {
+        if (item.sourceFile() != null)
+        {
+            writeElement("sourcefile", item.sourceFile());
+            writeElement("sourceline", item.sourceLine());
+        }
+    }
+}
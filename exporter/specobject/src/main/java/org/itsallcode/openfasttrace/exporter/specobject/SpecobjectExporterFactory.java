@@ -1,18 +1,17 @@
 package org.itsallcode.openfasttrace.exporter.specobject;
 
 import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.stream.Stream;
 
-import javax.xml.stream.XMLOutputFactory;
-import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.XMLStreamWriter;
-
 import org.itsallcode.openfasttrace.api.core.Newline;
 import org.itsallcode.openfasttrace.api.core.SpecificationItem;
 import org.itsallcode.openfasttrace.api.exporter.Exporter;
 import org.itsallcode.openfasttrace.api.exporter.ExporterException;
 import org.itsallcode.openfasttrace.api.exporter.ExporterFactory;
-import org.itsallcode.openfasttrace.exporter.common.IndentingXMLStreamWriter;
+import org.itsallcode.openfasttrace.api.exporter.ShardSettings;
+import org.itsallcode.openfasttrace.exporter.common.DirectIndentingXMLStreamWriter;
 
 /**
  * {@link ExporterFactory} for creating {@link Exporter}s that support writing
@@ -21,33 +20,44 @@ import org.itsallcode.openfasttrace.exporter.common.IndentingXMLStreamWriter;
 public class SpecobjectExporterFactory extends ExporterFactory
 {
     private static final String SUPPORTED_FORMAT = "specobject";
-    private final XMLOutputFactory xmlOutputFactory;
 
     /** Creates a new instance. */
     public SpecobjectExporterFactory()
     {
         super(SUPPORTED_FORMAT);
-        this.xmlOutputFactory = XMLOutputFactory.newFactory();
     }
 
+    // For a sharded export the file is the directory containing the shards.
     @Override
-    protected Exporter createExporter(final Writer writer,
-            final Stream<SpecificationItem> itemStream, final Newline newline)
+    public Exporter createExporter(final Path file, final String format, final Charset charset,
+            final Newline newline, final Stream<SpecificationItem> itemStream)
     {
-        final XMLStreamWriter xmlWriter = createXmlWriter(writer);
-        final IndentingXMLStreamWriter indentingXmlWriter = new IndentingXMLStreamWriter(xmlWriter);
-        return new SpecobjectExporter(itemStream, indentingXmlWriter, writer, newline);
-    }
-
-    private XMLStreamWriter createXmlWriter(final Writer writer)
-    {
-        try
+        final ShardSettings shardSettings = getShardSettings();
+        if (!shardSettings.isSharded())
+        {
+            return super.createExporter(file, format, charset, newline, itemStream);
+        }
+        if (!supportsFormat(format))
         {
-            return this.xmlOutputFactory.createXMLStreamWriter(writer);
+            throw new ExporterException("Output format '" + format + "' not supported for export");
         }
-        catch (final XMLStreamException exception)
+        if (file == null)
         {
-            throw new ExporterException("Error creating XML stream writer for writer " + writer, exception);
+            throw new ExporterException("Sharded export requires an output directory");
         }
+        return new ShardedSpecobjectExporter(itemStream, file, charset, newline, shardSettings);
+    }
+
+    private ShardSettings getShardSettings()
+    {
+        return getContext() == null ? ShardSettings.none() : getContext().getShardSettings();
+    }
+
+    @Override
+    protected Exporter createExporter(final Writer writer,
+            final Stream<SpecificationItem> itemStream, final Newline newline)
+    {
+        return new SpecobjectExporter(itemStream, new DirectIndentingXMLStreamWriter(writer),
+                writer, newline);
     }
 }
@@ -0,0 +1,165 @@
+package org.itsallcode.openfasttrace.exporter.specobject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.itsallcode.openfasttrace.testutil.core.ItemBuilderFactory.item;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.itsallcode.openfasttrace.api.core.Newline;
+import org.itsallcode.openfasttrace.api.core.SpecificationItem;
+import org.itsallcode.openfasttrace.api.exporter.ExporterContext;
+import org.itsallcode.openfasttrace.api.exporter.ExporterException;
+import org.itsallcode.openfasttrace.api.exporter.ShardSettings;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestShardedSpecobjectExporter
+{
+    private static final String PROLOG = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n";
+
+    @TempDir
+    Path tempDir;
+
+    private static final List<SpecificationItem> ITEMS = List.of( //
+            item().id("req", "a", 1).build(), //
+            item().id("dsn", "b", 1).build(), //
+            item().id("req", "c", 1).build());
+
+    @Test
+    void testExportByArtifactTypeWithManifest() throws IOException
+    {
+        final Path outputDir = this.tempDir.resolve("shards");
+        export(outputDir, ShardSettings.builder().byArtifactType().manifest(true).build());
+        assertAll(
+                () -> assertThat(listFiles(outputDir),
+                        containsInAnyOrder("req.xml", "dsn.xml", "manifest.xml")),
+                () -> assertThat(read(outputDir.resolve("req.xml")), equalTo(PROLOG
+                        + "<specdocument>\n" //
+                        + "  <specobjects doctype=\"req\">\n" //
+                        + "    <specobject>\n" //
+                        + "      <id>a</id>\n" //
+                        + "      <status>approved</status>\n" //
+                        + "      <version>1</version>\n" //
+                        + "    </specobject>\n" //
+                        + "    <specobject>\n" //
+                        + "      <id>c</id>\n" //
+                        + "      <status>approved</status>\n" //
+                        + "      <version>1</version>\n" //
+                        + "    </specobject>\n" //
+                        + "  </specobjects>\n" //
+                        + "</specdocument>")),
+                () -> assertThat(read(outputDir.resolve("manifest.xml")), equalTo(PROLOG
+                        + "<specshards>\n" //
+                        + "  <shard file=\"req.xml\" doctype=\"req\" items=\"2\"/>\n" //
+                        + "  <shard file=\"dsn.xml\" doctype=\"dsn\" items=\"1\"/>\n" //
+                        + "</specshards>")));
+    }
+
+    @Test
+    void testExportByItemCount() throws IOException
+    {
+        final Path outputDir = this.tempDir.resolve("shards");
+        export(outputDir, ShardSettings.builder().byItemCount(2).manifest(true).build());
+        assertAll(
+                () -> assertThat(listFiles(outputDir),
+                        containsInAnyOrder("shard-00001.xml", "shard-00002.xml",
+                                "manifest.xml")),
+                () -> assertThat(read(outputDir.resolve("shard-00002.xml")), equalTo(PROLOG
+                        + "<specdocument>\n" //
+                        + "  <specobjects doctype=\"req\">\n" //
+                        + "    <specobject>\n" //
+                        + "      <id>c</id>\n" //
+                        + "      <status>approved</status>\n" //
+                        + "      <version>1</version>\n" //
+                        + "    </specobject>\n" //
+                        + "  </specobjects>\n" //
+                        + "</specdocument>")),
+                () -> assertThat(read(outputDir.resolve("manifest.xml")), equalTo(PROLOG
+                        + "<specshards>\n" //
+                        + "  <shard file=\"shard-00001.xml\" items=\"2\"/>\n" //
+                        + "  <shard file=\"shard-00002.xml\" items=\"1\"/>\n" //
+                        + "</specshards>")));
+    }
+
+    @Test
+    void testArtifactTypesDifferingInCaseGetDifferentFileNames() throws IOException
+    {
+        final Path outputDir = this.tempDir.resolve("shards");
+        export(outputDir, ShardSettings.builder().byArtifactType().manifest(true).build(),
+                List.of(item().id("Req", "a", 1).build(), item().id("req", "b", 1).build(),
+                        item().id("manifest", "c", 1).build()));
+        assertAll(
+                () -> assertThat(listFiles(outputDir),
+                        containsInAnyOrder("Req.xml", "req-1.xml", "manifest-1.xml",
+                                "manifest.xml")),
+                () -> assertThat(read(outputDir.resolve("manifest.xml")), equalTo(PROLOG
+                        + "<specshards>\n" //
+                        + "  <shard file=\"Req.xml\" doctype=\"Req\" items=\"1\"/>\n" //
+                        + "  <shard file=\"req-1.xml\" doctype=\"req\" items=\"1\"/>\n" //
+                        + "  <shard file=\"manifest-1.xml\" doctype=\"manifest\" items=\"1\"/>\n" //
+                        + "</specshards>")));
+    }
+
+    @Test
+    void testExportWithoutManifest() throws IOException
+    {
+        final Path outputDir = this.tempDir.resolve("shards");
+        export(outputDir, ShardSettings.builder().byItemCount(5).build());
+        assertThat(listFiles(outputDir), containsInAnyOrder("shard-00001.xml"));
+    }
+
+    @Test
+    void testShardedExportToStdOutFails()
+    {
+        final SpecobjectExporterFactory factory = createFactory(
+                ShardSettings.builder().byArtifactType().build());
+        final Stream<SpecificationItem> items = ITEMS.stream();
+        final ExporterException exception = assertThrows(ExporterException.class,
+                () -> factory.createExporter(null, "specobject", StandardCharsets.UTF_8,
+                        Newline.UNIX, items));
+        assertThat(exception.getMessage(),
+                equalTo("Sharded export requires an output directory"));
+    }
+
+    private static SpecobjectExporterFactory createFactory(final ShardSettings settings)
+    {
+        final SpecobjectExporterFactory factory = new SpecobjectExporterFactory();
+        factory.init(new ExporterContext(settings));
+        return factory;
+    }
+
+    private static void export(final Path outputDir, final ShardSettings settings)
+    {
+        export(outputDir, settings, ITEMS);
+    }
+
+    private static void export(final Path outputDir, final ShardSettings settings,
+            final List<SpecificationItem> items)
+    {
+        createFactory(settings).createExporter(outputDir, "specobject", StandardCharsets.UTF_8,
+                Newline.UNIX, items.stream()).runExport();
+    }
+
+    private static List<String> listFiles(final Path dir) throws IOException
+    {
+        try (Stream<Path> files = Files.list(dir))
+        {
+            return files.map(file -> file.getFileName().toString()).collect(Collectors.toList());
+        }
+    }
+
+    private static String read(final Path file) throws IOException
+    {
+        return Files.readString(file);
+    }
+}
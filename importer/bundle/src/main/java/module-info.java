@@ -0,0 +1,13 @@
+/**
+ * This provides an importer for the binary item bundle format.
+ * 
+ * @provides org.itsallcode.openfasttrace.api.importer.ImporterFactory
+ */
+module org.itsallcode.openfasttrace.importer.bundle
+{
+    requires java.logging;
+    requires transitive org.itsallcode.openfasttrace.api;
+
+    provides org.itsallcode.openfasttrace.api.importer.ImporterFactory
+            with org.itsallcode.openfasttrace.importer.bundle.BundleImporterFactory;
+}
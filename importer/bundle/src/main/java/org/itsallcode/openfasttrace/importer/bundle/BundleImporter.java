@@ -0,0 +1,158 @@
+package org.itsallcode.openfasttrace.importer.bundle;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import org.itsallcode.openfasttrace.api.core.ItemStatus;
+import org.itsallcode.openfasttrace.api.core.Location;
+import org.itsallcode.openfasttrace.api.core.SpecificationItemId;
+import org.itsallcode.openfasttrace.api.importer.ImportEventListener;
+import org.itsallcode.openfasttrace.api.importer.Importer;
+import org.itsallcode.openfasttrace.api.importer.ImporterException;
+import org.itsallcode.openfasttrace.api.importer.input.InputFile;
+
+/**
+ * Importer for binary item bundles.
+ * <p>
+ * The bundle is mapped into memory instead of being read through a stream.
+ * Strings shared between items are decoded only once from the string table.
+ * </p>
+ */
+class BundleImporter implements Importer
+{
+    private static final int FLAG_FORWARDS = 1;
+    private static final int FLAG_LOCATION = 2;
+
+    private static final Logger LOG = Logger.getLogger(BundleImporter.class.getName());
+
+    private final InputFile file;
+    private final ImportEventListener listener;
+
+    BundleImporter(final InputFile file, final ImportEventListener listener)
+    {
+        this.file = file;
+        this.listener = listener;
+    }
+
+    @Override
+    public void runImport()
+    {
+        try
+        {
+            final BundleReader reader = new BundleReader(map(this.file.toPath()));
+            LOG.finest(() -> "Importing bundle '" + this.file.getPath() + "' with "
+                    + reader.getStringCount() + " strings");
+            readRecords(reader);
+        }
+        catch (final IOException exception)
+        {
+            throw new ImporterException("Failed to read item bundle '" + this.file.getPath()
+                    + "': " + exception.getMessage(), exception);
+        }
+        catch (final BufferUnderflowException | IllegalArgumentException
+                | IndexOutOfBoundsException exception)
+        {
+            throw new ImporterException(
+                    "Item bundle '" + this.file.getPath() + "' is corrupt", exception);
+        }
+    }
+
+    private static ByteBuffer map(final Path path) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+            {
+                throw new IOException("Item bundle exceeds the maximum size of 2 GiB");
+            }
+            return channel.map(MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    private void readRecords(final BundleReader reader) throws IOException
+    {
+        String sectionPath = null;
+        int recordType;
+        while ((recordType = reader.readRecordType()) != BundleReader.RECORD_END)
+        {
+            if (recordType == BundleReader.RECORD_SECTION)
+            {
+                sectionPath = reader.readString();
+            }
+            else if (recordType == BundleReader.RECORD_ITEM)
+            {
+                readItem(reader, sectionPath);
+            }
+            else
+            {
+                throw new IOException("Unknown record type " + recordType);
+            }
+        }
+    }
+
+    private void readItem(final BundleReader reader, final String sectionPath)
+    {
+        this.listener.beginSpecificationItem();
+        this.listener.setId(readId(reader));
+        this.listener.setStatus(ItemStatus.parseString(reader.readString()));
+        final int flags = reader.readUnsigned();
+        if ((flags & FLAG_LOCATION) != 0)
+        {
+            this.listener.setLocation(Location.builder().path(sectionPath)
+                    .line(reader.readSigned()).column(reader.readSigned()).build());
+        }
+        final String title = reader.readText();
+        if (title != null)
+        {
+            this.listener.setTitle(title);
+        }
+        appendIfPresent(reader.readText(), this.listener::appendDescription);
+        appendIfPresent(reader.readText(), this.listener::appendRationale);
+        appendIfPresent(reader.readText(), this.listener::appendComment);
+        for (int i = reader.readUnsigned(); i > 0; i--)
+        {
+            this.listener.addCoveredId(readId(reader));
+        }
+        for (int i = reader.readUnsigned(); i > 0; i--)
+        {
+            this.listener.addDependsOnId(readId(reader));
+        }
+        for (int i = reader.readUnsigned(); i > 0; i--)
+        {
+            this.listener.addNeededArtifactType(reader.readString());
+        }
+        for (int i = reader.readUnsigned(); i > 0; i--)
+        {
+            this.listener.addTag(reader.readString());
+        }
+        if ((flags & FLAG_FORWARDS) != 0)
+        {
+            this.listener.setForwards(true);
+        }
+        this.listener.endSpecificationItem();
+    }
+
+    private static SpecificationItemId readId(final BundleReader reader)
+    {
+        final String artifactType = reader.readString();
+        final String name = reader.readString();
+        return SpecificationItemId.createId(artifactType, name, reader.readSigned());
+    }
+
+    private static void appendIfPresent(final String text,
+            final Consumer<String> consumer)
+    {
+        if (text != null && !text.isEmpty())
+        {
+            consumer.accept(text);
+        }
+    }
+}
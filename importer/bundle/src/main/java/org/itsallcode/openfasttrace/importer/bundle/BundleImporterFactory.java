@@ -0,0 +1,35 @@
+package org.itsallcode.openfasttrace.importer.bundle;
+
+import org.itsallcode.openfasttrace.api.importer.*;
+import org.itsallcode.openfasttrace.api.importer.input.InputFile;
+
+/**
+ * An {@link ImporterFactory} for binary item bundles with the extension
+ * {@code .oftb}.
+ * <p>
+ * Bundles are memory mapped, so only bundles in the file system are supported,
+ * not bundles inside of archives.
+ * </p>
+ */
+public class BundleImporterFactory extends RegexMatchingImporterFactory
+{
+    /**
+     * Create a new instance.
+     */
+    public BundleImporterFactory()
+    {
+        super("(?i).*\\.oftb");
+    }
+
+    @Override
+    public boolean supportsFile(final InputFile file)
+    {
+        return file.isRealFile() && super.supportsFile(file);
+    }
+
+    @Override
+    public Importer createImporter(final InputFile file, final ImportEventListener listener)
+    {
+        return new BundleImporter(file, listener);
+    }
+}
@@ -0,0 +1,179 @@
+package org.itsallcode.openfasttrace.importer.bundle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Low level reader for the binary item bundle format.
+ * <p>
+ * The reader validates header and trailer and decodes the string table up
+ * front, then reads the records one by one. See the bundle exporter for a
+ * description of the format.
+ * </p>
+ */
+final class BundleReader
+{
+    static final byte[] MAGIC = { 'O', 'F', 'T', 'B' };
+    static final int VERSION = 1;
+    static final int RECORD_END = 0;
+    static final int RECORD_SECTION = 1;
+    static final int RECORD_ITEM = 2;
+
+    private static final int HEADER_SIZE = MAGIC.length + 1;
+    private static final int TRAILER_SIZE = Long.BYTES + MAGIC.length;
+
+    private final ByteBuffer buffer;
+    private final String[] strings;
+    private byte[] scratch = new byte[256];
+
+    /**
+     * Create a new reader positioned at the first record.
+     *
+     * @param buffer
+     *            the complete bundle
+     * @throws IOException
+     *             if the buffer does not contain a supported bundle
+     */
+    BundleReader(final ByteBuffer buffer) throws IOException
+    {
+        this.buffer = buffer;
+        final int size = buffer.limit();
+        if (size < HEADER_SIZE + TRAILER_SIZE || !hasMagic(0) || !hasMagic(size - MAGIC.length))
+        {
+            throw new IOException("Not an item bundle");
+        }
+        final int version = buffer.get(MAGIC.length);
+        if (version != VERSION)
+        {
+            throw new IOException("Unsupported item bundle version " + version
+                    + ", expected version " + VERSION);
+        }
+        final int stringTableOffset = toOffset(buffer.getLong(size - TRAILER_SIZE), size);
+        this.strings = readStringTable(stringTableOffset);
+        buffer.position(HEADER_SIZE);
+    }
+
+    private boolean hasMagic(final int offset)
+    {
+        for (int i = 0; i < MAGIC.length; i++)
+        {
+            if (this.buffer.get(offset + i) != MAGIC[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int toOffset(final long offset, final int size) throws IOException
+    {
+        if (offset < 0 || offset >= size)
+        {
+            throw new IOException("Invalid offset " + offset + " in item bundle");
+        }
+        return (int) offset;
+    }
+
+    private String[] readStringTable(final int offset)
+    {
+        this.buffer.position(offset);
+        final String[] table = new String[readUnsigned()];
+        for (int i = 0; i < table.length; i++)
+        {
+            table[i] = readUtf8(readUnsigned());
+        }
+        return table;
+    }
+
+    /**
+     * Get the number of strings in the string table.
+     *
+     * @return number of strings
+     */
+    int getStringCount()
+    {
+        return this.strings.length;
+    }
+
+    /**
+     * Read the type of the next record.
+     *
+     * @return record type
+     */
+    int readRecordType()
+    {
+        return this.buffer.get();
+    }
+
+    /**
+     * Read a non-negative number.
+     *
+     * @return the number
+     */
+    int readUnsigned()
+    {
+        int value = 0;
+        int shift = 0;
+        byte current;
+        do
+        {
+            current = this.buffer.get();
+            value |= (current & 0x7F) << shift;
+            shift += 7;
+        }
+        while (current < 0);
+        return value;
+    }
+
+    /**
+     * Read a number that may be negative.
+     *
+     * @return the number
+     */
+    int readSigned()
+    {
+        final int value = readUnsigned();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Read a reference into the string table.
+     *
+     * @return the referenced string or {@code null}
+     */
+    String readString()
+    {
+        final int reference = readUnsigned();
+        return reference == 0 ? null : this.strings[reference - 1];
+    }
+
+    /**
+     * Read an inline text.
+     *
+     * @return the text or {@code null}
+     */
+    String readText()
+    {
+        final int length = readUnsigned();
+        return length == 0 ? null : readUtf8(length - 1);
+    }
+
+    private String readUtf8(final int length)
+    {
+        if (this.buffer.hasArray())
+        {
+            final int position = this.buffer.position();
+            this.buffer.position(position + length);
+            return new String(this.buffer.array(), this.buffer.arrayOffset() + position, length,
+                    StandardCharsets.UTF_8);
+        }
+        if (length > this.scratch.length)
+        {
+            this.scratch = Arrays.copyOf(this.scratch, Math.max(length, 2 * this.scratch.length));
+        }
+        this.buffer.get(this.scratch, 0, length);
+        return new String(this.scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
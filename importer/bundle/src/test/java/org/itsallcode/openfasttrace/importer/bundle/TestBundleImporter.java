@@ -0,0 +1,156 @@
+package org.itsallcode.openfasttrace.importer.bundle;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.itsallcode.matcher.auto.AutoMatcher;
+import org.itsallcode.openfasttrace.api.core.*;
+import org.itsallcode.openfasttrace.api.importer.ImporterException;
+import org.itsallcode.openfasttrace.api.importer.SpecificationListBuilder;
+import org.itsallcode.openfasttrace.api.importer.input.RealFileInput;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestBundleImporter
+{
+    private static final int STRING_REQ = 1;
+    private static final int STRING_NAME = 2;
+    private static final int STRING_APPROVED = 3;
+    private static final int STRING_PATH = 4;
+    private static final List<String> STRINGS = List.of("req", "name", "approved", "spec.md");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testImportItem() throws IOException
+    {
+        final ByteArrayOutputStream records = new ByteArrayOutputStream();
+        records.write(new byte[] { BundleReader.RECORD_SECTION, STRING_PATH });
+        records.write(new byte[] { BundleReader.RECORD_ITEM, STRING_REQ, STRING_NAME, 4,
+                STRING_APPROVED, 3, 14, 1 });
+        writeText(records, "title");
+        writeText(records, "description");
+        records.write(new byte[] { 0, 0, //
+                1, STRING_REQ, STRING_NAME, 2, // covered ID
+                0, // depends on
+                1, STRING_REQ, // needed artifact type
+                1, STRING_PATH }); // tag
+        records.write(BundleReader.RECORD_END);
+        final List<SpecificationItem> items = importBundle(bundle(1, records.toByteArray()));
+        final SpecificationItem expected = SpecificationItem.builder()
+                .id(SpecificationItemId.createId("req", "name", 2)) //
+                .title("title").description("description") //
+                .location(Location.builder().path("spec.md").line(7).build()) //
+                .addCoveredId("req", "name", 1) //
+                .addNeedsArtifactType("req") //
+                .addTag("spec.md") //
+                .forwards(true).build();
+        assertThat(items, AutoMatcher.contains(expected));
+    }
+
+    @Test
+    void testImportEmptyBundle() throws IOException
+    {
+        assertThat(importBundle(bundle(1, new byte[] { BundleReader.RECORD_END })),
+                emptyIterable());
+    }
+
+    @Test
+    void testUnsupportedVersionFails() throws IOException
+    {
+        final Path file = bundle(2, new byte[] { BundleReader.RECORD_END });
+        final ImporterException exception = assertThrows(ImporterException.class,
+                () -> importBundle(file));
+        assertThat(exception.getMessage(),
+                containsString("Unsupported item bundle version 2, expected version 1"));
+    }
+
+    @Test
+    void testOtherFileFails() throws IOException
+    {
+        final Path file = this.tempDir.resolve("other.oftb");
+        Files.writeString(file, "<specdocument></specdocument>");
+        final ImporterException exception = assertThrows(ImporterException.class,
+                () -> importBundle(file));
+        assertThat(exception.getMessage(), containsString("Not an item bundle"));
+    }
+
+    @Test
+    void testTruncatedItemFails() throws IOException
+    {
+        final Path file = bundle(1, new byte[] { BundleReader.RECORD_ITEM, STRING_REQ });
+        final ImporterException exception = assertThrows(ImporterException.class,
+                () -> importBundle(file));
+        assertThat(exception.getMessage(), containsString("is corrupt"));
+    }
+
+    @Test
+    void testUnknownRecordFails() throws IOException
+    {
+        final Path file = bundle(1, new byte[] { 42 });
+        final ImporterException exception = assertThrows(ImporterException.class,
+                () -> importBundle(file));
+        assertThat(exception.getMessage(), containsString("Unknown record type 42"));
+    }
+
+    @Test
+    void testItemsWithoutLocationKeepNoLocation() throws IOException
+    {
+        final ByteArrayOutputStream records = new ByteArrayOutputStream();
+        records.write(new byte[] { BundleReader.RECORD_SECTION, STRING_PATH,
+                BundleReader.RECORD_ITEM, STRING_REQ, STRING_NAME, 2, STRING_APPROVED, 0, //
+                0, 0, 0, 0, 0, 0, 0, 0, BundleReader.RECORD_END });
+        final List<SpecificationItem> items = importBundle(bundle(1, records.toByteArray()));
+        assertThat(items.stream().map(SpecificationItem::getLocation).toList(),
+                contains((Location) null));
+    }
+
+    private List<SpecificationItem> importBundle(final Path file)
+    {
+        final SpecificationListBuilder builder = SpecificationListBuilder.create();
+        new BundleImporterFactory().createImporter(RealFileInput.forPath(file), builder)
+                .runImport();
+        return builder.build();
+    }
+
+    // The string table follows the records.
+    private Path bundle(final int version, final byte[] records) throws IOException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream stream = new DataOutputStream(bytes);
+        stream.write(BundleReader.MAGIC);
+        stream.writeByte(version);
+        stream.write(records);
+        final int stringTableOffset = stream.size();
+        stream.writeByte(STRINGS.size());
+        for (final String value : STRINGS)
+        {
+            final byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            stream.writeByte(encoded.length);
+            stream.write(encoded);
+        }
+        stream.writeLong(stringTableOffset);
+        stream.write(BundleReader.MAGIC);
+        final Path file = this.tempDir.resolve("items.oftb");
+        Files.write(file, bytes.toByteArray());
+        return file;
+    }
+
+    private static void writeText(final OutputStream stream, final String text)
+            throws IOException
+    {
+        final byte[] encoded = text.getBytes(StandardCharsets.UTF_8);
+        stream.write(encoded.length + 1);
+        stream.write(encoded);
+    }
+}
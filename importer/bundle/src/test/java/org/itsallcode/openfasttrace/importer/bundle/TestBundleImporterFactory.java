@@ -0,0 +1,43 @@
+package org.itsallcode.openfasttrace.importer.bundle;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.itsallcode.openfasttrace.testutil.importer.ImporterFactoryTestBase;
+import org.itsallcode.openfasttrace.testutil.importer.input.StreamInput;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link BundleImporterFactory}
+ */
+class TestBundleImporterFactory extends ImporterFactoryTestBase<BundleImporterFactory>
+{
+    @Override
+    protected BundleImporterFactory createFactory()
+    {
+        return new BundleImporterFactory();
+    }
+
+    @Override
+    protected List<String> getSupportedFilenames()
+    {
+        return asList("file.oftb", "file.OFTB", "file.md.oftb");
+    }
+
+    @Override
+    protected List<String> getUnsupportedFilenames()
+    {
+        return asList("file.oft", "file.oftb1", "file.oftb.md", "file_oftb", "fileoftb");
+    }
+
+    @Test
+    void testBundleInArchiveNotSupported()
+    {
+        assertThat(createFactory().supportsFile(StreamInput.forContent(Paths.get("file.oftb"), "")),
+                equalTo(false));
+    }
+}
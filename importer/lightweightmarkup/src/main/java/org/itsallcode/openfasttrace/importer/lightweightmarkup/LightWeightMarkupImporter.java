@@ -1,5 +1,6 @@
 package org.itsallcode.openfasttrace.importer.lightweightmarkup;
 
+import org.itsallcode.openfasttrace.api.core.ItemField;
 import org.itsallcode.openfasttrace.api.core.ItemStatus;
 import org.itsallcode.openfasttrace.api.core.SpecificationItemId;
 import org.itsallcode.openfasttrace.api.importer.ImportEventListener;
@@ -10,6 +11,10 @@ import org.itsallcode.openfasttrace.importer.lightweightmarkup.statemachine.*;
 
 /**
  * Base class for importers of lightweight markup text.
+ * <p>
+ * Optional item fields that the {@link ImportEventListener} does not require
+ * are skipped, so that their text is never collected.
+ * </p>
  */
 public abstract class LightWeightMarkupImporter implements Importer, LineReaderCallback
 {
@@ -121,7 +126,7 @@ public abstract class LightWeightMarkupImporter implements Importer, LineReaderC
         this.listener.beginSpecificationItem();
         this.listener.setId(id);
         this.listener.setLocation(this.file.getPath(), this.currentContext.lineNumber());
-        if (this.lastTitle != null)
+        if (this.listener.isFieldRequired(ItemField.TITLE) && this.lastTitle != null)
         {
             this.listener.setTitle(this.lastTitle);
         }
@@ -154,7 +159,10 @@ public abstract class LightWeightMarkupImporter implements Importer, LineReaderC
      */
     protected void beginDescription()
     {
-        this.listener.appendDescription(this.stateMachine.getLastToken());
+        if (this.listener.isFieldRequired(ItemField.DESCRIPTION))
+        {
+            this.listener.appendDescription(this.stateMachine.getLastToken());
+        }
     }
 
     /**
@@ -162,8 +170,11 @@ public abstract class LightWeightMarkupImporter implements Importer, LineReaderC
      */
     protected void appendDescription()
     {
-        this.listener.appendDescription(System.lineSeparator());
-        this.listener.appendDescription(this.stateMachine.getLastToken());
+        if (this.listener.isFieldRequired(ItemField.DESCRIPTION))
+        {
+            this.listener.appendDescription(System.lineSeparator());
+            this.listener.appendDescription(this.stateMachine.getLastToken());
+        }
     }
 
     /**
@@ -171,7 +182,10 @@ public abstract class LightWeightMarkupImporter implements Importer, LineReaderC
      */
     protected void beginRationale()
     {
-        this.listener.appendRationale(System.lineSeparator());
+        if (this.listener.isFieldRequired(ItemField.RATIONALE))
+        {
+            this.listener.appendRationale(System.lineSeparator());
+        }
     }
 
     /**
@@ -179,8 +193,11 @@ public abstract class LightWeightMarkupImporter implements Importer, LineReaderC
      */
     protected void appendRationale()
     {
-        this.listener.appendRationale(System.lineSeparator());
-        this.listener.appendRationale(this.stateMachine.getLastToken());
+        if (this.listener.isFieldRequired(ItemField.RATIONALE))
+        {
+            this.listener.appendRationale(System.lineSeparator());
+            this.listener.appendRationale(this.stateMachine.getLastToken());
+        }
     }
 
     /**
@@ -188,7 +205,10 @@ public abstract class LightWeightMarkupImporter implements Importer, LineReaderC
      */
     protected void beginComment()
     {
-        this.listener.appendComment(this.stateMachine.getLastToken());
+        if (this.listener.isFieldRequired(ItemField.COMMENT))
+        {
+            this.listener.appendComment(this.stateMachine.getLastToken());
+        }
     }
 
     /**
@@ -196,8 +216,11 @@ public abstract class LightWeightMarkupImporter implements Importer, LineReaderC
      */
     protected void appendComment()
     {
-        this.listener.appendComment(System.lineSeparator());
-        this.listener.appendComment(this.stateMachine.getLastToken());
+        if (this.listener.isFieldRequired(ItemField.COMMENT))
+        {
+            this.listener.appendComment(System.lineSeparator());
+            this.listener.appendComment(this.stateMachine.getLastToken());
+        }
     }
 
     /**
@@ -253,10 +276,13 @@ public abstract class LightWeightMarkupImporter implements Importer, LineReaderC
      */
     protected void addTag()
     {
-        final String tags = this.stateMachine.getLastToken();
-        for (final String tag : tags.split(","))
+        if (this.listener.isFieldRequired(ItemField.TAGS))
         {
-            this.listener.addTag(tag.trim());
+            final String tags = this.stateMachine.getLastToken();
+            for (final String tag : tags.split(","))
+            {
+                this.listener.addTag(tag.trim());
+            }
         }
     }
 
@@ -1,11 +1,18 @@
 package org.itsallcode.openfasttrace.importer.markdown;
 
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.emptyIterable;
 import static org.itsallcode.matcher.auto.AutoMatcher.contains;
 import static org.itsallcode.openfasttrace.testutil.core.ItemBuilderFactory.item;
 
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.file.Path;
+
+import org.itsallcode.openfasttrace.api.core.ItemField;
 import org.itsallcode.openfasttrace.api.core.SpecificationItemId;
-import org.itsallcode.openfasttrace.api.importer.ImporterFactory;
+import org.itsallcode.openfasttrace.api.importer.*;
+import org.itsallcode.openfasttrace.testutil.importer.input.StreamInput;
 import org.itsallcode.openfasttrace.testutil.importer.lightweightmarkup.AbstractLightWeightMarkupImporterTest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -215,4 +222,30 @@ class TestMarkdownMarkupImporter extends AbstractLightWeightMarkupImporterTest
                         .location("file_with_code_block_in_comment.md", 1)
                         .build()));
     }
+
+    @Test
+    void testFieldsThatAreNotRequiredAreSkipped()
+    {
+        final String text = """
+                # The title
+                req~skipped_fields~1
+                The description.
+
+                Rationale:
+                The rationale.
+
+                Comment:
+                The comment.
+
+                Tags: a, b
+                """;
+        final SpecificationListBuilder builder = SpecificationListBuilder
+                .create(ImportSettings.builder().requiredFields(ItemField.none()).build());
+        importerFactory.createImporter(StreamInput.forReader(Path.of("skipped.md"),
+                new BufferedReader(new StringReader(text))), builder).runImport();
+        assertThat(builder.build(), contains(item()
+                .id(SpecificationItemId.parseId("req~skipped_fields~1"))
+                .location("skipped.md", 2)
+                .build()));
+    }
 }
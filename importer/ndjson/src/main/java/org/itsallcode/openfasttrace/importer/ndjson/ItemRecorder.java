@@ -0,0 +1,127 @@
+package org.itsallcode.openfasttrace.importer.ndjson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.itsallcode.openfasttrace.api.core.ItemStatus;
+import org.itsallcode.openfasttrace.api.core.Location;
+import org.itsallcode.openfasttrace.api.core.SpecificationItemId;
+import org.itsallcode.openfasttrace.api.importer.ImportEventListener;
+
+/**
+ * An {@link ImportEventListener} that records all events, so that they can be
+ * replayed to another listener later.
+ * <p>
+ * This allows parsing lines concurrently while the receiving listener still
+ * gets the events of one item after the other in the order of the file.
+ * </p>
+ */
+class ItemRecorder implements ImportEventListener
+{
+    private final List<Consumer<ImportEventListener>> events = new ArrayList<>();
+
+    /**
+     * Replay all recorded events.
+     *
+     * @param listener
+     *            listener receiving the events
+     */
+    void replay(final ImportEventListener listener)
+    {
+        for (final Consumer<ImportEventListener> event : this.events)
+        {
+            event.accept(listener);
+        }
+    }
+
+    @Override
+    public void beginSpecificationItem()
+    {
+        this.events.add(ImportEventListener::beginSpecificationItem);
+    }
+
+    @Override
+    public void setId(final SpecificationItemId id)
+    {
+        this.events.add(listener -> listener.setId(id));
+    }
+
+    @Override
+    public void setTitle(final String title)
+    {
+        this.events.add(listener -> listener.setTitle(title));
+    }
+
+    @Override
+    public void setStatus(final ItemStatus status)
+    {
+        this.events.add(listener -> listener.setStatus(status));
+    }
+
+    @Override
+    public void appendDescription(final String fragment)
+    {
+        this.events.add(listener -> listener.appendDescription(fragment));
+    }
+
+    @Override
+    public void appendRationale(final String fragment)
+    {
+        this.events.add(listener -> listener.appendRationale(fragment));
+    }
+
+    @Override
+    public void appendComment(final String fragment)
+    {
+        this.events.add(listener -> listener.appendComment(fragment));
+    }
+
+    @Override
+    public void addCoveredId(final SpecificationItemId id)
+    {
+        this.events.add(listener -> listener.addCoveredId(id));
+    }
+
+    @Override
+    public void addDependsOnId(final SpecificationItemId id)
+    {
+        this.events.add(listener -> listener.addDependsOnId(id));
+    }
+
+    @Override
+    public void addNeededArtifactType(final String artifactType)
+    {
+        this.events.add(listener -> listener.addNeededArtifactType(artifactType));
+    }
+
+    @Override
+    public void addTag(final String tag)
+    {
+        this.events.add(listener -> listener.addTag(tag));
+    }
+
+    @Override
+    public void setLocation(final String path, final int line)
+    {
+        this.events.add(listener -> listener.setLocation(path, line));
+    }
+
+    @Override
+    public void endSpecificationItem()
+    {
+        this.events.add(ImportEventListener::endSpecificationItem);
+    }
+
+    @Override
+    public void setLocation(final Location location)
+    {
+        this.events.add(listener -> listener.setLocation(location));
+    }
+
+    @Override
+    public void setForwards(final boolean forwards)
+    {
+        this.events.add(listener -> listener.setForwards(forwards));
+    }
+}
@@ -0,0 +1,474 @@
+package org.itsallcode.openfasttrace.importer.ndjson;
+
+import java.util.function.Consumer;
+
+import org.itsallcode.openfasttrace.api.core.ItemStatus;
+import org.itsallcode.openfasttrace.api.core.Location;
+import org.itsallcode.openfasttrace.api.core.SpecificationItemId;
+import org.itsallcode.openfasttrace.api.importer.ImportEventListener;
+import org.itsallcode.openfasttrace.api.importer.ImporterException;
+
+/**
+ * Parser for a single line of a newline-delimited JSON file.
+ * <p>
+ * The parser reads the JSON object directly from the line and reports each
+ * known member as an event to the {@link ImportEventListener} without building
+ * an intermediate document. Unknown members are skipped. Items without a
+ * {@code file} member are located at their line of the NDJSON file.
+ * </p>
+ */
+class JsonLineParser
+{
+    private final String line;
+    private final String filePath;
+    private final int fileLineNumber;
+    private final ImportEventListener listener;
+    private int position = 0;
+    private boolean idFound = false;
+    private String path = null;
+    private int lineNumber = Location.NO_LINE;
+    private int column = Location.NO_COLUMN;
+
+    /**
+     * Create a new parser.
+     *
+     * @param line
+     *            the line containing one JSON object
+     * @param filePath
+     *            path of the NDJSON file containing the line
+     * @param fileLineNumber
+     *            number of the line in the NDJSON file
+     * @param listener
+     *            listener receiving the import events
+     */
+    JsonLineParser(final String line, final String filePath, final int fileLineNumber,
+            final ImportEventListener listener)
+    {
+        this.line = line;
+        this.filePath = filePath;
+        this.fileLineNumber = fileLineNumber;
+        this.listener = listener;
+    }
+
+    /**
+     * Parse the line and report the item it contains.
+     *
+     * @throws ImporterException
+     *             if the line is not a valid item
+     */
+    void parse()
+    {
+        this.listener.beginSpecificationItem();
+        skipWhitespace();
+        expect('{');
+        skipWhitespace();
+        if (!consume('}'))
+        {
+            do
+            {
+                skipWhitespace();
+                final String key = readString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                readMember(key);
+                skipWhitespace();
+            }
+            while (consume(','));
+            expect('}');
+        }
+        skipWhitespace();
+        if (this.position < this.line.length())
+        {
+            throw error("unexpected content after item");
+        }
+        if (!this.idFound)
+        {
+            throw new ImporterException("Item has no \"id\"");
+        }
+        if (this.path != null)
+        {
+            this.listener.setLocation(Location.builder().path(this.path).line(this.lineNumber)
+                    .column(this.column).build());
+        }
+        else
+        {
+            this.listener.setLocation(this.filePath, this.fileLineNumber);
+        }
+        this.listener.endSpecificationItem();
+    }
+
+    private void readMember(final String key)
+    {
+        switch (key)
+        {
+        case "id":
+            this.listener.setId(parseId(readString()));
+            this.idFound = true;
+            break;
+        case "status":
+            readStatus();
+            break;
+        case "title":
+            readOptionalText(this.listener::setTitle);
+            break;
+        case "description":
+            readOptionalText(this.listener::appendDescription);
+            break;
+        case "rationale":
+            readOptionalText(this.listener::appendRationale);
+            break;
+        case "comment":
+            readOptionalText(this.listener::appendComment);
+            break;
+        case "covers":
+            readArray(value -> this.listener.addCoveredId(parseId(value)));
+            break;
+        case "dependsOn":
+            readArray(value -> this.listener.addDependsOnId(parseId(value)));
+            break;
+        case "needs":
+            readArray(this.listener::addNeededArtifactType);
+            break;
+        case "tags":
+            readArray(this.listener::addTag);
+            break;
+        case "forwards":
+            this.listener.setForwards(readBoolean());
+            break;
+        case "file":
+            this.path = readNullableString();
+            break;
+        case "line":
+            this.lineNumber = readInteger();
+            break;
+        case "column":
+            this.column = readInteger();
+            break;
+        default:
+            skipValue();
+        }
+    }
+
+    private void readStatus()
+    {
+        final int start = this.position;
+        final String status = readString();
+        try
+        {
+            this.listener.setStatus(ItemStatus.parseString(status));
+        }
+        catch (final IllegalArgumentException exception)
+        {
+            throw new ImporterException("Unrecognized item status \"" + status
+                    + "\" at column " + (start + 1), exception);
+        }
+    }
+
+    // IDs are split at the first and last tilde instead of using the
+    // regular expressions of the ID parser since the exporter writes them.
+    private SpecificationItemId parseId(final String id)
+    {
+        final int typeEnd = id.indexOf('~');
+        final int nameEnd = id.lastIndexOf('~');
+        if (typeEnd <= 0 || nameEnd <= typeEnd + 1)
+        {
+            throw new ImporterException("Invalid item ID \"" + id + "\" before column "
+                    + (this.position + 1));
+        }
+        try
+        {
+            return SpecificationItemId.createId(id.substring(0, typeEnd),
+                    id.substring(typeEnd + 1, nameEnd), Integer.parseInt(id.substring(nameEnd + 1)));
+        }
+        catch (final NumberFormatException exception)
+        {
+            throw new ImporterException("Invalid revision in item ID \"" + id
+                    + "\" before column " + (this.position + 1), exception);
+        }
+    }
+
+    private void readOptionalText(final Consumer<String> consumer)
+    {
+        final String text = readNullableString();
+        if (text != null && !text.isEmpty())
+        {
+            consumer.accept(text);
+        }
+    }
+
+    private void readArray(final Consumer<String> consumer)
+    {
+        if (readNull())
+        {
+            return;
+        }
+        expect('[');
+        skipWhitespace();
+        if (consume(']'))
+        {
+            return;
+        }
+        do
+        {
+            skipWhitespace();
+            consumer.accept(readString());
+            skipWhitespace();
+        }
+        while (consume(','));
+        expect(']');
+    }
+
+    private boolean readBoolean()
+    {
+        if (consumeLiteral("true"))
+        {
+            return true;
+        }
+        if (consumeLiteral("false"))
+        {
+            return false;
+        }
+        throw error("expected a boolean");
+    }
+
+    private int readInteger()
+    {
+        final int start = this.position;
+        consume('-');
+        while (this.position < this.line.length() && isDigit(this.line.charAt(this.position)))
+        {
+            this.position++;
+        }
+        try
+        {
+            return Integer.parseInt(this.line.substring(start, this.position));
+        }
+        catch (final NumberFormatException exception)
+        {
+            this.position = start;
+            throw error("expected an integer");
+        }
+    }
+
+    private static boolean isDigit(final char character)
+    {
+        return character >= '0' && character <= '9';
+    }
+
+    private String readNullableString()
+    {
+        return readNull() ? null : readString();
+    }
+
+    private boolean readNull()
+    {
+        return consumeLiteral("null");
+    }
+
+    private String readString()
+    {
+        expect('"');
+        final int start = this.position;
+        // Fast path for strings without escape sequences
+        while (this.position < this.line.length())
+        {
+            final char character = this.line.charAt(this.position);
+            if (character == '"')
+            {
+                return this.line.substring(start, this.position++);
+            }
+            if (character == '\\')
+            {
+                return readEscapedString(start);
+            }
+            this.position++;
+        }
+        throw error("unterminated string");
+    }
+
+    private String readEscapedString(final int start)
+    {
+        final StringBuilder builder = new StringBuilder(this.line.length() - start);
+        builder.append(this.line, start, this.position);
+        while (this.position < this.line.length())
+        {
+            final char character = this.line.charAt(this.position++);
+            if (character == '"')
+            {
+                return builder.toString();
+            }
+            if (character == '\\')
+            {
+                builder.append(readEscapeSequence());
+            }
+            else
+            {
+                builder.append(character);
+            }
+        }
+        throw error("unterminated string");
+    }
+
+    private char readEscapeSequence()
+    {
+        if (this.position >= this.line.length())
+        {
+            throw error("unterminated string");
+        }
+        final char character = this.line.charAt(this.position++);
+        switch (character)
+        {
+        case '"':
+        case '\\':
+        case '/':
+            return character;
+        case 'b':
+            return '\b';
+        case 'f':
+            return '\f';
+        case 'n':
+            return '\n';
+        case 'r':
+            return '\r';
+        case 't':
+            return '\t';
+        case 'u':
+            return readUnicodeEscape();
+        default:
+            this.position--;
+            throw error("invalid escape sequence");
+        }
+    }
+
+    private char readUnicodeEscape()
+    {
+        if (this.position + 4 > this.line.length())
+        {
+            throw error("incomplete unicode escape");
+        }
+        int value = 0;
+        for (int i = 0; i < 4; i++)
+        {
+            final int digit = Character.digit(this.line.charAt(this.position), 16);
+            if (digit < 0)
+            {
+                throw error("invalid unicode escape");
+            }
+            value = (value << 4) | digit;
+            this.position++;
+        }
+        return (char) value;
+    }
+
+    private void skipValue()
+    {
+        if (this.position >= this.line.length())
+        {
+            throw error("expected a value");
+        }
+        final char character = this.line.charAt(this.position);
+        if (character == '"')
+        {
+            readString();
+        }
+        else if (character == '{' || character == '[')
+        {
+            skipContainer();
+        }
+        else if (!consumeLiteral("true") && !consumeLiteral("false") && !readNull())
+        {
+            skipNumber();
+        }
+    }
+
+    private void skipContainer()
+    {
+        int nesting = 0;
+        do
+        {
+            if (this.position >= this.line.length())
+            {
+                throw error("unterminated object or array");
+            }
+            final char character = this.line.charAt(this.position);
+            if (character == '"')
+            {
+                readString();
+                continue;
+            }
+            if (character == '{' || character == '[')
+            {
+                nesting++;
+            }
+            else if (character == '}' || character == ']')
+            {
+                nesting--;
+            }
+            this.position++;
+        }
+        while (nesting > 0);
+    }
+
+    private void skipNumber()
+    {
+        final int start = this.position;
+        while (this.position < this.line.length()
+                && "+-.eE0123456789".indexOf(this.line.charAt(this.position)) >= 0)
+        {
+            this.position++;
+        }
+        if (this.position == start)
+        {
+            throw error("expected a value");
+        }
+    }
+
+    private boolean consumeLiteral(final String literal)
+    {
+        if (this.line.startsWith(literal, this.position))
+        {
+            this.position += literal.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace()
+    {
+        while (this.position < this.line.length())
+        {
+            final char character = this.line.charAt(this.position);
+            if (character != ' ' && character != '\t' && character != '\r'
+                    && character != '\n')
+            {
+                return;
+            }
+            this.position++;
+        }
+    }
+
+    private boolean consume(final char expected)
+    {
+        if (this.position < this.line.length() && this.line.charAt(this.position) == expected)
+        {
+            this.position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(final char expected)
+    {
+        if (!consume(expected))
+        {
+            throw error("expected '" + expected + "'");
+        }
+    }
+
+    private ImporterException error(final String message)
+    {
+        return new ImporterException("Invalid JSON at column " + (this.position + 1) + ": "
+                + message);
+    }
+}
@@ -0,0 +1,112 @@
+package org.itsallcode.openfasttrace.importer.ndjson;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import org.itsallcode.openfasttrace.api.importer.ImportEventListener;
+import org.itsallcode.openfasttrace.api.importer.Importer;
+import org.itsallcode.openfasttrace.api.importer.ImporterException;
+import org.itsallcode.openfasttrace.api.importer.input.InputFile;
+
+/**
+ * Importer for newline-delimited JSON files containing one specification item
+ * per line.
+ * <p>
+ * Since every line is a complete item, lines are read in batches and the
+ * lines of a batch are parsed concurrently. The events of each line are
+ * recorded and replayed to the listener in the order of the file afterwards.
+ * </p>
+ */
+class NdjsonImporter implements Importer
+{
+    private static final Logger LOG = Logger.getLogger(NdjsonImporter.class.getName());
+    static final int BATCH_SIZE = 1024;
+
+    private final InputFile file;
+    private final ImportEventListener listener;
+
+    NdjsonImporter(final InputFile file, final ImportEventListener listener)
+    {
+        this.file = file;
+        this.listener = listener;
+    }
+
+    @Override
+    public void runImport()
+    {
+        int lineNumber = 0;
+        int itemCount = 0;
+        try (BufferedReader reader = this.file.createReader())
+        {
+            final List<String> lines = new ArrayList<>(BATCH_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                lines.add(line);
+                if (lines.size() == BATCH_SIZE)
+                {
+                    itemCount += importBatch(lines, lineNumber + 1);
+                    lineNumber += lines.size();
+                    lines.clear();
+                }
+            }
+            itemCount += importBatch(lines, lineNumber + 1);
+        }
+        catch (final IOException exception)
+        {
+            throw new ImporterException("Error reading '" + this.file.getPath() + "'", exception);
+        }
+        final int importedItems = itemCount;
+        LOG.finest(() -> "Imported " + importedItems + " items from '" + this.file.getPath()
+                + "'");
+    }
+
+    // Errors are reported for the first broken line, independent of the order
+    // in which the lines were parsed.
+    private int importBatch(final List<String> lines, final int firstLineNumber)
+    {
+        final ItemRecorder[] recorders = new ItemRecorder[lines.size()];
+        final ImporterException[] errors = new ImporterException[lines.size()];
+        IntStream.range(0, lines.size()).parallel().forEach(index -> {
+            try
+            {
+                recorders[index] = parseLine(lines.get(index), firstLineNumber + index);
+            }
+            catch (final ImporterException exception)
+            {
+                errors[index] = exception;
+            }
+        });
+        int itemCount = 0;
+        for (int index = 0; index < recorders.length; index++)
+        {
+            if (errors[index] != null)
+            {
+                throw new ImporterException("Error importing '" + this.file.getPath()
+                        + "' line " + (firstLineNumber + index) + ": "
+                        + errors[index].getMessage(), errors[index]);
+            }
+            if (recorders[index] != null)
+            {
+                recorders[index].replay(this.listener);
+                itemCount++;
+            }
+        }
+        return itemCount;
+    }
+
+    private ItemRecorder parseLine(final String line, final int lineNumber)
+    {
+        if (line.isBlank())
+        {
+            return null;
+        }
+        final ItemRecorder recorder = new ItemRecorder();
+        new JsonLineParser(line, this.file.getPath(), lineNumber, recorder).parse();
+        return recorder;
+    }
+}
@@ -0,0 +1,25 @@
+package org.itsallcode.openfasttrace.importer.ndjson;
+
+import org.itsallcode.openfasttrace.api.importer.*;
+import org.itsallcode.openfasttrace.api.importer.input.InputFile;
+
+/**
+ * An {@link ImporterFactory} for newline-delimited JSON files with the
+ * extension {@code .ndjson} or {@code .jsonl}.
+ */
+public class NdjsonImporterFactory extends RegexMatchingImporterFactory
+{
+    /**
+     * Create a new instance.
+     */
+    public NdjsonImporterFactory()
+    {
+        super("(?i).*\\.(ndjson|jsonl)");
+    }
+
+    @Override
+    public Importer createImporter(final InputFile file, final ImportEventListener listener)
+    {
+        return new NdjsonImporter(file, listener);
+    }
+}
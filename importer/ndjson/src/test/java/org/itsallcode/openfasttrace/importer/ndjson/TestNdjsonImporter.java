@@ -0,0 +1,155 @@
+package org.itsallcode.openfasttrace.importer.ndjson;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.hamcrest.Matcher;
+import org.itsallcode.matcher.auto.AutoMatcher;
+import org.itsallcode.openfasttrace.api.core.*;
+import org.itsallcode.openfasttrace.api.importer.ImporterException;
+import org.itsallcode.openfasttrace.api.importer.SpecificationListBuilder;
+import org.itsallcode.openfasttrace.testutil.importer.input.StreamInput;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TestNdjsonImporter
+{
+    @Test
+    void testImportItemWithAllElements()
+    {
+        final List<SpecificationItem> items = importLines("{\"id\":\"req~name~2\","
+                + "\"status\":\"DRAFT\",\"title\":\"the \\\"title\\\"\","
+                + "\"description\":\"line\\nbreak \\u00e4\\/\",\"rationale\":\"rationale\","
+                + "\"comment\":\"comment\",\"covers\":[\"feat~covered~1\"],"
+                + "\"dependsOn\":[\"req~other~3\"],\"needs\":[\"dsn\",\"impl\"],"
+                + "\"tags\":[\"tag\"],\"forwards\":true,\"file\":\"spec.md\","
+                + "\"line\":4,\"column\":2}");
+        final SpecificationItem expected = SpecificationItem.builder()
+                .id(SpecificationItemId.createId("req", "name", 2)) //
+                .status(ItemStatus.DRAFT) //
+                .title("the \"title\"") //
+                .description("line\nbreak ä/") //
+                .rationale("rationale") //
+                .comment("comment") //
+                .addCoveredId("feat", "covered", 1) //
+                .addDependOnId("req", "other", 3) //
+                .addNeedsArtifactType("dsn") //
+                .addNeedsArtifactType("impl") //
+                .addTag("tag") //
+                .forwards(true) //
+                .location(Location.create("spec.md", 4, 2)) //
+                .build();
+        assertThat(items, AutoMatcher.contains(expected));
+    }
+
+    @Test
+    void testImportSkipsUnknownMembersWhitespaceAndBlankLines()
+    {
+        final List<SpecificationItem> items = importLines("",
+                " { \"extra\" : {\"a\":[1, -2.5e3, \"]\"]}, \"id\" : \"req~a~1\" , "
+                        + "\"flag\":false, \"none\":null, \"title\": null } ",
+                "   ");
+        assertThat(items, AutoMatcher.contains(
+                SpecificationItem.builder().id(SpecificationItemId.createId("req", "a", 1))
+                        .location(Location.create("items.ndjson", 2)).build()));
+    }
+
+    @Test
+    void testImportWithoutFileIsLocatedInNdjsonFile()
+    {
+        final List<SpecificationItem> items = importLines("{\"id\":\"req~a~1\"}", "",
+                "{\"id\":\"req~b~1\",\"line\":7}", "{\"id\":\"req~c~1\",\"file\":\"c.md\"}");
+        assertThat(items.stream().map(SpecificationItem::getLocation).toList(),
+                contains(Location.create("items.ndjson", 1), Location.create("items.ndjson", 3),
+                        Location.builder().path("c.md").build()));
+    }
+
+    @Test
+    void testImportKeepsOrderAcrossBatches()
+    {
+        final int count = NdjsonImporter.BATCH_SIZE * 2 + 3;
+        final List<SpecificationItem> items = importLines(IntStream.range(0, count)
+                .mapToObj(index -> "{\"id\":\"impl~item" + index + "~1\"}")
+                .toArray(String[]::new));
+        assertThat(items.stream().map(SpecificationItem::getName).toList(),
+                AutoMatcher.contains(IntStream.range(0, count).mapToObj(index -> "item" + index)
+                        .toArray(String[]::new)));
+    }
+
+    @Test
+    void testImportEmptyFile()
+    {
+        assertThat(importLines(), emptyIterable());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings =
+    { "{\"id\":\"req~a~1\"", "[]", "{\"id\":\"req~a~1\"} x", "{\"id\":\"req~a~1\",}",
+            "{\"id\":\"req~a\\q~1\"}", "{\"id\":\"req~a~1\",\"line\":\"4\"}",
+            "{\"id\":\"req~a~1\",\"forwards\":1}", "{\"id\":\"req~a~1\",\"covers\":\"x\"}" })
+    void testInvalidJsonFails(final String line)
+    {
+        assertImportFails(containsString("line 2: Invalid JSON at column"), "", line);
+    }
+
+    @Test
+    void testMissingIdFails()
+    {
+        assertImportFails(containsString("line 1: Item has no \"id\""), "{\"title\":\"a\"}");
+    }
+
+    @Test
+    void testInvalidIdFails()
+    {
+        assertImportFails(containsString("Invalid item ID \"req~a\""), "{\"id\":\"req~a\"}");
+    }
+
+    @Test
+    void testInvalidRevisionFails()
+    {
+        assertImportFails(containsString("Invalid revision in item ID \"req~a~x\""),
+                "{\"id\":\"req~a~x\"}");
+    }
+
+    @Test
+    void testUnknownStatusFails()
+    {
+        assertImportFails(containsString("Unrecognized item status \"done\""),
+                "{\"id\":\"req~a~1\",\"status\":\"done\"}");
+    }
+
+    @Test
+    void testFirstBrokenLineIsReported()
+    {
+        assertImportFails(containsString("'items.ndjson' line 2:"), "{\"id\":\"req~a~1\"}",
+                "{", "{", "{\"id\":\"req~b~1\"}");
+    }
+
+    private static void assertImportFails(final Matcher<String> messageMatcher,
+            final String... lines)
+    {
+        final ImporterException exception = assertThrows(ImporterException.class,
+                () -> importLines(lines));
+        assertThat(exception.getMessage(), messageMatcher);
+    }
+
+    private static List<SpecificationItem> importLines(final String... lines)
+    {
+        final SpecificationListBuilder builder = SpecificationListBuilder.create();
+        final String content = List.of(lines).stream().collect(Collectors.joining("\n"));
+        new NdjsonImporterFactory()
+                .createImporter(StreamInput.forContent(Paths.get("items.ndjson"), content),
+                        builder)
+                .runImport();
+        return builder.build();
+    }
+}
@@ -0,0 +1,31 @@
+package org.itsallcode.openfasttrace.importer.ndjson;
+
+import static java.util.Arrays.asList;
+
+import java.util.List;
+
+import org.itsallcode.openfasttrace.testutil.importer.ImporterFactoryTestBase;
+
+/**
+ * Tests for {@link NdjsonImporterFactory}
+ */
+class TestNdjsonImporterFactory extends ImporterFactoryTestBase<NdjsonImporterFactory>
+{
+    @Override
+    protected NdjsonImporterFactory createFactory()
+    {
+        return new NdjsonImporterFactory();
+    }
+
+    @Override
+    protected List<String> getSupportedFilenames()
+    {
+        return asList("file.ndjson", "file.NDJSON", "file.jsonl", "file.md.jsonl");
+    }
+
+    @Override
+    protected List<String> getUnsupportedFilenames()
+    {
+        return asList("file.json", "file.ndjson.md", "file_jsonl", "filendjson");
+    }
+}
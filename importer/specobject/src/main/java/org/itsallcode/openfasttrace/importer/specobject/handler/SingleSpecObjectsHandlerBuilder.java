@@ -1,5 +1,7 @@
 package org.itsallcode.openfasttrace.importer.specobject.handler;
 
+import java.util.function.Consumer;
+
 import org.itsallcode.openfasttrace.api.core.*;
 import org.itsallcode.openfasttrace.api.importer.ImportEventListener;
 import org.itsallcode.openfasttrace.importer.xmlparser.tree.CallbackContentHandler;
@@ -43,15 +45,26 @@ class SingleSpecObjectsHandlerBuilder
                 .addSubTreeHandler("tags", new TagsHandlerBuilder(this.listener)::build);
     }
 
+    // Character data of optional fields that are not required is ignored, so
+    // that the listener does not need to collect it.
+    private Consumer<String> ifRequired(final ItemField field, final Consumer<String> listener)
+    {
+        return this.listener.isFieldRequired(field) ? listener : text -> {};
+    }
+
     private void configureDataHandlers()
     {
         this.handler.addCharacterDataListener("id", this::removeArtifactTypeFromName)
                 .addIntDataListener("version", this.idBuilder::revision)
-                .addCharacterDataListener("description", this.listener::appendDescription)
-                .addCharacterDataListener("rationale", this.listener::appendRationale)
-                .addCharacterDataListener("comment", this.listener::appendComment)
+                .addCharacterDataListener("description",
+                        ifRequired(ItemField.DESCRIPTION, this.listener::appendDescription))
+                .addCharacterDataListener("rationale",
+                        ifRequired(ItemField.RATIONALE, this.listener::appendRationale))
+                .addCharacterDataListener("comment",
+                        ifRequired(ItemField.COMMENT, this.listener::appendComment))
                 .addCharacterDataListener("status", this::setStatus)
-                .addCharacterDataListener("shortdesc", this.listener::setTitle)
+                .addCharacterDataListener("shortdesc",
+                        ifRequired(ItemField.TITLE, this.listener::setTitle))
                 .addCharacterDataListener("sourcefile", this::rememberSourceFile)
                 .addIntDataListener("sourceline", this::rememberSourceLine);
     }
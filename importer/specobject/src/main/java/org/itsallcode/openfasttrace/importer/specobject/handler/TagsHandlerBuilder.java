@@ -1,5 +1,8 @@
 package org.itsallcode.openfasttrace.importer.specobject.handler;
 
+import java.util.function.Consumer;
+
+import org.itsallcode.openfasttrace.api.core.ItemField;
 import org.itsallcode.openfasttrace.api.importer.ImportEventListener;
 import org.itsallcode.openfasttrace.importer.xmlparser.tree.CallbackContentHandler;
 import org.itsallcode.openfasttrace.importer.xmlparser.tree.TreeContentHandler;
@@ -17,6 +20,9 @@ class TagsHandlerBuilder
 
     TreeContentHandler build()
     {
-        return this.handler.addCharacterDataListener("tag", this.listener::addTag);
+        final Consumer<String> tagListener = this.listener.isFieldRequired(ItemField.TAGS)
+                ? this.listener::addTag
+                : tag -> {};
+        return this.handler.addCharacterDataListener("tag", tagListener);
     }
 }
@@ -42,14 +42,23 @@ class TestSpecobjectImporter
     }
 
     private ImportEventListener importFromString(final String text)
+    {
+        return importFromString(text, ItemField.all());
+    }
+
+    private ImportEventListener importFromString(final String text,
+            final Set<ItemField> requiredFields)
     {
         final ImportEventListener listenerMock = mock(ImportEventListener.class);
+        when(listenerMock.isFieldRequired(any()))
+                .thenAnswer(invocation -> requiredFields.contains(invocation.getArgument(0)));
         final StringReader stringReader = new StringReader(text);
         final InputFile file = StreamInput.forReader(Paths.get(PSEUDO_FILENAME),
                 new BufferedReader(stringReader));
         final SpecobjectImporter importer = new SpecobjectImporter(file, new XmlParserFactory(),
                 listenerMock);
         importer.runImport();
+        verify(listenerMock, atLeast(0)).isFieldRequired(any());
         return listenerMock;
     }
 
@@ -82,6 +91,28 @@ class TestSpecobjectImporter
         verifyNoMoreInteractions(listenerMock);
     }
 
+    @Test
+    void testSkipFieldsThatAreNotRequired()
+    {
+        final ImportEventListener listenerMock = importFromString("<specobjects doctype=\"req\">\n" //
+                + "  <specobject>\n" //
+                + "    <id>skipped</id>\n" //
+                + "    <version>2</version>\n" //
+                + "    <shortdesc>my short description</shortdesc>\n" //
+                + "    <description>description</description>\n" //
+                + "    <rationale>rationale</rationale>" //
+                + "    <comment>comment</comment>\n" //
+                + "    <tags><tag>tag</tag></tags>\n" //
+                + "  </specobject>\n" //
+                + "</specobjects>", EnumSet.of(ItemField.RATIONALE));
+        verify(listenerMock).beginSpecificationItem();
+        verify(listenerMock).setLocation(STANDARD_LOCATION);
+        verify(listenerMock).setId(SpecificationItemId.parseId("req~skipped~2"));
+        verify(listenerMock).appendRationale("rationale");
+        verify(listenerMock).endSpecificationItem();
+        verifyNoMoreInteractions(listenerMock);
+    }
+
     @Test
     void testImportOnlyShortDescription()
     {
@@ -21,6 +21,8 @@ if $oft_script trace \
     "$base_dir/importer/restructuredtext/src" \
     "$base_dir/importer/specobject/src" \
     "$base_dir/importer/zip/src" \
+    "$base_dir/importer/bundle/src" \
+    "$base_dir/importer/ndjson/src" \
     "$base_dir/importer/tag/src" \
     "$base_dir/core/src/main" \
     "$base_dir/core/src/test/java" \
@@ -31,6 +33,8 @@ if $oft_script trace \
     "$base_dir/api/src" \
     "$base_dir/exporter/specobject/src" \
     "$base_dir/exporter/common/src" \
+    "$base_dir/exporter/bundle/src" \
+    "$base_dir/exporter/ndjson/src" \
     "$base_dir/testutil/src"; then
   echo "Self-trace successful, see report at $report_file"
   exit 0
@@ -69,7 +69,7 @@ class TestAllServicesAvailable
 
     @ParameterizedTest
     @CsvSource(
-    { "md", "oreqm", "java", "zip" })
+    { "md", "oreqm", "java", "zip", "oftb", "ndjson", "jsonl" })
     void importerAvailable(final String suffix)
     {
         final InputFile file = RealFileInput.forPath(Paths.get("file." + suffix));
@@ -84,7 +84,7 @@ class TestAllServicesAvailable
 
     @ParameterizedTest
     @CsvSource(
-    { "specobject" })
+    { "specobject", "bundle", "ndjson" })
     void exporterAvailable(final String format)
     {
         if (!exporterLoader.isFormatSupported(format))
@@ -100,7 +100,7 @@ class TestAllServicesAvailable
 
     @ParameterizedTest
     @CsvSource(
-    { "aspec", "html", "plain" })
+    { "aspec", "html", "html-pages", "html-compact", "plain" })
     void reporterAvailable(final String format)
     {
         if (!reporterLoader.isFormatSupported(format))
@@ -13,6 +13,12 @@ import org.itsallcode.junit.sysextensions.*;
 import org.itsallcode.junit.sysextensions.SystemErrGuard.SysErr;
 import org.itsallcode.junit.sysextensions.SystemOutGuard.SysOut;
 import org.itsallcode.junit.sysextensions.security.ExitTrapException;
+import org.itsallcode.openfasttrace.api.ReportSettings;
+import org.itsallcode.openfasttrace.api.core.Newline;
+import org.itsallcode.openfasttrace.api.core.Trace;
+import org.itsallcode.openfasttrace.api.importer.ImportSettings;
+import org.itsallcode.openfasttrace.core.ExportSettings;
+import org.itsallcode.openfasttrace.core.Oft;
 import org.itsallcode.openfasttrace.core.cli.CliStarter;
 import org.itsallcode.openfasttrace.core.cli.ExitStatus;
 import org.itsallcode.openfasttrace.testutil.TestAssumptions;
@@ -40,6 +46,11 @@ class TestCliStarter
     private static final String OUTPUT_FORMAT_PARAMETER = "--output-format";
     private static final String WANTED_ARTIFACT_TYPES_PARAMETER = "--wanted-artifact-types";
     private static final String COLOR_SCHEME_PARAMETER = "--color-scheme";
+    private static final String REPORT_PARAMETER = "--report";
+    private static final String EXPORT_PARAMETER = "--export";
+    private static final String LOAD_SNAPSHOT_PARAMETER = "--load-snapshot";
+    private static final String SHARD_BY_PARAMETER = "--shard-by";
+    private static final String SHARD_MANIFEST_PARAMETER = "--shard-manifest";
     private static final String CARRIAGE_RETURN = "\r";
     private static final String NEWLINE = "\n";
 
@@ -157,6 +168,23 @@ class TestCliStarter
         assertExitOkWithOutputFileStart(runnable, SPECOBJECT_PREAMBLE);
     }
 
+    @Test
+    void testConvertShardedByArtifactType(@TempDir final Path tempDir)
+    {
+        final Path outputDir = tempDir.resolve("shards");
+        final Runnable runnable = () -> runCliStarter( //
+                CONVERT_COMMAND, this.DOC_DIR.toString(), //
+                OUTPUT_FILE_PARAMETER, outputDir.toString(), //
+                SHARD_BY_PARAMETER, "artifact-type", //
+                SHARD_MANIFEST_PARAMETER);
+        assertAll( //
+                () -> assertExitWithStatus(ExitStatus.OK.getCode(), runnable), //
+                () -> assertThat(readFile(outputDir.resolve("manifest.xml")),
+                        containsString("<shard file=\"feat.xml\" doctype=\"feat\"")), //
+                () -> assertThat(readFile(outputDir.resolve("feat.xml")),
+                        startsWith(SPECOBJECT_PREAMBLE + "\n  <specobjects doctype=\"feat\">")));
+    }
+
     // [itest->dsn~cli.default-input~1]
     @Test
     void testConvertDefaultInputDir() throws IOException
@@ -259,6 +287,70 @@ class TestCliStarter
         }
     }
 
+    @Test
+    void testTraceWithAdditionalReportsAndExport(@TempDir final Path tempDir)
+    {
+        final Path htmlReport = tempDir.resolve("report.html");
+        final Path aspecReport = tempDir.resolve("report.xml");
+        final Path export = tempDir.resolve("export.xml");
+        final Runnable runnable = () -> runCliStarter( //
+                TRACE_COMMAND, this.DOC_DIR.toString(), //
+                OUTPUT_FILE_PARAMETER, this.outputFile.toString(), //
+                REPORT_PARAMETER, "html:" + htmlReport, //
+                REPORT_PARAMETER, "aspec:" + aspecReport, //
+                EXPORT_PARAMETER, "specobject:" + export);
+        assertAll( //
+                () -> assertExitOkWithOutputFileStart(runnable, "ok - 5 total"), //
+                () -> assertThat(readFile(htmlReport), startsWith("<!DOCTYPE html>")), //
+                () -> assertThat(readFile(aspecReport),
+                        allOf(startsWith(SPECOBJECT_PREAMBLE), containsString("<deepCoverageStatus>"))), //
+                () -> assertThat(readFile(export), allOf(startsWith(SPECOBJECT_PREAMBLE),
+                        not(containsString("<deepCoverageStatus>")))));
+    }
+
+    @Test
+    void testTraceExportEqualsConversionOfItemsWithOutdatedCoverage(@TempDir final Path tempDir)
+            throws IOException
+    {
+        final Path inputDir = Files.createDirectory(tempDir.resolve("input"));
+        Files.writeString(inputDir.resolve("spec.md"), "`req~a~2`\n\nNeeds: dsn\n\n"
+                + "`dsn~b~1`\n\nCovers:\n\n* req~a~1\n");
+        final Path export = tempDir.resolve("export.xml");
+        final Path conversion = tempDir.resolve("conversion.xml");
+        final Oft oft = Oft.create();
+        oft.exportToPath(oft.importItems(ImportSettings.builder().addInputs(inputDir).build()),
+                conversion, ExportSettings.builder().outputFormat("specobject")
+                        .newline(Newline.fromRepresentation(System.lineSeparator())).build());
+        final Runnable runnable = () -> runCliStarter( //
+                TRACE_COMMAND, inputDir.toString(), //
+                OUTPUT_FILE_PARAMETER, this.outputFile.toString(), //
+                EXPORT_PARAMETER, "specobject:" + export);
+        assertAll( //
+                () -> assertExitWithStatus(ExitStatus.FAILURE.getCode(), runnable), //
+                () -> assertThat(readFile(export), equalTo(readFile(conversion))));
+    }
+
+    @Test
+    void testTraceFromSavedSnapshot(@TempDir final Path tempDir)
+    {
+        final Path snapshot = tempDir.resolve("trace.snapshot");
+        final Path aspecReport = tempDir.resolve("report.xml");
+        final Oft oft = Oft.create();
+        final Trace trace = oft.trace(oft.link(oft.importItems(ImportSettings.builder()
+                .addInputs(this.DOC_DIR).build())));
+        oft.saveSnapshot(trace, snapshot);
+        oft.reportToPath(trace, aspecReport, ReportSettings.builder().outputFormat("aspec")
+                .newline(Newline.fromRepresentation(System.lineSeparator())).build());
+        final Runnable runnable = () -> runCliStarter( //
+                TRACE_COMMAND, //
+                OUTPUT_FORMAT_PARAMETER, "aspec", //
+                OUTPUT_FILE_PARAMETER, this.outputFile.toString(), //
+                LOAD_SNAPSHOT_PARAMETER, snapshot.toString());
+        assertAll( //
+                () -> assertExitWithStatus(ExitStatus.OK.getCode(), runnable), //
+                () -> assertThat(getOutputFileContent(), equalTo(readFile(aspecReport))));
+    }
+
     @Test
     void testBasicHtmlTrace(@SysOut final Capturable out)
     {
@@ -383,7 +475,11 @@ class TestCliStarter
 
     private String getOutputFileContent()
     {
-        final Path file = this.outputFile;
+        return readFile(this.outputFile);
+    }
+
+    private static String readFile(final Path file)
+    {
         try
         {
             return Files.readString(file);
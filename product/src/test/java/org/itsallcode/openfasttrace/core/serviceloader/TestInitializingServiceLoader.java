@@ -12,14 +12,20 @@ import org.itsallcode.openfasttrace.api.importer.ImporterContext;
 import org.itsallcode.openfasttrace.api.importer.ImporterFactory;
 import org.itsallcode.openfasttrace.api.report.ReporterContext;
 import org.itsallcode.openfasttrace.api.report.ReporterFactory;
+import org.itsallcode.openfasttrace.exporter.bundle.BundleExporterFactory;
+import org.itsallcode.openfasttrace.exporter.ndjson.NdjsonExporterFactory;
 import org.itsallcode.openfasttrace.exporter.specobject.SpecobjectExporterFactory;
+import org.itsallcode.openfasttrace.importer.bundle.BundleImporterFactory;
 import org.itsallcode.openfasttrace.importer.markdown.MarkdownImporterFactory;
+import org.itsallcode.openfasttrace.importer.ndjson.NdjsonImporterFactory;
 import org.itsallcode.openfasttrace.importer.restructuredtext.RestructuredTextImporterFactory;
 import org.itsallcode.openfasttrace.importer.specobject.SpecobjectImporterFactory;
 import org.itsallcode.openfasttrace.importer.tag.TagImporterFactory;
 import org.itsallcode.openfasttrace.importer.zip.ZipFileImporterFactory;
 import org.itsallcode.openfasttrace.report.aspec.ASpecReporterFactory;
+import org.itsallcode.openfasttrace.report.html.CompactHtmlReporterFactory;
 import org.itsallcode.openfasttrace.report.html.HtmlReporterFactory;
+import org.itsallcode.openfasttrace.report.html.MultiPageHtmlReporterFactory;
 import org.itsallcode.openfasttrace.report.plaintext.PlaintextReporterFactory;
 import org.junit.jupiter.api.Test;
 
@@ -48,9 +54,11 @@ class TestInitializingServiceLoader
         final ImporterContext context = new ImporterContext(null);
         final List<ImporterFactory> services = getRegisteredServices(ImporterFactory.class,
                 context);
-        assertThat(services, hasSize(5));
+        assertThat(services, hasSize(7));
         assertThat(services, containsInAnyOrder(
+                instanceOf(BundleImporterFactory.class),
                 instanceOf(MarkdownImporterFactory.class),
+                instanceOf(NdjsonImporterFactory.class),
                 instanceOf(RestructuredTextImporterFactory.class),
                 instanceOf(SpecobjectImporterFactory.class),
                 instanceOf(TagImporterFactory.class),
@@ -68,8 +76,10 @@ class TestInitializingServiceLoader
         final ExporterContext context = new ExporterContext();
         final List<ExporterFactory> services = getRegisteredServices(ExporterFactory.class,
                 context);
-        assertThat(services, hasSize(1));
-        assertThat(services, containsInAnyOrder(instanceOf(SpecobjectExporterFactory.class)));
+        assertThat(services, hasSize(3));
+        assertThat(services, containsInAnyOrder(instanceOf(SpecobjectExporterFactory.class),
+                instanceOf(BundleExporterFactory.class),
+                instanceOf(NdjsonExporterFactory.class)));
         for (final ExporterFactory factory : services)
         {
             assertThat(factory.getContext(), sameInstance(context));
@@ -83,10 +93,12 @@ class TestInitializingServiceLoader
         final ReporterContext context = new ReporterContext(null);
         final List<ReporterFactory> services = getRegisteredServices(ReporterFactory.class,
                 context);
-        assertThat(services, hasSize(3));
+        assertThat(services, hasSize(5));
         assertThat(services, containsInAnyOrder(instanceOf(PlaintextReporterFactory.class),
                 instanceOf(ASpecReporterFactory.class),
-                instanceOf(HtmlReporterFactory.class)));
+                instanceOf(HtmlReporterFactory.class),
+                instanceOf(MultiPageHtmlReporterFactory.class),
+                instanceOf(CompactHtmlReporterFactory.class)));
         for (final ReporterFactory factory : services)
         {
             assertThat(factory.getContext(), sameInstance(context));
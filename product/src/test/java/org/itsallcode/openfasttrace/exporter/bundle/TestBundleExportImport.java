@@ -0,0 +1,86 @@
+package org.itsallcode.openfasttrace.exporter.bundle;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.itsallcode.matcher.auto.AutoMatcher;
+import org.itsallcode.openfasttrace.api.core.*;
+import org.itsallcode.openfasttrace.api.importer.SpecificationListBuilder;
+import org.itsallcode.openfasttrace.api.importer.input.RealFileInput;
+import org.itsallcode.openfasttrace.importer.bundle.BundleImporterFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestBundleExportImport
+{
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testExportImportItemWithAllElements()
+    {
+        final SpecificationItem item = SpecificationItem.builder() //
+                .id(SpecificationItemId.createId("req", "me", 2)) //
+                .title("My item title") //
+                .status(ItemStatus.DRAFT) //
+                .description("the description\r\nwith ümlauts") //
+                .rationale("the rationale") //
+                .comment("the comment") //
+                .addCoveredId("feat", "covered", 1) //
+                .addCoveredId(SpecificationItemId.createId("feat", "wildcard")) //
+                .addDependOnId("req", "depend-on", 1) //
+                .addNeedsArtifactType("impl") //
+                .addNeedsArtifactType("utest") //
+                .addTag("the tag") //
+                .location(Location.create("spec.md", 4, 2)) //
+                .build();
+        assertExportAndImport(item);
+    }
+
+    @Test
+    void testExportImportItemsFromSeveralFiles()
+    {
+        final SpecificationItem itemA = SpecificationItem.builder() //
+                .id(SpecificationItemId.createId("dsn", "a", 1)) //
+                .addNeedsArtifactType("impl") //
+                .location(Location.create("a.md", 1)) //
+                .build();
+        final SpecificationItem itemB = SpecificationItem.builder() //
+                .id(SpecificationItemId.createId("impl", "b", 0)) //
+                .addCoveredId("dsn", "a", 1) //
+                .location(Location.create("b.java", 7)) //
+                .build();
+        final SpecificationItem itemC = SpecificationItem.builder() //
+                .id(SpecificationItemId.createId("dsn", "c", 3)) //
+                .status(ItemStatus.REJECTED) //
+                .forwards(true) //
+                .build();
+        final SpecificationItem itemD = SpecificationItem.builder() //
+                .id(SpecificationItemId.createId("dsn", "d", 1)) //
+                .location(Location.create("a.md", 12)) //
+                .build();
+        assertExportAndImport(itemA, itemB, itemC, itemD);
+    }
+
+    @Test
+    void testExportImportNoItems()
+    {
+        assertExportAndImport();
+    }
+
+    private void assertExportAndImport(final SpecificationItem... items)
+    {
+        final Path file = this.tempDir.resolve("items.oftb");
+        new BundleExporterFactory().createExporter(file, "bundle", StandardCharsets.UTF_8,
+                Newline.UNIX, Stream.of(items)).runExport();
+        final SpecificationListBuilder builder = SpecificationListBuilder.create();
+        new BundleImporterFactory().createImporter(RealFileInput.forPath(file), builder)
+                .runImport();
+        final List<SpecificationItem> importedItems = builder.build();
+        assertThat(importedItems, AutoMatcher.contains(items));
+    }
+}
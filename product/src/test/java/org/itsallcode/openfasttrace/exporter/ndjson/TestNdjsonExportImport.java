@@ -0,0 +1,76 @@
+package org.itsallcode.openfasttrace.exporter.ndjson;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.itsallcode.matcher.auto.AutoMatcher;
+import org.itsallcode.openfasttrace.api.core.*;
+import org.itsallcode.openfasttrace.api.importer.SpecificationListBuilder;
+import org.itsallcode.openfasttrace.api.importer.input.RealFileInput;
+import org.itsallcode.openfasttrace.importer.ndjson.NdjsonImporterFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestNdjsonExportImport
+{
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testExportImportItemWithAllElements()
+    {
+        final SpecificationItem item = SpecificationItem.builder() //
+                .id(SpecificationItemId.createId("req", "me", 2)) //
+                .title("My \"item\" title") //
+                .status(ItemStatus.DRAFT) //
+                .description("the description\nwith ümlauts,\t\\ and more") //
+                .rationale("the rationale") //
+                .comment("the comment") //
+                .addCoveredId("feat", "covered", 1) //
+                .addCoveredId(SpecificationItemId.createId("feat", "wildcard")) //
+                .addDependOnId("req", "depend-on", 1) //
+                .addNeedsArtifactType("impl") //
+                .addNeedsArtifactType("utest") //
+                .addTag("the tag") //
+                .location(Location.create("spec.md", 4, 2)) //
+                .build();
+        assertExportAndImport(Newline.UNIX, item);
+    }
+
+    @Test
+    void testExportImportKeepsOrderOfManyItems()
+    {
+        final SpecificationItem[] items = IntStream.range(0, 3000)
+                .mapToObj(index -> SpecificationItem.builder() //
+                        .id(SpecificationItemId.createId("impl", "item" + index, index)) //
+                        .addCoveredId("dsn", "item", 1) //
+                        .forwards(index % 2 == 0) //
+                        .location(Location.create("file" + (index % 7) + ".java", index + 1)) //
+                        .build())
+                .toArray(SpecificationItem[]::new);
+        assertExportAndImport(Newline.WINDOWS, items);
+    }
+
+    @Test
+    void testExportImportNoItems()
+    {
+        assertExportAndImport(Newline.UNIX);
+    }
+
+    private void assertExportAndImport(final Newline newline, final SpecificationItem... items)
+    {
+        final Path file = this.tempDir.resolve("items.ndjson");
+        new NdjsonExporterFactory().createExporter(file, "ndjson", StandardCharsets.UTF_8,
+                newline, Stream.of(items)).runExport();
+        final SpecificationListBuilder builder = SpecificationListBuilder.create();
+        new NdjsonImporterFactory().createImporter(RealFileInput.forPath(file), builder)
+                .runImport();
+        final List<SpecificationItem> importedItems = builder.build();
+        assertThat(importedItems, AutoMatcher.contains(items));
+    }
+}
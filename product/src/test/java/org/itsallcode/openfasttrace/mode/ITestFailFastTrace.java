@@ -0,0 +1,70 @@
+package org.itsallcode.openfasttrace.mode;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.itsallcode.openfasttrace.api.core.SpecificationItemId;
+import org.itsallcode.openfasttrace.api.core.Trace;
+import org.itsallcode.openfasttrace.api.importer.ImportSettings;
+import org.itsallcode.openfasttrace.core.Oft;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ITestFailFastTrace
+{
+    private static final String REQ = "`req~a~1`\n\nNeeds: dsn\n";
+    private static final String DSN = "`dsn~a~1`\n\nCovers:\n\n  * `req~a~1`\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testCleanProjectHasNoDefects() throws IOException
+    {
+        write("a_req.md", REQ);
+        write("b_dsn.md", DSN);
+        assertThat(traceFailFast().hasNoDefects(), equalTo(true));
+    }
+
+    @Test
+    void testStopsAtDuplicate() throws IOException
+    {
+        write("a_req.md", REQ);
+        write("b_req.md", REQ);
+        final Trace trace = traceFailFast();
+        assertThat(trace.hasNoDefects(), equalTo(false));
+        assertThat(trace.getDefectIds(), contains(SpecificationItemId.parseId("req~a~1")));
+    }
+
+    @Test
+    void testStopsAtOrphanedLink() throws IOException
+    {
+        write("a_dsn.md", DSN);
+        final Trace trace = traceFailFast();
+        assertThat(trace.hasNoDefects(), equalTo(false));
+        assertThat(trace.getDefectIds(), contains(SpecificationItemId.parseId("dsn~a~1")));
+    }
+
+    @Test
+    void testDetectsUncoveredItem() throws IOException
+    {
+        write("a_req.md", REQ);
+        assertThat(traceFailFast().hasNoDefects(), equalTo(false));
+    }
+
+    private void write(final String fileName, final String content) throws IOException
+    {
+        Files.writeString(this.tempDir.resolve(fileName), content);
+    }
+
+    private Trace traceFailFast()
+    {
+        return Oft.create()
+                .traceFailFast(ImportSettings.builder().addInputs(this.tempDir).build());
+    }
+}
@@ -0,0 +1,116 @@
+package org.itsallcode.openfasttrace.mode;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.itsallcode.openfasttrace.api.ReportSettings;
+import org.itsallcode.openfasttrace.api.core.Trace;
+import org.itsallcode.openfasttrace.api.importer.ImportSettings;
+import org.itsallcode.openfasttrace.api.report.ReportVerbosity;
+import org.itsallcode.openfasttrace.core.Oft;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ITestIncrementalTrace
+{
+    private static final String REQ = "# Requirements\n\n" //
+            + "## A\n`req~a~1`\n\nNeeds: dsn\n\n" //
+            + "## B\n`req~b~1`\n\nNeeds: dsn\n";
+    private static final String DSN = "# Design\n\n" //
+            + "## A\n`dsn~a~1`\n\nCovers:\n\n  * `req~a~1`\n\n" //
+            + "## B\n`dsn~b~1`\n\nCovers:\n\n  * `req~b~1`\n";
+
+    @TempDir
+    Path tempDir;
+    private Path docDir;
+    private Path stateFile;
+    private Oft oft;
+
+    @BeforeEach
+    void beforeEach() throws IOException
+    {
+        this.docDir = Files.createDirectory(this.tempDir.resolve("doc"));
+        this.stateFile = this.tempDir.resolve("state.bin");
+        this.oft = Oft.create();
+        write("req.md", REQ);
+        write("dsn.md", DSN);
+    }
+
+    @Test
+    void testFirstRunCreatesState() throws IOException
+    {
+        assertIncrementalTraceEqualsColdTrace();
+        assertThat(Files.exists(this.stateFile), equalTo(true));
+    }
+
+    @Test
+    void testChangedFileIsImportedAgain() throws IOException
+    {
+        assertIncrementalTraceEqualsColdTrace();
+        write("dsn.md", DSN.replace("`req~b~1`", "`req~b~2`"));
+        assertIncrementalTraceEqualsColdTrace();
+        write("dsn.md", DSN);
+        assertIncrementalTraceEqualsColdTrace();
+    }
+
+    @Test
+    void testAddedAndDeletedFiles() throws IOException
+    {
+        assertIncrementalTraceEqualsColdTrace();
+        Files.delete(this.docDir.resolve("dsn.md"));
+        assertIncrementalTraceEqualsColdTrace();
+        write("a_dsn.md", DSN);
+        assertIncrementalTraceEqualsColdTrace();
+    }
+
+    @Test
+    void testCorruptStateIsIgnored() throws IOException
+    {
+        Files.writeString(this.stateFile, "not a state file");
+        assertIncrementalTraceEqualsColdTrace();
+        assertIncrementalTraceEqualsColdTrace();
+    }
+
+    private void write(final String fileName, final String content) throws IOException
+    {
+        final Path file = this.docDir.resolve(fileName);
+        Files.writeString(file, content);
+        // Give each version of the file a distinct timestamp that is old
+        // enough to be trusted by the incremental trace.
+        final Instant timestamp = Instant.now().minus(1, ChronoUnit.HOURS)
+                .plusMillis(content.hashCode() % 1000);
+        Files.setLastModifiedTime(file, FileTime.from(timestamp));
+    }
+
+    private void assertIncrementalTraceEqualsColdTrace()
+    {
+        final ImportSettings settings = ImportSettings.builder().addInputs(this.docDir).build();
+        final Trace coldTrace = this.oft.trace(this.oft.link(this.oft.importItems(settings)));
+        final Trace incrementalTrace = this.oft.traceIncrementally(settings, this.stateFile);
+        assertThat(report(incrementalTrace), equalTo(report(coldTrace)));
+        assertThat(incrementalTrace.hasNoDefects(), equalTo(coldTrace.hasNoDefects()));
+    }
+
+    private String report(final Trace trace)
+    {
+        final Path reportFile = this.tempDir.resolve("report.txt");
+        this.oft.reportToPath(trace, reportFile,
+                ReportSettings.builder().verbosity(ReportVerbosity.ALL).build());
+        try
+        {
+            return Files.readString(reportFile);
+        }
+        catch (final IOException exception)
+        {
+            throw new AssertionError(exception);
+        }
+    }
+}
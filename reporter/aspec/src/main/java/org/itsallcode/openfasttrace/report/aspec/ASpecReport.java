@@ -4,23 +4,29 @@ import org.itsallcode.openfasttrace.api.core.*;
 import org.itsallcode.openfasttrace.api.exporter.ExporterException;
 import org.itsallcode.openfasttrace.api.report.Reportable;
 import org.itsallcode.openfasttrace.api.report.ReporterContext;
-import org.itsallcode.openfasttrace.exporter.common.IndentingXMLStreamWriter;
+import org.itsallcode.openfasttrace.exporter.common.DirectIndentingXMLStreamWriter;
 
-import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
+import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
-import java.util.stream.Collectors;
-
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.toList;
 
+/**
+ * Report in the augmented specobject format.
+ * <p>
+ * The {@code specobjects} block of each artifact type is rendered
+ * concurrently into its own buffer. The buffers are written in the order of
+ * the artifact types as soon as they are complete. Only a limited number of
+ * blocks is rendered ahead of the block that is written next. The coverage of
+ * all items is computed once up front, because the coverage of each item is
+ * also reported for all items it covers.
+ * </p>
+ */
 class ASpecReport implements Reportable
 {
     private static final String ELEMENT_VERSION = "version";
@@ -28,12 +34,18 @@ class ASpecReport implements Reportable
     private static final String VALUE_UNCOVERED = "UNCOVERED";
     private static final String VALUE_COVERED = "COVERED";
     private static final String ATTRIBUTE_DOCTYPE = "doctype";
+    private static final String DOCUMENT_START = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<specdocument>";
+    private static final String DOCUMENT_END = "</specdocument>";
+    private static final String NEWLINE = "\n";
+    private static final int NESTING_OF_SPECOBJECTS = 1;
+    private static final int MAX_PENDING_BLOCKS = Runtime.getRuntime().availableProcessors() + 1;
 
     private static final Logger LOG = Logger.getLogger(ASpecReport.class.getName());
 
     private final Trace trace;
-    private final XMLOutputFactory xmlOutputFactory;
     private final Newline newline;
+    private final Map<LinkedSpecificationItem, ItemCoverage> coverage = new ConcurrentHashMap<>();
 
     /**
      * Create a new instance of an {@link ASpecReport}
@@ -47,70 +59,87 @@ class ASpecReport implements Reportable
     {
         this.trace = trace;
         this.newline = context.getSettings().getNewline();
-        this.xmlOutputFactory = XMLOutputFactory.newFactory();
     }
 
     @Override
     public void renderToStream(final OutputStream outputStream)
     {
-        final XMLStreamWriter xmlWriter = createXmlWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
-        final IndentingXMLStreamWriter indentingXmlWriter = new IndentingXMLStreamWriter(xmlWriter);
-
         LOG.fine("aspec starting");
-        try (indentingXmlWriter)
+        final List<LinkedSpecificationItem> items = this.trace.getItems();
+        items.parallelStream().forEach(item -> this.coverage.put(item, ItemCoverage.of(item)));
+        final Deque<CompletableFuture<ByteArrayOutputStream>> pendingBlocks = new ArrayDeque<>();
+        try
         {
-            writeOutput(indentingXmlWriter);
+            outputStream.write(DOCUMENT_START.getBytes(StandardCharsets.UTF_8));
+            boolean empty = true;
+            for (final Map.Entry<String, List<LinkedSpecificationItem>> entry : this.trace
+                    .getItemsByArtifactType().entrySet())
+            {
+                writePendingBlocks(outputStream, pendingBlocks, MAX_PENDING_BLOCKS - 1);
+                pendingBlocks.add(CompletableFuture
+                        .supplyAsync(() -> renderItems(entry.getKey(), entry.getValue())));
+                empty = false;
+            }
+            writePendingBlocks(outputStream, pendingBlocks, 0);
+            if (!empty)
+            {
+                outputStream.write(NEWLINE.getBytes(StandardCharsets.UTF_8));
+            }
+            outputStream.write(DOCUMENT_END.getBytes(StandardCharsets.UTF_8));
+            outputStream.flush();
         }
-        catch (final XMLStreamException exception)
+        catch (final IOException exception)
         {
             throw new ExporterException("Generating document", exception);
         }
     }
 
-    private XMLStreamWriter createXmlWriter(final Writer writer)
+    // Blocks are written in order as soon as they are complete, so that only
+    // a limited number of rendered blocks is held in memory at the same time.
+    private static void writePendingBlocks(final OutputStream outputStream,
+            final Deque<CompletableFuture<ByteArrayOutputStream>> pendingBlocks,
+            final int maxPending) throws IOException
     {
-        try
-        {
-            return this.xmlOutputFactory.createXMLStreamWriter(writer);
-        }
-        catch (final XMLStreamException exception)
+        while (pendingBlocks.size() > maxPending)
         {
-            throw new ExporterException("Error creating XML stream writer for writer " + writer, exception);
+            awaitBlock(pendingBlocks.removeFirst()).writeTo(outputStream);
         }
     }
 
-    private void writeOutput(final XMLStreamWriter writer)
-            throws XMLStreamException
+    private static ByteArrayOutputStream awaitBlock(final CompletableFuture<ByteArrayOutputStream> block)
     {
-        writer.writeStartDocument("UTF-8", "1.0");
-        writeSpecDocument(writer);
-        writer.writeEndDocument();
-    }
-
-    private void writeSpecDocument(XMLStreamWriter writer)
-            throws XMLStreamException
-    {
-        writer.writeStartElement("specdocument");
-
-        for (final Map.Entry<String, List<LinkedSpecificationItem>> entry : groupItemsByAttributeType(
-                this.trace.getItems()).entrySet())
+        try
         {
-            final String doctype = entry.getKey();
-            final List<LinkedSpecificationItem> specItems = entry.getValue();
-            writeItems(writer, doctype, specItems);
+            return block.join();
+        }
+        catch (final CompletionException exception)
+        {
+            if (exception.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) exception.getCause();
+            }
+            throw exception;
         }
-
-        writer.writeEndElement();
     }
 
-    private Map<String, List<LinkedSpecificationItem>> groupItemsByAttributeType(
-            final List<LinkedSpecificationItem> items)
+    private ByteArrayOutputStream renderItems(final String doctype,
+            final List<LinkedSpecificationItem> specItems)
     {
-        return items.stream().collect(
-                groupingBy(LinkedSpecificationItem::getArtifactType, LinkedHashMap::new, toList()));
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final DirectIndentingXMLStreamWriter xmlWriter = new DirectIndentingXMLStreamWriter(buffer,
+                NESTING_OF_SPECOBJECTS);
+        try (xmlWriter)
+        {
+            writeItems(xmlWriter, doctype, specItems);
+        }
+        catch (final XMLStreamException exception)
+        {
+            throw new ExporterException("Generating document", exception);
+        }
+        return buffer;
     }
 
-    private void writeItems(final XMLStreamWriter writer, final String doctype,
+    private void writeItems(final DirectIndentingXMLStreamWriter writer, final String doctype,
             final List<LinkedSpecificationItem> specItems)
             throws XMLStreamException
     {
@@ -124,7 +153,8 @@ class ASpecReport implements Reportable
         writer.writeEndElement();
     }
 
-    private void writeItem(final XMLStreamWriter writer, final LinkedSpecificationItem item) throws XMLStreamException
+    private void writeItem(final DirectIndentingXMLStreamWriter writer, final LinkedSpecificationItem item)
+            throws XMLStreamException
     {
 
         writer.writeStartElement("specobject");
@@ -138,34 +168,20 @@ class ASpecReport implements Reportable
         writer.writeEndElement();
     }
 
-    private void writeItemValues(XMLStreamWriter writer, LinkedSpecificationItem item) throws XMLStreamException
+    private void writeItemValues(DirectIndentingXMLStreamWriter writer, LinkedSpecificationItem item)
+            throws XMLStreamException
     {
-        final String description = processMultilineText(item.getDescription());
-        final String rationale = processMultilineText(item.getItem().getRationale());
-        final String comment = processMultilineText(item.getItem().getComment());
-
         writeElement(writer, "id", item.getName());
         writeElement(writer, ELEMENT_VERSION, item.getRevision());
         writeElementIfPresent(writer, "shortdesc", item.getTitle());
         writeElement(writer, "status", item.getStatus().toString());
         writeLocation(writer, item.getLocation());
-        writeElementIfPresent(writer, "description", description);
-        writeElementIfPresent(writer, "rationale", rationale);
-        writeElementIfPresent(writer, "comment", comment);
+        writeMultilineElementIfPresent(writer, "description", item.getDescription());
+        writeMultilineElementIfPresent(writer, "rationale", item.getItem().getRationale());
+        writeMultilineElementIfPresent(writer, "comment", item.getItem().getComment());
         writeTags(writer, item.getTags());
     }
 
-    private String processMultilineText(final String text)
-    {
-        return unifyNewlines(text);
-    }
-
-    private String unifyNewlines(final String text)
-    {
-        final Matcher matcher = Newline.anyNewlinePattern().matcher(text);
-        return matcher.replaceAll(this.newline.toString());
-    }
-
     private void writeTags(final XMLStreamWriter writer, final List<String> tags) throws XMLStreamException
     {
         if (tags.isEmpty())
@@ -183,10 +199,11 @@ class ASpecReport implements Reportable
     private void writeItemCoverage(XMLStreamWriter writer, LinkedSpecificationItem item) throws XMLStreamException
     {
         writer.writeStartElement("coverage");
+        final ItemCoverage itemCoverage = getCoverage(item);
         writeNeedsArtifactTypes(writer, item.getNeedsArtifactTypes());
         writeElement(writer, "shallowCoverageStatus",
-                item.isCoveredShallowWithApprovedItems() ? VALUE_COVERED : VALUE_UNCOVERED);
-        writeElement(writer, "deepCoverageStatus", item.getDeepCoverageStatusOnlyAcceptApprovedItems().name());
+                itemCoverage.coveredShallow() ? VALUE_COVERED : VALUE_UNCOVERED);
+        writeElement(writer, "deepCoverageStatus", itemCoverage.deepCoverageStatus().name());
 
         writeCoveringSpecObjects(writer, item);
 
@@ -199,13 +216,14 @@ class ASpecReport implements Reportable
             throws XMLStreamException
     {
         writer.writeStartElement("coveringSpecObjects");
-        for (final Map.Entry<LinkStatus, List<LinkedSpecificationItem>> entry : item.getLinks().entrySet().stream()
-                .filter(entry -> entry.getKey().isIncoming())
-                .collect(Collectors.toCollection(LinkedList::new)))
+        for (final Map.Entry<LinkStatus, List<LinkedSpecificationItem>> entry : item.getLinks().entrySet())
         {
-            for (final LinkedSpecificationItem coveringItem : entry.getValue())
+            if (entry.getKey().isIncoming())
             {
-                writeCoveringSpecObject(writer, entry.getKey(), coveringItem);
+                for (final LinkedSpecificationItem coveringItem : entry.getValue())
+                {
+                    writeCoveringSpecObject(writer, entry.getKey(), coveringItem);
+                }
             }
         }
         writer.writeEndElement();
@@ -220,9 +238,10 @@ class ASpecReport implements Reportable
         writeElement(writer, ELEMENT_VERSION, item.getRevision());
         writeElement(writer, ATTRIBUTE_DOCTYPE, item.getArtifactType());
         writeElement(writer, "status", item.getStatus().toString());
+        final ItemCoverage itemCoverage = getCoverage(item);
         writeElement(writer, "ownCoverageStatus",
-                item.isCoveredShallowWithApprovedItems() ? VALUE_COVERED : VALUE_UNCOVERED);
-        final DeepCoverageStatus deepCoverageStatus = item.getDeepCoverageStatusOnlyAcceptApprovedItems();
+                itemCoverage.coveredShallow() ? VALUE_COVERED : VALUE_UNCOVERED);
+        final DeepCoverageStatus deepCoverageStatus = itemCoverage.deepCoverageStatus();
         writeElement(writer, "deepCoverageStatus",
                 deepCoverageStatus == DeepCoverageStatus.COVERED ? VALUE_COVERED : deepCoverageStatus.name());
 
@@ -357,6 +376,18 @@ class ASpecReport implements Reportable
         writer.writeEndElement();
     }
 
+    // Newlines are unified while the text is escaped.
+    private void writeMultilineElementIfPresent(final DirectIndentingXMLStreamWriter writer,
+            final String elementName, final String content) throws XMLStreamException
+    {
+        if (content != null && !content.isEmpty())
+        {
+            writer.writeStartElement(elementName);
+            writer.writeCharacters(content, this.newline);
+            writer.writeEndElement();
+        }
+    }
+
     private void writeLocation(final XMLStreamWriter writer, final Location location) throws XMLStreamException
     {
         if (location != null && location.getPath() != null && !location.getPath().isEmpty())
@@ -366,6 +397,25 @@ class ASpecReport implements Reportable
         }
     }
 
+    // Covering items are usually part of the trace, so their coverage is
+    // already known.
+    private ItemCoverage getCoverage(final LinkedSpecificationItem item)
+    {
+        return this.coverage.computeIfAbsent(item, ItemCoverage::of);
+    }
+
+    /**
+     * Coverage of an item that only takes approved items into account.
+     */
+    private record ItemCoverage(boolean coveredShallow, DeepCoverageStatus deepCoverageStatus)
+    {
+        private static ItemCoverage of(final LinkedSpecificationItem item)
+        {
+            return new ItemCoverage(item.isCoveredShallowWithApprovedItems(),
+                    item.getDeepCoverageStatusOnlyAcceptApprovedItems());
+        }
+    }
+
     public enum CoveringStatus
     {
         COVERING("COVERING"), UNCOVERED(VALUE_UNCOVERED), OUTDATED("COVERING_WRONG_VERSION"), UNEXPECTED("UNEXPECTED");
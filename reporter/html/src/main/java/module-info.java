@@ -1,5 +1,6 @@
 /**
- * This provides a report generator for the HTML format.
+ * This provides report generators for the single-page, multi-page and compact
+ * HTML format.
  * 
  * @provides org.itsallcode.openfasttrace.api.report.ReporterFactory
  */
@@ -8,5 +9,7 @@ module org.itsallcode.openfasttrace.report.html
     requires transitive org.itsallcode.openfasttrace.api;
 
     provides org.itsallcode.openfasttrace.api.report.ReporterFactory
-            with org.itsallcode.openfasttrace.report.html.HtmlReporterFactory;
+            with org.itsallcode.openfasttrace.report.html.HtmlReporterFactory,
+                    org.itsallcode.openfasttrace.report.html.MultiPageHtmlReporterFactory,
+                    org.itsallcode.openfasttrace.report.html.CompactHtmlReporterFactory;
 }
@@ -0,0 +1,69 @@
+package org.itsallcode.openfasttrace.report.html;
+
+import java.io.OutputStream;
+import java.util.List;
+
+import org.itsallcode.openfasttrace.api.ReportSettings;
+import org.itsallcode.openfasttrace.api.core.LinkedSpecificationItem;
+import org.itsallcode.openfasttrace.api.core.Trace;
+import org.itsallcode.openfasttrace.api.report.Reportable;
+import org.itsallcode.openfasttrace.report.html.view.ViewFactory;
+import org.itsallcode.openfasttrace.report.html.view.ViewableContainer;
+import org.itsallcode.openfasttrace.report.html.view.html.HtmlViewFactory;
+
+/**
+ * A compact HTML report.
+ * <p>
+ * Instead of HTML markup for every item, the report embeds the trace once as
+ * compact JSON data that an inline script renders in the browser. Only the
+ * visible items of the list are turned into HTML elements, the details of an
+ * item are shown when it is selected. Descriptions are displayed as plain
+ * text.
+ * </p>
+ */
+public class CompactHtmlReport implements Reportable
+{
+    private final Trace trace;
+    private final ReportSettings settings;
+
+    /**
+     * Create a new instance of a {@link CompactHtmlReport}
+     * 
+     * @param trace
+     *            trace to be reported on
+     * @param settings
+     *            report settings to use
+     */
+    public CompactHtmlReport(final Trace trace, final ReportSettings settings)
+    {
+        this.trace = trace;
+        this.settings = settings;
+    }
+
+    @Override
+    public void renderToStream(final OutputStream outputStream)
+    {
+        final ViewFactory factory = HtmlViewFactory.create(outputStream,
+                HtmlReport.getCssUrl(), this.settings.getDetailsSectionDisplay());
+        final ViewableContainer view = factory.createView("",
+                "Specification items by artifact type");
+        final List<LinkedSpecificationItem> items = this.trace.getItemsSortedByTypeAndTitle();
+        view.add(factory.createItemDataList(items));
+        view.add(createSummary(factory, items));
+        view.render();
+    }
+
+    private ViewableContainer createSummary(final ViewFactory factory,
+            final List<LinkedSpecificationItem> items)
+    {
+        final ViewableContainer tableOfContentsSource = factory.createReportDetails();
+        for (final String artifactType : HtmlReport.groupByArtifactType(items).keySet())
+        {
+            tableOfContentsSource.add(factory.createSection(artifactType, artifactType));
+        }
+        final ViewableContainer summary = factory.createReportSummary();
+        summary.add(factory.createTraceSummary(this.trace));
+        summary.add(factory.createTableOfContents(tableOfContentsSource));
+        return summary;
+    }
+}
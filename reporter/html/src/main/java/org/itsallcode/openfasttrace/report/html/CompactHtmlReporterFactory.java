@@ -0,0 +1,34 @@
+package org.itsallcode.openfasttrace.report.html;
+
+import org.itsallcode.openfasttrace.api.core.Trace;
+import org.itsallcode.openfasttrace.api.report.Reportable;
+import org.itsallcode.openfasttrace.api.report.ReporterFactory;
+
+/**
+ * A {@link ReporterFactory} for compact HTML reports that are rendered
+ * in the browser. This supports the <code>html-compact</code> format.
+ */
+public class CompactHtmlReporterFactory extends ReporterFactory
+{
+    private static final String COMPACT_HTML_REPORT_FORMAT = "html-compact";
+
+    /**
+     * Create a new {@link CompactHtmlReporterFactory}.
+     */
+    public CompactHtmlReporterFactory()
+    {
+        // empty by intention
+    }
+
+    @Override
+    public boolean supportsFormat(final String format)
+    {
+        return COMPACT_HTML_REPORT_FORMAT.equalsIgnoreCase(format);
+    }
+
+    @Override
+    public Reportable createImporter(final Trace trace)
+    {
+        return new CompactHtmlReport(trace, getContext().getSettings());
+    }
+}
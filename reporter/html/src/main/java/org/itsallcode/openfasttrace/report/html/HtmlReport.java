@@ -2,8 +2,7 @@ package org.itsallcode.openfasttrace.report.html;
 
 import java.io.OutputStream;
 import java.net.URL;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
 
 import org.itsallcode.openfasttrace.api.ReportSettings;
 import org.itsallcode.openfasttrace.api.core.LinkedSpecificationItem;
@@ -14,11 +13,16 @@ import org.itsallcode.openfasttrace.report.html.view.html.HtmlViewFactory;
 
 /**
  * An HTML report.
+ * <p>
+ * The items of each section are rendered concurrently in chunks of fixed size
+ * into private buffers which are then written to the output stream in order.
+ * </p>
  */
 public class HtmlReport implements Reportable
 {
     private final Trace trace;
     private static final String REPORT_CSS_FILE = "/css/report.css";
+    private static final int ITEMS_PER_CHUNK = 64;
     private final ReportSettings settings;
 
     /**
@@ -62,35 +66,65 @@ public class HtmlReport implements Reportable
     private ViewableContainer createDetails(final ViewFactory factory)
     {
         final ViewableContainer details = factory.createReportDetails();
-        final List<LinkedSpecificationItem> items = getSortedItems();
+        final List<LinkedSpecificationItem> items = this.trace.getItemsSortedByTypeAndTitle();
         addSectionedItems(factory, details, items);
         return details;
     }
 
-    private List<LinkedSpecificationItem> getSortedItems()
+    private static void addSectionedItems(final ViewFactory factory,
+            final ViewableContainer view, final List<LinkedSpecificationItem> items)
     {
-        final List<LinkedSpecificationItem> items = this.trace.getItems();
-        items.sort(Comparator.comparing(LinkedSpecificationItem::getArtifactType)
-                .thenComparing(LinkedSpecificationItem::getTitleWithFallback));
-        return items;
+        for (final Map.Entry<String, List<LinkedSpecificationItem>> entry : groupByArtifactType(
+                items).entrySet())
+        {
+            final String artifactType = entry.getKey();
+            final ViewableContainer section = factory.createSection(artifactType, artifactType);
+            view.add(section);
+            addItemsInChunks(factory, section, entry.getValue());
+        }
     }
 
-    private void addSectionedItems(final ViewFactory factory, final ViewableContainer view,
+    /**
+     * Group sorted items by artifact type.
+     * 
+     * @param items
+     *            items sorted by artifact type
+     * @return items by artifact type in the order of the items
+     */
+    static Map<String, List<LinkedSpecificationItem>> groupByArtifactType(
+            final List<LinkedSpecificationItem> items)
+    {
+        final Map<String, List<LinkedSpecificationItem>> itemsByArtifactType = new LinkedHashMap<>();
+        for (final LinkedSpecificationItem item : items)
+        {
+            itemsByArtifactType.computeIfAbsent(item.getArtifactType(), key -> new ArrayList<>())
+                    .add(item);
+        }
+        return itemsByArtifactType;
+    }
+
+    /**
+     * Add items to a section in chunks that are rendered concurrently.
+     * 
+     * @param factory
+     *            factory for the chunks
+     * @param section
+     *            section to which the items are added
+     * @param items
+     *            items to add
+     */
+    static void addItemsInChunks(final ViewFactory factory, final ViewableContainer section,
             final List<LinkedSpecificationItem> items)
     {
-        String artifactType = "\0";
-        ViewableContainer section = factory.createSection(artifactType, artifactType);
+        BufferedViewableContainer chunk = null;
         for (final LinkedSpecificationItem item : items)
         {
-            final String currentArtifactType = item.getArtifactType();
-            if (!artifactType.equals(currentArtifactType))
+            if ((chunk == null) || (chunk.getChildren().size() == ITEMS_PER_CHUNK))
             {
-                artifactType = currentArtifactType;
-                section = factory.createSection(artifactType, artifactType);
-                view.add(section);
+                chunk = factory.createBufferedContainer();
+                section.add(chunk);
             }
-            final Viewable itemView = factory.createSpecificationItem(item);
-            section.add(itemView);
+            chunk.add(chunk.getFactory().createSpecificationItem(item));
         }
     }
 
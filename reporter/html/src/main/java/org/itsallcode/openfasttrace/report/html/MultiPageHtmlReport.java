@@ -0,0 +1,228 @@
+package org.itsallcode.openfasttrace.report.html;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+import org.itsallcode.openfasttrace.api.ReportSettings;
+import org.itsallcode.openfasttrace.api.core.LinkedSpecificationItem;
+import org.itsallcode.openfasttrace.api.core.Trace;
+import org.itsallcode.openfasttrace.api.report.ReportException;
+import org.itsallcode.openfasttrace.api.report.Reportable;
+import org.itsallcode.openfasttrace.report.html.view.ViewFactory;
+import org.itsallcode.openfasttrace.report.html.view.ViewableContainer;
+import org.itsallcode.openfasttrace.report.html.view.html.AnchorLinks;
+import org.itsallcode.openfasttrace.report.html.view.html.HtmlViewFactory;
+
+/**
+ * An HTML report consisting of multiple pages in an output directory.
+ * <p>
+ * The index page contains the trace summary and the table of contents. Each
+ * artifact type gets its own page. If the report settings limit the number of
+ * items per page, the items of an artifact type are split over multiple pages.
+ * Links to items on other pages point to the page containing the item. The
+ * pages are rendered concurrently.
+ * </p>
+ */
+public class MultiPageHtmlReport implements Reportable
+{
+    /** File name of the index page. */
+    public static final String INDEX_PAGE = "index.html";
+    private static final String PAGE_SUFFIX = ".html";
+    private static final String TITLE = "Specification items by artifact type";
+    private final Trace trace;
+    private final ReportSettings settings;
+
+    /**
+     * Create a new instance of a {@link MultiPageHtmlReport}
+     *
+     * @param trace
+     *            trace to be reported on
+     * @param settings
+     *            report settings to use
+     */
+    public MultiPageHtmlReport(final Trace trace, final ReportSettings settings)
+    {
+        this.trace = trace;
+        this.settings = settings;
+    }
+
+    @Override
+    public void renderToStream(final OutputStream outputStream)
+    {
+        throw new ReportException(
+                "The multi-page HTML report can only be written to an output directory.");
+    }
+
+    @Override
+    public void renderToPath(final Path outputPath)
+    {
+        createDirectory(outputPath);
+        final List<Page> pages = createPages();
+        final Map<String, String> pageByAnchor = mapAnchorsToPages(pages);
+        final Page indexPage = new Page(INDEX_PAGE, null, null, Collections.emptyList());
+        Stream.concat(Stream.of(indexPage), pages.stream()) //
+                .parallel() //
+                .forEach(page -> renderPage(outputPath, page, pages, pageByAnchor));
+    }
+
+    private static void createDirectory(final Path outputPath)
+    {
+        try
+        {
+            Files.createDirectories(outputPath);
+        }
+        catch (final IOException exception)
+        {
+            throw new ReportException("Error creating output directory " + outputPath,
+                    exception);
+        }
+    }
+
+    private List<Page> createPages()
+    {
+        final List<Page> pages = new ArrayList<>();
+        final Set<String> usedFileNames = new HashSet<>();
+        usedFileNames.add(INDEX_PAGE);
+        for (final Map.Entry<String, List<LinkedSpecificationItem>> entry : HtmlReport
+                .groupByArtifactType(this.trace.getItemsSortedByTypeAndTitle()).entrySet())
+        {
+            addPagesForArtifactType(pages, usedFileNames, entry.getKey(), entry.getValue());
+        }
+        return pages;
+    }
+
+    private void addPagesForArtifactType(final List<Page> pages, final Set<String> usedFileNames,
+            final String artifactType, final List<LinkedSpecificationItem> items)
+    {
+        final int itemsPerPage = (this.settings.getItemsPerPage() == 0) ? items.size()
+                : this.settings.getItemsPerPage();
+        final int pageCount = (items.size() + itemsPerPage - 1) / itemsPerPage;
+        for (int pageNumber = 1; pageNumber <= pageCount; ++pageNumber)
+        {
+            final String anchor = (pageNumber == 1) ? artifactType
+                    : (artifactType + "-" + pageNumber);
+            final String title = (pageCount == 1) ? artifactType
+                    : (artifactType + " (" + pageNumber + "/" + pageCount + ")");
+            final int fromIndex = (pageNumber - 1) * itemsPerPage;
+            final int toIndex = Math.min(fromIndex + itemsPerPage, items.size());
+            pages.add(new Page(createFileName(usedFileNames, anchor), anchor, title,
+                    items.subList(fromIndex, toIndex)));
+        }
+    }
+
+    // Artifact types are case-sensitive, but file systems may not be. So file
+    // names that differ only in case from a used one get a number suffix.
+    // This also keeps an artifact type "index" from replacing the index page.
+    private static String createFileName(final Set<String> usedFileNames, final String anchor)
+    {
+        String fileName = anchor + PAGE_SUFFIX;
+        int suffix = 0;
+        while (!usedFileNames.add(fileName.toLowerCase(Locale.ROOT)))
+        {
+            ++suffix;
+            fileName = anchor + "-" + suffix + PAGE_SUFFIX;
+        }
+        return fileName;
+    }
+
+    private static Map<String, String> mapAnchorsToPages(final List<Page> pages)
+    {
+        final Map<String, String> pageByAnchor = new HashMap<>();
+        for (final Page page : pages)
+        {
+            pageByAnchor.put(page.anchor, page.fileName);
+            for (final LinkedSpecificationItem item : page.items)
+            {
+                pageByAnchor.put(item.getId().toString(), page.fileName);
+            }
+        }
+        return pageByAnchor;
+    }
+
+    private void renderPage(final Path outputPath, final Page page, final List<Page> pages,
+            final Map<String, String> pageByAnchor)
+    {
+        final Path pagePath = outputPath.resolve(page.fileName);
+        try (OutputStream outputStream = Files.newOutputStream(pagePath))
+        {
+            final ViewFactory factory = HtmlViewFactory.create(outputStream,
+                    HtmlReport.getCssUrl(), this.settings.getDetailsSectionDisplay(),
+                    createAnchorLinks(page.fileName, pageByAnchor));
+            final ViewableContainer view;
+            if (page.isIndex())
+            {
+                view = factory.createView("", TITLE);
+            }
+            else
+            {
+                view = factory.createView("", TITLE + ": " + page.title);
+                view.add(createDetails(factory, page));
+            }
+            view.add(createSummary(factory, pages));
+            view.render();
+            outputStream.flush();
+        }
+        catch (final IOException exception)
+        {
+            throw new ReportException("Error writing report page " + pagePath, exception);
+        }
+    }
+
+    private static AnchorLinks createAnchorLinks(final String fileName,
+            final Map<String, String> pageByAnchor)
+    {
+        return anchor -> {
+            final String page = pageByAnchor.get(anchor);
+            return ((page == null) || page.equals(fileName)) ? ("#" + anchor)
+                    : (page + "#" + anchor);
+        };
+    }
+
+    private static ViewableContainer createDetails(final ViewFactory factory, final Page page)
+    {
+        final ViewableContainer details = factory.createReportDetails();
+        final ViewableContainer section = factory.createSection(page.anchor, page.title);
+        details.add(section);
+        HtmlReport.addItemsInChunks(factory, section, page.items);
+        return details;
+    }
+
+    private ViewableContainer createSummary(final ViewFactory factory, final List<Page> pages)
+    {
+        final ViewableContainer tableOfContentsSource = factory.createReportDetails();
+        for (final Page page : pages)
+        {
+            tableOfContentsSource.add(factory.createSection(page.anchor, page.title));
+        }
+        final ViewableContainer summary = factory.createReportSummary();
+        summary.add(factory.createTraceSummary(this.trace));
+        summary.add(factory.createTableOfContents(tableOfContentsSource));
+        return summary;
+    }
+
+    private static final class Page
+    {
+        private final String fileName;
+        private final String anchor;
+        private final String title;
+        private final List<LinkedSpecificationItem> items;
+
+        private Page(final String fileName, final String anchor, final String title,
+                final List<LinkedSpecificationItem> items)
+        {
+            this.fileName = fileName;
+            this.anchor = anchor;
+            this.title = title;
+            this.items = items;
+        }
+
+        private boolean isIndex()
+        {
+            return this.anchor == null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.itsallcode.openfasttrace.report.html;
+
+import org.itsallcode.openfasttrace.api.core.Trace;
+import org.itsallcode.openfasttrace.api.report.Reportable;
+import org.itsallcode.openfasttrace.api.report.ReporterFactory;
+
+/**
+ * A {@link ReporterFactory} for HTML reports consisting of multiple pages.
+ * This supports the <code>html-pages</code> format.
+ */
+public class MultiPageHtmlReporterFactory extends ReporterFactory
+{
+    private static final String MULTI_PAGE_HTML_REPORT_FORMAT = "html-pages";
+
+    /**
+     * Create a new {@link MultiPageHtmlReporterFactory}.
+     */
+    public MultiPageHtmlReporterFactory()
+    {
+        // empty by intention
+    }
+
+    @Override
+    public boolean supportsFormat(final String format)
+    {
+        return MULTI_PAGE_HTML_REPORT_FORMAT.equalsIgnoreCase(format);
+    }
+
+    @Override
+    public Reportable createImporter(final Trace trace)
+    {
+        return new MultiPageHtmlReport(trace, getContext().getSettings());
+    }
+}
@@ -1,7 +1,5 @@
 package org.itsallcode.openfasttrace.report.html.view;
 
-import java.io.PrintStream;
-
 /**
  * Abstract base class for View Containers that can be rendered to an output
  * stream.
@@ -9,7 +7,7 @@ import java.io.PrintStream;
 public abstract class AbstractStreamableViewContainer extends AbstractViewContainer
 {
     /** The output stream. */
-    protected final PrintStream stream;
+    protected final HtmlWriter stream;
 
     /**
      * Create a new instance.
@@ -17,7 +15,7 @@ public abstract class AbstractStreamableViewContainer extends AbstractViewContai
      * @param stream
      *            the output stream.
      */
-    protected AbstractStreamableViewContainer(final PrintStream stream)
+    protected AbstractStreamableViewContainer(final HtmlWriter stream)
     {
         this.stream = stream;
     }
@@ -32,7 +30,7 @@ public abstract class AbstractStreamableViewContainer extends AbstractViewContai
      * @param title
      *            the title of the container.
      */
-    protected AbstractStreamableViewContainer(final PrintStream stream, final String id,
+    protected AbstractStreamableViewContainer(final HtmlWriter stream, final String id,
             final String title)
     {
         super(id, title);
@@ -47,6 +45,6 @@ public abstract class AbstractStreamableViewContainer extends AbstractViewContai
      */
     public void renderIndentation(final int level)
     {
-        this.stream.print(IndentationHelper.createIndentationPrefix(level));
+        this.stream.printIndentation(level);
     }
 }
@@ -1,7 +1,8 @@
 package org.itsallcode.openfasttrace.report.html.view;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Abstract base class for all containers of viewable elements
@@ -11,6 +12,8 @@ public abstract class AbstractViewContainer implements ViewableContainer
     private final List<Viewable> children;
     private final String id;
     private final String title;
+    // Set on all descendants while an ancestor renders its children.
+    private BufferedRendering bufferedRendering;
 
     /**
      * Create a new instance of type {@link AbstractViewContainer}.
@@ -71,15 +74,80 @@ public abstract class AbstractViewContainer implements ViewableContainer
 
     /**
      * Render a the children of this sub(view).
+     * <p>
+     * Buffered children and descendants are rendered concurrently in document
+     * order ahead of the output. Only a few of them are rendered or wait to be
+     * written at the same time, and each buffer is written and released as soon
+     * as it is next in order.
+     * </p>
      * 
      * @param level
      *            indentation level
      */
     protected void renderChildren(final int level)
+    {
+        if (this.bufferedRendering != null)
+        {
+            renderChildren(level, this.bufferedRendering);
+            return;
+        }
+        final BufferedRendering rendering = new BufferedRendering();
+        try
+        {
+            collectBufferedChildren(level + 1, rendering);
+            rendering.renderAhead();
+            renderChildren(level, rendering);
+        }
+        finally
+        {
+            clearBufferedRendering();
+        }
+    }
+
+    private void renderChildren(final int level, final BufferedRendering rendering)
+    {
+        for (final Viewable child : this.children)
+        {
+            if (child instanceof BufferedViewableContainer)
+            {
+                rendering.awaitRendered((BufferedViewableContainer) child);
+                child.render(level + 1);
+                rendering.renderAhead();
+            }
+            else
+            {
+                child.render(level + 1);
+            }
+        }
+    }
+
+    private void collectBufferedChildren(final int childLevel, final BufferedRendering rendering)
     {
         for (final Viewable child : this.children)
         {
-            child.render(level + 1);
+            if (child instanceof BufferedViewableContainer)
+            {
+                rendering.add((BufferedViewableContainer) child, childLevel);
+            }
+            else if (child instanceof AbstractViewContainer)
+            {
+                final AbstractViewContainer container = (AbstractViewContainer) child;
+                container.bufferedRendering = rendering;
+                container.collectBufferedChildren(childLevel + 1, rendering);
+            }
+        }
+    }
+
+    private void clearBufferedRendering()
+    {
+        for (final Viewable child : this.children)
+        {
+            if (child instanceof AbstractViewContainer)
+            {
+                final AbstractViewContainer container = (AbstractViewContainer) child;
+                container.bufferedRendering = null;
+                container.clearBufferedRendering();
+            }
         }
     }
 
@@ -108,4 +176,75 @@ public abstract class AbstractViewContainer implements ViewableContainer
     {
         return this.children;
     }
+
+    /**
+     * Renders the buffered containers of a view in document order ahead of the
+     * output, keeping at most {@link #MAX_PENDING_RENDERS} of them in progress
+     * or waiting to be written.
+     */
+    private static final class BufferedRendering
+    {
+        private static final int MAX_PENDING_RENDERS = Runtime.getRuntime()
+                .availableProcessors() + 1;
+        private final Deque<BufferedChild> waitingChildren = new ArrayDeque<>();
+        private final Deque<PendingRender> pendingRenders = new ArrayDeque<>();
+
+        private void add(final BufferedViewableContainer container, final int level)
+        {
+            this.waitingChildren.add(new BufferedChild(container, level));
+        }
+
+        private void renderAhead()
+        {
+            while (this.pendingRenders.size() < MAX_PENDING_RENDERS
+                    && !this.waitingChildren.isEmpty())
+            {
+                final BufferedChild child = this.waitingChildren.removeFirst();
+                this.pendingRenders.add(new PendingRender(child.container(), CompletableFuture
+                        .runAsync(() -> child.container().renderToBuffer(child.level()))));
+            }
+        }
+
+        // A container rendered out of document order is rendered directly
+        // after all renders started before it are finished.
+        private void awaitRendered(final BufferedViewableContainer container)
+        {
+            if (!this.pendingRenders.isEmpty()
+                    && (this.pendingRenders.getFirst().container() == container))
+            {
+                await(this.pendingRenders.removeFirst().future());
+                return;
+            }
+            while (!this.pendingRenders.isEmpty())
+            {
+                await(this.pendingRenders.removeFirst().future());
+            }
+            this.waitingChildren.clear();
+        }
+
+        private static void await(final CompletableFuture<Void> future)
+        {
+            try
+            {
+                future.join();
+            }
+            catch (final CompletionException exception)
+            {
+                if (exception.getCause() instanceof RuntimeException)
+                {
+                    throw (RuntimeException) exception.getCause();
+                }
+                throw exception;
+            }
+        }
+    }
+
+    private record BufferedChild(BufferedViewableContainer container, int level)
+    {
+    }
+
+    private record PendingRender(BufferedViewableContainer container,
+            CompletableFuture<Void> future)
+    {
+    }
 }
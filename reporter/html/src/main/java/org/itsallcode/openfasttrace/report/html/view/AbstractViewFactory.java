@@ -1,7 +1,5 @@
 package org.itsallcode.openfasttrace.report.html.view;
 
-import java.io.PrintStream;
-
 /**
  * Factory that creates OFT view (e.g. for reports) and provides an output
  * stream.
@@ -9,7 +7,7 @@ import java.io.PrintStream;
 public abstract class AbstractViewFactory implements ViewFactory
 {
     /** The output stream. */
-    protected final PrintStream outputStream;
+    protected final HtmlWriter outputStream;
 
     /**
      * Create a new instance.
@@ -17,7 +15,7 @@ public abstract class AbstractViewFactory implements ViewFactory
      * @param stream
      *            the output stream.
      */
-    protected AbstractViewFactory(final PrintStream stream)
+    protected AbstractViewFactory(final HtmlWriter stream)
     {
         this.outputStream = stream;
     }
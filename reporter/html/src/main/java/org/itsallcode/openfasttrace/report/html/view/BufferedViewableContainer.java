@@ -0,0 +1,38 @@
+package org.itsallcode.openfasttrace.report.html.view;
+
+/**
+ * A container that renders its children into a private buffer first and
+ * copies the buffer to the output stream when it is rendered.
+ * <p>
+ * This allows rendering multiple containers concurrently while keeping the
+ * output in order. The container has no markup of its own, its children are
+ * rendered on the same indentation level as the container.
+ * </p>
+ */
+public interface BufferedViewableContainer extends ViewableContainer
+{
+    /**
+     * Get the factory for the children of this container.
+     * <p>
+     * Only views created by this factory render into the buffer of the
+     * container.
+     * </p>
+     * 
+     * @return factory for children of this container
+     */
+    ViewFactory getFactory();
+
+    /**
+     * Render the children into the buffer without writing to the output
+     * stream.
+     * <p>
+     * This method does nothing if the buffer already contains the children
+     * rendered on the given level. It may be called concurrently for
+     * different containers.
+     * </p>
+     * 
+     * @param level
+     *            indentation level
+     */
+    void renderToBuffer(int level);
+}
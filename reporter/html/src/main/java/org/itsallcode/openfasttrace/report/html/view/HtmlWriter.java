@@ -0,0 +1,434 @@
+package org.itsallcode.openfasttrace.report.html.view;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.itsallcode.openfasttrace.api.report.ReportException;
+
+/**
+ * Unsynchronized, buffered writer for HTML views.
+ * <p>
+ * The writer collects text in a large character buffer. When the buffer is
+ * full or the writer is flushed, the text is encoded as UTF-8 in one go and
+ * written to the target stream. If the target is a {@link PrintStream}, the
+ * charset of the target is unknown, so the buffered text is handed over to the
+ * print stream instead. A writer without a target keeps all text in memory
+ * until it is copied to another writer.
+ * </p>
+ * <p>
+ * Instances are not thread-safe. Text written to the writer only reaches the
+ * target after calling {@link #flush()}. Errors writing to the target are
+ * reported as {@link ReportException}.
+ * </p>
+ */
+public final class HtmlWriter
+{
+    private static final int BUFFER_SIZE = 32 * 1024;
+    private static final int INITIAL_MEMORY_BUFFER_SIZE = 4 * 1024;
+    private static final int MAX_UTF8_BYTES_PER_CHAR = 3;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final String[] HTML_ESCAPES = createHtmlEscapes();
+    private static final char[] EMPTY = new char[0];
+
+    private final OutputStream byteTarget;
+    private final PrintStream textTarget;
+    private char[] buffer;
+    private int count = 0;
+    private byte[] encodingBuffer;
+
+    private HtmlWriter(final OutputStream byteTarget, final PrintStream textTarget,
+            final int bufferSize)
+    {
+        this.byteTarget = byteTarget;
+        this.textTarget = textTarget;
+        this.buffer = new char[bufferSize];
+    }
+
+    private static String[] createHtmlEscapes()
+    {
+        final String[] escapes = new String['>' + 1];
+        escapes['<'] = "&lt;";
+        escapes['>'] = "&gt;";
+        return escapes;
+    }
+
+    /**
+     * Create a writer for an output stream.
+     *
+     * @param stream
+     *            the output stream
+     * @return a new writer that encodes the text as UTF-8 unless the stream is
+     *         a {@link PrintStream}
+     */
+    public static HtmlWriter create(final OutputStream stream)
+    {
+        if (stream instanceof PrintStream)
+        {
+            return new HtmlWriter(null, (PrintStream) stream, BUFFER_SIZE);
+        }
+        else
+        {
+            return new HtmlWriter(stream, null, BUFFER_SIZE);
+        }
+    }
+
+    /**
+     * Create a writer that keeps the text in memory.
+     *
+     * @return a new in-memory writer
+     */
+    public static HtmlWriter createInMemory()
+    {
+        return new HtmlWriter(null, null, INITIAL_MEMORY_BUFFER_SIZE);
+    }
+
+    private boolean isInMemory()
+    {
+        return (this.byteTarget == null) && (this.textTarget == null);
+    }
+
+    /**
+     * Write a string.
+     *
+     * @param text
+     *            text to write, {@code null} is written as {@code "null"}
+     */
+    public void print(final String text)
+    {
+        final String value = String.valueOf(text);
+        print(value, 0, value.length());
+    }
+
+    private void print(final String text, final int start, final int end)
+    {
+        int offset = start;
+        while (offset < end)
+        {
+            final int chunk = Math.min(end - offset, makeRoom(end - offset));
+            text.getChars(offset, offset + chunk, this.buffer, this.count);
+            this.count += chunk;
+            offset += chunk;
+        }
+    }
+
+    /**
+     * Write a character sequence.
+     *
+     * @param text
+     *            text to write
+     */
+    public void print(final CharSequence text)
+    {
+        if (text instanceof StringBuilder)
+        {
+            final StringBuilder builder = (StringBuilder) text;
+            final int length = builder.length();
+            int offset = 0;
+            while (offset < length)
+            {
+                final int chunk = Math.min(length - offset, makeRoom(length - offset));
+                builder.getChars(offset, offset + chunk, this.buffer, this.count);
+                this.count += chunk;
+                offset += chunk;
+            }
+        }
+        else
+        {
+            print(String.valueOf(text));
+        }
+    }
+
+    /**
+     * Write the string representation of an object.
+     *
+     * @param object
+     *            object to write
+     */
+    public void print(final Object object)
+    {
+        print(String.valueOf(object));
+    }
+
+    /**
+     * Write an integer number.
+     *
+     * @param number
+     *            number to write
+     */
+    public void print(final int number)
+    {
+        print(Integer.toString(number));
+    }
+
+    /**
+     * Write a character.
+     *
+     * @param character
+     *            character to write
+     */
+    public void print(final char character)
+    {
+        makeRoom(1);
+        this.buffer[this.count++] = character;
+    }
+
+    /**
+     * Write a line separator.
+     */
+    public void println()
+    {
+        print(LINE_SEPARATOR);
+    }
+
+    /**
+     * Write a string followed by a line separator.
+     *
+     * @param text
+     *            text to write
+     */
+    public void println(final String text)
+    {
+        print(text);
+        print(LINE_SEPARATOR);
+    }
+
+    /**
+     * Write the indentation for a level.
+     *
+     * @param level
+     *            indentation level
+     */
+    public void printIndentation(final int level)
+    {
+        print(IndentationHelper.createIndentationPrefix(level));
+    }
+
+    /**
+     * Write a text with the HTML tag delimiters {@code <} and {@code >}
+     * escaped.
+     *
+     * @param text
+     *            text to write
+     */
+    public void printEscaped(final String text)
+    {
+        final int length = text.length();
+        int copied = 0;
+        for (int i = 0; i < length; ++i)
+        {
+            final char character = text.charAt(i);
+            if ((character < HTML_ESCAPES.length) && (HTML_ESCAPES[character] != null))
+            {
+                print(text, copied, i);
+                print(HTML_ESCAPES[character]);
+                copied = i + 1;
+            }
+        }
+        print(text, copied, length);
+    }
+
+    /**
+     * Write the raw content of an input stream, e.g. a stylesheet.
+     * <p>
+     * The bytes are transferred directly to the target stream without decoding
+     * them. In-memory writers decode the bytes as UTF-8.
+     * </p>
+     *
+     * @param input
+     *            stream to read from
+     * @throws IOException
+     *             if reading or writing fails
+     */
+    public void transferFrom(final InputStream input) throws IOException
+    {
+        if (isInMemory())
+        {
+            print(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        else
+        {
+            flushBuffer(true);
+            input.transferTo((this.byteTarget != null) ? this.byteTarget : this.textTarget);
+        }
+    }
+
+    /**
+     * Copy the text of this writer to another writer.
+     *
+     * @param target
+     *            writer to copy the text to
+     */
+    public void copyTo(final HtmlWriter target)
+    {
+        int offset = 0;
+        while (offset < this.count)
+        {
+            final int chunk = Math.min(this.count - offset, target.makeRoom(this.count - offset));
+            System.arraycopy(this.buffer, offset, target.buffer, target.count, chunk);
+            target.count += chunk;
+            offset += chunk;
+        }
+    }
+
+    /**
+     * Discard the written text.
+     */
+    public void reset()
+    {
+        this.count = 0;
+    }
+
+    /**
+     * Discard the written text and free the buffer of an in-memory writer.
+     */
+    public void release()
+    {
+        this.count = 0;
+        if (isInMemory())
+        {
+            this.buffer = EMPTY;
+        }
+    }
+
+    /**
+     * Write all buffered text to the target and flush the target.
+     *
+     * @throws ReportException
+     *             if writing to the target fails
+     */
+    public void flush()
+    {
+        if (isInMemory())
+        {
+            return;
+        }
+        flushBuffer(true);
+        if (this.byteTarget != null)
+        {
+            try
+            {
+                this.byteTarget.flush();
+            }
+            catch (final IOException exception)
+            {
+                throw new ReportException("Unable to flush HTML output", exception);
+            }
+        }
+        else
+        {
+            this.textTarget.flush();
+        }
+    }
+
+    /**
+     * Make sure that there is space in the buffer.
+     *
+     * @return the number of characters that fit into the buffer, at least one
+     */
+    private int makeRoom(final int needed)
+    {
+        final int available = this.buffer.length - this.count;
+        if (available >= needed)
+        {
+            return available;
+        }
+        else if (isInMemory())
+        {
+            final int newSize = Math.max(this.buffer.length * 2, this.count + needed);
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(newSize, INITIAL_MEMORY_BUFFER_SIZE));
+            return this.buffer.length - this.count;
+        }
+        else if (available > 0)
+        {
+            return available;
+        }
+        else
+        {
+            flushBuffer(false);
+            return this.buffer.length - this.count;
+        }
+    }
+
+    /**
+     * Write the buffer to the target.
+     *
+     * @param complete
+     *            {@code true} if all text must be written, {@code false} to
+     *            keep a trailing high surrogate in the buffer so that it is
+     *            encoded together with its low surrogate
+     */
+    private void flushBuffer(final boolean complete)
+    {
+        int length = this.count;
+        if (!complete && (length > 0) && Character.isHighSurrogate(this.buffer[length - 1]))
+        {
+            --length;
+        }
+        if (length == 0)
+        {
+            return;
+        }
+        if (this.byteTarget != null)
+        {
+            writeUtf8(length);
+        }
+        else
+        {
+            this.textTarget.print(new String(this.buffer, 0, length));
+        }
+        System.arraycopy(this.buffer, length, this.buffer, 0, this.count - length);
+        this.count -= length;
+    }
+
+    private void writeUtf8(final int length)
+    {
+        if (this.encodingBuffer == null)
+        {
+            this.encodingBuffer = new byte[this.buffer.length * MAX_UTF8_BYTES_PER_CHAR];
+        }
+        final byte[] bytes = this.encodingBuffer;
+        int position = 0;
+        for (int i = 0; i < length; ++i)
+        {
+            final char character = this.buffer[i];
+            if (character < 0x80)
+            {
+                bytes[position++] = (byte) character;
+            }
+            else if (character < 0x800)
+            {
+                bytes[position++] = (byte) (0xC0 | (character >> 6));
+                bytes[position++] = (byte) (0x80 | (character & 0x3F));
+            }
+            else if (!Character.isSurrogate(character))
+            {
+                bytes[position++] = (byte) (0xE0 | (character >> 12));
+                bytes[position++] = (byte) (0x80 | ((character >> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (character & 0x3F));
+            }
+            else if (Character.isHighSurrogate(character) && (i + 1 < length)
+                    && Character.isLowSurrogate(this.buffer[i + 1]))
+            {
+                final int codePoint = Character.toCodePoint(character, this.buffer[++i]);
+                bytes[position++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            }
+            else
+            {
+                // Same replacement as the JDK encoder uses for malformed input
+                bytes[position++] = '?';
+            }
+        }
+        try
+        {
+            this.byteTarget.write(bytes, 0, position);
+        }
+        catch (final IOException exception)
+        {
+            throw new ReportException("Unable to write HTML output", exception);
+        }
+    }
+}
@@ -6,12 +6,24 @@ package org.itsallcode.openfasttrace.report.html.view;
 public final class IndentationHelper
 {
     private static final int INDENT_SPACES_PER_LEVEL = 2;
+    private static final int CACHED_LEVELS = 32;
+    private static final String[] PREFIXES = createPrefixes();
 
     private IndentationHelper()
     {
         // prevent instantiation.
     }
 
+    private static String[] createPrefixes()
+    {
+        final String[] prefixes = new String[CACHED_LEVELS];
+        for (int level = 0; level < CACHED_LEVELS; ++level)
+        {
+            prefixes[level] = " ".repeat(level * INDENT_SPACES_PER_LEVEL);
+        }
+        return prefixes;
+    }
+
     /**
      * Create indentation prefix (i.e. white spaces)
      * 
@@ -21,6 +33,10 @@ public final class IndentationHelper
      */
     public static String createIndentationPrefix(final int level)
     {
-        return new String(new char[level * INDENT_SPACES_PER_LEVEL]).replace("\0", " ");
+        if (level < CACHED_LEVELS)
+        {
+            return PREFIXES[level];
+        }
+        return " ".repeat(level * INDENT_SPACES_PER_LEVEL);
     }
 }
@@ -1,5 +1,7 @@
 package org.itsallcode.openfasttrace.report.html.view;
 
+import java.util.List;
+
 import org.itsallcode.openfasttrace.api.core.LinkedSpecificationItem;
 import org.itsallcode.openfasttrace.api.core.Trace;
 
@@ -72,4 +74,21 @@ public interface ViewFactory
      * @return table of contents
      */
     Viewable createTableOfContents(final ViewableContainer from);
+
+    /**
+     * Create a container that renders its children into a private buffer.
+     * 
+     * @return buffered container
+     */
+    BufferedViewableContainer createBufferedContainer();
+
+    /**
+     * Create a list of specification items that is rendered on the client
+     * side from embedded item data.
+     * 
+     * @param items
+     *            items in the order in which they are listed
+     * @return item data list
+     */
+    Viewable createItemDataList(final List<LinkedSpecificationItem> items);
 }
@@ -0,0 +1,24 @@
+package org.itsallcode.openfasttrace.report.html.view.html;
+
+/**
+ * Creates the link targets for anchors in an HTML report.
+ * <p>
+ * In a single page report all anchors are on the same page. Reports consisting
+ * of multiple pages need to link to anchors on other pages.
+ * </p>
+ */
+@FunctionalInterface
+public interface AnchorLinks
+{
+    /** Links to anchors on the same page. */
+    AnchorLinks SAME_PAGE = anchor -> "#" + anchor;
+
+    /**
+     * Get the link target for an anchor.
+     * 
+     * @param anchor
+     *            ID of the anchor (e.g. a specification item ID)
+     * @return value for the {@code href} attribute of a link to the anchor
+     */
+    String getHref(final String anchor);
+}
@@ -0,0 +1,96 @@
+package org.itsallcode.openfasttrace.report.html.view.html;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.itsallcode.openfasttrace.report.html.view.*;
+
+/**
+ * HTML variant of a container that is rendered into a private buffer first.
+ */
+class HtmlBufferedContainer implements BufferedViewableContainer
+{
+    private static final int NOT_BUFFERED = -1;
+    private final HtmlWriter stream;
+    private final HtmlWriter buffer = HtmlWriter.createInMemory();
+    private final ViewFactory factory;
+    private final List<Viewable> children = new ArrayList<>();
+    private int bufferedLevel = NOT_BUFFERED;
+
+    /**
+     * Create a new instance of a {@link HtmlBufferedContainer}.
+     * 
+     * @param stream
+     *            writer the buffer is copied to
+     * @param factoryProvider
+     *            creates the factory for the children from the writer that
+     *            writes to the buffer
+     */
+    HtmlBufferedContainer(final HtmlWriter stream,
+            final Function<HtmlWriter, ViewFactory> factoryProvider)
+    {
+        this.stream = stream;
+        this.factory = factoryProvider.apply(this.buffer);
+    }
+
+    @Override
+    public ViewFactory getFactory()
+    {
+        return this.factory;
+    }
+
+    @Override
+    public String getId()
+    {
+        return null;
+    }
+
+    @Override
+    public String getTitle()
+    {
+        return null;
+    }
+
+    @Override
+    public boolean isReferenceable()
+    {
+        return false;
+    }
+
+    @Override
+    public void add(final Viewable child)
+    {
+        this.children.add(child);
+    }
+
+    @Override
+    public List<Viewable> getChildren()
+    {
+        return this.children;
+    }
+
+    @Override
+    public void renderToBuffer(final int level)
+    {
+        if (this.bufferedLevel == level)
+        {
+            return;
+        }
+        this.buffer.reset();
+        for (final Viewable child : this.children)
+        {
+            child.render(level);
+        }
+        this.bufferedLevel = level;
+    }
+
+    @Override
+    public void render(final int level)
+    {
+        renderToBuffer(level);
+        this.buffer.copyTo(this.stream);
+        this.buffer.release();
+        this.bufferedLevel = NOT_BUFFERED;
+    }
+}
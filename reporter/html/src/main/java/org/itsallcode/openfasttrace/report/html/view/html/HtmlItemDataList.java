@@ -0,0 +1,294 @@
+package org.itsallcode.openfasttrace.report.html.view.html;
+
+import java.io.*;
+import java.net.URL;
+import java.util.*;
+
+import org.itsallcode.openfasttrace.api.core.*;
+import org.itsallcode.openfasttrace.api.report.ReportException;
+import org.itsallcode.openfasttrace.report.html.view.HtmlWriter;
+import org.itsallcode.openfasttrace.report.html.view.IndentationHelper;
+import org.itsallcode.openfasttrace.report.html.view.Viewable;
+
+/**
+ * List of specification items that is embedded into the HTML page as a compact
+ * JSON data island and rendered by an inline script.
+ * <p>
+ * Artifact types, paths and IDs are stored once in string tables and
+ * referenced by index. Each item is an array of positional fields, links are
+ * pairs of ID index and link status index. The script only creates the DOM
+ * elements for the rows that are currently visible, so the page stays
+ * responsive for large traces.
+ * </p>
+ * <p>
+ * The data also contains a {@link HtmlSearchIndex search index} that is built
+ * in the same pass over the items. The script uses it to filter the list by
+ * search terms, tag, item status and defect type.
+ * </p>
+ */
+class HtmlItemDataList implements Viewable
+{
+    private static final String CSS_RESOURCE = "/css/compact-report.css";
+    private static final String SCRIPT_RESOURCE = "/js/compact-report.js";
+    private static final int DIRECTION_OTHER = 0;
+    private static final int DIRECTION_OUTGOING = 1;
+    private static final int DIRECTION_INCOMING = 2;
+    private static final int NO_PATH = -1;
+
+    private final HtmlWriter stream;
+    private final List<LinkedSpecificationItem> items;
+    private final Map<String, Integer> artifactTypes = new LinkedHashMap<>();
+    private final Map<String, Integer> paths = new LinkedHashMap<>();
+    private final Map<String, Integer> ids = new LinkedHashMap<>();
+
+    /**
+     * Create a new instance of type {@link HtmlItemDataList}.
+     *
+     * @param stream
+     *            the stream to write to
+     * @param items
+     *            the items in the order in which they are listed
+     */
+    HtmlItemDataList(final HtmlWriter stream, final List<LinkedSpecificationItem> items)
+    {
+        this.stream = stream;
+        this.items = items;
+    }
+
+    @Override
+    public void render(final int level)
+    {
+        final String indentation = IndentationHelper.createIndentationPrefix(level);
+        this.stream.print(indentation);
+        this.stream.println("<style>");
+        inlineResource(CSS_RESOURCE);
+        this.stream.print(indentation);
+        this.stream.println("</style>");
+        this.stream.print(indentation);
+        this.stream.println("<form id=\"oft-filter\">"
+                + "<input type=\"search\" id=\"oft-search\" placeholder=\"ID, title or type\">"
+                + "<select id=\"oft-tag\"><option value=\"\">all tags</option></select>"
+                + "<select id=\"oft-status\"><option value=\"\">all statuses</option></select>"
+                + "<select id=\"oft-defect\"><option value=\"\">all items</option>"
+                + "<option value=\"*\">all defects</option></select>"
+                + " <span id=\"oft-matches\"></span></form>");
+        this.stream.print(indentation);
+        this.stream.println("<div id=\"oft-list\"><div id=\"oft-spacer\">"
+                + "<div id=\"oft-rows\"></div></div></div>");
+        this.stream.print(indentation);
+        this.stream.println("<section id=\"oft-details\" class=\"sitem\"></section>");
+        this.stream.print(indentation);
+        this.stream.print("<script type=\"application/json\" id=\"oft-data\">");
+        renderData();
+        this.stream.println("</script>");
+        this.stream.print(indentation);
+        this.stream.println("<script>");
+        inlineResource(SCRIPT_RESOURCE);
+        this.stream.print(indentation);
+        this.stream.println("</script>");
+    }
+
+    private void inlineResource(final String resource)
+    {
+        final URL url = HtmlItemDataList.class.getResource(resource);
+        if (url == null)
+        {
+            throw new ReportException("Unable to find resource \"" + resource
+                    + "\" trying to generate HTML view.");
+        }
+        try (final InputStream input = url.openStream())
+        {
+            this.stream.transferFrom(input);
+        }
+        catch (final IOException exception)
+        {
+            throw new ReportException("Unable to copy content \"" + url
+                    + "\" trying to generate HTML view.", exception);
+        }
+    }
+
+    // The items are written first, so that the string tables and the search
+    // index are complete when they are written afterwards.
+    private void renderData()
+    {
+        this.stream.print("{\"items\":[");
+        final StringBuilder builder = new StringBuilder();
+        final HtmlSearchIndex searchIndex = new HtmlSearchIndex();
+        int ordinal = 0;
+        for (final LinkedSpecificationItem item : this.items)
+        {
+            builder.setLength(0);
+            if (ordinal > 0)
+            {
+                builder.append(',');
+            }
+            appendItem(builder, item);
+            this.stream.print(builder);
+            searchIndex.add(ordinal, item);
+            ++ordinal;
+        }
+        this.stream.print("],\"types\":");
+        renderStringTable(this.artifactTypes.keySet());
+        this.stream.print(",\"paths\":");
+        renderStringTable(this.paths.keySet());
+        this.stream.print(",\"ids\":");
+        renderStringTable(this.ids.keySet());
+        this.stream.print(",\"itemStatus\":");
+        renderItemStatusTable();
+        this.stream.print(",\"linkStatus\":");
+        renderLinkStatusTable();
+        this.stream.print(",\"search\":");
+        searchIndex.writeTo(this.stream);
+        this.stream.print("}");
+    }
+
+    private void appendItem(final StringBuilder builder, final LinkedSpecificationItem item)
+    {
+        final SpecificationItemId id = item.getId();
+        builder.append('[').append(index(this.ids, id.toString()));
+        builder.append(',').append(index(this.artifactTypes, id.getArtifactType()));
+        builder.append(',');
+        JsonText.appendString(builder, item.getTitleWithFallback());
+        builder.append(',');
+        JsonText.appendString(builder, item.getDescription());
+        builder.append(',');
+        JsonText.appendString(builder, item.getItem().getRationale());
+        builder.append(',');
+        JsonText.appendString(builder, item.getItem().getComment());
+        appendLocation(builder, item.getLocation());
+        builder.append(',').append(item.getStatus().ordinal());
+        builder.append(',').append(item.isDefect() ? 1 : 0);
+        builder.append(',');
+        appendArtifactTypes(builder, item.getCoveredArtifactTypes());
+        builder.append(',');
+        appendArtifactTypes(builder, item.getUncoveredArtifactTypes());
+        builder.append(',');
+        appendArtifactTypes(builder, item.getOverCoveredArtifactTypes());
+        builder.append(',');
+        appendLinks(builder, item);
+        builder.append(']');
+    }
+
+    private void appendLocation(final StringBuilder builder, final Location location)
+    {
+        if ((location == null) || (location.getPath() == null))
+        {
+            builder.append(',').append(NO_PATH).append(',').append(Location.NO_LINE);
+        }
+        else
+        {
+            builder.append(',').append(index(this.paths, location.getPath()));
+            builder.append(',').append(location.getLine());
+        }
+    }
+
+    private void appendArtifactTypes(final StringBuilder builder,
+            final Collection<String> types)
+    {
+        builder.append('[');
+        if (types != null)
+        {
+            boolean first = true;
+            for (final String type : types)
+            {
+                if (!first)
+                {
+                    builder.append(',');
+                }
+                builder.append(index(this.artifactTypes, type));
+                first = false;
+            }
+        }
+        builder.append(']');
+    }
+
+    private void appendLinks(final StringBuilder builder, final LinkedSpecificationItem item)
+    {
+        final List<TracedLink> links = new ArrayList<>(item.getTracedLinks());
+        links.sort(Comparator.comparing(link -> link.getOtherLinkEnd().getId().toString()));
+        builder.append('[');
+        boolean first = true;
+        for (final TracedLink link : links)
+        {
+            if (!first)
+            {
+                builder.append(',');
+            }
+            builder.append(index(this.ids, link.getOtherLinkEnd().getId().toString()));
+            builder.append(',').append(link.getStatus().ordinal());
+            first = false;
+        }
+        builder.append(']');
+    }
+
+    private static int index(final Map<String, Integer> table, final String value)
+    {
+        return table.computeIfAbsent(value, key -> table.size());
+    }
+
+    private void renderStringTable(final Collection<String> values)
+    {
+        final StringBuilder builder = new StringBuilder();
+        JsonText.appendStringArray(builder, values);
+        this.stream.print(builder);
+    }
+
+    private void renderItemStatusTable()
+    {
+        final StringBuilder builder = new StringBuilder();
+        builder.append('[');
+        for (final ItemStatus status : ItemStatus.values())
+        {
+            if (status.ordinal() > 0)
+            {
+                builder.append(',');
+            }
+            JsonText.appendString(builder, status.toString());
+        }
+        builder.append(']');
+        this.stream.print(builder);
+    }
+
+    private void renderLinkStatusTable()
+    {
+        final StringBuilder builder = new StringBuilder();
+        builder.append('[');
+        for (final LinkStatus status : LinkStatus.values())
+        {
+            if (status.ordinal() > 0)
+            {
+                builder.append(',');
+            }
+            builder.append('[');
+            JsonText.appendString(builder, status.toString());
+            builder.append(',').append(getDirection(status));
+            builder.append(',').append(isMarked(status) ? 1 : 0);
+            builder.append(']');
+        }
+        builder.append(']');
+        this.stream.print(builder);
+    }
+
+    private static int getDirection(final LinkStatus status)
+    {
+        if (status.isOutgoing())
+        {
+            return DIRECTION_OUTGOING;
+        }
+        else if (status.isIncoming())
+        {
+            return DIRECTION_INCOMING;
+        }
+        else
+        {
+            return DIRECTION_OTHER;
+        }
+    }
+
+    // Same rule as in the regular HTML report: all links except regular
+    // coverage get their status displayed.
+    private static boolean isMarked(final LinkStatus status)
+    {
+        return (status != LinkStatus.COVERS) && (status != LinkStatus.COVERED_SHALLOW);
+    }
+}
@@ -1,12 +1,11 @@
 package org.itsallcode.openfasttrace.report.html.view.html;
 
-import java.io.PrintStream;
-
 import org.itsallcode.openfasttrace.report.html.view.AbstractStreamableViewContainer;
+import org.itsallcode.openfasttrace.report.html.view.HtmlWriter;
 
 class HtmlReportDetails extends AbstractStreamableViewContainer
 {
-    HtmlReportDetails(final PrintStream stream)
+    HtmlReportDetails(final HtmlWriter stream)
     {
         super(stream);
     }
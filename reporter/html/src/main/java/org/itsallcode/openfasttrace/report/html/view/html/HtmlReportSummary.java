@@ -1,12 +1,11 @@
 package org.itsallcode.openfasttrace.report.html.view.html;
 
-import java.io.PrintStream;
-
 import org.itsallcode.openfasttrace.report.html.view.AbstractStreamableViewContainer;
+import org.itsallcode.openfasttrace.report.html.view.HtmlWriter;
 
 class HtmlReportSummary extends AbstractStreamableViewContainer
 {
-    HtmlReportSummary(final PrintStream stream)
+    HtmlReportSummary(final HtmlWriter stream)
     {
         super(stream);
     }
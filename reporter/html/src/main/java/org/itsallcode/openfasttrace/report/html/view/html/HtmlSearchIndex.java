@@ -0,0 +1,206 @@
+package org.itsallcode.openfasttrace.report.html.view.html;
+
+import java.util.*;
+
+import org.itsallcode.openfasttrace.api.core.*;
+import org.itsallcode.openfasttrace.report.html.view.HtmlWriter;
+
+/**
+ * Inverted index that maps search terms, tags and defect types to the
+ * ordinals of the items in the item data list.
+ * <p>
+ * Items must be added in the order of their ordinals, so that each posting
+ * list is sorted without further work. The index is written as JSON with
+ * sorted keys, which allows prefix lookups with a binary search on the client
+ * side. Posting lists are delta-encoded to keep the numbers short.
+ * </p>
+ */
+class HtmlSearchIndex
+{
+    private static final String DUPLICATE = "duplicate";
+    private static final String UNCOVERED = "uncovered";
+    private static final String CYCLE = "cycle";
+
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final Map<String, Postings> tags = new HashMap<>();
+    private final Map<String, Postings> defects = new HashMap<>();
+
+    /**
+     * Add an item to the index.
+     *
+     * @param ordinal
+     *            position of the item in the item list, must be greater than
+     *            the ordinals of all previously added items
+     * @param item
+     *            item to add
+     */
+    void add(final int ordinal, final LinkedSpecificationItem item)
+    {
+        final SpecificationItemId id = item.getId();
+        addTerm(id.toString().toLowerCase(Locale.ROOT), ordinal);
+        addWords(id.getName(), ordinal);
+        addTerm(id.getArtifactType().toLowerCase(Locale.ROOT), ordinal);
+        addWords(item.getTitle(), ordinal);
+        for (final String tag : item.getTags())
+        {
+            addPosting(this.tags, tag, ordinal);
+        }
+        if (item.isDefect())
+        {
+            addDefectTypes(ordinal, item);
+        }
+    }
+
+    private void addWords(final String text, final int ordinal)
+    {
+        if (text == null)
+        {
+            return;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); ++i)
+        {
+            final boolean partOfWord = (i < text.length())
+                    && Character.isLetterOrDigit(text.charAt(i));
+            if (partOfWord && (start < 0))
+            {
+                start = i;
+            }
+            else if (!partOfWord && (start >= 0))
+            {
+                addTerm(text.substring(start, i).toLowerCase(Locale.ROOT), ordinal);
+                start = -1;
+            }
+        }
+    }
+
+    private void addTerm(final String term, final int ordinal)
+    {
+        addPosting(this.terms, term, ordinal);
+    }
+
+    private void addDefectTypes(final int ordinal, final LinkedSpecificationItem item)
+    {
+        if (item.hasDuplicates())
+        {
+            addPosting(this.defects, DUPLICATE, ordinal);
+        }
+        if (item.getStatus() == ItemStatus.REJECTED)
+        {
+            return;
+        }
+        for (final LinkStatus status : item.getLinks().keySet())
+        {
+            if (status.isBad() && !status.isDuplicate())
+            {
+                addPosting(this.defects, status.toString(), ordinal);
+            }
+        }
+        switch (item.getDeepCoverageStatus())
+        {
+        case UNCOVERED:
+            addPosting(this.defects, UNCOVERED, ordinal);
+            break;
+        case CYCLE:
+            addPosting(this.defects, CYCLE, ordinal);
+            break;
+        default:
+            break;
+        }
+    }
+
+    private static void addPosting(final Map<String, Postings> index, final String key,
+            final int ordinal)
+    {
+        index.computeIfAbsent(key, k -> new Postings()).add(ordinal);
+    }
+
+    /**
+     * Write the index as JSON object.
+     * <p>
+     * The keys and posting lists are written straight to the report writer
+     * instead of being collected in memory first. Each index is released once
+     * it is written, so the index can only be written once.
+     * </p>
+     *
+     * @param writer
+     *            writer to write to
+     */
+    void writeTo(final HtmlWriter writer)
+    {
+        writer.print("{\"terms\":");
+        writeIndex(writer, this.terms);
+        writer.print(",\"tags\":");
+        writeIndex(writer, this.tags);
+        writer.print(",\"defects\":");
+        writeIndex(writer, this.defects);
+        writer.print('}');
+    }
+
+    // An index is written as pair of sorted keys and posting lists with the
+    // same position. Only a single key is escaped into the scratch builder at
+    // a time.
+    private static void writeIndex(final HtmlWriter writer, final Map<String, Postings> index)
+    {
+        final List<String> keys = new ArrayList<>(index.keySet());
+        Collections.sort(keys);
+        final StringBuilder scratch = new StringBuilder();
+        writer.print("[[");
+        for (int i = 0; i < keys.size(); ++i)
+        {
+            scratch.setLength(0);
+            if (i > 0)
+            {
+                scratch.append(',');
+            }
+            JsonText.appendString(scratch, keys.get(i));
+            writer.print(scratch);
+        }
+        writer.print("],[");
+        for (int i = 0; i < keys.size(); ++i)
+        {
+            if (i > 0)
+            {
+                writer.print(',');
+            }
+            index.remove(keys.get(i)).writeTo(writer);
+        }
+        writer.print("]]");
+    }
+
+    private static final class Postings
+    {
+        private int[] ordinals = new int[4];
+        private int size = 0;
+
+        private void add(final int ordinal)
+        {
+            // The same term can occur multiple times in an item.
+            if ((this.size > 0) && (this.ordinals[this.size - 1] == ordinal))
+            {
+                return;
+            }
+            if (this.size == this.ordinals.length)
+            {
+                this.ordinals = Arrays.copyOf(this.ordinals, this.size * 2);
+            }
+            this.ordinals[this.size++] = ordinal;
+        }
+
+        private void writeTo(final HtmlWriter writer)
+        {
+            writer.print('[');
+            int previous = 0;
+            for (int i = 0; i < this.size; ++i)
+            {
+                if (i > 0)
+                {
+                    writer.print(',');
+                }
+                writer.print(this.ordinals[i] - previous);
+                previous = this.ordinals[i];
+            }
+            writer.print(']');
+        }
+    }
+}
@@ -1,8 +1,7 @@
 package org.itsallcode.openfasttrace.report.html.view.html;
 
-import java.io.PrintStream;
-
 import org.itsallcode.openfasttrace.report.html.view.AbstractStreamableViewContainer;
+import org.itsallcode.openfasttrace.report.html.view.HtmlWriter;
 
 /**
  * HTML variant of a report section
@@ -19,7 +18,7 @@ class HtmlSection extends AbstractStreamableViewContainer
      * @param title
      *            section title
      */
-    HtmlSection(final PrintStream stream, final String id, final String title)
+    HtmlSection(final HtmlWriter stream, final String id, final String title)
     {
         super(stream, id, title);
     }
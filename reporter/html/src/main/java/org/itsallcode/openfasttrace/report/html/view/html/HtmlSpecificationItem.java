@@ -3,7 +3,6 @@ package org.itsallcode.openfasttrace.report.html.view.html;
 import static org.itsallcode.openfasttrace.report.html.view.html.CharacterConstants.CHECK_MARK;
 import static org.itsallcode.openfasttrace.report.html.view.html.CharacterConstants.CROSS_MARK;
 
-import java.io.PrintStream;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -11,22 +10,33 @@ import java.util.stream.Stream;
 
 import org.itsallcode.openfasttrace.api.DetailsSectionDisplay;
 import org.itsallcode.openfasttrace.api.core.*;
+import org.itsallcode.openfasttrace.report.html.view.HtmlWriter;
 import org.itsallcode.openfasttrace.report.html.view.IndentationHelper;
 import org.itsallcode.openfasttrace.report.html.view.Viewable;
 
 class HtmlSpecificationItem implements Viewable
 {
     private final LinkedSpecificationItem item;
-    private final PrintStream stream;
-    private final MarkdownConverter converter = new MarkdownConverter();
+    private final HtmlWriter stream;
+    private final MarkdownConverter converter;
     private final DetailsSectionDisplay detailsDisplay;
+    private final AnchorLinks anchorLinks;
 
-    HtmlSpecificationItem(final PrintStream stream, final LinkedSpecificationItem item,
+    HtmlSpecificationItem(final HtmlWriter stream, final LinkedSpecificationItem item,
             final DetailsSectionDisplay detailsDisplay)
+    {
+        this(stream, item, detailsDisplay, AnchorLinks.SAME_PAGE, new MarkdownConverter());
+    }
+
+    HtmlSpecificationItem(final HtmlWriter stream, final LinkedSpecificationItem item,
+            final DetailsSectionDisplay detailsDisplay, final AnchorLinks anchorLinks,
+            final MarkdownConverter converter)
     {
         this.stream = stream;
         this.item = item;
         this.detailsDisplay = detailsDisplay;
+        this.anchorLinks = anchorLinks;
+        this.converter = converter;
     }
 
     @Override
@@ -77,7 +87,7 @@ class HtmlSpecificationItem implements Viewable
         this.stream.print("\">");
         this.stream.print(this.item.isDefect() ? CROSS_MARK : CHECK_MARK);
         this.stream.print(" <b>");
-        this.stream.print(escapedTitle());
+        printEscapedTitle();
         this.stream.print("</b><small>, rev. ");
         this.stream.print(id.getRevision());
         this.stream.print(", ");
@@ -86,9 +96,9 @@ class HtmlSpecificationItem implements Viewable
     }
 
     // [impl->dsn~reporting.html.escape-html~1]
-    private String escapedTitle()
+    private void printEscapedTitle()
     {
-        return MarkdownSpanConverter.escapeHtml(this.item.getTitleWithFallback());
+        this.stream.printEscaped(this.item.getTitleWithFallback());
     }
 
     protected void renderDescription(final String indentation)
@@ -220,8 +230,8 @@ class HtmlSpecificationItem implements Viewable
         {
             final SpecificationItemId otherId = link.getOtherLinkEnd().getId();
             this.stream.print(indentation);
-            this.stream.print("        <li><a href=\"#");
-            this.stream.print(otherId);
+            this.stream.print("        <li><a href=\"");
+            this.stream.print(this.anchorLinks.getHref(otherId.toString()));
             this.stream.print("\">");
             this.stream.print(otherId);
             this.stream.print("</a>");
@@ -1,20 +1,27 @@
 package org.itsallcode.openfasttrace.report.html.view.html;
 
-import java.io.PrintStream;
-
+import org.itsallcode.openfasttrace.report.html.view.HtmlWriter;
 import org.itsallcode.openfasttrace.report.html.view.Viewable;
 import org.itsallcode.openfasttrace.report.html.view.ViewableContainer;
 
 class HtmlTableOfContents implements Viewable
 {
 
-    private final PrintStream stream;
+    private final HtmlWriter stream;
     private final ViewableContainer from;
+    private final AnchorLinks anchorLinks;
+
+    HtmlTableOfContents(final HtmlWriter outputStream, final ViewableContainer from)
+    {
+        this(outputStream, from, AnchorLinks.SAME_PAGE);
+    }
 
-    HtmlTableOfContents(final PrintStream outputStream, final ViewableContainer from)
+    HtmlTableOfContents(final HtmlWriter outputStream, final ViewableContainer from,
+            final AnchorLinks anchorLinks)
     {
         this.stream = outputStream;
         this.from = from;
+        this.anchorLinks = anchorLinks;
     }
 
     @Override
@@ -53,8 +60,8 @@ class HtmlTableOfContents implements Viewable
 
     protected void renderLinkWithText(final ViewableContainer container)
     {
-        this.stream.print("<a href=\"#");
-        this.stream.print(container.getId());
+        this.stream.print("<a href=\"");
+        this.stream.print(this.anchorLinks.getHref(container.getId()));
         this.stream.print("\">");
         this.stream.print(container.getTitle());
         this.stream.print("</a>");
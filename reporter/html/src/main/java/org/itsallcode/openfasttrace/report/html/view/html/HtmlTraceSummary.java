@@ -1,16 +1,15 @@
 package org.itsallcode.openfasttrace.report.html.view.html;
-import java.io.PrintStream;
-
 import org.itsallcode.openfasttrace.api.core.Trace;
+import org.itsallcode.openfasttrace.report.html.view.HtmlWriter;
 import org.itsallcode.openfasttrace.report.html.view.IndentationHelper;
 import org.itsallcode.openfasttrace.report.html.view.Viewable;
 
 class HtmlTraceSummary implements Viewable
 {
-    private final PrintStream stream;
+    private final HtmlWriter stream;
     private final Trace trace;
 
-    HtmlTraceSummary(final PrintStream stream, final Trace trace)
+    HtmlTraceSummary(final HtmlWriter stream, final Trace trace)
     {
         this.stream = stream;
         this.trace = trace;
@@ -5,6 +5,7 @@ import java.net.URL;
 
 import org.itsallcode.openfasttrace.api.report.ReportException;
 import org.itsallcode.openfasttrace.report.html.view.AbstractStreamableViewContainer;
+import org.itsallcode.openfasttrace.report.html.view.HtmlWriter;
 
 /**
  * Single HTML page view
@@ -25,7 +26,7 @@ class HtmlView extends AbstractStreamableViewContainer
      * @param cssURL
      *            URL of the CSS stylesheet to be used in the HTML view
      */
-    HtmlView(final PrintStream stream, final String id, final String title, final URL cssURL)
+    HtmlView(final HtmlWriter stream, final String id, final String title, final URL cssURL)
     {
         super(stream, id, title);
         this.cssURL = cssURL;
@@ -53,12 +54,7 @@ class HtmlView extends AbstractStreamableViewContainer
     {
         try (final InputStream css = this.cssURL.openStream())
         {
-            final byte[] buffer = new byte[4096];
-            int n;
-            while ((n = css.read(buffer)) > 0)
-            {
-                this.stream.write(buffer, 0, n);
-            }
+            this.stream.transferFrom(css);
         }
         catch (final IOException exception)
         {
@@ -72,5 +68,6 @@ class HtmlView extends AbstractStreamableViewContainer
     {
         this.stream.println("  </body>");
         this.stream.print("</html>");
+        this.stream.flush();
     }
 }
@@ -2,13 +2,11 @@ package org.itsallcode.openfasttrace.report.html.view.html;
 
 import java.io.*;
 import java.net.URL;
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import org.itsallcode.openfasttrace.api.DetailsSectionDisplay;
 import org.itsallcode.openfasttrace.api.core.LinkedSpecificationItem;
 import org.itsallcode.openfasttrace.api.core.Trace;
-import org.itsallcode.openfasttrace.api.exporter.ExporterException;
 import org.itsallcode.openfasttrace.report.html.view.*;
 
 /**
@@ -17,15 +15,20 @@ import org.itsallcode.openfasttrace.report.html.view.*;
  */
 public class HtmlViewFactory extends AbstractViewFactory
 {
-    private static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
     private final URL cssUrl;
     private final DetailsSectionDisplay sectionDisplay;
+    private final AnchorLinks anchorLinks;
+    private final MarkdownConverter markdownConverter;
 
-    private HtmlViewFactory(final PrintStream stream, final URL cssUrl, final DetailsSectionDisplay sectionDisplay)
+    private HtmlViewFactory(final HtmlWriter stream, final URL cssUrl,
+            final DetailsSectionDisplay sectionDisplay, final AnchorLinks anchorLinks,
+            final MarkdownConverter markdownConverter)
     {
         super(stream);
         this.cssUrl = cssUrl;
         this.sectionDisplay = sectionDisplay;
+        this.anchorLinks = anchorLinks;
+        this.markdownConverter = markdownConverter;
     }
 
     /**
@@ -42,31 +45,41 @@ public class HtmlViewFactory extends AbstractViewFactory
     public static HtmlViewFactory create(final OutputStream stream, final URL cssURL,
             final DetailsSectionDisplay displayStatus)
     {
-        return new HtmlViewFactory(createPrintStream(stream), cssURL, displayStatus);
+        return create(stream, cssURL, displayStatus, AnchorLinks.SAME_PAGE);
     }
 
-    private static PrintStream createPrintStream(final OutputStream stream)
+    /**
+     * Create a new instance for one page of a report consisting of multiple
+     * pages.
+     * 
+     * @param stream
+     *            the output stream.
+     * @param cssURL
+     *            the URL of the CSS file to include in the HTML report.
+     * @param displayStatus
+     *            the display status of the {@code &lt;details&gt;} element.
+     * @param anchorLinks
+     *            creates the link targets for anchors that may be located on
+     *            other pages
+     * @return a new {@link HtmlViewFactory}.
+     */
+    public static HtmlViewFactory create(final OutputStream stream, final URL cssURL,
+            final DetailsSectionDisplay displayStatus, final AnchorLinks anchorLinks)
     {
-        if (stream instanceof PrintStream)
-        {
-            return (PrintStream) stream;
-        }
-        else
-        {
-            return createPrintStream(stream, DEFAULT_CHARSET);
-        }
+        return new HtmlViewFactory(HtmlWriter.create(stream), cssURL, displayStatus, anchorLinks,
+                new MarkdownConverter());
     }
 
-    private static PrintStream createPrintStream(final OutputStream stream, final Charset charset)
+    /**
+     * Write all pending output to the output stream.
+     * <p>
+     * Views are written through a buffer. Complete HTML views flush it
+     * automatically, everything else needs an explicit flush.
+     * </p>
+     */
+    public void flush()
     {
-        try
-        {
-            return new PrintStream(stream, false, charset.name());
-        }
-        catch (final UnsupportedEncodingException exception)
-        {
-            throw new ExporterException("Error creating print stream for charset " + charset, exception);
-        }
+        this.outputStream.flush();
     }
 
     @Override
@@ -90,7 +103,8 @@ public class HtmlViewFactory extends AbstractViewFactory
     @Override
     public Viewable createSpecificationItem(final LinkedSpecificationItem item)
     {
-        return new HtmlSpecificationItem(this.outputStream, item, sectionDisplay);
+        return new HtmlSpecificationItem(this.outputStream, item, this.sectionDisplay,
+                this.anchorLinks, this.markdownConverter);
     }
 
     @Override
@@ -108,6 +122,20 @@ public class HtmlViewFactory extends AbstractViewFactory
     @Override
     public Viewable createTableOfContents(final ViewableContainer from)
     {
-        return new HtmlTableOfContents(this.outputStream, from);
+        return new HtmlTableOfContents(this.outputStream, from, this.anchorLinks);
+    }
+
+    @Override
+    public BufferedViewableContainer createBufferedContainer()
+    {
+        return new HtmlBufferedContainer(this.outputStream,
+                buffer -> new HtmlViewFactory(buffer, this.cssUrl, this.sectionDisplay,
+                        this.anchorLinks, this.markdownConverter));
+    }
+
+    @Override
+    public Viewable createItemDataList(final List<LinkedSpecificationItem> items)
+    {
+        return new HtmlItemDataList(this.outputStream, items);
     }
 }
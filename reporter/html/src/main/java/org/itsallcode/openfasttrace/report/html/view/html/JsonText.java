@@ -0,0 +1,108 @@
+package org.itsallcode.openfasttrace.report.html.view.html;
+
+import java.util.Collection;
+
+/**
+ * Helper for writing JSON data that is embedded into an HTML page.
+ */
+final class JsonText
+{
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private JsonText()
+    {
+        // prevent instantiation
+    }
+
+    /**
+     * Append a JSON string literal. Besides the characters that JSON requires
+     * to be escaped, the HTML special characters are escaped too, so that the
+     * data can never end the surrounding script element.
+     * 
+     * @param builder
+     *            builder to append to
+     * @param value
+     *            string value, {@code null} is written as empty string
+     */
+    static void appendString(final StringBuilder builder, final String value)
+    {
+        if (value == null)
+        {
+            builder.append("\"\"");
+            return;
+        }
+        builder.append('"');
+        for (int i = 0; i < value.length(); ++i)
+        {
+            final char character = value.charAt(i);
+            switch (character)
+            {
+            case '"':
+                builder.append("\\\"");
+                break;
+            case '\\':
+                builder.append("\\\\");
+                break;
+            case '\n':
+                builder.append("\\n");
+                break;
+            case '\r':
+                builder.append("\\r");
+                break;
+            case '\t':
+                builder.append("\\t");
+                break;
+            case '<':
+            case '>':
+            case '&':
+            case '\u2028':
+            case '\u2029':
+                appendUnicodeEscape(builder, character);
+                break;
+            default:
+                if (character < ' ')
+                {
+                    appendUnicodeEscape(builder, character);
+                }
+                else
+                {
+                    builder.append(character);
+                }
+            }
+        }
+        builder.append('"');
+    }
+
+    /**
+     * Append a JSON array of strings.
+     * 
+     * @param builder
+     *            builder to append to
+     * @param values
+     *            string values
+     */
+    static void appendStringArray(final StringBuilder builder, final Collection<String> values)
+    {
+        builder.append('[');
+        boolean first = true;
+        for (final String value : values)
+        {
+            if (!first)
+            {
+                builder.append(',');
+            }
+            appendString(builder, value);
+            first = false;
+        }
+        builder.append(']');
+    }
+
+    private static void appendUnicodeEscape(final StringBuilder builder, final char character)
+    {
+        builder.append("\\u") //
+                .append(HEX_DIGITS[(character >> 12) & 0xF]) //
+                .append(HEX_DIGITS[(character >> 8) & 0xF]) //
+                .append(HEX_DIGITS[(character >> 4) & 0xF]) //
+                .append(HEX_DIGITS[character & 0xF]);
+    }
+}
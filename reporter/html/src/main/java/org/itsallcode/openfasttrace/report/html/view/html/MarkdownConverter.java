@@ -1,11 +1,96 @@
 package org.itsallcode.openfasttrace.report.html.view.html;
 
+import java.util.*;
+
+/**
+ * Converts Markdown text to HTML.
+ * <p>
+ * Many items share the same text (e.g. items generated from tags or forwarded
+ * items), so the converter caches the results. The cache is bounded by the
+ * number of characters it holds, counting both the Markdown text and the
+ * HTML. When the budget is exceeded, the least recently used entries are
+ * evicted. Texts longer than a fixed limit are converted without being
+ * cached, so that a few large descriptions cannot displace all other entries.
+ * Instances are thread-safe and can be shared by all views of a report.
+ * </p>
+ */
 class MarkdownConverter
 {
+    private static final int DEFAULT_MAX_CACHED_CHARACTERS = 4 * 1024 * 1024;
+    private static final int DEFAULT_MAX_CACHED_TEXT_LENGTH = 16 * 1024;
     private final MarkdownLineStateMachine machine = new MarkdownLineStateMachine();
+    private final Map<String, String> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxCachedCharacters;
+    private final int maxCachedTextLength;
+    private long cachedCharacters = 0;
+
+    MarkdownConverter()
+    {
+        this(DEFAULT_MAX_CACHED_CHARACTERS, DEFAULT_MAX_CACHED_TEXT_LENGTH);
+    }
+
+    MarkdownConverter(final long maxCachedCharacters, final int maxCachedTextLength)
+    {
+        this.maxCachedCharacters = maxCachedCharacters;
+        this.maxCachedTextLength = maxCachedTextLength;
+    }
 
     String convert(final String input)
     {
-        return this.machine.run(input);
+        final boolean cacheable = input.length() <= this.maxCachedTextLength;
+        if (cacheable)
+        {
+            final String cached = getCached(input);
+            if (cached != null)
+            {
+                return cached;
+            }
+        }
+        final String html = this.machine.run(input);
+        if (cacheable)
+        {
+            return putCached(input, html);
+        }
+        return html;
+    }
+
+    private synchronized String getCached(final String input)
+    {
+        return this.cache.get(input);
+    }
+
+    // Another thread may have converted the same text in the meantime. Its
+    // result is kept, so that equal texts share one instance.
+    private synchronized String putCached(final String input, final String html)
+    {
+        final String existing = this.cache.putIfAbsent(input, html);
+        if (existing != null)
+        {
+            return existing;
+        }
+        this.cachedCharacters += characters(input, html);
+        final Iterator<Map.Entry<String, String>> eldest = this.cache.entrySet().iterator();
+        while (this.cachedCharacters > this.maxCachedCharacters && eldest.hasNext())
+        {
+            final Map.Entry<String, String> entry = eldest.next();
+            this.cachedCharacters -= characters(entry.getKey(), entry.getValue());
+            eldest.remove();
+        }
+        return html;
+    }
+
+    private static long characters(final String input, final String html)
+    {
+        return (long) input.length() + html.length();
+    }
+
+    synchronized int getCacheSize()
+    {
+        return this.cache.size();
+    }
+
+    synchronized long getCachedCharacters()
+    {
+        return this.cachedCharacters;
     }
-}
\ No newline at end of file
+}
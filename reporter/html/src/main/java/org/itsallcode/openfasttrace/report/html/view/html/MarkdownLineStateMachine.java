@@ -2,73 +2,84 @@ package org.itsallcode.openfasttrace.report.html.view.html;
 
 import static org.itsallcode.openfasttrace.report.html.view.html.MarkdownLineState.*;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 
 /**
  * A state machine for converting markdown to HTML.
+ * <p>
+ * The transition table is immutable and shared, so instances are stateless
+ * and can be used concurrently. Lines are classified by simple prefix checks
+ * instead of regular expressions.
+ * </p>
  */
 public final class MarkdownLineStateMachine
 {
-    private static final int INCLUDE_EMPTY_STRINGS = -1;
-    private static final String P_ANY = ".*";
-    private static final String P_OL_LI = "^ {0,3}[0-9]+\\..*";
-    private static final String P_UL_LI = "^ {0,3}[-+*].*";
-    private static final String P_PRE = "^    .*";
-    private static final String P_LIST_CONT = ".+";
-    private static final String P_TERM = "^$";
-    private final List<MarkdownLineTransition> transitions = new ArrayList<>();
+    private static final int MAX_LIST_INDENTATION = 3;
+    private static final String PRE_INDENTATION = "    ";
+    private static final Predicate<String> P_ANY = line -> true;
+    private static final Predicate<String> P_OL_LI = MarkdownLineStateMachine::isOrderedListItem;
+    private static final Predicate<String> P_UL_LI = MarkdownLineStateMachine::isUnorderedListItem;
+    private static final Predicate<String> P_PRE = line -> line.startsWith(PRE_INDENTATION);
+    private static final Predicate<String> P_LIST_CONT = line -> !line.isEmpty();
+    private static final Predicate<String> P_TERM = String::isEmpty;
+    private static final Map<MarkdownLineState, List<MarkdownLineTransition>> TRANSITIONS = createTransitions();
 
     MarkdownLineStateMachine()
     {
-        initializeTransitions();
+        // empty by intention
     }
 
     // Duplicate strings help making this easier to understand.
     @SuppressWarnings("squid:S1192")
-    private void initializeTransitions()
+    private static Map<MarkdownLineState, List<MarkdownLineTransition>> createTransitions()
     {
+        final Map<MarkdownLineState, List<MarkdownLineTransition>> transitions = new EnumMap<>(
+                MarkdownLineState.class);
         // @formatter:off
-        t(START         , PREFORMATTED  , P_PRE      , ""          , "<pre>"   , trimPre());
-        t(START         , UNORDERED_LIST, P_UL_LI    , ""          , "<ul><li>", trimBullet());
-        t(START         , ORDERED_LIST  , P_OL_LI    , ""          , "<ol><li>", trimEnum());
-        t(START         , PARAGRAPH     , P_ANY      , ""          , "<p>"     , String::trim);
-        t(START         , TERMINATOR    , P_TERM     , ""          , ""        , empty());
-        t(UNORDERED_LIST, UNORDERED_LIST, P_UL_LI    , "</li>"     , "<li>"    , trimBullet());
-        t(UNORDERED_LIST, ORDERED_LIST  , P_UL_LI    , "</li></ul>", "<ol><li>", trimEnum());
-        t(UNORDERED_LIST, UNORDERED_LIST, P_LIST_CONT, ""          , " "       , String::trim);
-        t(UNORDERED_LIST, PREFORMATTED  , P_PRE      , "</li></ul>", "<pre>"   , trimPre());
-        t(UNORDERED_LIST, TERMINATOR    , P_TERM     , "</li></ul>" , ""       , empty());
-        t(UNORDERED_LIST, PARAGRAPH     , P_ANY      , "</li></ul>", "<p>"     , String::trim);
-        t(ORDERED_LIST  , UNORDERED_LIST, P_UL_LI    , "</li></ol>", "<ul><li>", trimBullet());
-        t(ORDERED_LIST  , ORDERED_LIST  , P_OL_LI    , "</li>"     , "<li>"    , trimEnum());
-        t(ORDERED_LIST  , UNORDERED_LIST, P_LIST_CONT, ""          , " "       , String::trim);
-        t(ORDERED_LIST  , PREFORMATTED  , P_PRE      , "</li></ol>", "<pre>"   , trimPre());
-        t(ORDERED_LIST  , TERMINATOR    , P_TERM     , "</li></ol>", ""        , empty());
-        t(ORDERED_LIST  , PARAGRAPH     , P_ANY      , "</li></ol>", "<p>"     , String::trim);
-        t(PREFORMATTED  , PREFORMATTED  , P_PRE      , ""          , "\n"      , trimPre());
-        t(PREFORMATTED  , UNORDERED_LIST, P_UL_LI    , "</pre>"    , "<ul><li>", trimBullet());
-        t(PREFORMATTED  , ORDERED_LIST  , P_OL_LI    , "</pre>"    , "<ol><li>", trimEnum());
-        t(PREFORMATTED  , TERMINATOR    , P_TERM     , "</pre>"    , ""        , empty());
-        t(PREFORMATTED  , PARAGRAPH     , P_ANY      , "</pre>"    , "<p>"     , String::trim);
-        t(TERMINATOR    , TERMINATOR    , P_TERM     , ""          , ""        , empty());
-        t(TERMINATOR    , UNORDERED_LIST, P_UL_LI    , ""          , "<ul><li>", trimBullet());
-        t(TERMINATOR    , ORDERED_LIST  , P_OL_LI    , ""          , "<ol><li>", trimEnum());
-        t(TERMINATOR    , PREFORMATTED  , P_PRE      , ""          , "<pre>"   , trimPre());
-        t(TERMINATOR    , PARAGRAPH     , P_ANY      , ""          , "<p>"     , String::trim);
-        t(PARAGRAPH     , UNORDERED_LIST, P_UL_LI    , "</p>"      , "<ul><li>", trimBullet());
-        t(PARAGRAPH     , ORDERED_LIST  , P_OL_LI    , "</p>"      , "<ol><li>", trimEnum());
-        t(PARAGRAPH     , PREFORMATTED  , P_PRE      , "</p>"      , "<pre>"   , String::trim);
-        t(PARAGRAPH     , TERMINATOR    , P_TERM     , "</p>"      , ""        , empty());
-        t(PARAGRAPH     , PARAGRAPH     , P_ANY      , ""          , " "       , String::trim);
+        t(transitions, START         , PREFORMATTED  , P_PRE      , ""          , "<pre>"   , trimPre());
+        t(transitions, START         , UNORDERED_LIST, P_UL_LI    , ""          , "<ul><li>", trimBullet());
+        t(transitions, START         , ORDERED_LIST  , P_OL_LI    , ""          , "<ol><li>", trimEnum());
+        t(transitions, START         , PARAGRAPH     , P_ANY      , ""          , "<p>"     , String::trim);
+        t(transitions, START         , TERMINATOR    , P_TERM     , ""          , ""        , empty());
+        t(transitions, UNORDERED_LIST, UNORDERED_LIST, P_UL_LI    , "</li>"     , "<li>"    , trimBullet());
+        t(transitions, UNORDERED_LIST, ORDERED_LIST  , P_UL_LI    , "</li></ul>", "<ol><li>", trimEnum());
+        t(transitions, UNORDERED_LIST, UNORDERED_LIST, P_LIST_CONT, ""          , " "       , String::trim);
+        t(transitions, UNORDERED_LIST, PREFORMATTED  , P_PRE      , "</li></ul>", "<pre>"   , trimPre());
+        t(transitions, UNORDERED_LIST, TERMINATOR    , P_TERM     , "</li></ul>" , ""       , empty());
+        t(transitions, UNORDERED_LIST, PARAGRAPH     , P_ANY      , "</li></ul>", "<p>"     , String::trim);
+        t(transitions, ORDERED_LIST  , UNORDERED_LIST, P_UL_LI    , "</li></ol>", "<ul><li>", trimBullet());
+        t(transitions, ORDERED_LIST  , ORDERED_LIST  , P_OL_LI    , "</li>"     , "<li>"    , trimEnum());
+        t(transitions, ORDERED_LIST  , UNORDERED_LIST, P_LIST_CONT, ""          , " "       , String::trim);
+        t(transitions, ORDERED_LIST  , PREFORMATTED  , P_PRE      , "</li></ol>", "<pre>"   , trimPre());
+        t(transitions, ORDERED_LIST  , TERMINATOR    , P_TERM     , "</li></ol>", ""        , empty());
+        t(transitions, ORDERED_LIST  , PARAGRAPH     , P_ANY      , "</li></ol>", "<p>"     , String::trim);
+        t(transitions, PREFORMATTED  , PREFORMATTED  , P_PRE      , ""          , "\n"      , trimPre());
+        t(transitions, PREFORMATTED  , UNORDERED_LIST, P_UL_LI    , "</pre>"    , "<ul><li>", trimBullet());
+        t(transitions, PREFORMATTED  , ORDERED_LIST  , P_OL_LI    , "</pre>"    , "<ol><li>", trimEnum());
+        t(transitions, PREFORMATTED  , TERMINATOR    , P_TERM     , "</pre>"    , ""        , empty());
+        t(transitions, PREFORMATTED  , PARAGRAPH     , P_ANY      , "</pre>"    , "<p>"     , String::trim);
+        t(transitions, TERMINATOR    , TERMINATOR    , P_TERM     , ""          , ""        , empty());
+        t(transitions, TERMINATOR    , UNORDERED_LIST, P_UL_LI    , ""          , "<ul><li>", trimBullet());
+        t(transitions, TERMINATOR    , ORDERED_LIST  , P_OL_LI    , ""          , "<ol><li>", trimEnum());
+        t(transitions, TERMINATOR    , PREFORMATTED  , P_PRE      , ""          , "<pre>"   , trimPre());
+        t(transitions, TERMINATOR    , PARAGRAPH     , P_ANY      , ""          , "<p>"     , String::trim);
+        t(transitions, PARAGRAPH     , UNORDERED_LIST, P_UL_LI    , "</p>"      , "<ul><li>", trimBullet());
+        t(transitions, PARAGRAPH     , ORDERED_LIST  , P_OL_LI    , "</p>"      , "<ol><li>", trimEnum());
+        t(transitions, PARAGRAPH     , PREFORMATTED  , P_PRE      , "</p>"      , "<pre>"   , String::trim);
+        t(transitions, PARAGRAPH     , TERMINATOR    , P_TERM     , "</p>"      , ""        , empty());
+        t(transitions, PARAGRAPH     , PARAGRAPH     , P_ANY      , ""          , " "       , String::trim);
         // @formatter:on
+        return Collections.unmodifiableMap(transitions);
     }
 
-    private void t(final MarkdownLineState from, final MarkdownLineState to, final String pattern,
-            final String postfix, final String prefix, final UnaryOperator<String> conversion)
+    private static void t(final Map<MarkdownLineState, List<MarkdownLineTransition>> transitions,
+            final MarkdownLineState from, final MarkdownLineState to,
+            final Predicate<String> pattern, final String postfix, final String prefix,
+            final UnaryOperator<String> conversion)
     {
-        this.transitions
+        transitions.computeIfAbsent(from, key -> new ArrayList<>())
                 .add(new MarkdownLineTransition(from, to, pattern, prefix, postfix, conversion));
     }
 
@@ -76,12 +87,22 @@ public final class MarkdownLineStateMachine
     {
         final StringBuilder builder = new StringBuilder();
         MarkdownLineState state = START;
-        for (final String line : input.split("(?:\n\r?|\r)", INCLUDE_EMPTY_STRINGS))
+        int lineStart = 0;
+        while (lineStart >= 0)
         {
-            for (final MarkdownLineTransition transition : this.transitions)
+            final int lineEnd = findLineEnd(input, lineStart);
+            final String line = input.substring(lineStart, lineEnd);
+            lineStart = findNextLineStart(input, lineEnd);
+            // The regular expression wildcard that the patterns were
+            // originally based on does not match these line terminators, so
+            // such a line never had a matching transition.
+            if (containsLineTerminator(line))
             {
-                if (transition.getFrom() == state
-                        && transition.getPattern().matcher(line).matches())
+                continue;
+            }
+            for (final MarkdownLineTransition transition : TRANSITIONS.get(state))
+            {
+                if (transition.getPattern().test(line))
                 {
                     builder.append(transition.getPostfix());
                     builder.append(transition.getPrefix());
@@ -96,7 +117,85 @@ public final class MarkdownLineStateMachine
         return builder.toString();
     }
 
-    private void closeLastLineState(final StringBuilder builder, final MarkdownLineState state)
+    private static int findLineEnd(final String input, final int lineStart)
+    {
+        int i = lineStart;
+        while ((i < input.length()) && (input.charAt(i) != '\n') && (input.charAt(i) != '\r'))
+        {
+            ++i;
+        }
+        return i;
+    }
+
+    /**
+     * Find the start of the next line. A line ends with {@code \n},
+     * {@code \n\r} or {@code \r}.
+     *
+     * @return start of the next line or -1 if the line was the last one
+     */
+    private static int findNextLineStart(final String input, final int lineEnd)
+    {
+        if (lineEnd == input.length())
+        {
+            return -1;
+        }
+        else if ((input.charAt(lineEnd) == '\n') && (lineEnd + 1 < input.length())
+                && (input.charAt(lineEnd + 1) == '\r'))
+        {
+            return lineEnd + 2;
+        }
+        else
+        {
+            return lineEnd + 1;
+        }
+    }
+
+    private static boolean containsLineTerminator(final String line)
+    {
+        for (int i = 0; i < line.length(); ++i)
+        {
+            final char character = line.charAt(i);
+            if ((character == '\u0085') || (character == '\u2028') || (character == '\u2029'))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int skipListIndentation(final String line)
+    {
+        int i = 0;
+        while ((i < MAX_LIST_INDENTATION) && (i < line.length()) && (line.charAt(i) == ' '))
+        {
+            ++i;
+        }
+        return i;
+    }
+
+    private static boolean isOrderedListItem(final String line)
+    {
+        final int digitsStart = skipListIndentation(line);
+        int i = digitsStart;
+        while ((i < line.length()) && (line.charAt(i) >= '0') && (line.charAt(i) <= '9'))
+        {
+            ++i;
+        }
+        return (i > digitsStart) && (i < line.length()) && (line.charAt(i) == '.');
+    }
+
+    private static boolean isUnorderedListItem(final String line)
+    {
+        final int i = skipListIndentation(line);
+        return (i < line.length()) && isBullet(line.charAt(i));
+    }
+
+    private static boolean isBullet(final char character)
+    {
+        return (character == '-') || (character == '+') || (character == '*');
+    }
+
+    private static void closeLastLineState(final StringBuilder builder, final MarkdownLineState state)
     {
         switch (state)
         {
@@ -120,23 +219,27 @@ public final class MarkdownLineStateMachine
         }
     }
 
-    private UnaryOperator<String> empty()
+    private static UnaryOperator<String> empty()
     {
         return s -> "";
     }
 
-    private UnaryOperator<String> trimEnum()
+    private static UnaryOperator<String> trimEnum()
     {
         return s -> s.substring(s.indexOf('.') + 1).trim();
     }
 
-    private UnaryOperator<String> trimPre()
+    private static UnaryOperator<String> trimPre()
     {
-        return s -> s.substring(4);
+        return s -> s.substring(PRE_INDENTATION.length());
     }
 
-    private UnaryOperator<String> trimBullet()
+    private static UnaryOperator<String> trimBullet()
     {
-        return s -> s.replaceFirst("^ {0,3}[-+*]", "").trim();
+        return s -> {
+            final int i = skipListIndentation(s);
+            return ((i < s.length()) && isBullet(s.charAt(i))) ? s.substring(i + 1).trim()
+                    : s.trim();
+        };
     }
 }
@@ -1,8 +1,8 @@
 package org.itsallcode.openfasttrace.report.html.view.html;
 
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
-import java.util.regex.Pattern;
 
 /**
  * The <code>MarkdownLineTransition</code> is a transition in the
@@ -12,7 +12,7 @@ class MarkdownLineTransition
 {
     private final MarkdownLineState from;
     private final MarkdownLineState to;
-    private final Pattern pattern;
+    private final Predicate<String> pattern;
     private final String prefix;
     private final String postfix;
     private final Function<String, String> conversion;
@@ -25,7 +25,7 @@ class MarkdownLineTransition
      * @param to
      *            target state of the transition
      * @param pattern
-     *            pattern that must be matched to cause this transition
+     *            pattern that a line must match to cause this transition
      * @param postfix
      *            postfix for the previous line
      * @param prefix
@@ -34,13 +34,13 @@ class MarkdownLineTransition
      *            conversion to be applied on the line
      */
     public MarkdownLineTransition(final MarkdownLineState from, final MarkdownLineState to,
-            final String pattern, final String prefix, final String postfix,
+            final Predicate<String> pattern, final String prefix, final String postfix,
             final UnaryOperator<String> conversion)
     {
         super();
         this.from = from;
         this.to = to;
-        this.pattern = Pattern.compile(pattern);
+        this.pattern = pattern;
         this.prefix = prefix;
         this.postfix = postfix;
         this.conversion = conversion;
@@ -71,7 +71,7 @@ class MarkdownLineTransition
      * 
      * @return the trigger pattern
      */
-    public Pattern getPattern()
+    public Predicate<String> getPattern()
     {
         return this.pattern;
     }
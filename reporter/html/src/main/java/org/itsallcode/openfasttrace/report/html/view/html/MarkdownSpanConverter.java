@@ -1,21 +1,34 @@
 package org.itsallcode.openfasttrace.report.html.view.html;
 
-import java.util.List;
-import java.util.regex.Pattern;
-
+/**
+ * Converts the Markdown span elements of a line to HTML.
+ * <p>
+ * The converter scans the line once to find out which span elements can occur
+ * at all. Lines without any Markdown or HTML special characters are returned
+ * as they are. Otherwise only the conversions that can match are applied. Each
+ * conversion is a hand-written scanner that behaves exactly like the regular
+ * expression it replaces:
+ * </p>
+ * <ul>
+ * <li>indented code: <code>(    .*[\n])+</code></li>
+ * <li>code: <code>`(.*?)`</code></li>
+ * <li>link: <code>\[([^]]*?)\]\(([^)].*?)\)</code></li>
+ * <li>strong text: <code>(__|\*\*)(\p{L}(?:.*\p{L}))\1</code></li>
+ * <li>emphasized text: <code>([_*])(\p{L}(?:.*\p{L}))\1</code></li>
+ * </ul>
+ * <p>
+ * The conversions are applied one after the other, because later conversions
+ * see the output of earlier ones (e.g. emphasized text can enclose code).
+ * </p>
+ */
 final class MarkdownSpanConverter
 {
-    private static final RegexReplacement INDENTED_CODE = RegexReplacement.create("(    .*[\n])+", "<pre>$1</pre>");
-    private static final RegexReplacement BACKTICK_QUOTED_CODE = RegexReplacement.create("`(.*?)`", "<code>$1</code>");
-    private static final RegexReplacement LINK = RegexReplacement.create("\\[([^]]*?)\\]\\(([^)].*?)\\)",
-            "<a href=\"$2\">$1</a>");
-    private static final RegexReplacement BOLD_TEXT = RegexReplacement.create("(__|\\*\\*)(\\p{L}(?:.*\\p{L}))\\1",
-            "<strong>$2</strong>");
-    private static final RegexReplacement EMPHASIZED_TEXT = RegexReplacement.create("([_*])(\\p{L}(?:.*\\p{L}))\\1",
-            "<em>$2</em>");
-
-    private static final List<RegexReplacement> ALL_MARKDOWN_REPLACEMENTS = List.of(INDENTED_CODE, BACKTICK_QUOTED_CODE,
-            LINK, BOLD_TEXT, EMPHASIZED_TEXT);
+    private static final int HTML_SPECIAL_CHARACTERS = 1;
+    private static final int NEWLINE = 1 << 1;
+    private static final int BACKTICK = 1 << 2;
+    private static final int OPENING_BRACKET = 1 << 3;
+    private static final int UNDERSCORE_OR_ASTERISK = 1 << 4;
+    private static final String INDENTATION = "    ";
 
     // Prevent instantiation
     private MarkdownSpanConverter()
@@ -25,40 +38,356 @@ final class MarkdownSpanConverter
     // [impl->dsn~reporting.html.escape-html~1]
     static String convertLineContent(final String input)
     {
-        String text = escapeHtml(input);
-        for (final RegexReplacement replacement : ALL_MARKDOWN_REPLACEMENTS)
+        final int features = findFeatures(input);
+        if (features == 0)
+        {
+            return input;
+        }
+        String text = input;
+        if ((features & HTML_SPECIAL_CHARACTERS) != 0)
+        {
+            text = escapeHtml(text);
+        }
+        if ((features & NEWLINE) != 0)
+        {
+            text = replaceIndentedCode(text);
+        }
+        if ((features & BACKTICK) != 0)
+        {
+            text = replaceCode(text);
+        }
+        if ((features & OPENING_BRACKET) != 0)
+        {
+            text = replaceLinks(text);
+        }
+        if ((features & UNDERSCORE_OR_ASTERISK) != 0)
         {
-            text = replacement.apply(text);
+            text = replaceDelimitedText(text, true);
+            text = replaceDelimitedText(text, false);
         }
         return text;
     }
 
-    static String escapeHtml(String text)
+    private static int findFeatures(final String text)
     {
-        text = text.replace("<", "&lt;");
-        text = text.replace(">", "&gt;");
-        return text;
+        int features = 0;
+        for (int i = 0; i < text.length(); ++i)
+        {
+            switch (text.charAt(i))
+            {
+            case '<':
+            case '>':
+                features |= HTML_SPECIAL_CHARACTERS;
+                break;
+            case '\n':
+                features |= NEWLINE;
+                break;
+            case '`':
+                features |= BACKTICK;
+                break;
+            case '[':
+                features |= OPENING_BRACKET;
+                break;
+            case '_':
+            case '*':
+                features |= UNDERSCORE_OR_ASTERISK;
+                break;
+            default:
+                break;
+            }
+        }
+        return features;
+    }
+
+    static String escapeHtml(final String text)
+    {
+        StringBuilder builder = null;
+        int copied = 0;
+        for (int i = 0; i < text.length(); ++i)
+        {
+            final char character = text.charAt(i);
+            if ((character == '<') || (character == '>'))
+            {
+                if (builder == null)
+                {
+                    builder = new StringBuilder(text.length() + 16);
+                }
+                builder.append(text, copied, i).append((character == '<') ? "&lt;" : "&gt;");
+                copied = i + 1;
+            }
+        }
+        return (builder == null) ? text : builder.append(text, copied, text.length()).toString();
+    }
+
+    /**
+     * Check if a character is a line terminator in the sense of the regular
+     * expression wildcard {@code .}, which does not match these characters.
+     */
+    private static boolean isLineTerminator(final char character)
+    {
+        return (character == '\n') || (character == '\r') || (character == '\u0085')
+                || (character == '\u2028') || (character == '\u2029');
+    }
+
+    /**
+     * Find the first line terminator starting from the given index.
+     *
+     * @return index of the line terminator or the length of the text if there
+     *         is none
+     */
+    private static int findLineTerminator(final String text, final int fromIndex)
+    {
+        int i = fromIndex;
+        while ((i < text.length()) && !isLineTerminator(text.charAt(i)))
+        {
+            ++i;
+        }
+        return i;
+    }
+
+    private static String replaceIndentedCode(final String text)
+    {
+        final Replacer replacer = new Replacer(text);
+        int i = 0;
+        while (i < text.length())
+        {
+            // Like the regular expression, only the last repetition of the
+            // group ends up in the output.
+            int lastRepetition = -1;
+            int end = i;
+            while (text.startsWith(INDENTATION, end))
+            {
+                final int terminator = findLineTerminator(text, end + INDENTATION.length());
+                if ((terminator == text.length()) || (text.charAt(terminator) != '\n'))
+                {
+                    break;
+                }
+                lastRepetition = end;
+                end = terminator + 1;
+            }
+            if (lastRepetition >= 0)
+            {
+                replacer.replace(i, end, "<pre>", lastRepetition, end, "</pre>");
+                i = end;
+            }
+            else
+            {
+                ++i;
+            }
+        }
+        return replacer.finish();
+    }
+
+    private static String replaceCode(final String text)
+    {
+        final Replacer replacer = new Replacer(text);
+        int i = 0;
+        while (i < text.length())
+        {
+            if (text.charAt(i) == '`')
+            {
+                final int end = findUnlessLineTerminator(text, i + 1, '`');
+                if (end >= 0)
+                {
+                    replacer.replace(i, end + 1, "<code>", i + 1, end, "</code>");
+                    i = end + 1;
+                    continue;
+                }
+            }
+            ++i;
+        }
+        return replacer.finish();
+    }
+
+    /**
+     * Find a character unless a line terminator comes first.
+     *
+     * @return index of the character or -1 if it was not found
+     */
+    private static int findUnlessLineTerminator(final String text, final int fromIndex,
+            final char character)
+    {
+        for (int i = fromIndex; i < text.length(); ++i)
+        {
+            final char current = text.charAt(i);
+            if (current == character)
+            {
+                return i;
+            }
+            else if (isLineTerminator(current))
+            {
+                return -1;
+            }
+        }
+        return -1;
     }
 
-    private static class RegexReplacement
+    private static String replaceLinks(final String text)
     {
-        private final Pattern pattern;
-        private final String replacement;
+        final Replacer replacer = new Replacer(text);
+        int i = 0;
+        while (i < text.length())
+        {
+            final int end = (text.charAt(i) == '[') ? matchLink(text, i) : -1;
+            if (end >= 0)
+            {
+                final int closingBracket = text.indexOf(']', i + 1);
+                replacer.replaceLink(i, end, i + 1, closingBracket, closingBracket + 2, end - 1);
+                i = end;
+            }
+            else
+            {
+                ++i;
+            }
+        }
+        return replacer.finish();
+    }
+
+    /**
+     * Match a link starting at the given opening bracket.
+     *
+     * @return the index after the closing parenthesis or -1 if there is no
+     *         link
+     */
+    private static int matchLink(final String text, final int start)
+    {
+        final int closingBracket = text.indexOf(']', start + 1);
+        if ((closingBracket < 0) || (closingBracket + 2 >= text.length())
+                || (text.charAt(closingBracket + 1) != '('))
+        {
+            return -1;
+        }
+        final int targetStart = closingBracket + 2;
+        final int firstCodePoint = text.codePointAt(targetStart);
+        if (firstCodePoint == ')')
+        {
+            return -1;
+        }
+        final int closingParenthesis = findUnlessLineTerminator(text,
+                targetStart + Character.charCount(firstCodePoint), ')');
+        return (closingParenthesis < 0) ? -1 : (closingParenthesis + 1);
+    }
+
+    private static String replaceDelimitedText(final String text, final boolean strong)
+    {
+        final Replacer replacer = new Replacer(text);
+        final int delimiterLength = strong ? 2 : 1;
+        int i = 0;
+        while (i < text.length())
+        {
+            final String delimiter = findDelimiter(text, i, strong);
+            final int contentEnd = (delimiter == null) ? -1
+                    : findDelimitedContentEnd(text, i + delimiterLength, delimiter);
+            if (contentEnd >= 0)
+            {
+                final int end = contentEnd + delimiterLength;
+                replacer.replace(i, end, strong ? "<strong>" : "<em>", i + delimiterLength,
+                        contentEnd, strong ? "</strong>" : "</em>");
+                i = end;
+            }
+            else
+            {
+                ++i;
+            }
+        }
+        return replacer.finish();
+    }
+
+    private static String findDelimiter(final String text, final int index, final boolean strong)
+    {
+        final char character = text.charAt(index);
+        if ((character != '_') && (character != '*'))
+        {
+            return null;
+        }
+        else if (!strong)
+        {
+            return (character == '_') ? "_" : "*";
+        }
+        else if ((index + 1 < text.length()) && (text.charAt(index + 1) == character))
+        {
+            return (character == '_') ? "__" : "**";
+        }
+        else
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Find the end of the delimited content. The content must start and end
+     * with a letter and must not contain line terminators. Like the greedy
+     * regular expression, the last possible end is taken.
+     *
+     * @return index after the last letter of the content or -1 if there is no
+     *         valid content
+     */
+    private static int findDelimitedContentEnd(final String text, final int contentStart,
+            final String delimiter)
+    {
+        if ((contentStart >= text.length()) || !Character.isLetter(text.codePointAt(contentStart)))
+        {
+            return -1;
+        }
+        int contentEnd = -1;
+        int i = contentStart + Character.charCount(text.codePointAt(contentStart));
+        while ((i < text.length()) && !isLineTerminator(text.charAt(i)))
+        {
+            final int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetter(codePoint) && text.startsWith(delimiter, i))
+            {
+                contentEnd = i;
+            }
+        }
+        return contentEnd;
+    }
+
+    /**
+     * Copies the unchanged parts of a text and the replacements into a new
+     * text. The builder is only created when the first replacement happens.
+     */
+    private static final class Replacer
+    {
+        private final String text;
+        private StringBuilder builder;
+        private int copied;
+
+        private Replacer(final String text)
+        {
+            this.text = text;
+        }
+
+        private void replace(final int start, final int end, final String prefix,
+                final int groupStart, final int groupEnd, final String suffix)
+        {
+            copyUpTo(start);
+            this.builder.append(prefix).append(this.text, groupStart, groupEnd).append(suffix);
+            this.copied = end;
+        }
 
-        private RegexReplacement(final Pattern pattern, final String replacement)
+        private void replaceLink(final int start, final int end, final int textStart,
+                final int textEnd, final int targetStart, final int targetEnd)
         {
-            this.pattern = pattern;
-            this.replacement = replacement;
+            copyUpTo(start);
+            this.builder.append("<a href=\"").append(this.text, targetStart, targetEnd)
+                    .append("\">").append(this.text, textStart, textEnd).append("</a>");
+            this.copied = end;
         }
 
-        private static RegexReplacement create(final String pattern, final String replacement)
+        private void copyUpTo(final int index)
         {
-            return new RegexReplacement(Pattern.compile(pattern), replacement);
+            if (this.builder == null)
+            {
+                this.builder = new StringBuilder(this.text.length() + 32);
+            }
+            this.builder.append(this.text, this.copied, index);
         }
 
-        private String apply(final String text)
+        private String finish()
         {
-            return this.pattern.matcher(text).replaceAll(replacement);
+            return (this.builder == null) ? this.text
+                    : this.builder.append(this.text, this.copied, this.text.length()).toString();
         }
     }
 }
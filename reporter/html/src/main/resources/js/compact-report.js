@@ -0,0 +1,345 @@
+(function () {
+  "use strict";
+
+  // Row height in pixels, must match the height of ".oft-row" in the CSS.
+  var ROW_HEIGHT = 24;
+  // Number of rows rendered above and below the visible rows.
+  var OVERSCAN = 20;
+
+  // Positions of the fields in an item record of the data island.
+  var ID = 0, TYPE = 1, TITLE = 2, DESCRIPTION = 3, RATIONALE = 4, COMMENT = 5, PATH = 6,
+      LINE = 7, STATUS = 8, DEFECT = 9, COVERED = 10, UNCOVERED = 11, OVER_COVERED = 12,
+      LINKS = 13;
+  // Positions of the fields in a link status record.
+  var LINK_TEXT = 0, LINK_DIRECTION = 1, LINK_BAD = 2;
+  var OUTGOING = 1, INCOMING = 2;
+  var CHECK_MARK = "✔", CROSS_MARK = "✘";
+
+  var data = JSON.parse(document.getElementById("oft-data").textContent);
+  var list = document.getElementById("oft-list");
+  var spacer = document.getElementById("oft-spacer");
+  var rowContainer = document.getElementById("oft-rows");
+  var details = document.getElementById("oft-details");
+  var searchInput = document.getElementById("oft-search");
+  var tagSelect = document.getElementById("oft-tag");
+  var statusSelect = document.getElementById("oft-status");
+  var defectSelect = document.getElementById("oft-defect");
+  var matchCount = document.getElementById("oft-matches");
+
+  // A row is either an item ordinal or the negative artifact type index minus
+  // one for section headers.
+  var rows = [];
+  var rowByAnchor = new Map();
+  var selectedItem = -1;
+  var renderPending = false;
+
+  // Build the rows for all items accepted by the filter mask. A missing mask
+  // accepts all items.
+  function buildRows(mask) {
+    var lastType = -1;
+    rows = [];
+    rowByAnchor.clear();
+    data.items.forEach(function (item, ordinal) {
+      if (mask && !mask[ordinal]) {
+        return;
+      }
+      if (item[TYPE] !== lastType) {
+        lastType = item[TYPE];
+        rowByAnchor.set(data.types[lastType], rows.length);
+        rows.push(-lastType - 1);
+      }
+      var id = data.ids[item[ID]];
+      if (!rowByAnchor.has(id)) {
+        rowByAnchor.set(id, rows.length);
+      }
+      rows.push(ordinal);
+    });
+    spacer.style.height = (rows.length * ROW_HEIGHT) + "px";
+  }
+
+  // Search index: an index is a pair of sorted keys and delta-encoded posting
+  // lists of item ordinals.
+  function addPostings(mask, postings) {
+    var ordinal = 0;
+    postings.forEach(function (delta) {
+      ordinal += delta;
+      mask[ordinal] = 1;
+    });
+  }
+
+  function lowerBound(keys, key) {
+    var low = 0, high = keys.length;
+    while (low < high) {
+      var middle = (low + high) >>> 1;
+      if (keys[middle] < key) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  function findPrefix(index, prefix) {
+    var mask = new Uint8Array(data.items.length);
+    var keys = index[0];
+    for (var position = lowerBound(keys, prefix);
+        position < keys.length && keys[position].lastIndexOf(prefix, 0) === 0; ++position) {
+      addPostings(mask, index[1][position]);
+    }
+    return mask;
+  }
+
+  function findExact(index, key) {
+    var mask = new Uint8Array(data.items.length);
+    var position = lowerBound(index[0], key);
+    if (index[0][position] === key) {
+      addPostings(mask, index[1][position]);
+    }
+    return mask;
+  }
+
+  function intersect(mask, other) {
+    if (!mask) {
+      return other;
+    }
+    for (var ordinal = 0; ordinal < mask.length; ++ordinal) {
+      mask[ordinal] &= other[ordinal];
+    }
+    return mask;
+  }
+
+  function createFilterMask() {
+    var mask = null;
+    searchInput.value.toLowerCase().split(/\s+/).forEach(function (word) {
+      if (word) {
+        mask = intersect(mask, findPrefix(data.search.terms, word));
+      }
+    });
+    if (tagSelect.value) {
+      mask = intersect(mask, findExact(data.search.tags, tagSelect.value));
+    }
+    if (statusSelect.value || defectSelect.value) {
+      var status = statusSelect.value ? Number(statusSelect.value) : -1;
+      var defect = defectSelect.value;
+      var defectMask = (defect && defect !== "*") ? findExact(data.search.defects, defect) : null;
+      var itemMask = new Uint8Array(data.items.length);
+      data.items.forEach(function (item, ordinal) {
+        itemMask[ordinal] = ((status < 0 || item[STATUS] === status)
+            && (!defect || (defectMask ? defectMask[ordinal] : item[DEFECT]))) ? 1 : 0;
+      });
+      mask = intersect(mask, itemMask);
+    }
+    return mask;
+  }
+
+  function applyFilter() {
+    var mask = createFilterMask();
+    buildRows(mask);
+    var matches = rows.filter(function (row) {
+      return row >= 0;
+    }).length;
+    matchCount.textContent = mask ? (matches + " of " + data.items.length + " items") : "";
+    list.scrollTop = 0;
+    scheduleRendering();
+  }
+
+  function addOptions(select, values, labels) {
+    values.forEach(function (value, index) {
+      var option = element("option", null, labels ? labels[index] : value);
+      option.value = value;
+      select.appendChild(option);
+    });
+  }
+
+  function initFilter() {
+    addOptions(tagSelect, data.search.tags[0]);
+    addOptions(statusSelect, data.itemStatus.map(function (status, index) {
+      return String(index);
+    }), data.itemStatus);
+    addOptions(defectSelect, data.search.defects[0]);
+    searchInput.addEventListener("input", applyFilter);
+    tagSelect.addEventListener("change", applyFilter);
+    statusSelect.addEventListener("change", applyFilter);
+    defectSelect.addEventListener("change", applyFilter);
+    document.getElementById("oft-filter").addEventListener("submit", function (event) {
+      event.preventDefault();
+    });
+  }
+
+  function element(name, className, text) {
+    var result = document.createElement(name);
+    if (className) {
+      result.className = className;
+    }
+    if (text !== undefined) {
+      result.textContent = text;
+    }
+    return result;
+  }
+
+  function statusMark(item) {
+    return item[DEFECT] ? element("span", "red", CROSS_MARK) : element("span", "green", CHECK_MARK);
+  }
+
+  function revision(id) {
+    return id.substring(id.lastIndexOf("~") + 1);
+  }
+
+  function createRow(entry) {
+    if (entry < 0) {
+      return element("div", "oft-row oft-section", data.types[-entry - 1]);
+    }
+    var item = data.items[entry];
+    var id = data.ids[item[ID]];
+    var row = element("div", "oft-row");
+    row.title = id;
+    row.dataset.ordinal = entry;
+    if (entry === selectedItem) {
+      row.classList.add("oft-selected");
+    }
+    row.appendChild(statusMark(item));
+    row.appendChild(document.createTextNode(" "));
+    row.appendChild(element("b", null, item[TITLE]));
+    row.appendChild(element("small", null, ", rev. " + revision(id) + ", " + data.types[item[TYPE]]));
+    return row;
+  }
+
+  function renderRows() {
+    renderPending = false;
+    var first = Math.max(0, Math.floor(list.scrollTop / ROW_HEIGHT) - OVERSCAN);
+    var last = Math.min(rows.length,
+        Math.ceil((list.scrollTop + list.clientHeight) / ROW_HEIGHT) + OVERSCAN);
+    var fragment = document.createDocumentFragment();
+    for (var row = first; row < last; ++row) {
+      fragment.appendChild(createRow(rows[row]));
+    }
+    rowContainer.replaceChildren(fragment);
+    rowContainer.style.transform = "translateY(" + (first * ROW_HEIGHT) + "px)";
+  }
+
+  function scheduleRendering() {
+    if (!renderPending) {
+      renderPending = true;
+      window.requestAnimationFrame(renderRows);
+    }
+  }
+
+  function appendText(heading, text) {
+    if (text) {
+      if (heading) {
+        details.appendChild(element("h6", null, heading));
+      }
+      details.appendChild(element("p", "oft-text", text));
+    }
+  }
+
+  function appendNeeds(item) {
+    var needs = [];
+    item[UNCOVERED].forEach(function (type) {
+      needs.push({ name: data.types[type], tag: "ins" });
+    });
+    item[COVERED].forEach(function (type) {
+      needs.push({ name: data.types[type], tag: "span" });
+    });
+    item[OVER_COVERED].forEach(function (type) {
+      needs.push({ name: data.types[type], tag: "del" });
+    });
+    if (needs.length > 0) {
+      needs.sort(function (a, b) {
+        return a.name < b.name ? -1 : (a.name > b.name ? 1 : 0);
+      });
+      var heading = element("h6", null, "Needs: ");
+      needs.forEach(function (need, index) {
+        if (index > 0) {
+          heading.appendChild(document.createTextNode(", "));
+        }
+        heading.appendChild(element(need.tag, null, need.name));
+      });
+      details.appendChild(heading);
+    }
+  }
+
+  function appendOrigin(item) {
+    if (item[PATH] >= 0) {
+      var origin = data.paths[item[PATH]] + (item[LINE] > 0 ? ":" + item[LINE] : "");
+      details.appendChild(element("p", "origin", origin));
+    }
+  }
+
+  function appendLinks(item, direction, label) {
+    var links = item[LINKS];
+    var entries = element("ul");
+    for (var index = 0; index < links.length; index += 2) {
+      var status = data.linkStatus[links[index + 1]];
+      if (status[LINK_DIRECTION] === direction) {
+        var id = data.ids[links[index]];
+        var entry = element("li");
+        var link = element("a", null, id);
+        link.href = "#" + encodeURIComponent(id);
+        entry.appendChild(link);
+        if (status[LINK_BAD]) {
+          entry.appendChild(document.createTextNode(" "));
+          entry.appendChild(element("em", null, "(" + status[LINK_TEXT] + ")"));
+        }
+        entries.appendChild(entry);
+      }
+    }
+    if (entries.childElementCount > 0) {
+      var container = element("div", direction === INCOMING ? "in" : "out");
+      container.appendChild(element("h6", null, label + ": " + entries.childElementCount));
+      container.appendChild(entries);
+      details.appendChild(container);
+    }
+  }
+
+  function showDetails(ordinal) {
+    selectedItem = ordinal;
+    var item = data.items[ordinal];
+    var id = data.ids[item[ID]];
+    var heading = element("h4", null);
+    heading.appendChild(statusMark(item));
+    heading.appendChild(document.createTextNode(" "));
+    heading.appendChild(element("b", null, item[TITLE]));
+    heading.appendChild(element("small", null, ", rev. " + revision(id) + ", "
+        + data.types[item[TYPE]] + ", " + data.itemStatus[item[STATUS]]));
+    details.replaceChildren(heading);
+    appendText(null, item[DESCRIPTION]);
+    appendText("Rationale:", item[RATIONALE]);
+    appendText("Comment:", item[COMMENT]);
+    appendNeeds(item);
+    appendOrigin(item);
+    appendLinks(item, INCOMING, "In");
+    appendLinks(item, OUTGOING, "Out");
+    details.appendChild(element("p", "id", id));
+    details.scrollTop = 0;
+    scheduleRendering();
+  }
+
+  function navigateToAnchor() {
+    var anchor = decodeURIComponent(window.location.hash.substring(1));
+    var row = rowByAnchor.get(anchor);
+    if (row !== undefined) {
+      list.scrollTop = row * ROW_HEIGHT;
+      if (rows[row] >= 0) {
+        showDetails(rows[row]);
+      }
+      scheduleRendering();
+    }
+  }
+
+  rowContainer.addEventListener("click", function (event) {
+    var row = event.target.closest(".oft-row");
+    if (row && row.dataset.ordinal !== undefined) {
+      showDetails(Number(row.dataset.ordinal));
+    }
+  });
+  list.addEventListener("scroll", scheduleRendering);
+  window.addEventListener("resize", scheduleRendering);
+  window.addEventListener("hashchange", navigateToAnchor);
+
+  initFilter();
+  buildRows(null);
+  renderRows();
+  navigateToAnchor();
+}());
@@ -0,0 +1,124 @@
+package org.itsallcode.openfasttrace.report.html;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.itsallcode.openfasttrace.testutil.core.ItemBuilderFactory.itemWithId;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.itsallcode.openfasttrace.api.ReportSettings;
+import org.itsallcode.openfasttrace.api.core.*;
+import org.itsallcode.openfasttrace.api.report.ReporterContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TestCompactHtmlReport
+{
+    private Trace trace;
+
+    @BeforeEach
+    void beforeEach()
+    {
+        final LinkedSpecificationItem requirement = new LinkedSpecificationItem(
+                itemWithId(SpecificationItemId.createId("req", "b", 1)) //
+                        .title("Requirement") //
+                        .description("Line 1\nLine 2 </script>") //
+                        .location("doc/spec.md", 3) //
+                        .build());
+        final LinkedSpecificationItem feature = new LinkedSpecificationItem(
+                itemWithId(SpecificationItemId.createId("feat", "a", 1)) //
+                        .title("Feature \"A\"") //
+                        .build());
+        feature.addLinkToItemWithStatus(requirement, LinkStatus.COVERED_SHALLOW);
+        requirement.addLinkToItemWithStatus(feature, LinkStatus.COVERS);
+        this.trace = Trace.builder().items(new ArrayList<>(List.of(requirement, feature)))
+                .build();
+    }
+
+    @Test
+    void testFactorySupportsFormat()
+    {
+        assertAll(
+                () -> assertThat(new CompactHtmlReporterFactory().supportsFormat("html-compact"),
+                        equalTo(true)),
+                () -> assertThat(new CompactHtmlReporterFactory().supportsFormat("html"),
+                        equalTo(false)));
+    }
+
+    @Test
+    void testRendersDataIslandInsteadOfItemMarkup()
+    {
+        final String output = renderToString();
+        assertAll(() -> assertThat(output, startsWith("<!DOCTYPE html>")),
+                () -> assertThat(output,
+                        containsString("<script type=\"application/json\" id=\"oft-data\">")),
+                () -> assertThat(output, containsString("<div id=\"oft-list\">")),
+                () -> assertThat(output, not(containsString("<section class=\"sitem\" id="))),
+                () -> assertThat(output, containsString("2 total")),
+                () -> assertThat(output, endsWith("</html>")));
+    }
+
+    @Test
+    void testStoresStringsInTables()
+    {
+        final String output = renderToString();
+        assertAll(
+                () -> assertThat(output, containsString("\"types\":[\"feat\",\"req\"]")),
+                () -> assertThat(output, containsString("\"paths\":[\"doc/spec.md\"]")),
+                () -> assertThat(output, containsString("\"ids\":[\"feat~a~1\",\"req~b~1\"]")));
+    }
+
+    @Test
+    void testStoresLinksAsIndexPairs()
+    {
+        final String output = renderToString();
+        assertAll(
+                () -> assertThat(output, containsString(
+                        "[0,0,\"Feature \\\"A\\\"\",\"\",\"\",\"\",-1,-1,0,0,[1],[],[],[1,"
+                                + LinkStatus.COVERED_SHALLOW.ordinal() + "]]")),
+                () -> assertThat(output, containsString(
+                        ",0,3,0,0,[],[],[],[0," + LinkStatus.COVERS.ordinal() + "]]")));
+    }
+
+    @Test
+    void testEscapesTextThatCouldEndTheScript()
+    {
+        final String output = renderToString();
+        assertAll(
+                () -> assertThat(output,
+                        containsString("\"Line 1\\nLine 2 \\u003c/script\\u003e\"")),
+                () -> assertThat(output, not(containsString("</script>\""))));
+    }
+
+    @Test
+    void testEmbedsSearchIndex()
+    {
+        final String output = renderToString();
+        assertAll(
+                () -> assertThat(output,
+                        containsString("<input type=\"search\" id=\"oft-search\"")),
+                () -> assertThat(output, containsString(
+                        ",\"search\":{\"terms\":[[\"a\",\"b\",\"feat\",\"feature\","
+                                + "\"feat~a~1\",\"req\",\"requirement\",\"req~b~1\"],")));
+    }
+
+    @Test
+    void testTableOfContentsLinksToArtifactTypes()
+    {
+        final String output = renderToString();
+        assertAll(() -> assertThat(output, containsString("<a href=\"#feat\">feat</a>")),
+                () -> assertThat(output, containsString("<a href=\"#req\">req</a>")));
+    }
+
+    private String renderToString()
+    {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final CompactHtmlReporterFactory factory = new CompactHtmlReporterFactory();
+        factory.init(new ReporterContext(ReportSettings.createDefault()));
+        factory.createImporter(this.trace).renderToStream(outputStream);
+        return outputStream.toString();
+    }
+}
@@ -7,7 +7,9 @@ import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.itsallcode.openfasttrace.api.ReportSettings;
 import org.itsallcode.openfasttrace.api.core.*;
@@ -58,6 +60,7 @@ class TestHtmlReport
                         .description("Description b") //
                         .build());
         when(this.traceMock.getItems()).thenReturn(Arrays.asList(itemA, itemB));
+        when(this.traceMock.getItemsSortedByTypeAndTitle()).thenCallRealMethod();
         when(this.traceMock.count()).thenReturn(2);
         when(this.traceMock.countDefects()).thenReturn(0);
         final String outputAsString = renderToString();
@@ -67,4 +70,41 @@ class TestHtmlReport
                 () -> assertThat(outputAsString, containsString("2 total")),
                 () -> assertThat(outputAsString, endsWith("</html>")));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRenderItemsInMultipleChunksInOrder()
+    {
+        final List<LinkedSpecificationItem> items = new ArrayList<>();
+        for (int i = 0; i < 150; ++i)
+        {
+            items.add(createItem("b", i));
+            items.add(createItem("a", i));
+        }
+        when(this.traceMock.getItems()).thenReturn(items);
+        when(this.traceMock.getItemsSortedByTypeAndTitle()).thenCallRealMethod();
+        final String outputAsString = renderToString();
+        int lastPosition = outputAsString.indexOf("<section id=\"a\">");
+        for (final String artifactType : List.of("a", "b"))
+        {
+            for (int i = 0; i < 150; ++i)
+            {
+                final int position = outputAsString
+                        .indexOf("id=\"" + artifactType + "~item-" + (1000 + i) + "~1\"");
+                assertThat(position, greaterThan(lastPosition));
+                lastPosition = position;
+            }
+        }
+        assertAll(() -> assertThat(outputAsString, containsString("<section id=\"b\">")),
+                () -> assertThat(outputAsString.split("</section>").length, equalTo(303)),
+                () -> assertThat(outputAsString, endsWith("</html>")));
+    }
+
+    private static LinkedSpecificationItem createItem(final String artifactType,
+            final int number)
+    {
+        return new LinkedSpecificationItem(itemWithId(
+                SpecificationItemId.createId(artifactType, "item-" + (1000 + number), 1)) //
+                        .title("Item " + (1000 + number)) //
+                        .build());
+    }
+}
@@ -0,0 +1,151 @@
+package org.itsallcode.openfasttrace.report.html;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.itsallcode.openfasttrace.testutil.core.ItemBuilderFactory.itemWithId;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.itsallcode.openfasttrace.api.ReportSettings;
+import org.itsallcode.openfasttrace.api.core.*;
+import org.itsallcode.openfasttrace.api.report.ReportException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestMultiPageHtmlReport
+{
+    @TempDir
+    Path tempDir;
+    private Trace trace;
+
+    @BeforeEach
+    void beforeEach()
+    {
+        final LinkedSpecificationItem feature = createItem("feat", "a");
+        final LinkedSpecificationItem requirementA = createItem("req", "a");
+        final LinkedSpecificationItem requirementB = createItem("req", "b");
+        final LinkedSpecificationItem requirementC = createItem("req", "c");
+        feature.addLinkToItemWithStatus(requirementA, LinkStatus.COVERED_SHALLOW);
+        requirementA.addLinkToItemWithStatus(feature, LinkStatus.COVERS);
+        requirementA.addLinkToItemWithStatus(requirementC, LinkStatus.COVERED_SHALLOW);
+        requirementC.addLinkToItemWithStatus(requirementA, LinkStatus.COVERS);
+        final List<LinkedSpecificationItem> items = new ArrayList<>(
+                List.of(requirementC, requirementB, requirementA, feature));
+        this.trace = Trace.builder().items(items).build();
+    }
+
+    private static LinkedSpecificationItem createItem(final String artifactType,
+            final String name)
+    {
+        return new LinkedSpecificationItem(
+                itemWithId(SpecificationItemId.createId(artifactType, name, 1)).build());
+    }
+
+    @Test
+    void testRenderToStreamThrowsException()
+    {
+        final MultiPageHtmlReport report = createReport(0);
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertThrows(ReportException.class, () -> report.renderToStream(outputStream));
+    }
+
+    @Test
+    void testIndexContainsSummaryAndTableOfContents() throws IOException
+    {
+        createReport(0).renderToPath(this.tempDir);
+        final String index = readPage(MultiPageHtmlReport.INDEX_PAGE);
+        assertAll(() -> assertThat(index, containsString("4 total")),
+                () -> assertThat(index, containsString("<a href=\"feat.html#feat\">feat</a>")),
+                () -> assertThat(index, containsString("<a href=\"req.html#req\">req</a>")),
+                () -> assertThat(index, not(containsString("class=\"sitem\""))));
+    }
+
+    @Test
+    void testOnePagePerArtifactType() throws IOException
+    {
+        createReport(0).renderToPath(this.tempDir);
+        final String featurePage = readPage("feat.html");
+        final String requirementPage = readPage("req.html");
+        assertAll(() -> assertThat(featurePage, containsString("id=\"feat~a~1\"")),
+                () -> assertThat(featurePage, not(containsString("id=\"req~a~1\""))),
+                () -> assertThat(requirementPage, containsString("id=\"req~a~1\"")),
+                () -> assertThat(requirementPage, containsString("id=\"req~c~1\"")),
+                () -> assertThat(requirementPage, endsWith("</html>")));
+    }
+
+    @Test
+    void testLinksToOtherPagesAreRewritten() throws IOException
+    {
+        createReport(0).renderToPath(this.tempDir);
+        final String requirementPage = readPage("req.html");
+        assertAll(
+                () -> assertThat(requirementPage,
+                        containsString("<li><a href=\"feat.html#feat~a~1\">feat~a~1</a>")),
+                () -> assertThat(requirementPage,
+                        containsString("<li><a href=\"#req~c~1\">req~c~1</a>")),
+                () -> assertThat(requirementPage,
+                        containsString("<a href=\"#req\">req</a>")));
+    }
+
+    @Test
+    void testItemsPerPageSplitsArtifactType() throws IOException
+    {
+        createReport(2).renderToPath(this.tempDir);
+        final String firstPage = readPage("req.html");
+        final String secondPage = readPage("req-2.html");
+        assertAll(() -> assertThat(firstPage, containsString("id=\"req~a~1\"")),
+                () -> assertThat(firstPage, containsString("id=\"req~b~1\"")),
+                () -> assertThat(firstPage, not(containsString("id=\"req~c~1\""))),
+                () -> assertThat(secondPage, containsString("id=\"req~c~1\"")),
+                () -> assertThat(secondPage, containsString("<h3>req (2/2)</h3>")),
+                () -> assertThat(secondPage,
+                        containsString("<li><a href=\"req.html#req~a~1\">req~a~1</a>")),
+                () -> assertThat(readPage(MultiPageHtmlReport.INDEX_PAGE),
+                        containsString("<a href=\"req-2.html#req-2\">req (2/2)</a>")));
+    }
+
+    @Test
+    void testArtifactTypeIndexDoesNotOverwriteIndexPage() throws IOException
+    {
+        final List<LinkedSpecificationItem> items = new ArrayList<>(
+                List.of(createItem("index", "a")));
+        new MultiPageHtmlReport(Trace.builder().items(items).build(),
+                ReportSettings.createDefault()).renderToPath(this.tempDir);
+        assertAll(
+                () -> assertThat(readPage(MultiPageHtmlReport.INDEX_PAGE),
+                        containsString("<a href=\"index-1.html#index\">index</a>")),
+                () -> assertThat(readPage("index-1.html"), containsString("id=\"index~a~1\"")));
+    }
+
+    @Test
+    void testArtifactTypesDifferingInCaseGetDifferentFileNames() throws IOException
+    {
+        final List<LinkedSpecificationItem> items = new ArrayList<>(
+                List.of(createItem("Req", "a"), createItem("req", "b")));
+        new MultiPageHtmlReport(Trace.builder().items(items).build(),
+                ReportSettings.createDefault()).renderToPath(this.tempDir);
+        assertAll(() -> assertThat(readPage("Req.html"), containsString("id=\"Req~a~1\"")),
+                () -> assertThat(readPage("req-1.html"), containsString("id=\"req~b~1\"")),
+                () -> assertThat(readPage(MultiPageHtmlReport.INDEX_PAGE),
+                        containsString("<a href=\"req-1.html#req\">req</a>")));
+    }
+
+    private MultiPageHtmlReport createReport(final int itemsPerPage)
+    {
+        return new MultiPageHtmlReport(this.trace,
+                ReportSettings.builder().itemsPerPage(itemsPerPage).build());
+    }
+
+    private String readPage(final String fileName) throws IOException
+    {
+        return Files.readString(this.tempDir.resolve(fileName));
+    }
+}
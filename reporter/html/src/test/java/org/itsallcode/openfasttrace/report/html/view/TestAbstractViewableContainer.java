@@ -5,6 +5,14 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.emptyCollectionOf;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -56,6 +64,26 @@ class TestAbstractViewableContainer
         inOrder.verify(this.viewMockB).render(childIndentationLevel);
     }
 
+    @Test
+    void testBufferedDescendantsAreWrittenInOrderWithLimitedRunAhead()
+    {
+        final int maxPendingRenders = Runtime.getRuntime().availableProcessors() + 1;
+        final int chunkCount = maxPendingRenders * 3;
+        final RenderLog log = new RenderLog();
+        final ViewContainerStub section = new ViewContainerStub();
+        this.viewableContainer.add(section);
+        for (int i = 0; i < chunkCount; ++i)
+        {
+            section.add(new BufferedContainerStub(i, log));
+        }
+        this.viewableContainer.render(0);
+        assertAll(
+                () -> assertThat(log.written, equalTo(IntStream.range(0, chunkCount).boxed()
+                        .collect(Collectors.toList()))),
+                () -> assertThat(log.writtenUnbuffered.get(), equalTo(0)),
+                () -> assertThat(log.maxBuffered.get(), lessThanOrEqualTo(maxPendingRenders)));
+    }
+
     @Test
     void testIsReferenceableFalseWithDefaultConstructor()
     {
@@ -104,4 +132,82 @@ class TestAbstractViewableContainer
         {
         }
     }
-}
\ No newline at end of file
+
+    private static class RenderLog
+    {
+        private final List<Integer> written = new ArrayList<>();
+        private final AtomicInteger writtenUnbuffered = new AtomicInteger();
+        private final AtomicInteger buffered = new AtomicInteger();
+        private final AtomicInteger maxBuffered = new AtomicInteger();
+    }
+
+    private static class BufferedContainerStub implements BufferedViewableContainer
+    {
+        private final int index;
+        private final RenderLog log;
+        private int bufferedLevel = -1;
+
+        private BufferedContainerStub(final int index, final RenderLog log)
+        {
+            this.index = index;
+            this.log = log;
+        }
+
+        @Override
+        public void renderToBuffer(final int level)
+        {
+            this.log.maxBuffered.accumulateAndGet(this.log.buffered.incrementAndGet(),
+                    Math::max);
+            this.bufferedLevel = level;
+        }
+
+        @Override
+        public void render(final int level)
+        {
+            if (this.bufferedLevel == level)
+            {
+                this.log.buffered.decrementAndGet();
+            }
+            else
+            {
+                this.log.writtenUnbuffered.incrementAndGet();
+            }
+            this.log.written.add(this.index);
+        }
+
+        @Override
+        public ViewFactory getFactory()
+        {
+            return null;
+        }
+
+        @Override
+        public void add(final Viewable child)
+        {
+        }
+
+        @Override
+        public List<Viewable> getChildren()
+        {
+            return List.of();
+        }
+
+        @Override
+        public String getId()
+        {
+            return null;
+        }
+
+        @Override
+        public String getTitle()
+        {
+            return null;
+        }
+
+        @Override
+        public boolean isReferenceable()
+        {
+            return false;
+        }
+    }
+}
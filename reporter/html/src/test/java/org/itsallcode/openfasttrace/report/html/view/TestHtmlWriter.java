@@ -0,0 +1,180 @@
+package org.itsallcode.openfasttrace.report.html.view;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.emptyString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+import org.itsallcode.openfasttrace.api.report.ReportException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TestHtmlWriter
+{
+    private ByteArrayOutputStream bytes;
+    private HtmlWriter writer;
+
+    @BeforeEach
+    void beforeEach()
+    {
+        this.bytes = new ByteArrayOutputStream();
+        this.writer = HtmlWriter.create(this.bytes);
+    }
+
+    @Test
+    void testOutputIsWrittenOnFlush()
+    {
+        this.writer.print("text");
+        assertThat(getOutput(), emptyString());
+        this.writer.flush();
+        assertThat(getOutput(), equalTo("text"));
+    }
+
+    @Test
+    void testPrintMixedValues()
+    {
+        this.writer.print("a");
+        this.writer.print('b');
+        this.writer.print(42);
+        this.writer.print(new StringBuilder("c"));
+        this.writer.print((Object) null);
+        this.writer.println("d");
+        this.writer.println();
+        assertFlushedOutput("ab42cnulld" + System.lineSeparator() + System.lineSeparator());
+    }
+
+    @Test
+    void testEncodesUtf8()
+    {
+        final String text = "ascii äöü ✓ 😀";
+        this.writer.print(text);
+        this.writer.flush();
+        assertThat(this.bytes.toByteArray(), equalTo(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testReplacesUnpairedSurrogates()
+    {
+        this.writer.print("a\uD83Db\uDE00");
+        assertFlushedOutput("a?b?");
+    }
+
+    @Test
+    void testEncodesLongTextWithSurrogatePairsAcrossBufferBoundaries()
+    {
+        final String text = "x😀".repeat(50000);
+        for (int i = 0; i < text.length(); i += 1000)
+        {
+            this.writer.print(text.substring(i, Math.min(text.length(), i + 1000)));
+        }
+        this.writer.flush();
+        assertThat(this.bytes.toByteArray(), equalTo(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testPrintIndentation()
+    {
+        this.writer.printIndentation(0);
+        this.writer.print("|");
+        this.writer.printIndentation(3);
+        this.writer.print("|");
+        this.writer.printIndentation(40);
+        assertFlushedOutput("|      |" + " ".repeat(80));
+    }
+
+    @Test
+    void testPrintEscaped()
+    {
+        this.writer.printEscaped("<b>a & b</b>");
+        assertFlushedOutput("&lt;b&gt;a & b&lt;/b&gt;");
+    }
+
+    @Test
+    void testTransferFromKeepsOrder()
+    {
+        this.writer.print("before ");
+        transfer(this.writer, "ä content");
+        this.writer.print(" after");
+        assertFlushedOutput("before ä content after");
+    }
+
+    @Test
+    void testWritesTextToPrintStreamInItsCharset()
+    {
+        final PrintStream stream = new PrintStream(this.bytes, false, StandardCharsets.UTF_16);
+        final HtmlWriter printStreamWriter = HtmlWriter.create(stream);
+        printStreamWriter.print("Title ä✓");
+        printStreamWriter.flush();
+        assertThat(this.bytes.toString(StandardCharsets.UTF_16), equalTo("Title ä✓"));
+    }
+
+    @Test
+    void testCopyInMemoryWriter()
+    {
+        final HtmlWriter buffer = HtmlWriter.createInMemory();
+        final String text = "buffered ✓ ".repeat(10000);
+        buffer.print(text);
+        transfer(buffer, "ä");
+        buffer.copyTo(this.writer);
+        buffer.copyTo(this.writer);
+        assertFlushedOutput(text + "ä" + text + "ä");
+    }
+
+    @Test
+    void testResetInMemoryWriter()
+    {
+        final HtmlWriter buffer = HtmlWriter.createInMemory();
+        buffer.print("discarded");
+        buffer.reset();
+        buffer.print("kept");
+        buffer.copyTo(this.writer);
+        buffer.release();
+        buffer.copyTo(this.writer);
+        assertFlushedOutput("kept");
+    }
+
+    @Test
+    void testWriteErrorIsReportedAsReportException()
+    {
+        final HtmlWriter failingWriter = HtmlWriter.create(new FailingOutputStream());
+        failingWriter.print("text");
+        assertThrows(ReportException.class, failingWriter::flush);
+    }
+
+    private static class FailingOutputStream extends OutputStream
+    {
+        @Override
+        public void write(final int b) throws IOException
+        {
+            throw new IOException("expected");
+        }
+    }
+
+    private static void transfer(final HtmlWriter writer, final String content)
+    {
+        try
+        {
+            writer.transferFrom(
+                    new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        }
+        catch (final IOException exception)
+        {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private void assertFlushedOutput(final String expected)
+    {
+        this.writer.flush();
+        assertThat(getOutput(), equalTo(expected));
+    }
+
+    private String getOutput()
+    {
+        return this.bytes.toString(StandardCharsets.UTF_8);
+    }
+}
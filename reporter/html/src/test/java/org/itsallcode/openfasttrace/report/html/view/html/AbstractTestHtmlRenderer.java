@@ -33,12 +33,18 @@ class AbstractTestHtmlRenderer
 
     protected void assertOutput(final Matcher<String> matcher)
     {
-        assertThat(this.outputStream.toString(), matcher);
+        assertThat(getOutputAsString(), matcher);
+    }
+
+    protected String getOutputAsString()
+    {
+        ((HtmlViewFactory) this.factory).flush();
+        return this.outputStream.toString();
     }
 
     protected void assertOutputLinesWithoutCSS(final String... lines)
     {
-        final String html = this.outputStream.toString();
+        final String html = getOutputAsString();
         final String htmlWithoutCSS = Pattern //
                 .compile("<style>.*</style>", Pattern.DOTALL) //
                 .matcher(html) //
@@ -0,0 +1,103 @@
+package org.itsallcode.openfasttrace.report.html.view.html;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.emptyString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.itsallcode.openfasttrace.testutil.core.ItemBuilderFactory.itemWithId;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.itsallcode.openfasttrace.api.DetailsSectionDisplay;
+import org.itsallcode.openfasttrace.api.core.LinkedSpecificationItem;
+import org.itsallcode.openfasttrace.api.core.SpecificationItemId;
+import org.itsallcode.openfasttrace.report.html.HtmlReport;
+import org.itsallcode.openfasttrace.report.html.view.*;
+import org.junit.jupiter.api.Test;
+
+class TestHtmlBufferedContainer extends AbstractTestHtmlRenderer
+{
+    private static final int LEVEL = 2;
+
+    @Test
+    void testRenderToBufferDoesNotWriteToStream()
+    {
+        final BufferedViewableContainer container = createContainerWithSection(this.factory);
+        container.renderToBuffer(LEVEL);
+        assertThat(getOutput(), emptyString());
+    }
+
+    @Test
+    void testRenderEqualsUnbufferedRendering()
+    {
+        final BufferedViewableContainer container = createContainerWithSection(this.factory);
+        container.renderToBuffer(LEVEL);
+        container.render(LEVEL);
+        assertThat(getOutput(), equalTo(renderUnbuffered()));
+    }
+
+    @Test
+    void testRenderOnOtherLevelThanBuffered()
+    {
+        final BufferedViewableContainer container = createContainerWithSection(this.factory);
+        container.renderToBuffer(LEVEL + 1);
+        container.render(LEVEL);
+        assertThat(getOutput(), equalTo(renderUnbuffered()));
+    }
+
+    @Test
+    void testRenderToPrintStreamWithOtherCharset()
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final PrintStream stream = new PrintStream(bytes, true, StandardCharsets.UTF_16);
+        final HtmlViewFactory utf16Factory = HtmlViewFactory.create(stream,
+                HtmlReport.getCssUrl(), DetailsSectionDisplay.COLLAPSE);
+        createContainerWithSection(utf16Factory).render(LEVEL);
+        utf16Factory.flush();
+        assertThat(bytes.toString(StandardCharsets.UTF_16), equalTo(renderUnbuffered()));
+    }
+
+    @Test
+    void testContainerIsNotReferenceable()
+    {
+        assertThat(this.factory.createBufferedContainer().isReferenceable(), equalTo(false));
+    }
+
+    private String getOutput()
+    {
+        ((HtmlViewFactory) this.factory).flush();
+        return ((ByteArrayOutputStream) this.outputStream).toString(StandardCharsets.UTF_8);
+    }
+
+    private static BufferedViewableContainer createContainerWithSection(
+            final ViewFactory factory)
+    {
+        final BufferedViewableContainer container = factory.createBufferedContainer();
+        final ViewableContainer section = container.getFactory().createSection("id",
+                "Title ä✓");
+        section.add(container.getFactory().createSpecificationItem(createItem()));
+        container.add(section);
+        return container;
+    }
+
+    private static LinkedSpecificationItem createItem()
+    {
+        return new LinkedSpecificationItem(
+                itemWithId(SpecificationItemId.createId("feat", "name", 1)) //
+                        .description("Description with `code` and ümlauts") //
+                        .build());
+    }
+
+    private static String renderUnbuffered()
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final HtmlViewFactory factory = HtmlViewFactory.create(bytes, HtmlReport.getCssUrl(),
+                DetailsSectionDisplay.COLLAPSE);
+        final ViewableContainer section = factory.createSection("id", "Title ä✓");
+        section.add(factory.createSpecificationItem(createItem()));
+        section.render(LEVEL);
+        factory.flush();
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+}
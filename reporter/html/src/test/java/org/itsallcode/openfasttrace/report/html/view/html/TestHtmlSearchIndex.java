@@ -0,0 +1,84 @@
+package org.itsallcode.openfasttrace.report.html.view.html;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.itsallcode.openfasttrace.testutil.core.ItemBuilderFactory.itemWithId;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.itsallcode.openfasttrace.api.core.*;
+import org.itsallcode.openfasttrace.report.html.view.HtmlWriter;
+import org.junit.jupiter.api.Test;
+
+class TestHtmlSearchIndex
+{
+    private final HtmlSearchIndex index = new HtmlSearchIndex();
+
+    @Test
+    void testEmptyIndex()
+    {
+        assertThat(render(), equalTo("{\"terms\":[[],[]],\"tags\":[[],[]],\"defects\":[[],[]]}"));
+    }
+
+    @Test
+    void testIndexesIdTitleAndArtifactType()
+    {
+        this.index.add(0, createItem("req", "web-ui", "Corporate Design"));
+        assertThat(render(), containsString("\"terms\":[[\"corporate\",\"design\",\"req\","
+                + "\"req~web-ui~1\",\"ui\",\"web\"],[[0],[0],[0],[0],[0],[0]]]"));
+    }
+
+    @Test
+    void testPostingsAreDeltaEncoded()
+    {
+        this.index.add(0, createItem("req", "a", "Login"));
+        this.index.add(3, createItem("req", "b", "Login Login"));
+        this.index.add(7, createItem("dsn", "c", "Logout"));
+        final String json = render();
+        assertAll(() -> assertThat(json, containsString("\"login\",\"logout\"")),
+                () -> assertThat(json, containsString("[0,3],[7]")));
+    }
+
+    @Test
+    void testIndexesTags()
+    {
+        this.index.add(1, new LinkedSpecificationItem(
+                itemWithId(SpecificationItemId.createId("req", "a", 1)).addTag("Security")
+                        .addTag("UI").build()));
+        assertThat(render(), containsString("\"tags\":[[\"Security\",\"UI\"],[[1],[1]]]"));
+    }
+
+    @Test
+    void testIndexesDefectTypes()
+    {
+        final LinkedSpecificationItem requirement = new LinkedSpecificationItem(
+                itemWithId(SpecificationItemId.createId("req", "a", 1)).addNeedsArtifactType("dsn")
+                        .build());
+        final LinkedSpecificationItem design = createItem("dsn", "b", "Design");
+        design.addLinkToItemWithStatus(requirement, LinkStatus.OUTDATED);
+        this.index.add(0, design);
+        this.index.add(1, requirement);
+        assertThat(render(),
+                containsString("\"defects\":[[\"outdated\",\"uncovered\"],[[0],[1]]]"));
+    }
+
+    private static LinkedSpecificationItem createItem(final String artifactType,
+            final String name, final String title)
+    {
+        return new LinkedSpecificationItem(
+                itemWithId(SpecificationItemId.createId(artifactType, name, 1)).title(title)
+                        .build());
+    }
+
+    private String render()
+    {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final HtmlWriter writer = HtmlWriter.create(output);
+        this.index.writeTo(writer);
+        writer.flush();
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
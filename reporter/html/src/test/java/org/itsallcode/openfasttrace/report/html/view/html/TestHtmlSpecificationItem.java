@@ -86,7 +86,7 @@ class TestHtmlSpecificationItem extends AbstractTestHtmlRenderer
                 .description("Single line description") //
                 .build();
         renderItemOnIndentationLevel(item, 1);
-        assertThat(this.outputStream.toString(), containsString(expectedDetailsElement));
+        assertThat(getOutputAsString(), containsString(expectedDetailsElement));
     }
 
     @Test
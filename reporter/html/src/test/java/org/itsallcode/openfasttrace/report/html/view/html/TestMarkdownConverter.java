@@ -2,6 +2,12 @@ package org.itsallcode.openfasttrace.report.html.view.html;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -180,4 +186,78 @@ class TestMarkdownConverter
         assertConverted("This **is very important**, believe me!",
                 "<p>This <strong>is very important</strong>, believe me!</p>");
     }
+
+    @Test
+    void testConvertCarriageReturnLineEndings()
+    {
+        assertConverted("first\r\rsecond\n\r\n\rthird",
+                "<p>first</p><p>second</p><p>third</p>");
+    }
+
+    @Test
+    void testConvertStrongAroundCode()
+    {
+        assertConverted("A **bold `code` block** here",
+                "<p>A <strong>bold <code>code</code> block</strong> here</p>");
+    }
+
+    @Test
+    void testConvertGreedyEmphasis()
+    {
+        assertConverted("_a_ and _b_", "<p><em>a_ and _b</em></p>");
+    }
+
+    @Test
+    void testCachesConvertedText()
+    {
+        final String first = this.converter.convert("Some *text*");
+        final String second = this.converter.convert("Some *text*");
+        assertThat(second, sameInstance(first));
+        assertThat(this.converter.getCacheSize(), equalTo(1));
+    }
+
+    @Test
+    void testCacheIsBoundedByCharacters()
+    {
+        // Each entry holds 6 characters of Markdown and 13 characters of HTML.
+        final MarkdownConverter smallConverter = new MarkdownConverter(40, 10);
+        for (int i = 0; i < 5; ++i)
+        {
+            assertThat(smallConverter.convert("text " + i), equalTo("<p>text " + i + "</p>"));
+        }
+        assertAll(() -> assertThat(smallConverter.getCacheSize(), equalTo(2)),
+                () -> assertThat(smallConverter.getCachedCharacters(), equalTo(38L)));
+    }
+
+    @Test
+    void testCacheEvictsLeastRecentlyUsedText()
+    {
+        final MarkdownConverter smallConverter = new MarkdownConverter(40, 10);
+        final String first = smallConverter.convert("text 0");
+        smallConverter.convert("text 1");
+        smallConverter.convert("text 0");
+        smallConverter.convert("text 2");
+        assertAll(() -> assertThat(smallConverter.convert("text 0"), sameInstance(first)),
+                () -> assertThat(smallConverter.getCacheSize(), equalTo(2)));
+    }
+
+    @Test
+    void testLongTextIsNotCached()
+    {
+        final MarkdownConverter smallConverter = new MarkdownConverter(1000, 10);
+        assertThat(smallConverter.convert("a long text"), equalTo("<p>a long text</p>"));
+        assertThat(smallConverter.getCacheSize(), equalTo(0));
+    }
+
+    @Test
+    void testConvertConcurrently()
+    {
+        final List<String> results = IntStream.range(0, 1000).parallel()
+                .mapToObj(i -> this.converter.convert("* item " + (i % 10)))
+                .collect(Collectors.toList());
+        for (int i = 0; i < results.size(); ++i)
+        {
+            assertThat(results.get(i), equalTo("<ul><li>item " + (i % 10) + "</li></ul>"));
+        }
+    }
 }
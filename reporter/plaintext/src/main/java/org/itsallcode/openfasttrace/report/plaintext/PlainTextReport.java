@@ -1,14 +1,13 @@
 package org.itsallcode.openfasttrace.report.plaintext;
 
+import java.io.BufferedOutputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.itsallcode.openfasttrace.api.ReportSettings;
 import org.itsallcode.openfasttrace.api.core.*;
@@ -17,15 +16,31 @@ import org.itsallcode.openfasttrace.api.report.Reportable;
 /**
  * Renders a coverage stream in plain text. This is intended for command line
  * application output.
+ * <p>
+ * Item lists are formatted in chunks that are processed concurrently and
+ * written to the output in their original order. Only a limited number of
+ * chunks is held in memory at a time. Strings that repeat for many items,
+ * like padded link states and link counts, are prepared once per report.
+ * </p>
  */
 public class PlainTextReport implements Reportable
 {
     private final Trace trace;
-    private static final Comparator<LinkedSpecificationItem> LINKED_ITEM_BY_ID = Comparator
-            .comparing(LinkedSpecificationItem::getId);
+    private static final Comparator<TracedLink> LINK_BY_OTHER_END_ID = Comparator
+            .comparing(link -> link.getOtherLinkEnd().getId());
+    private static final int ITEMS_PER_CHUNK = 64;
+    private static final int CHUNKS_PER_BATCH = 4 * Runtime.getRuntime().availableProcessors();
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+    private static final int PRECOMPUTED_COUNTS = 100;
+    private static final String NO_LINKS = " 0 /  0  ";
     private int nonEmptySections = 0;
     private final ReportSettings settings;
     private final TextFormatter formatter;
+    private final String newline;
+    private final String ok;
+    private final String notOk;
+    private final String[] paddedCounts = new String[PRECOMPUTED_COUNTS];
+    private final Map<LinkStatus, String> formattedLinkStates = new EnumMap<>(LinkStatus.class);
 
     /**
      * Create a new instance of {@link PlainTextReport}
@@ -41,13 +56,38 @@ public class PlainTextReport implements Reportable
         this.trace = trace;
         this.settings = settings;
         this.formatter = TextFormatterFactory.createFormatter(settings.getColorScheme());
+        this.newline = settings.getNewline().toString();
+        this.ok = this.formatter.formatOk("ok");
+        this.notOk = this.formatter.formatNotOk("not ok");
+        for (int count = 0; count < PRECOMPUTED_COUNTS; ++count)
+        {
+            this.paddedCounts[count] = String.format("%2d", count);
+        }
+        for (final LinkStatus status : LinkStatus.values())
+        {
+            this.formattedLinkStates.put(status, formatLinkStatus(status));
+        }
+    }
+
+    private String formatLinkStatus(final LinkStatus status)
+    {
+        final String padded = String.format("%-17s", status.toString().toLowerCase());
+        if (status == LinkStatus.COVERS || (status == LinkStatus.COVERED_SHALLOW))
+        {
+            return this.formatter.formatOk(padded);
+        }
+        else
+        {
+            return this.formatter.formatNotOk(padded);
+        }
     }
 
     @Override
     public void renderToStream(final OutputStream outputStream)
     {
         final Charset charset = StandardCharsets.UTF_8;
-        try (final PrintStream report = new PrintStream(outputStream, false, charset))
+        try (final PrintStream report = new PrintStream(
+                new BufferedOutputStream(outputStream, OUTPUT_BUFFER_SIZE), false, charset))
         {
             renderToPrintStream(report);
         }
@@ -80,7 +120,7 @@ public class PlainTextReport implements Reportable
             break;
         case ALL:
             renderAll(report, this.settings.showOrigin());
-            report.print(this.settings.getNewline());
+            report.print(this.newline);
             renderSummary(report);
             break;
         default:
@@ -93,19 +133,19 @@ public class PlainTextReport implements Reportable
     {
         if (this.trace.countDefects() > 0)
         {
-            report.print(this.settings.getNewline());
+            report.print(this.newline);
         }
     }
 
     private void renderResultStatus(final PrintStream report)
     {
         report.print(translateStatus(this.trace.hasNoDefects()));
-        report.print(this.settings.getNewline().toString());
+        report.print(this.newline);
     }
 
-    private String translateStatus(final boolean ok)
+    private String translateStatus(final boolean isOk)
     {
-        return ok ? this.formatter.formatOk("ok") : this.formatter.formatNotOk("not ok");
+        return isOk ? this.ok : this.notOk;
     }
 
     // [impl->dsn~reporting.plain-text.summary~2]
@@ -121,7 +161,7 @@ public class PlainTextReport implements Reportable
             report.print(this.trace.countDefects());
             report.print(" defect");
         }
-        report.print(this.settings.getNewline());
+        report.print(this.newline);
     }
 
     private void renderFailureIds(final PrintStream report)
@@ -130,48 +170,147 @@ public class PlainTextReport implements Reportable
                 .sorted()//
                 .forEachOrdered(id -> {
                     report.print(id);
-                    report.print(this.settings.getNewline().toString());
+                    report.print(this.newline);
                 });
     }
 
     private void renderFailureSummaries(final PrintStream report)
     {
-        this.trace.getDefectItems().stream() //
-                .sorted(LINKED_ITEM_BY_ID) //
-                .forEachOrdered(item -> renderItemSummary(report, item));
+        renderInChunks(report, this.trace.getDefectItemsSortedById(), this::formatItemSummaries);
     }
 
-    // [impl->dsn~reporting.plain-text.specification-item-overview~2]
-    private void renderItemSummary(final PrintStream report, final LinkedSpecificationItem item)
+    private void renderFailureDetails(final PrintStream report, final boolean showOrigin)
+    {
+        renderInChunks(report, this.trace.getDefectItemsSortedById(),
+                items -> formatItemDetails(items, showOrigin));
+    }
+
+    private void renderAll(final PrintStream report, final boolean showOrigin)
+    {
+        renderInChunks(report, this.trace.getItemsSortedById(),
+                items -> formatItemDetails(items, showOrigin));
+    }
+
+    private void renderInChunks(final PrintStream report,
+            final List<LinkedSpecificationItem> items,
+            final Function<List<LinkedSpecificationItem>, FormattedChunk> formatting)
+    {
+        final List<List<LinkedSpecificationItem>> chunks = new ArrayList<>();
+        for (int start = 0; start < items.size(); start += ITEMS_PER_CHUNK)
+        {
+            chunks.add(items.subList(start, Math.min(items.size(), start + ITEMS_PER_CHUNK)));
+        }
+        for (int start = 0; start < chunks.size(); start += CHUNKS_PER_BATCH)
+        {
+            chunks.subList(start, Math.min(chunks.size(), start + CHUNKS_PER_BATCH)) //
+                    .parallelStream() //
+                    .map(formatting) //
+                    .collect(Collectors.toList()) //
+                    .forEach(chunk -> writeChunk(report, chunk));
+        }
+    }
+
+    private FormattedChunk formatItemSummaries(final List<LinkedSpecificationItem> items)
+    {
+        final StringBuilder builder = new StringBuilder(items.size() * 128);
+        for (final LinkedSpecificationItem item : items)
+        {
+            appendItemSummary(builder, item);
+        }
+        return new FormattedChunk(builder.toString(), 0, new int[0]);
+    }
+
+    // The empty line that ends the details of an item depends on whether any
+    // item rendered so far had a non-empty section. That is only known when
+    // the chunk is written, so the positions where it may be missing are
+    // recorded.
+    private FormattedChunk formatItemDetails(final List<LinkedSpecificationItem> items,
+            final boolean showOrigin)
     {
-        report.print(translateStatus(!item.isDefect()));
-        renderItemLinkCounts(report, item);
-        report.print(this.formatter.formatStrong(item.getId().toString()));
-        report.print(" ");
-        renderMaturity(report, item);
-        report.print(translateArtifactTypeCoverage(item));
-        renderDuplicatesCount(report, item);
-        report.print(this.settings.getNewline());
+        final StringBuilder builder = new StringBuilder(items.size() * 512);
+        final int[] openEnds = new int[items.size()];
+        int openEndCount = 0;
+        int sections = 0;
+        for (final LinkedSpecificationItem item : items)
+        {
+            sections += appendItemDetails(builder, item, showOrigin);
+            if (sections > 0)
+            {
+                builder.append(this.newline);
+            }
+            else
+            {
+                openEnds[openEndCount++] = builder.length();
+            }
+        }
+        return new FormattedChunk(builder.toString(), sections,
+                Arrays.copyOf(openEnds, openEndCount));
     }
 
-    private String translateArtifactTypeCoverage(final LinkedSpecificationItem item)
+    private void writeChunk(final PrintStream report, final FormattedChunk chunk)
     {
-        final Comparator<String> byTypeName = Comparator.comparing(a -> a.replaceFirst("[-+]", ""));
+        if ((this.nonEmptySections > 0) && (chunk.openEnds().length > 0))
+        {
+            int written = 0;
+            for (final int openEnd : chunk.openEnds())
+            {
+                report.append(chunk.text(), written, openEnd);
+                report.print(this.newline);
+                written = openEnd;
+            }
+            report.append(chunk.text(), written, chunk.text().length());
+        }
+        else
+        {
+            report.print(chunk.text());
+        }
+        this.nonEmptySections += chunk.sections();
+    }
 
-        final Stream<String> uncoveredStream = item.getUncoveredArtifactTypes().stream()
-                .map(x -> this.formatter.formatNotOk("-" + x));
-        return "(" + Stream.concat( //
-                Stream.concat( //
-                        uncoveredStream, //
-                        item.getCoveredArtifactTypes().stream().map(this.formatter::formatOk) //
-                ), //
-                item.getOverCoveredArtifactTypes().stream().map(x -> this.formatter.formatNotOk("+" + x)) //
-        ) //
-                .sorted(byTypeName) //
-                .collect(Collectors.joining(", ")) + ")";
+    // [impl->dsn~reporting.plain-text.specification-item-overview~2]
+    private void appendItemSummary(final StringBuilder builder, final LinkedSpecificationItem item)
+    {
+        builder.append(translateStatus(!item.isDefect()));
+        appendItemLinkCounts(builder, item);
+        builder.append(this.formatter.formatStrong(item.getId().toString()));
+        builder.append(' ');
+        appendMaturity(builder, item);
+        appendArtifactTypeCoverage(builder, item);
+        appendDuplicatesCount(builder, item);
+        builder.append(this.newline);
     }
 
-    private void renderItemLinkCounts(final PrintStream report, final LinkedSpecificationItem item)
+    private void appendArtifactTypeCoverage(final StringBuilder builder,
+            final LinkedSpecificationItem item)
+    {
+        final List<FormattedArtifactType> types = new ArrayList<>();
+        for (final String type : item.getUncoveredArtifactTypes())
+        {
+            types.add(FormattedArtifactType.of(this.formatter.formatNotOk("-" + type)));
+        }
+        for (final String type : item.getCoveredArtifactTypes())
+        {
+            types.add(FormattedArtifactType.of(this.formatter.formatOk(type)));
+        }
+        for (final String type : item.getOverCoveredArtifactTypes())
+        {
+            types.add(FormattedArtifactType.of(this.formatter.formatNotOk("+" + type)));
+        }
+        types.sort(FormattedArtifactType.BY_TYPE_NAME);
+        builder.append('(');
+        for (int i = 0; i < types.size(); ++i)
+        {
+            if (i > 0)
+            {
+                builder.append(", ");
+            }
+            builder.append(types.get(i).text());
+        }
+        builder.append(')');
+    }
+
+    private void appendItemLinkCounts(final StringBuilder builder,
+            final LinkedSpecificationItem item)
     {
         final int incomingLinks = item.countIncomingLinks();
         final int incomingBadLinks = item.countIncomingBadLinks();
@@ -179,185 +318,239 @@ public class PlainTextReport implements Reportable
         final int outgoingLinks = item.countOutgoingLinks();
         final int outgoingBadLinks = item.countOutgoingBadLinks();
         final int outgoingGoodLinks = outgoingLinks - outgoingBadLinks;
-        report.print(" [ in: ");
-        report.print(formatCountXofY(incomingGoodLinks, incomingLinks));
-        report.print(" | out: ");
-        report.print(formatCountXofY(outgoingGoodLinks, outgoingLinks));
-        report.print(" ] ");
+        builder.append(" [ in: ");
+        builder.append(formatCountXofY(incomingGoodLinks, incomingLinks));
+        builder.append(" | out: ");
+        builder.append(formatCountXofY(outgoingGoodLinks, outgoingLinks));
+        builder.append(" ] ");
     }
 
-    private void renderDuplicatesCount(final PrintStream report, final LinkedSpecificationItem item) {
+    private void appendDuplicatesCount(final StringBuilder builder,
+            final LinkedSpecificationItem item)
+    {
         final int duplicateLinks = item.countDuplicateLinks();
-        if(duplicateLinks != 0) {
-            report.print(" [has ");
-            report.print(this.formatter.formatNotOk(duplicateLinks + " duplicate" + (duplicateLinks > 1 ? "s" : "")));
-            report.print("]");
-        }
-    }
-
-    private String formatCountXofY(final int countGood, final int count) {
-        if((countGood == 0) && (count == 0)) {
-            return " 0 /  0  ";
-        } else {
-            return (countGood == count)
-                    ? this.formatter.formatOk(String.format("%2d / %2d ✔", countGood, count))
-                    : this.formatter.formatNotOk(String.format("%2d / %2d ✘", countGood, count));
+        if (duplicateLinks != 0)
+        {
+            builder.append(" [has ");
+            builder.append(this.formatter.formatNotOk(
+                    duplicateLinks + " duplicate" + (duplicateLinks > 1 ? "s" : "")));
+            builder.append(']');
         }
     }
 
-    private void renderMaturity(final PrintStream report, final LinkedSpecificationItem item)
+    private String formatCountXofY(final int countGood, final int count)
     {
-        final ItemStatus status = item.getStatus();
-        if (status != ItemStatus.APPROVED)
+        if ((countGood == 0) && (count == 0))
         {
-            report.print("[");
-            report.print(status);
-            report.print("] ");
+            return NO_LINKS;
+        }
+        else
+        {
+            final String counts = padCount(countGood) + " / " + padCount(count);
+            return (countGood == count) ? this.formatter.formatOk(counts + " ✔")
+                    : this.formatter.formatNotOk(counts + " ✘");
         }
     }
 
-    private void renderFailureDetails(final PrintStream report, final boolean showOrigin)
+    private String padCount(final int count)
     {
-        this.trace.getDefectItems().stream() //
-                .sorted(LINKED_ITEM_BY_ID) //
-                .forEachOrdered(item -> renderItemDetails(report, item, showOrigin));
+        return ((count >= 0) && (count < PRECOMPUTED_COUNTS)) ? this.paddedCounts[count]
+                : String.format("%2d", count);
     }
 
-    private void renderAll(final PrintStream report, final boolean showOrigin)
+    private void appendMaturity(final StringBuilder builder, final LinkedSpecificationItem item)
     {
-        this.trace.getItems().stream() //
-                .sorted(LINKED_ITEM_BY_ID) //
-                .forEachOrdered(item -> renderItemDetails(report, item, showOrigin));
+        final ItemStatus status = item.getStatus();
+        if (status != ItemStatus.APPROVED)
+        {
+            builder.append('[');
+            builder.append(status);
+            builder.append("] ");
+        }
     }
 
-    private void renderItemDetails(final PrintStream report, final LinkedSpecificationItem item,
+    /**
+     * Append the details of an item except for the line that ends them.
+     *
+     * @return number of non-empty sections
+     */
+    private int appendItemDetails(final StringBuilder builder, final LinkedSpecificationItem item,
             final boolean showOrigin)
     {
-        renderItemSummary(report, item);
-        renderDescription(report, item);
+        appendItemSummary(builder, item);
+        int sections = appendDescription(builder, item);
         if (showOrigin)
         {
-            renderOrigin(report, item);
+            appendOrigin(builder, item);
         }
-        renderLinks(report, item, showOrigin);
-        renderTags(report, item);
-        renderItemDetailsEnd(report);
+        sections += appendLinks(builder, item, showOrigin);
+        sections += appendTags(builder, item);
+        return sections;
     }
 
-    private void renderOrigin(final PrintStream report, final Location location)
+    private static void appendOrigin(final StringBuilder builder, final Location location)
     {
-        report.print("(");
-        report.print(location.getPath());
-        report.print(":");
-        report.print(location.getLine());
-        report.print(")");
+        builder.append('(');
+        builder.append(location.getPath());
+        builder.append(':');
+        builder.append(location.getLine());
+        builder.append(')');
     }
 
-    private void renderEmptyItemDetailsLine(final PrintStream report)
+    private int appendDescription(final StringBuilder builder, final LinkedSpecificationItem item)
     {
-        report.print(this.settings.getNewline());
+        final String description = item.getDescription();
+        if (description != null && !description.isEmpty())
+        {
+            builder.append(this.newline);
+            appendDescriptionLines(builder, description);
+            return 1;
+        }
+        return 0;
     }
 
-    private void renderDescription(final PrintStream report, final LinkedSpecificationItem item)
+    // Same lines as splitting the description at any newline: empty lines
+    // at the end are dropped.
+    private void appendDescriptionLines(final StringBuilder builder, final String description)
     {
-        final String description = item.getDescription();
-        if (description != null && !description.isEmpty())
+        final int length = description.length();
+        int lineStart = 0;
+        int pendingEmptyLines = 0;
+        for (int i = 0; i <= length; ++i)
         {
-            renderEmptyItemDetailsLine(report);
-            for (final String line : description.split(Newline.anyNewlineReqEx()))
+            final char character = (i < length) ? description.charAt(i) : '\n';
+            if ((character == '\n') || (character == '\r'))
             {
-                report.print("  ");
-                report.print(line);
-                report.print(this.settings.getNewline());
+                if (i == lineStart)
+                {
+                    ++pendingEmptyLines;
+                }
+                else
+                {
+                    while (pendingEmptyLines > 0)
+                    {
+                        builder.append("  ").append(this.newline);
+                        --pendingEmptyLines;
+                    }
+                    builder.append("  ").append(description, lineStart, i).append(this.newline);
+                }
+                if ((character == '\r') && (i + 1 < length) && (description.charAt(i + 1) == '\n'))
+                {
+                    ++i;
+                }
+                lineStart = i + 1;
             }
-            ++this.nonEmptySections;
         }
     }
 
     // [impl->dsn~reporting.plain-text.link-details~1]
-    private void renderLinks(final PrintStream report, final LinkedSpecificationItem item,
+    private int appendLinks(final StringBuilder builder, final LinkedSpecificationItem item,
             final boolean showOrigin)
     {
         if (item.hasLinks())
         {
-            renderEmptyItemDetailsLine(report);
-            renderOrderedLinks(report, item, showOrigin);
-            ++this.nonEmptySections;
+            builder.append(this.newline);
+            appendOrderedLinks(builder, item, showOrigin);
+            return 1;
         }
+        return 0;
     }
 
-    private void renderOrderedLinks(final PrintStream report, final LinkedSpecificationItem item,
-            final boolean showOrigin)
+    private void appendOrderedLinks(final StringBuilder builder,
+            final LinkedSpecificationItem item, final boolean showOrigin)
     {
-        item.getTracedLinks() //
-                .stream() //
-                .sorted(Comparator.comparing(a -> a.getOtherLinkEnd().getId())) //
-                .forEachOrdered(link -> renderLink(report, link, showOrigin));
+        final List<TracedLink> links = new ArrayList<>(item.getTracedLinks());
+        links.sort(LINK_BY_OTHER_END_ID);
+        for (final TracedLink link : links)
+        {
+            appendLink(builder, link, showOrigin);
+        }
     }
 
-    private void renderLink(final PrintStream report, final TracedLink link,
+    private void appendLink(final StringBuilder builder, final TracedLink link,
             final boolean showOrigin)
     {
         final LinkStatus status = link.getStatus();
-        report.print("  [");
-        if(status == LinkStatus.COVERS || (status == LinkStatus.COVERED_SHALLOW)) {
-            report.print(formatter.formatOk(padStatus(status)));
-        } else {
-            report.print(formatter.formatNotOk(padStatus(status)));
-        }
-        report.print("] ");
-        report.print(status.isIncoming() ? "← " : "→ ");
-        report.print(link.getOtherLinkEnd().getId());
-        report.print(this.settings.getNewline());
+        builder.append("  [");
+        builder.append(this.formattedLinkStates.get(status));
+        builder.append("] ");
+        builder.append(status.isIncoming() ? "← " : "→ ");
+        builder.append(link.getOtherLinkEnd().getId());
+        builder.append(this.newline);
         if (showOrigin)
         {
             final Location location = link.getOtherLinkEnd().getLocation();
             if (location != null)
             {
-                report.print("         ");
-                renderOrigin(report, location);
-                report.print(this.settings.getNewline());
+                builder.append("         ");
+                appendOrigin(builder, location);
+                builder.append(this.newline);
             }
         }
     }
 
-    private static String padStatus(final LinkStatus status) {
-        return String.format("%-17s", status.toString().toLowerCase());
-    }
-
-    private void renderTags(final PrintStream report, final LinkedSpecificationItem item)
+    private int appendTags(final StringBuilder builder, final LinkedSpecificationItem item)
     {
         final List<String> tags = item.getTags();
         if (tags != null && !tags.equals(Collections.emptyList()))
         {
-            renderEmptyItemDetailsLine(report);
-            report.print("  #: ");
-            report.print(String.join(", ", tags));
-            report.print(this.settings.getNewline());
-            ++this.nonEmptySections;
+            builder.append(this.newline);
+            builder.append("  #: ");
+            for (int i = 0; i < tags.size(); ++i)
+            {
+                if (i > 0)
+                {
+                    builder.append(", ");
+                }
+                builder.append(tags.get(i));
+            }
+            builder.append(this.newline);
+            return 1;
         }
+        return 0;
     }
 
-    private void renderOrigin(final PrintStream report, final LinkedSpecificationItem item)
+    private void appendOrigin(final StringBuilder builder, final LinkedSpecificationItem item)
     {
         final Location location = item.getLocation();
         if (location != null)
         {
-            renderEmptyItemDetailsLine(report);
-            report.print("  (");
-            report.print(location.getPath());
-            report.print(":");
-            report.print(location.getLine());
-            report.print(")");
-            report.print(this.settings.getNewline());
+            builder.append(this.newline);
+            builder.append("  ");
+            appendOrigin(builder, location);
+            builder.append(this.newline);
         }
     }
 
-    private void renderItemDetailsEnd(final PrintStream report)
+    /**
+     * Formatted text of an item list with the positions where the line that
+     * ends the item details is left out.
+     */
+    private record FormattedChunk(String text, int sections, int[] openEnds)
+    {
+    }
+
+    /**
+     * Formatted artifact type with its sort key, which is the formatted text
+     * without the first coverage sign.
+     */
+    private record FormattedArtifactType(String key, String text)
     {
-        if (this.nonEmptySections > 0)
+        private static final Comparator<FormattedArtifactType> BY_TYPE_NAME = Comparator
+                .comparing(FormattedArtifactType::key);
+
+        private static FormattedArtifactType of(final String text)
         {
-            renderEmptyItemDetailsLine(report);
+            for (int i = 0; i < text.length(); ++i)
+            {
+                final char character = text.charAt(i);
+                if ((character == '-') || (character == '+'))
+                {
+                    return new FormattedArtifactType(
+                            text.substring(0, i) + text.substring(i + 1), text);
+                }
+            }
+            return new FormattedArtifactType(text, text);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,9 @@
 package org.itsallcode.openfasttrace.report.plaintext;
 
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.itsallcode.openfasttrace.api.core.ItemField;
 import org.itsallcode.openfasttrace.api.core.Trace;
 import org.itsallcode.openfasttrace.api.report.Reportable;
 import org.itsallcode.openfasttrace.api.report.ReporterFactory;
@@ -26,6 +30,21 @@ public class PlaintextReporterFactory extends ReporterFactory
         return PLAIN_REPORT_FORMAT.equalsIgnoreCase(format);
     }
 
+    // The plain text report only shows description and tags in the item
+    // details.
+    @Override
+    public Set<ItemField> getRequiredItemFields()
+    {
+        switch (getContext().getSettings().getReportVerbosity())
+        {
+        case FAILURE_DETAILS:
+        case ALL:
+            return EnumSet.of(ItemField.DESCRIPTION, ItemField.TAGS);
+        default:
+            return ItemField.none();
+        }
+    }
+
     @Override
     public Reportable createImporter(Trace trace)
     {
@@ -3,6 +3,7 @@ package org.itsallcode.openfasttrace.report.plaintext;
 import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.joining;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.itsallcode.openfasttrace.testutil.core.SampleArtifactTypes.*;
 import static org.itsallcode.openfasttrace.testutil.matcher.MultilineTextMatcher.matchesAllLines;
 import static org.mockito.Mockito.*;
@@ -98,6 +99,17 @@ class TestPlainTextReport
         return factory;
     }
 
+    @Test
+    void testRequiredItemFieldsDependOnVerbosity()
+    {
+        assertThat(createFactory(ReportSettings.builder().verbosity(ReportVerbosity.MINIMAL)
+                .build()).getRequiredItemFields(), equalTo(ItemField.none()));
+        assertThat(
+                createFactory(ReportSettings.builder().verbosity(ReportVerbosity.FAILURE_DETAILS)
+                        .build()).getRequiredItemFields(),
+                equalTo(EnumSet.of(ItemField.DESCRIPTION, ItemField.TAGS)));
+    }
+
     @Test
     void testReport_LevelMinimal_NotOk()
     {
@@ -182,6 +194,7 @@ class TestPlainTextReport
         lenient().when(itemDMock.getUncoveredArtifactTypes()).thenReturn(List.of(IMPL, UTEST));
         lenient().when(this.traceMock.getDefectItems())
                 .thenReturn(List.of(itemAMock, itemBMock, itemCMock, itemDMock));
+        lenient().when(this.traceMock.getDefectItemsSortedById()).thenCallRealMethod();
         lenient().when(itemAMock.getLocation()).thenReturn(Location.create("/tmp/foo.md", 1));
         lenient().when(itemBMock.getLocation()).thenReturn(Location.create("/tmp/bar.md", 2));
         lenient().when(itemCMock.getLocation()).thenReturn(Location.create("/tmp/zoo.xml", 13));
@@ -258,7 +271,9 @@ class TestPlainTextReport
         lenient().when(itemBMock.getUncoveredArtifactTypes()).thenReturn(List.of(UTEST));
         prepareLinks(itemBMock);
         lenient().when(this.traceMock.getItems()).thenReturn(List.of(itemAMock, itemBMock));
+        lenient().when(this.traceMock.getItemsSortedById()).thenCallRealMethod();
         lenient().when(this.traceMock.getDefectItems()).thenReturn(List.of(itemBMock));
+        lenient().when(this.traceMock.getDefectItemsSortedById()).thenCallRealMethod();
     }
 
     private void prepareLinks(final LinkedSpecificationItem itemMock)
@@ -333,6 +348,7 @@ class TestPlainTextReport
         when(itemBMock.getCoveredArtifactTypes()).thenReturn(new HashSet<>(List.of(IMPL)));
         when(this.traceMock.hasNoDefects()).thenReturn(true);
         when(this.traceMock.getItems()).thenReturn(List.of(itemAMock, itemBMock));
+        when(this.traceMock.getItemsSortedById()).thenCallRealMethod();
 
         assertThat(getReportOutputWithNewline(ReportVerbosity.ALL, separator, false), //
                 matchesAllLines("ok [ in:  0 /  0   | out:  0 /  0   ] a~a~1 (dsn)" + separator//
@@ -350,6 +366,43 @@ class TestPlainTextReport
 
     }
 
+    @Test
+    void testReportLevelAllWithItemsInMultipleChunks()
+    {
+        final int itemCount = 150;
+        final int firstItemWithDescription = 100;
+        final List<LinkedSpecificationItem> items = new ArrayList<>();
+        final List<String> expectedLines = new ArrayList<>();
+        for (int i = 0; i < itemCount; ++i)
+        {
+            final String id = String.format("req~item-%03d~1", i);
+            final boolean hasDescription = (i == firstItemWithDescription);
+            items.add(createLinkedItemMock(id, hasDescription ? "Description" : null, 0, 0, 0,
+                    0, 0));
+            expectedLines.add("ok [ in:  0 /  0   | out:  0 /  0   ] " + id + " ()");
+            if (hasDescription)
+            {
+                expectedLines.add("");
+                expectedLines.add("  Description");
+            }
+            // Once an item had a non-empty section, all following items end
+            // with an empty line.
+            if (i >= firstItemWithDescription)
+            {
+                expectedLines.add("");
+            }
+        }
+        expectedLines.add("");
+        expectedLines.add("ok - 150 total");
+        Collections.reverse(items);
+        when(this.traceMock.count()).thenReturn(itemCount);
+        when(this.traceMock.countDefects()).thenReturn(0);
+        when(this.traceMock.hasNoDefects()).thenReturn(true);
+        when(this.traceMock.getItems()).thenReturn(items);
+        when(this.traceMock.getItemsSortedById()).thenCallRealMethod();
+        assertReportOutput(ReportVerbosity.ALL, expectedLines.toArray(new String[0]));
+    }
+
     // [utest->dsn~reporting.plain-text.specification-item-origin~1]
     // [utest->dsn~reporting.plain-text.linked-specification-item-origin~1]
     @Test
@@ -370,6 +423,7 @@ class TestPlainTextReport
         when(this.traceMock.countDefects()).thenReturn(0);
         when(this.traceMock.hasNoDefects()).thenReturn(true);
         when(this.traceMock.getItems()).thenReturn(List.of(itemMock));
+        when(this.traceMock.getItemsSortedById()).thenCallRealMethod();
         assertReportOutputWithOrigin(ReportVerbosity.ALL, //
                 "ok [ in:  1 /  1 ✔ | out:  0 /  0   ] req~item.with-source~77 (dsn)", //
                 "", //